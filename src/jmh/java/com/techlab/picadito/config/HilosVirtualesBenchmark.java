@@ -0,0 +1,127 @@
+package com.techlab.picadito.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga: throughput y latencia (p99 en la salida de SampleTime) de los requests con el
+ * mismo pool de 10 conexiones de Hikari sobre H2 en memoria.
+ *
+ * En el grupo "carga" 400 clientes envían requests que usan la base (la conexión se retiene 2 ms,
+ * como la ida y vuelta a MySQL) y 50 envían lecturas del catálogo en memoria.
+ *
+ * - plataforma: pool fijo de 200 hilos como Tomcat; los requests a la base ocupan hilos esperando
+ *   una conexión y las lecturas esperan en la cola del pool
+ * - virtual: un hilo virtual por request; todos los requests a la base compiten dentro de Hikari
+ * - virtual-limitado: hilos virtuales con LimiteConexionesDataSource delante de Hikari (como con
+ *   spring.threads.virtual.enabled); los requests a la base esperan en una cola FIFO
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.args=HilosVirtualesBenchmark
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class HilosVirtualesBenchmark {
+
+    private static final int CONEXIONES = 10;
+    private static final int HILOS_TOMCAT = 200;
+
+    @Param({"plataforma", "virtual", "virtual-limitado"})
+    public String modo;
+
+    private HikariDataSource hikari;
+    private DataSource dataSource;
+    private ExecutorService hilosRequest;
+    private NavigableMap<Long, String> catalogo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:hilos-virtuales;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(CONEXIONES);
+        config.setConnectionTimeout(30_000);
+        hikari = new HikariDataSource(config);
+        dataSource = "virtual-limitado".equals(modo)
+                ? new LimiteConexionesDataSource(hikari, CONEXIONES, Duration.ofMillis(config.getConnectionTimeout()))
+                : hikari;
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS partidos (id BIGINT PRIMARY KEY, titulo VARCHAR(100), cupo INT)");
+            statement.execute("DELETE FROM partidos");
+            for (int i = 0; i < 1_000; i++) {
+                statement.execute("INSERT INTO partidos VALUES (" + i + ", 'Partido " + i + "', 10)");
+            }
+        }
+
+        hilosRequest = "plataforma".equals(modo)
+                ? Executors.newFixedThreadPool(HILOS_TOMCAT)
+                : Executors.newVirtualThreadPerTaskExecutor();
+
+        catalogo = new TreeMap<>();
+        for (long i = 0; i < 10_000; i++) {
+            catalogo.put(i, "Partido " + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hilosRequest.shutdownNow();
+        hikari.close();
+    }
+
+    @Benchmark
+    @Group("carga")
+    @GroupThreads(400)
+    public Object consulta() throws Exception {
+        return hilosRequest.submit(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement ps = connection.prepareStatement("SELECT titulo, cupo FROM partidos WHERE id = ?")) {
+                ps.setLong(1, ThreadLocalRandom.current().nextLong(1_000));
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+                // Latencia de red hasta la base
+                Thread.sleep(2);
+            }
+            return true;
+        }).get();
+    }
+
+    @Benchmark
+    @Group("carga")
+    @GroupThreads(50)
+    public Object lectura() throws Exception {
+        return hilosRequest.submit(() -> catalogo.subMap(100L, 120L).size()).get();
+    }
+}
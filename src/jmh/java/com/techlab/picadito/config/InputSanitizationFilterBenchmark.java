@@ -0,0 +1,114 @@
+package com.techlab.picadito.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Costo de InputSanitizationFilter por request con conjuntos de parámetros habituales.
+ *
+ * - antes: las dos regex con alternativas, la cadena de replace y htmlEscape sobre cada valor
+ * - actual: el filtro con SanitizadorEntrada (una pasada por valor, solo valida)
+ *
+ * Parámetros:
+ * - listado: paginación y orden del listado de partidos
+ * - busqueda: búsqueda por texto, categoría, fechas y coordenadas
+ * - acentos: nombres con tildes y un apóstrofo
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.args=InputSanitizationFilterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputSanitizationFilterBenchmark {
+
+    private static final Pattern SQL_INJECTION_PATTERN = Pattern.compile(
+        "(?i)(union|select|insert|update|delete|drop|create|alter|exec|execute|script|javascript|onerror|onload|xp_|sp_)"
+    );
+    private static final Pattern XSS_PATTERN = Pattern.compile(
+        "(?i)(<script|</script>|javascript:|onerror=|onload=|onclick=|onmouseover=|onfocus=|onblur=|eval\\(|expression\\()"
+    );
+
+    private static final Map<String, Map<String, String>> CONJUNTOS = Map.of(
+        "listado", Map.of("page", "0", "size", "20", "sort", "fechaHora,desc"),
+        "busqueda", Map.of("q", "futbol 5 palermo", "categoriaId", "3", "desde", "2025-03-01T18:00:00",
+            "hasta", "2025-03-08T23:00:00", "lat", "-34.5889", "lng", "-58.4305", "radioKm", "5"),
+        "acentos", Map.of("nombre", "Club Atlético Núñez", "direccion", "Av. O'Higgins 2100", "ciudad", "Ciudad Autónoma")
+    );
+
+    @Param({"listado", "busqueda", "acentos"})
+    public String conjunto;
+
+    private InputSanitizationFilter filtro;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filtro = new InputSanitizationFilter();
+        request = new MockHttpServletRequest("GET", "/api/partidos");
+        CONJUNTOS.get(conjunto).forEach(request::addParameter);
+    }
+
+    @Benchmark
+    public Object antes() {
+        // Sin modificar el request para que cada iteración vea los mismos valores
+        Object ultimo = null;
+        for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
+            for (String valor : entry.getValue()) {
+                if (contienePatronAntes(valor)) {
+                    return Boolean.FALSE;
+                }
+                ultimo = sanitizarAntes(valor);
+            }
+        }
+        return ultimo;
+    }
+
+    @Benchmark
+    public Object actual() throws Exception {
+        // OncePerRequestFilter marca la request como filtrada: cada invocación usa una copia limpia
+        request.clearAttributes();
+        MockFilterChain chain = new MockFilterChain();
+        filtro.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain.getRequest();
+    }
+
+    private static boolean contienePatronAntes(String input) {
+        if (input == null || input.trim().isEmpty()) {
+            return false;
+        }
+        return SQL_INJECTION_PATTERN.matcher(input).find() || XSS_PATTERN.matcher(input).find();
+    }
+
+    private static String sanitizarAntes(String input) {
+        String sanitized = input.trim()
+            .replace("'", "")
+            .replace(";", "")
+            .replace("--", "")
+            .replace("/*", "")
+            .replace("*/", "")
+            .replace("xp_", "")
+            .replace("sp_", "");
+        return HtmlUtils.htmlEscape(sanitized);
+    }
+}
@@ -0,0 +1,115 @@
+package com.techlab.picadito.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabajo por request de los filtros para clasificar la ruta y resolver la IP del cliente.
+ *
+ * - antes: cada filtro (y AuthController en login) parsea X-Forwarded-For con split, el rate
+ *   limiting recorre la cascada de startsWith y SecurityHeadersFilter arma el CSP
+ * - actual: RequestProfile se calcula una vez (trie de prefijos, indexOf) y los demás lo leen;
+ *   el CSP ya está armado
+ *
+ * Parámetros: ruta del request (login, catálogo público, ruta autenticada que recorre toda la cascada)
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.args=RequestProfileBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestProfileBenchmark {
+
+    @Param({"/api/auth/login", "/api/partidos/42", "/api/alertas/7"})
+    public String path;
+
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", path);
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.2");
+        request.setRemoteAddr("10.0.0.2");
+    }
+
+    @Benchmark
+    public void antes(Blackhole bh) {
+        // RateLimitingFilter
+        String ip = ipAntes(request);
+        bh.consume(claseAntes(request.getRequestURI(), request.getMethod()));
+        bh.consume(ip);
+        // SecurityHeadersFilter
+        bh.consume(cspAntes());
+        // AuthController
+        if (request.getRequestURI().startsWith("/api/auth/login")) {
+            bh.consume(ipAntes(request));
+        }
+    }
+
+    @Benchmark
+    public void actual(Blackhole bh) {
+        RequestProfile perfil = RequestProfile.crear(request, "correlation");
+        bh.consume(perfil.clase());
+        bh.consume(perfil.ipCliente());
+        if (perfil.clase() == RequestProfile.ClaseRuta.LOGIN) {
+            bh.consume(perfil.ipCliente());
+        }
+    }
+
+    private static String ipAntes(MockHttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String claseAntes(String path, String method) {
+        if ("OPTIONS".equals(method)) {
+            return "PREFLIGHT";
+        }
+        if (path.startsWith("/api/auth/login")) {
+            return "LOGIN";
+        } else if (path.startsWith("/api/auth/register")) {
+            return "REGISTRO";
+        } else if (path.startsWith("/api/admin")) {
+            return "ADMIN";
+        } else if (!path.startsWith("/api/auth") && !path.startsWith("/actuator")
+                && !path.startsWith("/swagger-ui") && !path.startsWith("/v3/api-docs")) {
+            if (path.startsWith("/api/partidos") || path.startsWith("/api/categorias") || path.startsWith("/api/sedes")) {
+                return "CATALOGO";
+            }
+            return "OTRA";
+        }
+        return "INFRAESTRUCTURA";
+    }
+
+    private static String cspAntes() {
+        StringBuilder csp = new StringBuilder();
+        csp.append("default-src 'self'; ");
+        csp.append("script-src 'self' 'unsafe-inline' 'unsafe-eval'; ");
+        csp.append("style-src 'self' 'unsafe-inline'; ");
+        csp.append("img-src 'self' data: https:; ");
+        csp.append("font-src 'self' data:; ");
+        csp.append("connect-src 'self'");
+        csp.append("; ");
+        return csp.toString().trim();
+    }
+}
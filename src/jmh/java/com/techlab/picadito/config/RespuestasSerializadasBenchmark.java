@@ -0,0 +1,142 @@
+package com.techlab.picadito.config;
+
+import com.techlab.picadito.PicaditoApplication;
+import com.techlab.picadito.categoria.CategoriaRepository;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.sede.SedeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Requests por segundo de los listados públicos con y sin las respuestas ya serializadas, por el
+ * camino real: la aplicación completa (perfil dev, H2 en memoria) y MockMvc sobre su
+ * DispatcherServlet, con los controllers, servicios, JPA y el conversor JSON de la aplicación.
+ * No pasa por los filtros de servlet (seguridad, rate limit), que cuestan lo mismo en los dos modos.
+ *
+ * - sin-cache: app.cache.respuestas.enabled=false; consultas, DTOs y Jackson en cada request
+ * - con-cache: los bytes guardados se escriben en la respuesta junto con el ETag
+ *
+ * Parámetros: endpoint (partidos disponibles con 20 por página sobre 200 partidos con 8
+ * participantes y 2 categorías, 20 sedes, 12 categorías) y modo
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.args=RespuestasSerializadasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RespuestasSerializadasBenchmark {
+
+    @Param({"/api/partidos/disponibles", "/api/sedes", "/api/categorias"})
+    public String endpoint;
+
+    @Param({"sin-cache", "con-cache"})
+    public String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Como argumentos de línea de comandos para que pisen a application.properties
+        contexto = new SpringApplicationBuilder(PicaditoApplication.class).run(
+                "--spring.profiles.active=dev",
+                // Sin puerto: el contexto web se crea pero Tomcat no escucha
+                "--server.port=-1",
+                "--spring.datasource.url=jdbc:h2:mem:respuestas-serializadas;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--app.cache.respuestas.enabled=" + "con-cache".equals(modo));
+        cargarDatos();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] request() throws Exception {
+        return mockMvc.perform(get(endpoint))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private void cargarDatos() {
+        SedeRepository sedeRepository = contexto.getBean(SedeRepository.class);
+        CategoriaRepository categoriaRepository = contexto.getBean(CategoriaRepository.class);
+        PartidoRepository partidoRepository = contexto.getBean(PartidoRepository.class);
+        new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class)).executeWithoutResult(estado -> {
+            List<Sede> sedes = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Sede sede = new Sede();
+                sede.setNombre("Sede " + i);
+                sede.setDireccion("Calle " + i);
+                sedes.add(sede);
+            }
+            sedeRepository.saveAll(sedes);
+            // El perfil dev ya crea algunas categorías
+            List<Categoria> categorias = new ArrayList<>(categoriaRepository.findAll());
+            for (int i = categorias.size(); i < 12; i++) {
+                Categoria categoria = new Categoria();
+                categoria.setNombre("Categoría " + i);
+                categorias.add(categoriaRepository.save(categoria));
+            }
+            List<Partido> partidos = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Partido partido = new Partido();
+                partido.setTitulo("Partido " + i);
+                partido.setDescripcion("Descripción del partido " + i);
+                partido.setFechaHora(LocalDateTime.now().plusHours(i + 1));
+                partido.setCreadorNombre("Creador " + (i % 10));
+                partido.setMaxJugadores(10);
+                partido.setEstado(EstadoPartido.DISPONIBLE);
+                partido.setSede(sedes.get(i % sedes.size()));
+                partido.setCategorias(new HashSet<>(Set.of(categorias.get(i % 12), categorias.get((i + 1) % 12))));
+                for (int j = 0; j < 8; j++) {
+                    Participante participante = new Participante();
+                    participante.setNombre("Jugador " + j);
+                    participante.setPartido(partido);
+                    partido.getParticipantes().add(participante);
+                }
+                partido.setCantidadParticipantes(8);
+                partidos.add(partido);
+            }
+            partidoRepository.saveAll(partidos);
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.techlab.picadito.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de JwtAuthenticationFilter por request con un mismo bearer token.
+ *
+ * - antes: verificación anterior, con la clave reconstruida y el token parseado dos veces
+ *   (extractUsername y luego isTokenExpired dentro de validateToken)
+ * - sinCache: el filtro actual con la cache de tokens deshabilitada (un solo parseo)
+ * - conCache: el filtro actual; a partir de la segunda request no hay parseo ni verificación de firma
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.args=JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "ClaveDeBenchmarkParaJwtAuthenticationFilter2024";
+    private static final String ISSUER = "picadito-backend";
+    private static final String AUDIENCE = "picadito-frontend";
+
+    private UserDetails usuario;
+    private UserDetailsService userDetailsService;
+    private TokenBlacklistService tokenBlacklistService;
+    // Blacklist anterior: tokens completos en un Set
+    private Set<String> tokensRevocadosAntes;
+    private JwtAuthenticationFilter filtroSinCache;
+    private JwtAuthenticationFilter filtroConCache;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        usuario = User.withUsername("ana@picadito.test").password("x").authorities(List.of()).build();
+        userDetailsService = username -> usuario;
+        tokenBlacklistService = new TokenBlacklistService(Duration.ofDays(7), Duration.ofMinutes(10), 100_000, Clock.systemUTC());
+        tokensRevocadosAntes = ConcurrentHashMap.newKeySet();
+
+        JwtService sinCache = crearJwtService(0);
+        JwtService conCache = crearJwtService(10_000);
+        filtroSinCache = new JwtAuthenticationFilter(sinCache, userDetailsService);
+        filtroConCache = new JwtAuthenticationFilter(conCache, userDetailsService);
+
+        token = conCache.generateToken(usuario);
+        request = new MockHttpServletRequest("GET", "/api/partidos");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Object antes() {
+        SecurityContextHolder.clearContext();
+        String username = parsearComoAntes(token).getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        boolean valido = !tokensRevocadosAntes.contains(token)
+                && parsearComoAntes(token).getSubject().equals(userDetails.getUsername())
+                && !parsearComoAntes(token).getExpiration().before(new Date());
+        return valido ? userDetails : null;
+    }
+
+    @Benchmark
+    public Object sinCache() throws Exception {
+        return filtrar(filtroSinCache);
+    }
+
+    @Benchmark
+    public Object conCache() throws Exception {
+        return filtrar(filtroConCache);
+    }
+
+    private Object filtrar(JwtAuthenticationFilter filtro) throws Exception {
+        SecurityContextHolder.clearContext();
+        // OncePerRequestFilter marca la request como filtrada: cada invocación usa una copia limpia
+        request.clearAttributes();
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static Claims parsearComoAntes(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(ISSUER)
+                .requireAudience(AUDIENCE)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private JwtService crearJwtService(long cacheMaxSize) {
+        JwtService service = new JwtService(tokenBlacklistService, cacheMaxSize);
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(service, "issuer", ISSUER);
+        ReflectionTestUtils.setField(service, "audience", AUDIENCE);
+        return service;
+    }
+}
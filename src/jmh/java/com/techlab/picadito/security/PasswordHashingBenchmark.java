@@ -0,0 +1,102 @@
+package com.techlab.picadito.security;
+
+import com.techlab.picadito.exception.ServicioSaturadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una lectura mientras un ataque de logins satura el pool de requests.
+ *
+ * Un pool fijo de 4 hilos por núcleo hace de hilos de Tomcat. En el grupo "ataque" 32 clientes envían logins sin pausa
+ * y uno envía lecturas del catálogo; se reporta la latencia de cada método del grupo.
+ *
+ * - directo: BCrypt en el hilo del request (como antes); los logins ocupan todos los hilos y las
+ *   lecturas esperan en la cola del pool
+ * - acotado: BoundedPasswordEncoder; a lo sumo hilos + cola requests esperan un hash, el resto se
+ *   rechaza enseguida (503) y las lecturas siguen encontrando hilos libres
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.args=PasswordHashingBenchmark
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"directo", "acotado"})
+    public String encoder;
+
+    private ExecutorService hilosRequest;
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+    private NavigableMap<Long, String> catalogo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        // Más hilos de request que núcleos, como Tomcat (200 por defecto)
+        hilosRequest = Executors.newFixedThreadPool(4 * nucleos);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        hash = bcrypt.encode("Secreto123!");
+        passwordEncoder = "acotado".equals(encoder)
+                ? new BoundedPasswordEncoder(bcrypt, nucleos, nucleos, Duration.ofSeconds(5), new SimpleMeterRegistry())
+                : bcrypt;
+        catalogo = new TreeMap<>();
+        for (long i = 0; i < 10_000; i++) {
+            catalogo.put(i, "Partido " + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hilosRequest.shutdownNow();
+        if (passwordEncoder instanceof BoundedPasswordEncoder acotado) {
+            acotado.destroy();
+        }
+    }
+
+    @Benchmark
+    @Group("ataque")
+    @GroupThreads(32)
+    public Object login() throws Exception {
+        return hilosRequest.submit(() -> {
+            try {
+                return passwordEncoder.matches("incorrecta", hash);
+            } catch (ServicioSaturadoException e) {
+                return false;
+            }
+        }).get();
+    }
+
+    @Benchmark
+    @Group("ataque")
+    @GroupThreads(1)
+    public Object lectura() throws Exception {
+        return hilosRequest.submit(() -> catalogo.subMap(100L, 120L).size()).get();
+    }
+}
@@ -1,16 +1,25 @@
 package com.techlab.picadito.admin;
 
+import com.techlab.picadito.calificacion.CalificacionService;
 import com.techlab.picadito.dto.EstadisticasDTO;
 import com.techlab.picadito.dto.PartidosResponseDTO;
 import com.techlab.picadito.dto.ReporteDTO;
 import com.techlab.picadito.service.EstadisticasService;
 import com.techlab.picadito.service.ReporteService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -21,6 +30,8 @@ public class AdminController {
     private final AdminService adminService;
     private final EstadisticasService estadisticasService;
     private final ReporteService reporteService;
+    private final ExportacionService exportacionService;
+    private final CalificacionService calificacionService;
     
     /**
      * Obtiene partidos con capacidad disponible baja (equivalente a stock bajo)
@@ -44,6 +55,33 @@ public class AdminController {
         return ResponseEntity.ok(estadisticas);
     }
 
+    /**
+     * Reconstruye las estadísticas agregadas desde la base e informa si coincidían con las mantenidas incrementalmente
+     */
+    @PostMapping("/estadisticas/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirEstadisticas() {
+        List<String> diferencias = estadisticasService.reconstruirAgregados();
+        return ResponseEntity.ok(Map.of("consistente", diferencias.isEmpty(), "diferencias", diferencias));
+    }
+
+    /**
+     * Compara las sumas de calificaciones por partido, sede y creador con las recalculadas desde la base, sin corregirlas
+     */
+    @GetMapping("/calificaciones/verificar")
+    public ResponseEntity<Map<String, Object>> verificarCalificaciones() {
+        List<String> diferencias = calificacionService.verificarAgregados();
+        return ResponseEntity.ok(Map.of("consistente", diferencias.isEmpty(), "diferencias", diferencias));
+    }
+
+    /**
+     * Reconstruye las sumas de calificaciones por partido, sede y creador e informa las que se habían desviado
+     */
+    @PostMapping("/calificaciones/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirCalificaciones() {
+        List<String> diferencias = calificacionService.reconstruirAgregados();
+        return ResponseEntity.ok(Map.of("consistente", diferencias.isEmpty(), "diferencias", diferencias));
+    }
+
     /**
      * Obtiene estadísticas para un período específico
      */
@@ -87,6 +125,30 @@ public class AdminController {
         ReporteDTO reporte = reporteService.generarReporteUsuarios(fechaInicio, fechaFin);
         return ResponseEntity.ok(reporte);
     }
+
+    /**
+     * Exporta reservas, partidos o usuarios de un período en CSV o NDJSON.
+     * Las filas se escriben en la respuesta a medida que se leen, sin armar el resultado en memoria.
+     */
+    @GetMapping("/exportar/{tipo}")
+    public void exportar(
+            @PathVariable String tipo,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(defaultValue = "csv") String formato,
+            HttpServletResponse response) throws IOException {
+        // Se valida antes de escribir: un error después del primer byte ya no puede cambiar el status
+        ExportacionService.TipoExportacion tipoExportacion = ExportacionService.TipoExportacion.desde(tipo);
+        ExportacionService.FormatoExportacion formatoExportacion = ExportacionService.FormatoExportacion.desde(formato);
+        exportacionService.validarPeriodo(fechaInicio, fechaFin);
+
+        response.setContentType(formatoExportacion.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(tipoExportacion.name().toLowerCase(Locale.ROOT) + "." + formatoExportacion.getExtension())
+                .build().toString());
+        exportacionService.exportar(tipoExportacion, formatoExportacion, fechaInicio, fechaFin, response.getOutputStream());
+    }
     
     /**
      * Cambia la contraseña de un usuario (solo admin)
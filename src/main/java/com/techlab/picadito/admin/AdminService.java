@@ -6,25 +6,23 @@ import com.techlab.picadito.exception.ResourceNotFoundException;
 import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Partido;
 import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoPageAssembler;
 import com.techlab.picadito.partido.PartidoRepository;
-import com.techlab.picadito.partido.PartidoService;
 import com.techlab.picadito.usuario.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
     
     private final PartidoRepository partidoRepository;
-    private final PartidoService partidoService;
+    private final PartidoPageAssembler partidoPageAssembler;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     
@@ -37,22 +35,11 @@ public class AdminService {
     public PartidosResponseDTO obtenerPartidosConCapacidadBaja(Integer capacidadMinima) {
         final int capacidadMinimaFinal = (capacidadMinima == null) ? 5 : capacidadMinima;
         
-        List<Partido> partidosDisponibles = partidoRepository.findByEstado(EstadoPartido.DISPONIBLE);
-        
-        // Filtrar partidos con capacidad disponible <= capacidadMinima
-        // y ordenar por capacidad disponible ascendente (más críticos primero)
-        List<PartidoResponseDTO> partidos = partidosDisponibles.stream()
-                .filter(partido -> {
-                    int capacidadDisponible = partido.getMaxJugadores() - partido.getCantidadParticipantes();
-                    return capacidadDisponible <= capacidadMinimaFinal;
-                })
-                .sorted(Comparator.comparingInt(partido -> 
-                    partido.getMaxJugadores() - partido.getCantidadParticipantes()))
-                .map(partido -> {
-                    Long partidoId = Objects.requireNonNull(partido.getId(), "El ID del partido no puede ser null");
-                    return partidoService.obtenerPartidoPorId(partidoId);
-                })
-                .collect(Collectors.toList());
+        // El filtro y el orden por capacidad disponible se resuelven en la base de datos;
+        // los DTOs se arman en lote para no consultar promedios y equipos partido por partido
+        List<Partido> partidosCriticos = partidoRepository.findByEstadoConCapacidadDisponibleHasta(
+                EstadoPartido.DISPONIBLE, capacidadMinimaFinal);
+        List<PartidoResponseDTO> partidos = partidoPageAssembler.ensamblar(partidosCriticos);
         return new PartidosResponseDTO(partidos);
     }
     
@@ -0,0 +1,295 @@
+package com.techlab.picadito.admin;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.techlab.picadito.exception.ValidationException;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.reserva.ReservaExportacion;
+import com.techlab.picadito.reserva.ReservaRepository;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Exporta reservas, partidos o usuarios de un período en CSV o NDJSON, escribiendo cada fila
+ * directamente en la salida a medida que se lee de la base.
+ *
+ * Las filas se leen con un cursor de la base (fetch size fijo) y las entidades se separan del
+ * contexto de persistencia después de escribirlas, por lo que la memoria usada no depende de la
+ * cantidad de filas del período.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacionService.class);
+
+    // Cada cuántas filas se envía lo escrito al cliente
+    private static final int FILAS_POR_ENVIO = 500;
+
+    private static final List<String> COLUMNAS_RESERVAS = List.of(
+            "id", "usuarioId", "usuarioEmail", "estado", "fechaCreacion", "unidades", "total");
+    private static final List<String> COLUMNAS_PARTIDOS = List.of(
+            "id", "titulo", "estado", "fechaHora", "sedeId", "maxJugadores", "cantidadParticipantes",
+            "precio", "creadorNombre", "fechaCreacion");
+    private static final List<String> COLUMNAS_USUARIOS = List.of(
+            "id", "nombre", "email", "rol", "activo", "fechaCreacion");
+
+    private final ReservaRepository reservaRepository;
+    private final PartidoRepository partidoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final EntityManager entityManager;
+
+    public enum TipoExportacion {
+        RESERVAS, PARTIDOS, USUARIOS;
+
+        public static TipoExportacion desde(String valor) {
+            try {
+                return valueOf(valor.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Tipo de exportación inválido: " + valor + ". Valores permitidos: reservas, partidos, usuarios");
+            }
+        }
+    }
+
+    public enum FormatoExportacion {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        FormatoExportacion(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static FormatoExportacion desde(String valor) {
+            try {
+                return valueOf(valor.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Formato de exportación inválido: " + valor + ". Valores permitidos: csv, ndjson");
+            }
+        }
+    }
+
+    public void validarPeriodo(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new ValidationException("Las fechas de inicio y fin son requeridas");
+        }
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new ValidationException("La fecha de inicio debe ser anterior a la fecha de fin");
+        }
+    }
+
+    /**
+     * Escribe las filas del período en la salida
+     *
+     * @return Cantidad de filas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportar(TipoExportacion tipo, FormatoExportacion formato, LocalDateTime fechaInicio,
+                         LocalDateTime fechaFin, OutputStream salida) throws IOException {
+        validarPeriodo(fechaInicio, fechaFin);
+        logger.info("Exportando {} en {} para el período {} - {}", tipo, formato, fechaInicio, fechaFin);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        EscritorFilas escritor = formato == FormatoExportacion.CSV ? new EscritorCsv(writer) : new EscritorNdjson(writer);
+        long filas = switch (tipo) {
+            case RESERVAS -> exportarReservas(escritor, fechaInicio, fechaFin);
+            case PARTIDOS -> exportarPartidos(escritor, fechaInicio, fechaFin);
+            case USUARIOS -> exportarUsuarios(escritor, fechaInicio, fechaFin);
+        };
+        escritor.terminar();
+
+        logger.info("Exportación de {} completada: {} filas", tipo, filas);
+        return filas;
+    }
+
+    private long exportarReservas(EscritorFilas escritor, LocalDateTime fechaInicio, LocalDateTime fechaFin) throws IOException {
+        escritor.comenzar(COLUMNAS_RESERVAS);
+        try (Stream<ReservaExportacion> reservas = reservaRepository.streamParaExportacion(fechaInicio, fechaFin)) {
+            long filas = 0;
+            for (Iterator<ReservaExportacion> it = reservas.iterator(); it.hasNext(); ) {
+                // Proyección sin entidades: no hay nada que separar del contexto de persistencia
+                ReservaExportacion r = it.next();
+                escritor.escribir(r.id(), r.usuarioId(), r.usuarioEmail(), r.estado(), r.fechaCreacion(),
+                        r.unidades(), r.total());
+                filas = enviarSiCorresponde(escritor, filas + 1);
+            }
+            return filas;
+        }
+    }
+
+    private long exportarPartidos(EscritorFilas escritor, LocalDateTime fechaInicio, LocalDateTime fechaFin) throws IOException {
+        escritor.comenzar(COLUMNAS_PARTIDOS);
+        try (Stream<Partido> partidos = partidoRepository.streamParaExportacion(fechaInicio, fechaFin)) {
+            long filas = 0;
+            for (Iterator<Partido> it = partidos.iterator(); it.hasNext(); ) {
+                Partido p = it.next();
+                // getSede().getId() no inicializa el proxy de la sede
+                escritor.escribir(p.getId(), p.getTitulo(), p.getEstado(), p.getFechaHora(),
+                        p.getSede() != null ? p.getSede().getId() : null, p.getMaxJugadores(),
+                        p.getCantidadParticipantes(), p.getPrecio(), p.getCreadorNombre(), p.getFechaCreacion());
+                entityManager.detach(p);
+                filas = enviarSiCorresponde(escritor, filas + 1);
+            }
+            return filas;
+        }
+    }
+
+    private long exportarUsuarios(EscritorFilas escritor, LocalDateTime fechaInicio, LocalDateTime fechaFin) throws IOException {
+        escritor.comenzar(COLUMNAS_USUARIOS);
+        try (Stream<Usuario> usuarios = usuarioRepository.streamParaExportacion(fechaInicio, fechaFin)) {
+            long filas = 0;
+            for (Iterator<Usuario> it = usuarios.iterator(); it.hasNext(); ) {
+                Usuario u = it.next();
+                escritor.escribir(u.getId(), u.getNombre(), u.getEmail(), u.getRol(), u.getActivo(), u.getFechaCreacion());
+                entityManager.detach(u);
+                filas = enviarSiCorresponde(escritor, filas + 1);
+            }
+            return filas;
+        }
+    }
+
+    private long enviarSiCorresponde(EscritorFilas escritor, long filas) throws IOException {
+        if (filas % FILAS_POR_ENVIO == 0) {
+            escritor.enviar();
+        }
+        return filas;
+    }
+
+    /**
+     * Formato de salida: encabezado opcional y una línea por fila
+     */
+    private abstract static class EscritorFilas {
+        protected final Writer writer;
+        protected List<String> columnas;
+
+        EscritorFilas(Writer writer) {
+            this.writer = writer;
+        }
+
+        void comenzar(List<String> columnas) throws IOException {
+            this.columnas = columnas;
+        }
+
+        abstract void escribir(Object... valores) throws IOException;
+
+        void enviar() throws IOException {
+            writer.flush();
+        }
+
+        void terminar() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class EscritorCsv extends EscritorFilas {
+
+        EscritorCsv(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void comenzar(List<String> columnas) throws IOException {
+            super.comenzar(columnas);
+            writer.write(String.join(",", columnas));
+            writer.write("\r\n");
+        }
+
+        @Override
+        void escribir(Object... valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (valores[i] != null) {
+                    writer.write(escapar(valores[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * Entrecomilla los valores con separadores, comillas o saltos de línea (RFC 4180)
+         */
+        private static String escapar(String valor) {
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return valor;
+            }
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class EscritorNdjson extends EscritorFilas {
+
+        private final JsonGenerator generator;
+
+        EscritorNdjson(Writer writer) throws IOException {
+            super(writer);
+            this.generator = new JsonFactory().createGenerator(writer);
+            this.generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        }
+
+        @Override
+        void escribir(Object... valores) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < valores.length; i++) {
+                generator.writeFieldName(columnas.get(i));
+                Object valor = valores[i];
+                if (valor == null) {
+                    generator.writeNull();
+                } else if (valor instanceof Long numero) {
+                    generator.writeNumber(numero);
+                } else if (valor instanceof Integer numero) {
+                    generator.writeNumber(numero);
+                } else if (valor instanceof Double numero) {
+                    generator.writeNumber(numero);
+                } else if (valor instanceof Boolean booleano) {
+                    generator.writeBoolean(booleano);
+                } else {
+                    generator.writeString(valor.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void enviar() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        void terminar() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -8,7 +8,9 @@ import com.techlab.picadito.model.Alerta;
 import com.techlab.picadito.model.Partido;
 import com.techlab.picadito.model.TipoAlerta;
 import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoRepository;
 import com.techlab.picadito.partido.PartidoService;
+import com.techlab.picadito.usuario.UsuarioRepository;
 import com.techlab.picadito.usuario.UsuarioService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +20,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -39,6 +42,12 @@ public class AlertaService {
     @Lazy
     private PartidoService partidoService;
 
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
     public AlertasResponseDTO obtenerPorUsuario(@NonNull Long usuarioId) {
         logger.debug("Obteniendo alertas del usuario {}", usuarioId);
         List<AlertaResponseDTO> alertas = alertaRepository.findByUsuarioIdOrderByFechaCreacionDesc(usuarioId).stream()
@@ -80,34 +89,40 @@ public class AlertaService {
     }
 
     public void crearAlertaCuposBajos(Partido partido) {
-        int cuposDisponibles = partido.getMaxJugadores() - partido.getCantidadParticipantes();
+        int cuposDisponibles = partido.getCuposDisponibles();
         if (cuposDisponibles <= UMBRAL_CUPOS_BAJOS && cuposDisponibles > 0) {
-            AlertaDTO alertaDTO = new AlertaDTO();
-            alertaDTO.setTipo(TipoAlerta.CUPOS_BAJOS);
-            alertaDTO.setMensaje(String.format("El partido '%s' tiene solo %d cupos disponibles", 
-                    partido.getTitulo(), cuposDisponibles));
             Long partidoId = Objects.requireNonNull(partido.getId(), "El partido debe tener un ID");
-            alertaDTO.setPartidoId(partidoId);
-            crear(alertaDTO);
+            guardar(List.of(nuevaAlerta(TipoAlerta.CUPOS_BAJOS,
+                    String.format("El partido '%s' tiene solo %d cupos disponibles", partido.getTitulo(), cuposDisponibles),
+                    null, partidoId)));
         }
     }
 
-    public void crearAlertaPartidoProximo(Partido partido, Long usuarioId) {
-        AlertaDTO alertaDTO = new AlertaDTO();
-        alertaDTO.setTipo(TipoAlerta.PARTIDO_PROXIMO);
-        alertaDTO.setMensaje(String.format("El partido '%s' se jugará pronto. Fecha: %s", 
-                partido.getTitulo(), partido.getFechaHora()));
-        alertaDTO.setPartidoId(partido.getId());
-        alertaDTO.setUsuarioId(usuarioId);
-        crear(alertaDTO);
+    /**
+     * Crea una alerta de partido próximo por cada partido y las guarda juntas, para que los
+     * INSERT salgan en un solo lote al hacer flush
+     */
+    public void crearAlertasPartidoProximo(List<Partido> partidos) {
+        List<Alerta> alertas = new ArrayList<>();
+        for (Partido partido : partidos) {
+            alertas.add(nuevaAlerta(TipoAlerta.PARTIDO_PROXIMO,
+                    String.format("El partido '%s' se jugará pronto. Fecha: %s", partido.getTitulo(), partido.getFechaHora()),
+                    null, partido.getId()));
+        }
+        guardar(alertas);
     }
 
-    public void crearAlertaReservaConfirmada(Long usuarioId, String tituloPartido) {
-        AlertaDTO alertaDTO = new AlertaDTO();
-        alertaDTO.setTipo(TipoAlerta.RESERVA_CONFIRMADA);
-        alertaDTO.setMensaje(String.format("Tu reserva para el partido '%s' ha sido confirmada", tituloPartido));
-        alertaDTO.setUsuarioId(usuarioId);
-        crear(alertaDTO);
+    /**
+     * Crea una alerta de reserva confirmada por cada partido reservado y las guarda juntas
+     */
+    public void crearAlertasReservaConfirmada(Long usuarioId, List<String> titulosPartidos) {
+        List<Alerta> alertas = new ArrayList<>();
+        for (String tituloPartido : titulosPartidos) {
+            alertas.add(nuevaAlerta(TipoAlerta.RESERVA_CONFIRMADA,
+                    String.format("Tu reserva para el partido '%s' ha sido confirmada", tituloPartido),
+                    usuarioId, null));
+        }
+        guardar(alertas);
     }
 
     public AlertaResponseDTO marcarComoLeida(@NonNull Long id) {
@@ -145,6 +160,31 @@ public class AlertaService {
         }
     }
 
+    /**
+     * Arma una alerta con referencias al usuario y al partido, sin cargarlos de la base
+     */
+    private Alerta nuevaAlerta(TipoAlerta tipo, String mensaje, Long usuarioId, Long partidoId) {
+        Alerta alerta = new Alerta();
+        alerta.setTipo(tipo);
+        alerta.setMensaje(mensaje);
+        alerta.setLeida(false);
+        if (usuarioId != null) {
+            alerta.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+        }
+        if (partidoId != null) {
+            alerta.setPartido(partidoRepository.getReferenceById(partidoId));
+        }
+        return alerta;
+    }
+
+    private void guardar(List<Alerta> alertas) {
+        if (alertas.isEmpty()) {
+            return;
+        }
+        alertaRepository.saveAll(alertas);
+        logger.info("Se crearon {} alertas de tipo {}", alertas.size(), alertas.get(0).getTipo());
+    }
+
     private AlertaResponseDTO convertirADTO(Alerta alerta) {
         AlertaResponseDTO dto = new AlertaResponseDTO();
         dto.setId(alerta.getId());
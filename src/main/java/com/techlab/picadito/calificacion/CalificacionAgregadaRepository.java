@@ -0,0 +1,31 @@
+package com.techlab.picadito.calificacion;
+
+import com.techlab.picadito.model.CalificacionAgregada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CalificacionAgregadaRepository extends JpaRepository<CalificacionAgregada, CalificacionAgregada.Clave> {
+
+    /**
+     * Suma puntos y calificaciones de forma atómica
+     *
+     * @return 1 si la fila existía, 0 si no
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CalificacionAgregada a SET a.suma = a.suma + :puntos, a.cantidad = a.cantidad + :cantidad " +
+           "WHERE a.id = :clave")
+    int sumar(@Param("clave") CalificacionAgregada.Clave clave, @Param("puntos") long puntos,
+              @Param("cantidad") int cantidad);
+
+    /**
+     * Reemplaza los valores por los recalculados desde la tabla de calificaciones
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CalificacionAgregada a SET a.suma = :suma, a.cantidad = :cantidad WHERE a.id = :clave")
+    int fijar(@Param("clave") CalificacionAgregada.Clave clave, @Param("suma") long suma,
+              @Param("cantidad") int cantidad);
+}
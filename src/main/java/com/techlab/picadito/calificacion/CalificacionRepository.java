@@ -18,13 +18,24 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Long
     
     boolean existsByUsuarioIdAndPartidoId(Long usuarioId, Long partidoId);
     
-    @Query("SELECT AVG(c.puntuacion) FROM Calificacion c WHERE c.partido.id = :partidoId")
-    Double calcularPromedioPorPartido(@Param("partidoId") Long partidoId);
+    /**
+     * Devuelve filas [partidoId, suma, cantidad] recalculadas desde la tabla (verificación de CalificacionesAgregadas)
+     */
+    @Query("SELECT c.partido.id, SUM(c.puntuacion), COUNT(c) FROM Calificacion c GROUP BY c.partido.id")
+    List<Object[]> sumarPorPartido();
     
-    @Query("SELECT AVG(c.puntuacion) FROM Calificacion c WHERE c.partido.creadorNombre = :creadorNombre")
-    Double calcularPromedioPorCreador(@Param("creadorNombre") String creadorNombre);
+    /**
+     * Devuelve filas [sedeId, suma, cantidad] recalculadas desde la tabla
+     */
+    @Query("SELECT p.sede.id, SUM(c.puntuacion), COUNT(c) FROM Calificacion c JOIN c.partido p " +
+           "WHERE p.sede IS NOT NULL GROUP BY p.sede.id")
+    List<Object[]> sumarPorSede();
     
-    @Query("SELECT AVG(c.puntuacion) FROM Calificacion c WHERE c.partido.sede.id = :sedeId")
-    Double calcularPromedioPorSede(@Param("sedeId") Long sedeId);
+    /**
+     * Devuelve filas [creadorNombre, suma, cantidad] recalculadas desde la tabla
+     */
+    @Query("SELECT p.creadorNombre, SUM(c.puntuacion), COUNT(c) FROM Calificacion c JOIN c.partido p " +
+           "GROUP BY p.creadorNombre")
+    List<Object[]> sumarPorCreador();
 }
 
@@ -37,6 +37,9 @@ public class CalificacionService {
     @Autowired
     private PartidoService partidoService;
 
+    @Autowired
+    private CalificacionesAgregadas calificacionesAgregadas;
+
     public CalificacionResponseDTO crear(@NonNull Long usuarioId, CalificacionDTO calificacionDTO) {
         logger.info("Creando calificación del usuario {} para el partido {}", usuarioId, calificacionDTO.getPartidoId());
         
@@ -61,6 +64,7 @@ public class CalificacionService {
         calificacion.setPartido(partido);
         
         calificacion = calificacionRepository.save(calificacion);
+        calificacionesAgregadas.sumar(partido, calificacion.getPuntuacion());
         logger.info("Calificación creada exitosamente con id: {}", calificacion.getId());
         return convertirADTO(calificacion);
     }
@@ -76,20 +80,17 @@ public class CalificacionService {
     }
 
     public Double obtenerPromedioPorPartido(@NonNull Long partidoId) {
-        logger.debug("Calculando promedio de calificaciones del partido {}", partidoId);
-        Double promedio = calificacionRepository.calcularPromedioPorPartido(partidoId);
+        Double promedio = calificacionesAgregadas.promedioPorPartido(partidoId);
         return promedio != null ? promedio : 0.0;
     }
 
     public Double obtenerPromedioPorCreador(@NonNull String creadorNombre) {
-        logger.debug("Calculando promedio de calificaciones del creador {}", creadorNombre);
-        Double promedio = calificacionRepository.calcularPromedioPorCreador(creadorNombre);
+        Double promedio = calificacionesAgregadas.promedioPorCreador(creadorNombre);
         return promedio != null ? promedio : 0.0;
     }
 
     public Double obtenerPromedioPorSede(@NonNull Long sedeId) {
-        logger.debug("Calculando promedio de calificaciones de la sede {}", sedeId);
-        Double promedio = calificacionRepository.calcularPromedioPorSede(sedeId);
+        Double promedio = calificacionesAgregadas.promedioPorSede(sedeId);
         return promedio != null ? promedio : 0.0;
     }
 
@@ -102,13 +103,28 @@ public class CalificacionService {
 
     public void eliminar(@NonNull Long id) {
         logger.info("Eliminando calificación con id: {}", id);
-        if (!calificacionRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Calificación no encontrada con id: " + id);
-        }
-        calificacionRepository.deleteById(id);
+        Calificacion calificacion = calificacionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Calificación no encontrada con id: " + id));
+        calificacionRepository.delete(calificacion);
+        calificacionesAgregadas.restar(calificacion.getPartido(), calificacion.getPuntuacion());
         logger.info("Calificación eliminada exitosamente");
     }
 
+    /**
+     * Compara los promedios mantenidos al escribir con los recalculados desde la tabla de calificaciones
+     */
+    @Transactional(readOnly = true)
+    public List<String> verificarAgregados() {
+        return calificacionesAgregadas.verificar();
+    }
+
+    /**
+     * Recalcula los promedios desde la tabla de calificaciones y corrige los que no coincidían
+     */
+    public List<String> reconstruirAgregados() {
+        return calificacionesAgregadas.reconstruir();
+    }
+
     private CalificacionResponseDTO convertirADTO(Calificacion calificacion) {
         CalificacionResponseDTO dto = new CalificacionResponseDTO();
         dto.setId(calificacion.getId());
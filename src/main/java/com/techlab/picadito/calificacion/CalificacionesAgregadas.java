@@ -0,0 +1,248 @@
+package com.techlab.picadito.calificacion;
+
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.model.CalificacionAgregada;
+import com.techlab.picadito.model.CalificacionAgregada.Clave;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.partido.PartidoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Suma y cantidad de calificaciones por partido, por sede y por creador, mantenidas al escribir.
+ *
+ * Crear o eliminar una calificación suma o resta su puntuación con UPDATE atómicos dentro de la
+ * misma transacción, así que un promedio se lee en O(1) sin recorrer la tabla de calificaciones.
+ * Los de cada partido están en el propio Partido (se leen junto con la página, sin consultas
+ * extra); los de sedes y creadores, en calificaciones_agregadas.
+ *
+ * verificar() compara con los valores recalculados desde la tabla y reconstruir() además corrige
+ * las diferencias; se ejecuta al iniciar (completa las columnas en bases existentes) y de noche.
+ */
+@Component
+@Transactional
+public class CalificacionesAgregadas {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalificacionesAgregadas.class);
+
+    private static final String INSERTAR =
+        "INSERT INTO calificaciones_agregadas (ambito, clave, suma, cantidad) VALUES (?, ?, 0, 0)";
+
+    private final CalificacionAgregadaRepository calificacionAgregadaRepository;
+    private final CalificacionRepository calificacionRepository;
+    private final PartidoRepository partidoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final VersionesRecursos versionesRecursos;
+    private final TransactionTemplate transaccionPropia;
+
+    public CalificacionesAgregadas(CalificacionAgregadaRepository calificacionAgregadaRepository,
+                                   CalificacionRepository calificacionRepository,
+                                   PartidoRepository partidoRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   VersionesRecursos versionesRecursos,
+                                   PlatformTransactionManager transactionManager) {
+        this.calificacionAgregadaRepository = calificacionAgregadaRepository;
+        this.calificacionRepository = calificacionRepository;
+        this.partidoRepository = partidoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.versionesRecursos = versionesRecursos;
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Registra una calificación nueva del partido
+     */
+    public void sumar(Partido partido, int puntuacion) {
+        aplicar(partido, puntuacion, 1);
+    }
+
+    /**
+     * Descuenta una calificación eliminada del partido
+     */
+    public void restar(Partido partido, int puntuacion) {
+        aplicar(partido, -puntuacion, -1);
+    }
+
+    private void aplicar(Partido partido, long puntos, int cantidad) {
+        partidoRepository.sumarCalificaciones(partido.getId(), puntos, cantidad);
+        if (partido.getSede() != null) {
+            sumar(Clave.sede(partido.getSede().getId()), puntos, cantidad);
+        }
+        sumar(Clave.creador(partido.getCreadorNombre()), puntos, cantidad);
+    }
+
+    /**
+     * Traslada las calificaciones de un partido que cambió de sede
+     */
+    public void partidoCambioDeSede(Partido partido, Long sedeAnterior, Long sedeNueva) {
+        long suma = partido.getSumaCalificaciones();
+        int cantidad = partido.getCantidadCalificaciones();
+        if (cantidad == 0 || Objects.equals(sedeAnterior, sedeNueva)) {
+            return;
+        }
+        if (sedeAnterior != null) {
+            sumar(Clave.sede(sedeAnterior), -suma, -cantidad);
+        }
+        if (sedeNueva != null) {
+            sumar(Clave.sede(sedeNueva), suma, cantidad);
+        }
+    }
+
+    private void sumar(Clave clave, long puntos, int cantidad) {
+        if (calificacionAgregadaRepository.sumar(clave, puntos, cantidad) == 0) {
+            crearFila(clave);
+            calificacionAgregadaRepository.sumar(clave, puntos, cantidad);
+        }
+    }
+
+    /**
+     * Inserta la fila en cero en otra transacción, porque en PostgreSQL la clave duplicada invalida
+     * la transacción en curso. Si otra transacción la creó primero, alcanza con la existente
+     */
+    private void crearFila(Clave clave) {
+        try {
+            transaccionPropia.executeWithoutResult(status ->
+                    jdbcTemplate.update(INSERTAR, clave.getAmbito().name(), clave.getClave()));
+        } catch (DuplicateKeyException e) {
+            logger.debug("La fila de calificaciones agregadas {} ya existía", clave);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Double promedioPorPartido(Long partidoId) {
+        return partidoRepository.findById(partidoId)
+                .map(Partido::getPromedioCalificacion)
+                .orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public Double promedioPorSede(Long sedeId) {
+        return promedio(Clave.sede(sedeId));
+    }
+
+    @Transactional(readOnly = true)
+    public Double promedioPorCreador(String creadorNombre) {
+        return promedio(Clave.creador(creadorNombre));
+    }
+
+    private Double promedio(Clave clave) {
+        return calificacionAgregadaRepository.findById(clave)
+                .filter(agregada -> agregada.getCantidad() > 0)
+                .map(agregada -> (double) agregada.getSuma() / agregada.getCantidad())
+                .orElse(null);
+    }
+
+    /**
+     * Compara los agregados con los recalculados desde la tabla de calificaciones
+     *
+     * @return Diferencias encontradas (vacía si son consistentes)
+     */
+    @Transactional(readOnly = true)
+    public List<String> verificar() {
+        return comparar(false);
+    }
+
+    /**
+     * Recalcula los agregados desde la tabla de calificaciones y corrige los que no coinciden
+     *
+     * @return Diferencias que se corrigieron
+     */
+    public List<String> reconstruir() {
+        long inicio = System.currentTimeMillis();
+        List<String> diferencias = comparar(true);
+        if (diferencias.isEmpty()) {
+            logger.info("Calificaciones agregadas verificadas en {} ms", System.currentTimeMillis() - inicio);
+        } else {
+            logger.warn("Calificaciones agregadas reconstruidas en {} ms con {} diferencias: {}",
+                    System.currentTimeMillis() - inicio, diferencias.size(), diferencias);
+        }
+        return diferencias;
+    }
+
+    private List<String> comparar(boolean corregir) {
+        List<String> diferencias = new ArrayList<>();
+
+        Map<Long, long[]> esperadoPorPartido = agrupar(calificacionRepository.sumarPorPartido(), fila -> (Long) fila[0]);
+        Map<Long, long[]> actualPorPartido = agrupar(partidoRepository.findAgregadosDeCalificaciones(), fila -> (Long) fila[0]);
+        boolean partidosCorregidos = false;
+        for (Long partidoId : union(esperadoPorPartido.keySet(), actualPorPartido.keySet())) {
+            long[] esperado = esperadoPorPartido.getOrDefault(partidoId, new long[2]);
+            if (comparar(diferencias, "partido[" + partidoId + "]", actualPorPartido.get(partidoId), esperado) && corregir) {
+                partidoRepository.fijarCalificaciones(partidoId, esperado[0], (int) esperado[1]);
+                partidosCorregidos = true;
+            }
+        }
+        if (partidosCorregidos) {
+            // fijarCalificaciones es un UPDATE masivo: no pasa por el listener de versiones
+            versionesRecursos.partidosModificados();
+        }
+
+        Map<Clave, long[]> esperadoPorClave = new HashMap<>();
+        esperadoPorClave.putAll(agrupar(calificacionRepository.sumarPorSede(), fila -> Clave.sede((Long) fila[0])));
+        esperadoPorClave.putAll(agrupar(calificacionRepository.sumarPorCreador(), fila -> Clave.creador((String) fila[0])));
+        Map<Clave, long[]> actualPorClave = new HashMap<>();
+        for (CalificacionAgregada agregada : calificacionAgregadaRepository.findAll()) {
+            actualPorClave.put(agregada.getId(), new long[]{agregada.getSuma(), agregada.getCantidad()});
+        }
+        for (Clave clave : union(esperadoPorClave.keySet(), actualPorClave.keySet())) {
+            long[] esperado = esperadoPorClave.getOrDefault(clave, new long[2]);
+            if (comparar(diferencias, clave.toString(), actualPorClave.get(clave), esperado) && corregir) {
+                if (calificacionAgregadaRepository.fijar(clave, esperado[0], (int) esperado[1]) == 0) {
+                    crearFila(clave);
+                    calificacionAgregadaRepository.fijar(clave, esperado[0], (int) esperado[1]);
+                }
+            }
+        }
+        return diferencias;
+    }
+
+    /**
+     * @return true si los valores difieren (una fila ausente equivale a suma y cantidad en cero)
+     */
+    private static boolean comparar(List<String> diferencias, String nombre, long[] actual, long[] esperado) {
+        long[] registrado = actual != null ? actual : new long[2];
+        if (registrado[0] == esperado[0] && registrado[1] == esperado[1]) {
+            return false;
+        }
+        diferencias.add(nombre + ": " + registrado[0] + "/" + registrado[1] + " != " + esperado[0] + "/" + esperado[1]);
+        return true;
+    }
+
+    /**
+     * Convierte filas [clave, suma, cantidad] en un mapa clave -> {suma, cantidad}
+     */
+    private static <K> Map<K, long[]> agrupar(List<Object[]> filas, Function<Object[], K> clave) {
+        Map<K, long[]> resultado = new HashMap<>();
+        for (Object[] fila : filas) {
+            resultado.put(clave.apply(fila), new long[]{valor(fila[1]), valor(fila[2])});
+        }
+        return resultado;
+    }
+
+    private static long valor(Object numero) {
+        return numero != null ? ((Number) numero).longValue() : 0;
+    }
+
+    private static <K> Set<K> union(Set<K> a, Set<K> b) {
+        Set<K> resultado = new HashSet<>(a);
+        resultado.addAll(b);
+        return resultado;
+    }
+}
@@ -1,5 +1,8 @@
 package com.techlab.picadito.categoria;
 
+import com.techlab.picadito.config.RespuestasSerializadas;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
 import com.techlab.picadito.dto.CategoriaDTO;
 import com.techlab.picadito.dto.CategoriaResponseDTO;
 import com.techlab.picadito.dto.CategoriasResponseDTO;
@@ -10,7 +13,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/categorias")
@@ -20,15 +25,29 @@ public class CategoriaController {
     @Autowired
     private CategoriaService categoriaService;
 
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private RespuestasSerializadas respuestasSerializadas;
+
     @GetMapping
-    public ResponseEntity<CategoriasResponseDTO> obtenerTodas() {
-        CategoriasResponseDTO categorias = categoriaService.obtenerTodas();
-        return ResponseEntity.ok(categorias);
+    public ResponseEntity<CategoriasResponseDTO> obtenerTodas(WebRequest webRequest) {
+        // Si el cliente tiene la versión actual se responde 304 sin consultar
+        if (webRequest.checkNotModified(versionesRecursos.etag(Coleccion.CATEGORIAS))) {
+            return null;
+        }
+        // Si no, la respuesta ya serializada de la versión actual
+        return respuestasSerializadas.obtener(Coleccion.CATEGORIAS, List.of(), categoriaService::obtenerTodas);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CategoriaResponseDTO> obtenerPorId(
-            @PathVariable @Positive(message = "El ID debe ser un número positivo") @NonNull Long id) {
+            @PathVariable @Positive(message = "El ID debe ser un número positivo") @NonNull Long id,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(versionesRecursos.etag(Coleccion.CATEGORIAS, id))) {
+            return null;
+        }
         CategoriaResponseDTO categoria = categoriaService.obtenerPorId(id);
         return ResponseEntity.ok(categoria);
     }
@@ -1,5 +1,6 @@
 package com.techlab.picadito.categoria;
 
+import com.techlab.picadito.config.CacheConfig;
 import com.techlab.picadito.dto.CategoriaDTO;
 import com.techlab.picadito.dto.CategoriaResponseDTO;
 import com.techlab.picadito.dto.CategoriasResponseDTO;
@@ -23,18 +24,16 @@ import java.util.stream.Collectors;
 public class CategoriaService {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoriaService.class);
-    private static final String CACHE_CATEGORIAS = "categorias";
+    private static final String CACHE_CATEGORIAS = CacheConfig.CACHE_CATEGORIAS;
+    private static final String CLAVE_TODAS = "all";
 
     @Autowired
     private CategoriaRepository categoriaRepository;
 
-    @Cacheable(value = CACHE_CATEGORIAS, key = "'all'")
+    @Cacheable(value = CACHE_CATEGORIAS, key = "'" + CLAVE_TODAS + "'")
     public CategoriasResponseDTO obtenerTodas() {
         logger.debug("Obteniendo todas las categorías");
-        List<CategoriaResponseDTO> categorias = categoriaRepository.findAllByOrderByNombreAsc().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
-        return new CategoriasResponseDTO(categorias);
+        return listarTodas();
     }
 
     @Cacheable(value = CACHE_CATEGORIAS, key = "#id")
@@ -96,6 +95,29 @@ public class CategoriaService {
         logger.info("Categoría eliminada exitosamente");
     }
 
+    /**
+     * Recalcula una entrada de la cache de categorías a partir de su clave. La usa la cache para
+     * cargar los fallos y para recargar en segundo plano las entradas por vencer
+     *
+     * @return null si la categoría ya no existe (la entrada se descarta)
+     */
+    @Transactional(readOnly = true)
+    public Object recargarCache(Object clave) {
+        if (CLAVE_TODAS.equals(clave)) {
+            return listarTodas();
+        }
+        return categoriaRepository.findById((Long) clave)
+                .map(this::convertirADTO)
+                .orElse(null);
+    }
+
+    private CategoriasResponseDTO listarTodas() {
+        List<CategoriaResponseDTO> categorias = categoriaRepository.findAllByOrderByNombreAsc().stream()
+                .map(this::convertirADTO)
+                .collect(Collectors.toList());
+        return new CategoriasResponseDTO(categorias);
+    }
+
     public Categoria obtenerCategoriaEntity(@NonNull Long id) {
         return categoriaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría no encontrada con id: " + id));
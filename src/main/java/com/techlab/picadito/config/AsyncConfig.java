@@ -1,7 +1,9 @@
 package com.techlab.picadito.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -11,8 +13,22 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
 
+    /**
+     * Con spring.threads.virtual.enabled cada tarea corre en un hilo virtual; la concurrencia se
+     * acota al tamaño del pool de conexiones (las tareas esperan un lugar en vez de rechazarse).
+     * Tomcat y el scheduler de @Scheduled los configura Spring Boot con la misma propiedad
+     */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexiones) {
+        if (hilosVirtuales) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(conexiones);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
@@ -22,4 +38,3 @@ public class AsyncConfig {
         return executor;
     }
 }
-
@@ -0,0 +1,78 @@
+package com.techlab.picadito.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.techlab.picadito.categoria.CategoriaService;
+import com.techlab.picadito.dto.CategoriasResponseDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches de Spring (@Cacheable) con tamaño, TTL, peso y recarga anticipada propios de cada región.
+ *
+ * Cada región se configura con app.cache.&lt;region&gt;.max-size, .ttl-minutes y .refresh-minutes.
+ * max-size es el peso máximo: con el pesador de la región, una entrada puede pesar más de 1 (la
+ * lista de categorías pesa lo que la cantidad de categorías). Con refresh-minutes mayor que 0, una
+ * entrada leída después de ese tiempo se sigue devolviendo mientras se recarga en segundo plano,
+ * así que una lectura frecuente no paga el fallo; las que nadie lee vencen con el TTL.
+ *
+ * Solo existen las regiones declaradas acá: un @Cacheable con otro nombre falla en vez de crear
+ * una cache sin límites propios. Todas registran estadísticas, que Spring Boot publica como
+ * cache.gets, cache.evictions y cache.load.duration{cache=&lt;region&gt;}.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String CACHE_CATEGORIAS = "categorias";
+
+    /**
+     * @param recarga Recalcula una entrada a partir de su clave (null si la región no recarga)
+     */
+    private record Region(String nombre, long maxSize, long ttlMinutos, long refrescoMinutos,
+                          Weigher<Object, Object> pesador, CacheLoader<Object, Object> recarga) {
+    }
+
+    @Bean
+    public CacheManager cacheManager(Environment environment, ObjectProvider<CategoriaService> categoriaService) {
+        List<Region> regiones = List.of(
+            // Se lee en cada pantalla de búsqueda y cambia muy poco: se recarga antes de vencer
+            new Region(CACHE_CATEGORIAS, 500, 10, 5,
+                    (clave, valor) -> valor instanceof CategoriasResponseDTO todas ? Math.max(1, todas.getTotal()) : 1,
+                    clave -> categoriaService.getObject().recargarCache(clave))
+        );
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Sin creación dinámica: solo las regiones registradas abajo
+        cacheManager.setCacheNames(List.of());
+        for (Region region : regiones) {
+            String prefijo = "app.cache." + region.nombre();
+            long maxSize = environment.getProperty(prefijo + ".max-size", Long.class, region.maxSize());
+            long ttlMinutos = environment.getProperty(prefijo + ".ttl-minutes", Long.class, region.ttlMinutos());
+            long refrescoMinutos = environment.getProperty(prefijo + ".refresh-minutes", Long.class, region.refrescoMinutos());
+
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .maximumWeight(maxSize)
+                    .weigher(region.pesador())
+                    .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                    .recordStats();
+            if (region.recarga() == null) {
+                cacheManager.registerCustomCache(region.nombre(), builder.build());
+                continue;
+            }
+            // La cache de Spring carga los fallos con el loader, así que también se mide su duración
+            if (refrescoMinutos > 0 && refrescoMinutos < ttlMinutos) {
+                builder.refreshAfterWrite(Duration.ofMinutes(refrescoMinutos));
+            }
+            cacheManager.registerCustomCache(region.nombre(), builder.build(region.recarga()));
+        }
+        return cacheManager;
+    }
+}
@@ -0,0 +1,97 @@
+package com.techlab.picadito.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nivel de Hibernate (JCache sobre Caffeine) para las entidades de referencia:
+ * sedes, categorías y usuarios (también por email).
+ *
+ * Las categorías de cada partido no se cachean: Hibernate vacía la región de toda colección de
+ * Partido con cada UPDATE masivo de partidos, y esos corren en cada inscripción y baja.
+ *
+ * Cada región tiene su tamaño máximo y TTL (app.jpa.cache-segundo-nivel.&lt;region&gt;.max-size y
+ * .ttl-minutes). Las regiones se crean acá y Hibernate falla al arrancar si una entidad usa una
+ * región que no existe. Los aciertos y fallos se publican como
+ * cache.gets{cache=hibernate.&lt;region&gt;,cache.manager=hibernate}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.jpa.cache-segundo-nivel.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheSegundoNivelConfig {
+
+    public static final String REGION_SEDES = "hibernate.sedes";
+    public static final String REGION_CATEGORIAS = "hibernate.categorias";
+    public static final String REGION_USUARIOS = "hibernate.usuarios";
+    public static final String REGION_USUARIOS_EMAIL = "hibernate.usuarios-email";
+
+    /**
+     * @param propiedad Nombre de la región en las propiedades app.jpa.cache-segundo-nivel.*
+     */
+    private record Region(String nombre, String propiedad, long maxSize, long ttlMinutos) {
+    }
+
+    private static final List<Region> REGIONES = List.of(
+        new Region(REGION_SEDES, "sedes", 1_000, 60),
+        new Region(REGION_CATEGORIAS, "categorias", 500, 60),
+        new Region(REGION_USUARIOS, "usuarios", 10_000, 10),
+        new Region(REGION_USUARIOS_EMAIL, "usuarios-email", 10_000, 10)
+    );
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(Environment environment) {
+        // Un provider propio por contexto: el de Caching.getCachingProvider() comparte las regiones
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (Region region : REGIONES) {
+            String prefijo = "app.jpa.cache-segundo-nivel." + region.propiedad();
+            long maxSize = environment.getProperty(prefijo + ".max-size", Long.class, region.maxSize());
+            long ttlMinutos = environment.getProperty(prefijo + ".ttl-minutes", Long.class, region.ttlMinutos());
+
+            CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+            configuracion.setMaximumSize(OptionalLong.of(maxSize));
+            configuracion.setExpireAfterWrite(OptionalLong.of(Duration.ofMinutes(ttlMinutos).toNanos()));
+            // Hibernate guarda el estado desarmado de la entidad: no hace falta copiarlo en cada get
+            configuracion.setStoreByValue(false);
+            configuracion.setNativeStatisticsEnabled(true);
+            cacheManager.createCache(region.nombre(), configuracion);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheSegundoNivelMetricas(CacheManager cacheManagerSegundoNivel) {
+        return registry -> {
+            for (Region region : REGIONES) {
+                com.github.benmanes.caffeine.cache.Cache<?, ?> cache = cacheManagerSegundoNivel
+                        .getCache(region.nombre())
+                        .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+                // Mismas claves de tags que las caches de Spring: Prometheus exige las mismas por métrica
+                CaffeineCacheMetrics.monitor(registry, cache, region.nombre(), "cache.manager", "hibernate");
+            }
+        };
+    }
+}
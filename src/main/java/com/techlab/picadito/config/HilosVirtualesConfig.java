@@ -0,0 +1,44 @@
+package com.techlab.picadito.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Con spring.threads.virtual.enabled Spring Boot atiende los requests de Tomcat y las tareas de
+ * @Scheduled en hilos virtuales (AsyncConfig hace lo mismo con @Async). Acá se agrega el límite de
+ * hilos que piden conexiones al pool de Hikari
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    @Bean
+    public static BeanPostProcessor limiteConexionesPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new LimiteConexionesDataSource(hikari, hikari.getMaximumPoolSize(),
+                            Duration.ofMillis(hikari.getConnectionTimeout()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder limiteConexionesMetricas(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof LimiteConexionesDataSource limite) {
+                limite.registrarMetricas(registry);
+            }
+        };
+    }
+}
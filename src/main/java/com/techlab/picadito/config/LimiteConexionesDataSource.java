@@ -0,0 +1,137 @@
+package com.techlab.picadito.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que deja pedir conexiones a lo sumo a tantos hilos como conexiones tiene el pool.
+ *
+ * Con hilos virtuales no hay un pool de Tomcat que acote cuántos requests llegan a la base: miles
+ * de hilos pueden quedar compitiendo dentro de Hikari por las conexiones que se liberan. Acá esperan
+ * antes, en una cola FIFO (Semaphore justo) que no ocupa hilos de plataforma; el que obtiene el
+ * permiso siempre encuentra una conexión libre. El permiso se devuelve al cerrar la conexión.
+ * Si la espera supera esperaMaxima se lanza la misma excepción que lanzaría Hikari.
+ */
+public class LimiteConexionesDataSource extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final int maximo;
+    private final long esperaMaximaNanos;
+
+    public LimiteConexionesDataSource(DataSource delegado, int maximo, Duration esperaMaxima) {
+        super(delegado);
+        if (maximo < 1) {
+            throw new IllegalArgumentException("El máximo de conexiones debe ser positivo");
+        }
+        this.maximo = maximo;
+        this.permisos = new Semaphore(maximo, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return conLiberacion(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return conLiberacion(() -> super.getConnection(username, password));
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No hay conexiones disponibles: " + permisos.getQueueLength() + " hilos esperando");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    private Connection conLiberacion(ObtenerConexion obtener) throws SQLException {
+        Connection conexion;
+        try {
+            conexion = obtener.obtener();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new ConexionLimitada(conexion));
+    }
+
+    public void registrarMetricas(MeterRegistry meterRegistry) {
+        Gauge.builder("db.connections.gate.active", this, LimiteConexionesDataSource::getEnUso)
+            .description("Conexiones entregadas a través del límite de concurrencia")
+            .register(meterRegistry);
+        Gauge.builder("db.connections.gate.waiting", permisos, Semaphore::getQueueLength)
+            .description("Hilos esperando permiso para pedir una conexión")
+            .register(meterRegistry);
+    }
+
+    public int getEnUso() {
+        return maximo - permisos.availablePermits();
+    }
+
+    public int getEsperando() {
+        return permisos.getQueueLength();
+    }
+
+    @FunctionalInterface
+    private interface ObtenerConexion {
+        Connection obtener() throws SQLException;
+    }
+
+    /**
+     * Delega todo en la conexión real y devuelve el permiso una sola vez al cerrarla
+     */
+    private final class ConexionLimitada implements InvocationHandler {
+        private final Connection conexion;
+        private final AtomicBoolean cerrada = new AtomicBoolean();
+
+        private ConexionLimitada(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionLimitada[" + conexion + "]";
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if ("close".equals(method.getName()) && cerrada.compareAndSet(false, true)) {
+                    permisos.release();
+                }
+            }
+        }
+    }
+}
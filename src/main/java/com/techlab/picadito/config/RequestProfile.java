@@ -0,0 +1,83 @@
+package com.techlab.picadito.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Map;
+
+/**
+ * Datos de un request que usan varios filtros y controllers: clase de ruta, IP del cliente y
+ * correlation id. RequestProfileFilter lo calcula una vez al frente de la cadena y lo deja como
+ * atributo del request.
+ *
+ * El estado de autenticación no es parte del perfil: lo resuelve JwtAuthenticationFilter más
+ * adelante en la cadena.
+ */
+public record RequestProfile(String path, String metodo, ClaseRuta clase, String ipCliente, String correlationId) {
+
+    public static final String ATRIBUTO = RequestProfile.class.getName();
+
+    public enum ClaseRuta {
+        LOGIN,
+        REGISTRO,
+        // Resto de /api/auth (refresh, logout)
+        AUTH,
+        ADMIN,
+        // Actuator y documentación de la API
+        INFRAESTRUCTURA,
+        // Catálogo de lectura pública; como prefijo incluye también /api/partidos-guardados, etc.
+        CATALOGO,
+        OTRA
+    }
+
+    private static final TablaRutas<ClaseRuta> RUTAS = new TablaRutas<>(Map.of(
+        "/api/auth", ClaseRuta.AUTH,
+        "/api/auth/login", ClaseRuta.LOGIN,
+        "/api/auth/register", ClaseRuta.REGISTRO,
+        "/api/admin", ClaseRuta.ADMIN,
+        "/actuator", ClaseRuta.INFRAESTRUCTURA,
+        "/swagger-ui", ClaseRuta.INFRAESTRUCTURA,
+        "/v3/api-docs", ClaseRuta.INFRAESTRUCTURA,
+        "/api/partidos", ClaseRuta.CATALOGO,
+        "/api/categorias", ClaseRuta.CATALOGO,
+        "/api/sedes", ClaseRuta.CATALOGO
+    ), ClaseRuta.OTRA);
+
+    /**
+     * Preflight de CORS
+     */
+    public boolean esPreflight() {
+        return "OPTIONS".equals(metodo);
+    }
+
+    /**
+     * Perfil calculado por RequestProfileFilter, o uno nuevo si el request no pasó por el filtro
+     */
+    public static RequestProfile de(HttpServletRequest request) {
+        Object perfil = request.getAttribute(ATRIBUTO);
+        return perfil instanceof RequestProfile calculado ? calculado : crear(request, null);
+    }
+
+    static RequestProfile crear(HttpServletRequest request, String correlationId) {
+        String path = request.getRequestURI();
+        return new RequestProfile(path, request.getMethod(), RUTAS.clasificar(path), resolverIp(request), correlationId);
+    }
+
+    /**
+     * Obtiene la IP real del cliente, considerando proxies
+     */
+    static String resolverIp(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            // Tomar la primera IP de la lista (IP original del cliente)
+            int coma = xForwardedFor.indexOf(',');
+            return (coma >= 0 ? xForwardedFor.substring(0, coma) : xForwardedFor).trim();
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -12,8 +12,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.UUID;
 
+/**
+ * Primer filtro de la cadena: asigna el correlation id y calcula el RequestProfile que usan los
+ * filtros siguientes (ver RequestProfile.de)
+ */
 @Component
-public class CorrelationIdFilter extends OncePerRequestFilter {
+public class RequestProfileFilter extends OncePerRequestFilter {
 
     private static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
     private static final String CORRELATION_ID_MDC_KEY = "correlationId";
@@ -32,6 +36,7 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
         
         MDC.put(CORRELATION_ID_MDC_KEY, correlationId);
         response.setHeader(CORRELATION_ID_HEADER, correlationId);
+        request.setAttribute(RequestProfile.ATRIBUTO, RequestProfile.crear(request, correlationId));
         
         try {
             filterChain.doFilter(request, response);
@@ -40,4 +45,3 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
         }
     }
 }
-
@@ -0,0 +1,135 @@
+package com.techlab.picadito.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas JSON ya serializadas de los listados públicos más pedidos (partidos disponibles,
+ * sedes y categorías), para no repetir consultas, armado de DTOs ni serialización con Jackson
+ * en cada request anónimo.
+ *
+ * Cada entrada guarda el DTO, sus bytes UTF-8, el ETag y la versión de la colección con la que
+ * se armó (ver VersionesRecursos): en cuanto un cambio confirmado incrementa la versión la
+ * entrada deja de servirse y la próxima consulta la reemplaza. Como en registrarPartido, una
+ * respuesta armada mientras la colección cambiaba se devuelve pero no se guarda.
+ *
+ * Los controllers devuelven el DTO tipado; obtener deja la entrada en el request y
+ * RespuestasSerializadasConverter escribe esos bytes en lugar de volver a serializar el DTO.
+ *
+ * El tamaño se mide en bytes serializados (app.cache.respuestas.max-bytes; el DTO guardado ocupa
+ * un orden parecido) y el TTL acota lo que no pasa por los listeners. Los aciertos y fallos se
+ * publican como cache.gets{cache=respuestas}.
+ */
+@Component
+public class RespuestasSerializadas implements MeterBinder {
+
+    private record Clave(Coleccion coleccion, List<Object> consulta) {
+    }
+
+    private record Entrada(long version, Object cuerpo, byte[] bytes, String etag) {
+    }
+
+    private static final String ATRIBUTO_ENTRADA = RespuestasSerializadas.class.getName() + ".entrada";
+
+    private final VersionesRecursos versionesRecursos;
+    private final ObjectMapper objectMapper;
+    private final Cache<Clave, Entrada> respuestas;
+    private final boolean habilitada;
+
+    public RespuestasSerializadas(
+            VersionesRecursos versionesRecursos,
+            ObjectMapper objectMapper,
+            @Value("${app.cache.respuestas.enabled:true}") boolean habilitada,
+            @Value("${app.cache.respuestas.max-bytes:33554432}") long maxBytes,
+            @Value("${app.cache.respuestas.ttl-seconds:60}") long ttlSeconds) {
+        this.versionesRecursos = versionesRecursos;
+        this.objectMapper = objectMapper;
+        this.habilitada = habilitada;
+        this.respuestas = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Clave clave, Entrada entrada) -> entrada.bytes().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, respuestas, "respuestas", "cache.manager", "respuestas");
+    }
+
+    /**
+     * Devuelve la respuesta de la consulta, armándola con el supplier si no está o si la colección
+     * cambió desde que se guardó
+     *
+     * @param consulta Parámetros ya normalizados: dos consultas equivalentes deben dar la misma lista
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> obtener(Coleccion coleccion, List<Object> consulta, Supplier<T> generar) {
+        if (!habilitada) {
+            String etag = versionesRecursos.etag(coleccion, consulta.toArray());
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag).body(generar.get());
+        }
+        Clave clave = new Clave(coleccion, consulta);
+        long version = versionesRecursos.getVersion(coleccion);
+        Entrada entrada = respuestas.getIfPresent(clave);
+        if (entrada == null || entrada.version() != version) {
+            // El ETag se toma antes de consultar: nunca anuncia una versión posterior a los datos
+            String etag = versionesRecursos.etag(coleccion, consulta.toArray());
+            T cuerpo = generar.get();
+            entrada = new Entrada(version, cuerpo, serializar(cuerpo), etag);
+            if (versionesRecursos.getVersion(coleccion) == version) {
+                respuestas.put(clave, entrada);
+            }
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(ATRIBUTO_ENTRADA, entrada, RequestAttributes.SCOPE_REQUEST);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(entrada.etag())
+                .body((T) entrada.cuerpo());
+    }
+
+    /**
+     * Bytes ya serializados del cuerpo si es la respuesta que obtener armó para el request actual
+     * (la misma instancia), o null si hay que serializarlo
+     */
+    static byte[] bytesDe(Object cuerpo) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null || cuerpo == null) {
+            return null;
+        }
+        return request.getAttribute(ATRIBUTO_ENTRADA, RequestAttributes.SCOPE_REQUEST) instanceof Entrada entrada
+                && entrada.cuerpo() == cuerpo ? entrada.bytes() : null;
+    }
+
+    public void invalidarTodo() {
+        respuestas.invalidateAll();
+    }
+
+    private byte[] serializar(Object cuerpo) {
+        try {
+            return objectMapper.writeValueAsBytes(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+}
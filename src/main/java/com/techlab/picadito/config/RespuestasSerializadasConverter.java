@@ -0,0 +1,43 @@
+package com.techlab.picadito.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor JSON de la aplicación: el de Jackson, salvo que escribe los bytes guardados por
+ * RespuestasSerializadas cuando el cuerpo es la respuesta cacheada del request actual.
+ * Al ser un MappingJackson2HttpMessageConverter reemplaza al que registra Spring Boot, así que
+ * lectura y escritura del resto de las respuestas no cambian.
+ */
+@Component
+public class RespuestasSerializadasConverter extends MappingJackson2HttpMessageConverter {
+
+    public RespuestasSerializadasConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected Long getContentLength(Object object, @Nullable MediaType contentType) throws IOException {
+        byte[] bytes = RespuestasSerializadas.bytesDe(object);
+        return bytes != null ? Long.valueOf(bytes.length) : super.getContentLength(object, contentType);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        byte[] bytes = RespuestasSerializadas.bytesDe(object);
+        if (bytes == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        outputMessage.getBody().write(bytes);
+    }
+}
@@ -0,0 +1,122 @@
+package com.techlab.picadito.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Detecta patrones de SQL injection y XSS en valores de entrada.
+ *
+ * Los patrones se compilan una vez en un autómata Aho-Corasick sobre ASCII sin distinguir
+ * mayúsculas: cada valor se recorre un carácter a la vez con una transición de tabla, sin regex
+ * ni objetos nuevos.
+ */
+public final class SanitizadorEntrada {
+
+    /**
+     * Patrones de SQL injection y XSS. Equivalen a buscar (sin distinguir mayúsculas ASCII) las
+     * alternativas de las expresiones que usaba el filtro: las que contienen a otra ("execute",
+     * "javascript", "&lt;script", "onerror=", ...) ya quedan cubiertas por la más corta.
+     */
+    static final List<String> PATRONES = List.of(
+        // SQL injection
+        "union", "select", "insert", "update", "delete", "drop", "create", "alter", "exec", "execute",
+        "script", "javascript", "onerror", "onload", "xp_", "sp_",
+        // XSS
+        "<script", "</script>", "javascript:", "onerror=", "onload=", "onclick=", "onmouseover=",
+        "onfocus=", "onblur=", "eval(", "expression("
+    );
+
+    private static final int ALFABETO = 128;
+
+    // transiciones[estado * ALFABETO + carácter] -> estado siguiente (autómata completo)
+    private static final int[] transiciones;
+    private static final boolean[] aceptacion;
+
+    static {
+        List<int[]> hijos = new ArrayList<>();
+        List<Boolean> finales = new ArrayList<>();
+        hijos.add(nuevoNodo());
+        finales.add(false);
+        for (String patron : PATRONES) {
+            int estado = 0;
+            for (char c : patron.toCharArray()) {
+                int siguiente = hijos.get(estado)[c];
+                if (siguiente < 0) {
+                    siguiente = hijos.size();
+                    hijos.add(nuevoNodo());
+                    finales.add(false);
+                    hijos.get(estado)[c] = siguiente;
+                }
+                estado = siguiente;
+            }
+            finales.set(estado, true);
+        }
+
+        // Enlaces de falla por BFS: las transiciones faltantes se completan con las del enlace de falla
+        int cantidad = hijos.size();
+        int[] falla = new int[cantidad];
+        transiciones = new int[cantidad * ALFABETO];
+        aceptacion = new boolean[cantidad];
+        Queue<Integer> pendientes = new ArrayDeque<>();
+        for (int c = 0; c < ALFABETO; c++) {
+            int hijo = hijos.get(0)[c];
+            transiciones[c] = Math.max(hijo, 0);
+            if (hijo > 0) {
+                pendientes.add(hijo);
+            }
+        }
+        aceptacion[0] = finales.get(0);
+        while (!pendientes.isEmpty()) {
+            int estado = pendientes.poll();
+            aceptacion[estado] = finales.get(estado) || aceptacion[falla[estado]];
+            for (int c = 0; c < ALFABETO; c++) {
+                int hijo = hijos.get(estado)[c];
+                int porFalla = transiciones[falla[estado] * ALFABETO + c];
+                if (hijo >= 0) {
+                    falla[hijo] = porFalla;
+                    transiciones[estado * ALFABETO + c] = hijo;
+                    pendientes.add(hijo);
+                } else {
+                    transiciones[estado * ALFABETO + c] = porFalla;
+                }
+            }
+        }
+    }
+
+    private SanitizadorEntrada() {
+    }
+
+    private static int[] nuevoNodo() {
+        int[] nodo = new int[ALFABETO];
+        Arrays.fill(nodo, -1);
+        return nodo;
+    }
+
+    /**
+     * Verifica si un valor contiene patrones de SQL injection o XSS
+     */
+    public static boolean esPeligroso(String valor) {
+        if (valor == null) {
+            return false;
+        }
+        int estado = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c < ALFABETO) {
+                // Mayúsculas ASCII a minúsculas, igual que (?i) sin UNICODE_CASE
+                int simbolo = (c >= 'A' && c <= 'Z') ? c + ('a' - 'A') : c;
+                estado = transiciones[estado * ALFABETO + simbolo];
+                if (aceptacion[estado]) {
+                    return true;
+                }
+            } else {
+                // Ningún patrón tiene caracteres fuera de ASCII
+                estado = 0;
+            }
+        }
+        return false;
+    }
+}
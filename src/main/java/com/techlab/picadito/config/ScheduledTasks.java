@@ -3,10 +3,17 @@ package com.techlab.picadito.config;
 import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Partido;
 import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.partido.PartidoService;
 import com.techlab.picadito.alerta.AlertaService;
+import com.techlab.picadito.calificacion.CalificacionService;
+import com.techlab.picadito.security.RateLimitingService;
+import com.techlab.picadito.security.TokenBlacklistService;
+import com.techlab.picadito.service.EstadisticasService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,12 +33,28 @@ public class ScheduledTasks {
     @Autowired
     private AlertaService alertaService;
 
+    @Autowired
+    private PartidoService partidoService;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private CalificacionService calificacionService;
+
+    @Autowired
+    private RateLimitingService rateLimitingService;
+
+    @Autowired
+    private TokenBlacklistService tokenBlacklistService;
+
     /**
      * Ejecuta cada hora para verificar partidos próximos (24-48 horas antes)
-     * y generar alertas para los participantes
+     * y generar alertas para los participantes. La transacción es de escritura: en una de solo
+     * lectura Hibernate no hace flush y las alertas, con IDs de secuencia, nunca se insertarían
      */
     @Scheduled(fixedRate = 3600000) // Cada hora (3600000 ms)
-    @Transactional(readOnly = true)
+    @Transactional
     public void verificarPartidosProximos() {
         logger.info("Ejecutando verificación de partidos próximos");
         
@@ -48,23 +71,51 @@ public class ScheduledTasks {
                            p.getFechaHora().isBefore(en48Horas))
                 .collect(Collectors.toList());
         
-        for (Partido partido : partidosProximos) {
-            // Por ahora, crear alerta general sin usuario específico
-            // En producción, se debería crear una alerta por cada usuario participante
-            if (!partido.getParticipantes().isEmpty()) {
-                try {
-                    alertaService.crearAlertaPartidoProximo(partido, null);
-                } catch (Exception e) {
-                    logger.error("Error al crear alerta de partido próximo para partido {}: {}", 
-                            partido.getId(), e.getMessage());
-                }
-            }
+        // Por ahora, crear alerta general sin usuario específico
+        // En producción, se debería crear una alerta por cada usuario participante
+        List<Partido> partidosConParticipantes = partidosProximos.stream()
+                .filter(p -> !p.getParticipantes().isEmpty())
+                .collect(Collectors.toList());
+        try {
+            alertaService.crearAlertasPartidoProximo(partidosConParticipantes);
+        } catch (Exception e) {
+            logger.error("Error al crear alertas de partidos próximos: {}", e.getMessage());
         }
         
         logger.info("Verificación de partidos próximos completada. Partidos encontrados: {}", 
                 partidosProximos.size());
     }
 
+    /**
+     * Recalcula el contador de participantes de los partidos al iniciar la aplicación
+     * (completa la columna en bases existentes) y diariamente a las 3 AM. Después reconstruye
+     * las estadísticas agregadas, que parten de esos contadores, y las sumas de calificaciones por
+     * partido, sede y creador, y registra si se habían desviado
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 3 * * ?") // Cada día a las 3 AM
+    public void reconciliarCantidadParticipantes() {
+        logger.info("Ejecutando reconciliación del contador de participantes");
+        try {
+            int corregidos = partidoService.reconciliarCantidadParticipantes();
+            logger.info("Reconciliación de participantes completada. Partidos corregidos: {}", corregidos);
+        } catch (Exception e) {
+            logger.error("Error al reconciliar el contador de participantes: {}", e.getMessage());
+        }
+        try {
+            List<String> diferencias = estadisticasService.reconstruirAgregados();
+            logger.info("Reconstrucción de estadísticas agregadas completada. Diferencias: {}", diferencias.size());
+        } catch (Exception e) {
+            logger.error("Error al reconstruir las estadísticas agregadas: {}", e.getMessage());
+        }
+        try {
+            List<String> diferencias = calificacionService.reconstruirAgregados();
+            logger.info("Reconstrucción de calificaciones agregadas completada. Diferencias: {}", diferencias.size());
+        } catch (Exception e) {
+            logger.error("Error al reconstruir las calificaciones agregadas: {}", e.getMessage());
+        }
+    }
+
     /**
      * Ejecuta diariamente a las 2 AM para limpiar alertas antiguas (más de 30 días)
      */
@@ -78,5 +129,31 @@ public class ScheduledTasks {
             logger.error("Error al limpiar alertas antiguas: {}", e.getMessage());
         }
     }
-}
 
+    /**
+     * Ejecuta cada 5 minutos para descartar buckets de rate limiting sin uso. Los stores en
+     * memoria ya están acotados; esto libera antes los buckets de IPs que dejaron de pedir
+     */
+    @Scheduled(fixedDelay = 300000) // Cada 5 minutos (300000 ms)
+    public void limpiarBucketsRateLimiting() {
+        try {
+            long descartados = rateLimitingService.cleanup();
+            logger.debug("Limpieza de buckets de rate limiting completada. Descartados: {}", descartados);
+        } catch (Exception e) {
+            logger.error("Error al limpiar buckets de rate limiting: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ejecuta cada 10 minutos para descartar de la blacklist los tokens revocados que ya expiraron
+     */
+    @Scheduled(fixedDelay = 600000) // Cada 10 minutos (600000 ms)
+    public void limpiarTokensRevocados() {
+        try {
+            int descartados = tokenBlacklistService.cleanup();
+            logger.debug("Limpieza de tokens revocados completada. Descartados: {}", descartados);
+        } catch (Exception e) {
+            logger.error("Error al limpiar tokens revocados: {}", e.getMessage());
+        }
+    }
+}
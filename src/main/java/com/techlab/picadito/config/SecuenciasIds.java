@@ -0,0 +1,60 @@
+package com.techlab.picadito.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Alinea al iniciar las secuencias de IDs (&lt;tabla&gt;_seq) con los datos existentes.
+ *
+ * Las entidades toman sus IDs de secuencias con el optimizador pooled-lo: cada llamada a la
+ * secuencia reserva un bloque de 50 IDs en memoria, así Hibernate puede agrupar los INSERT en
+ * lotes JDBC (con IDENTITY necesita el ID de cada fila apenas la inserta y no agrupa nada).
+ *
+ * En una base que ya tenía filas con IDs de IDENTITY, la secuencia recién creada (por V8 o por
+ * ddl-auto) empieza en 1 y chocaría con esos IDs: si el próximo valor no supera el máximo de la
+ * tabla, se reinicia en MAX(id) + 1. Se consume un valor de cada secuencia por arranque, lo que
+ * deja un hueco de un bloque pero no repite IDs.
+ */
+@Component
+public class SecuenciasIds {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuenciasIds.class);
+
+    /** Tablas de las entidades con ID de secuencia; cada una usa &lt;tabla&gt;_seq (ver V8) */
+    static final List<String> TABLAS = List.of(
+        "alertas", "calificaciones", "categorias", "equipos", "lineas_partido_guardado",
+        "lineas_partido_seleccionado", "lineas_reserva", "participantes", "partidos",
+        "partidos_guardados", "partidos_seleccionados", "reservas", "sedes", "usuarios"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    // Depende del EntityManagerFactory para correr después de que ddl-auto cree las secuencias
+    public SecuenciasIds(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        alinear();
+    }
+
+    void alinear() {
+        for (String tabla : TABLAS) {
+            String secuencia = tabla + "_seq";
+            Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class);
+            Long proximo = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(secuencia), Long.class);
+            if (maximo != null && proximo != null && proximo <= maximo) {
+                logger.warn("La secuencia {} estaba en {} con IDs hasta {} en {}: se reinicia en {}",
+                        secuencia, proximo, maximo, tabla, maximo + 1);
+                jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + (maximo + 1));
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.techlab.picadito.config;
 
 import com.techlab.picadito.security.AuthenticationAuditService;
+import com.techlab.picadito.security.DetectorFuerzaBruta;
 import com.techlab.picadito.security.TokenBlacklistService;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Gauge;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
@@ -47,9 +49,17 @@ public class SecurityMetrics {
             "uniqueIps", auditMetrics.getUniqueIpsWithFailedAttempts(),
             "uniqueEmails", auditMetrics.getUniqueEmailsWithFailedAttempts(),
             "totalByIp", auditMetrics.getTotalFailedAttemptsByIp(),
-            "totalByEmail", auditMetrics.getTotalFailedAttemptsByEmail()
+            "totalByEmail", auditMetrics.getTotalFailedAttemptsByEmail(),
+            "evictedKeys", auditMetrics.getEvictedKeys()
         ));
         
+        metrics.put("distributedAttacks", Map.of(
+            "emailsFromManyIps", auditMetrics.getEmailsUnderDistributedAttack(),
+            "ipsAgainstManyEmails", auditMetrics.getIpsTargetingManyEmails()
+        ));
+        
+        metrics.put("suspiciousActivityDetections", auditMetrics.getDetections());
+        
         metrics.put("revokedTokens", tokenBlacklistService.getRevokedTokenCount());
         
         return metrics;
@@ -63,6 +73,14 @@ public class SecurityMetrics {
                 service -> service.getRevokedTokenCount())
             .description("Número de tokens JWT revocados")
             .register(meterRegistry);
+        
+        for (DetectorFuerzaBruta.TipoAtaque tipo : DetectorFuerzaBruta.TipoAtaque.values()) {
+            FunctionCounter.builder("security.suspicious.detections", auditService,
+                    service -> service.getDetecciones(tipo))
+                .description("Detecciones de actividad sospechosa en logins fallidos")
+                .tag("tipo", tipo.name())
+                .register(meterRegistry);
+        }
     }
 }
 
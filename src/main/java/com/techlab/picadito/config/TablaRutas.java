@@ -0,0 +1,70 @@
+package com.techlab.picadito.config;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Trie de prefijos de ruta por carácter. clasificar devuelve el valor del prefijo más largo que
+ * coincide con el inicio del path (la misma semántica que una cascada de startsWith), recorriendo
+ * el path una sola vez y sin crear objetos.
+ */
+public final class TablaRutas<T> {
+
+    private final Nodo<T> raiz = new Nodo<>();
+    private final T porDefecto;
+
+    public TablaRutas(Map<String, T> prefijos, T porDefecto) {
+        this.porDefecto = porDefecto;
+        prefijos.forEach(this::agregar);
+    }
+
+    private void agregar(String prefijo, T valor) {
+        Nodo<T> nodo = raiz;
+        for (int i = 0; i < prefijo.length(); i++) {
+            nodo = nodo.hijoOCrear(prefijo.charAt(i));
+        }
+        nodo.valor = valor;
+    }
+
+    public T clasificar(String path) {
+        T encontrado = porDefecto;
+        Nodo<T> nodo = raiz;
+        for (int i = 0; i < path.length() && nodo != null; i++) {
+            nodo = nodo.hijo(path.charAt(i));
+            if (nodo != null && nodo.valor != null) {
+                encontrado = nodo.valor;
+            }
+        }
+        return encontrado;
+    }
+
+    private static final class Nodo<T> {
+        // Pocos hijos por nodo: búsqueda lineal sobre arreglos paralelos
+        private char[] caracteres = new char[0];
+        @SuppressWarnings("unchecked")
+        private Nodo<T>[] hijos = new Nodo[0];
+        private T valor;
+
+        private Nodo<T> hijo(char c) {
+            for (int i = 0; i < caracteres.length; i++) {
+                if (caracteres[i] == c) {
+                    return hijos[i];
+                }
+            }
+            return null;
+        }
+
+        private Nodo<T> hijoOCrear(char c) {
+            Nodo<T> existente = hijo(c);
+            if (existente != null) {
+                return existente;
+            }
+            int n = caracteres.length;
+            caracteres = Arrays.copyOf(caracteres, n + 1);
+            hijos = Arrays.copyOf(hijos, n + 1);
+            caracteres[n] = c;
+            hijos[n] = new Nodo<>();
+            return hijos[n];
+        }
+    }
+}
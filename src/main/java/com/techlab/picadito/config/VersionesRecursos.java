@@ -0,0 +1,150 @@
+package com.techlab.picadito.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versiones en memoria de los recursos de lectura frecuente, para responder GET condicionales
+ * (If-None-Match) con 304 sin consultar la base ni serializar.
+ *
+ * Cada colección (partidos, sedes, categorías) tiene un contador que se incrementa después del
+ * commit de cualquier cambio que altere sus respuestas; el ETag de un listado es ese contador más
+ * los parámetros de la consulta. Para cada partido se guarda el ETag de la última respuesta
+ * (derivado de Partido.version) hasta que el partido o algo que se muestra con él cambia.
+ *
+ * Los ETags incluyen una época propia de cada arranque. Como el resto de los índices en memoria,
+ * solo ve los cambios hechos por esta instancia: con más de una instancia detrás de un balanceador,
+ * una instancia respondería 304 sobre datos que cambió otra. Por eso los ETags son para despliegues
+ * de una sola instancia; con varias se desactivan con app.etag.enabled=false (no se envía ETag ni
+ * se responde 304) y las versiones siguen sirviendo solo para RespuestasSerializadas, acotada por su TTL.
+ */
+@Component
+public class VersionesRecursos {
+
+    public enum Coleccion {
+        PARTIDOS,
+        SEDES,
+        CATEGORIAS
+    }
+
+    // Partidos con ETag guardado; por encima de este número los nuevos se validan contra la base
+    private static final int MAX_PARTIDOS = 50_000;
+
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Coleccion, AtomicLong> versiones = new EnumMap<>(Coleccion.class);
+    private final ConcurrentMap<Long, String> etagPorPartido = new ConcurrentHashMap<>();
+
+    private final boolean etagsHabilitados;
+
+    public VersionesRecursos() {
+        this(true);
+    }
+
+    @Autowired
+    public VersionesRecursos(@Value("${app.etag.enabled:true}") boolean etagsHabilitados) {
+        this.etagsHabilitados = etagsHabilitados;
+        for (Coleccion coleccion : Coleccion.values()) {
+            versiones.put(coleccion, new AtomicLong());
+        }
+    }
+
+    public long getVersion(Coleccion coleccion) {
+        return versiones.get(coleccion).get();
+    }
+
+    /**
+     * ETag de un listado con los parámetros dados, válido mientras la colección no cambie, o null
+     * si los ETags están desactivados
+     */
+    public String etag(Coleccion coleccion, Object... consulta) {
+        if (!etagsHabilitados) {
+            return null;
+        }
+        return "\"" + epoca + "-" + coleccion.name().toLowerCase() + "-" + getVersion(coleccion)
+                + "-" + Integer.toHexString(Arrays.hashCode(consulta)) + "\"";
+    }
+
+    /**
+     * ETag guardado para el partido, o null si hay que consultarlo
+     */
+    public String etagPartido(Long id) {
+        return etagsHabilitados ? etagPorPartido.get(id) : null;
+    }
+
+    /**
+     * Guarda el ETag de un partido recién consultado.
+     *
+     * @param versionAntes Versión de PARTIDOS leída antes de la consulta: si cambió, la respuesta
+     *                     puede ser anterior a ese cambio y el ETag no se guarda
+     * @return ETag de la respuesta, o null si los ETags están desactivados
+     */
+    public String registrarPartido(Long id, Long version, long versionAntes) {
+        if (!etagsHabilitados) {
+            return null;
+        }
+        String etag = "\"" + epoca + "-partido-" + id + "-" + version + "-" + versionAntes + "\"";
+        if (etagPorPartido.size() < MAX_PARTIDOS && getVersion(Coleccion.PARTIDOS) == versionAntes) {
+            etagPorPartido.put(id, etag);
+            // Un cambio confirmado entre la verificación y el put ya incrementó la versión
+            if (getVersion(Coleccion.PARTIDOS) != versionAntes) {
+                etagPorPartido.remove(id, etag);
+            }
+        }
+        return etag;
+    }
+
+    /**
+     * Cambió un partido o algo que se muestra con él (participantes, equipos, calificaciones)
+     */
+    public void partidoModificado(Long id) {
+        despuesDelCommit(() -> {
+            versiones.get(Coleccion.PARTIDOS).incrementAndGet();
+            etagPorPartido.remove(id);
+        });
+    }
+
+    /**
+     * Cambió una sede o una categoría: también cambian los partidos que la muestran
+     */
+    public void coleccionModificada(Coleccion coleccion) {
+        despuesDelCommit(() -> {
+            versiones.get(coleccion).incrementAndGet();
+            invalidarPartidos();
+        });
+    }
+
+    /**
+     * Cambios hechos con sentencias masivas que no pasan por los listeners
+     */
+    public void partidosModificados() {
+        despuesDelCommit(this::invalidarPartidos);
+    }
+
+    private void invalidarPartidos() {
+        versiones.get(Coleccion.PARTIDOS).incrementAndGet();
+        etagPorPartido.clear();
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.techlab.picadito.config;
+
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
+import com.techlab.picadito.model.Calificacion;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.Equipo;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de las entidades que forman las respuestas de partidos, sedes y categorías.
+ * VersionesRecursos aplica cada cambio después del commit.
+ */
+@Component
+public class VersionesRecursosListener {
+
+    @Autowired
+    private ObjectProvider<VersionesRecursos> versionesRecursos;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alModificar(Object entidad) {
+        // Sin contenedor de Spring (Hibernate instanciando el listener por reflexión) no hay versiones que mantener
+        VersionesRecursos versiones = versionesRecursos != null ? versionesRecursos.getIfAvailable() : null;
+        if (versiones == null) {
+            return;
+        }
+        switch (entidad) {
+            case Partido partido -> versiones.partidoModificado(partido.getId());
+            case Participante participante -> versiones.partidoModificado(participante.getPartido().getId());
+            case Equipo equipo -> versiones.partidoModificado(equipo.getPartido().getId());
+            case Calificacion calificacion -> versiones.partidoModificado(calificacion.getPartido().getId());
+            case Sede sede -> versiones.coleccionModificada(Coleccion.SEDES);
+            case Categoria categoria -> versiones.coleccionModificada(Coleccion.CATEGORIAS);
+            default -> { }
+        }
+    }
+}
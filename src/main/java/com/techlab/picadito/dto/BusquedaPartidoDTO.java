@@ -12,6 +12,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BusquedaPartidoDTO {
+    // Texto libre: busca en título, descripción, ubicación y creador
+    private String texto;
     private String titulo;
     private String ubicacion;
     private String creadorNombre;
@@ -23,5 +25,9 @@ public class BusquedaPartidoDTO {
     private Integer cuposDisponiblesMin;
     private Boolean soloDisponibles;
     private List<Long> categoriaIds;
+    // Búsqueda por cercanía: partidos disponibles en sedes dentro del radio, ordenados por distancia
+    private Double latitud;
+    private Double longitud;
+    private Double radioKm;
 }
 
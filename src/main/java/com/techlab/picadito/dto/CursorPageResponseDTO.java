@@ -0,0 +1,21 @@
+package com.techlab.picadito.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página obtenida por cursor (keyset). No informa totales porque no ejecuta count(*):
+ * el cliente pide la siguiente página enviando nextCursor mientras hasNext sea true.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -10,6 +10,7 @@ public class EstadisticasDTO {
     private Long totalUsuarios;
     private Double ingresosTotales;
     private Double ingresosPorPeriodo;
+    private Map<String, Long> reservasPorEstado;
     private List<PartidoPopularDTO> partidosPopulares;
     private List<UsuarioActivoDTO> usuariosActivos;
     private List<SedeUtilizadaDTO> sedesUtilizadas;
@@ -56,6 +57,14 @@ public class EstadisticasDTO {
         this.ingresosPorPeriodo = ingresosPorPeriodo;
     }
 
+    public Map<String, Long> getReservasPorEstado() {
+        return reservasPorEstado;
+    }
+
+    public void setReservasPorEstado(Map<String, Long> reservasPorEstado) {
+        this.reservasPorEstado = reservasPorEstado;
+    }
+
     public List<PartidoPopularDTO> getPartidosPopulares() {
         return partidosPopulares;
     }
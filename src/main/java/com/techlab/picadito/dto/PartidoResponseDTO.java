@@ -1,5 +1,6 @@
 package com.techlab.picadito.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.techlab.picadito.model.EstadoPartido;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +26,10 @@ public class PartidoResponseDTO {
     private List<CategoriaResponseDTO> categorias;
     private Double promedioCalificacion;
     private List<EquipoResponseDTO> equipos;
+    private Double distanciaKm;
+    // Versión del partido para el ETag de la respuesta; no se serializa
+    @JsonIgnore
+    private Long version;
 
     public Long getId() {
         return id;
@@ -177,5 +182,20 @@ public class PartidoResponseDTO {
     public void setEquipos(List<EquipoResponseDTO> equipos) {
         this.equipos = equipos;
     }
-}
 
+    public Double getDistanciaKm() {
+        return distanciaKm;
+    }
+
+    public void setDistanciaKm(Double distanciaKm) {
+        this.distanciaKm = distanciaKm;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
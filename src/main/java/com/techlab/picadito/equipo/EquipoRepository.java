@@ -1,14 +1,19 @@
 package com.techlab.picadito.equipo;
 
 import com.techlab.picadito.model.Equipo;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EquipoRepository extends JpaRepository<Equipo, Long> {
     
     List<Equipo> findByPartidoId(Long partidoId);
+    
+    @EntityGraph(attributePaths = {"participantes"})
+    List<Equipo> findByPartidoIdInOrderByIdAsc(Collection<Long> partidoIds);
 }
 
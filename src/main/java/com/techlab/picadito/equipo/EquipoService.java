@@ -56,8 +56,10 @@ public class EquipoService {
         Equipo equipo1 = Objects.requireNonNull(crearEquipo(partido, "Equipo A", equiposBalanceados.get(0)), "Error al crear equipo1");
         Equipo equipo2 = Objects.requireNonNull(crearEquipo(partido, "Equipo B", equiposBalanceados.get(1)), "Error al crear equipo2");
         
-        equipo1 = Objects.requireNonNull(equipoRepository.save(equipo1), "Error al guardar equipo1");
-        equipo2 = Objects.requireNonNull(equipoRepository.save(equipo2), "Error al guardar equipo2");
+        // Se guardan juntos para que los equipos y sus participantes salgan en un lote de INSERT por tabla
+        List<Equipo> guardados = equipoRepository.saveAll(List.of(equipo1, equipo2));
+        equipo1 = Objects.requireNonNull(guardados.get(0), "Error al guardar equipo1");
+        equipo2 = Objects.requireNonNull(guardados.get(1), "Error al guardar equipo2");
         
         logger.info("Equipos generados exitosamente. Equipo 1: {} participantes, Equipo 2: {} participantes",
                 equipo1.getCantidadParticipantes(), equipo2.getCantidadParticipantes());
@@ -0,0 +1,10 @@
+package com.techlab.picadito.exception;
+
+/**
+ * El servicio no tiene capacidad para atender la operación en este momento (se responde 503)
+ */
+public class ServicioSaturadoException extends RuntimeException {
+    public ServicioSaturadoException(String message) {
+        super(message);
+    }
+}
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 public class Alerta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alertas_seq")
+    @SequenceGenerator(name = "alertas_seq", sequenceName = "alertas_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -1,5 +1,6 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.config.VersionesRecursosListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -16,10 +17,12 @@ import java.time.LocalDateTime;
         @Index(name = "idx_calificaciones_partido_id", columnList = "partido_id"),
         @Index(name = "idx_calificaciones_usuario_id", columnList = "usuario_id")
     })
+@EntityListeners(VersionesRecursosListener.class)
 public class Calificacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calificaciones_seq")
+    @SequenceGenerator(name = "calificaciones_seq", sequenceName = "calificaciones_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "La puntuación es requerida")
@@ -0,0 +1,113 @@
+package com.techlab.picadito.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Suma y cantidad de calificaciones de una sede o de un creador de partidos.
+ * Las mantiene CalificacionesAgregadas al crear o eliminar una calificación; las de cada
+ * partido están en el propio Partido
+ */
+@Entity
+@Table(name = "calificaciones_agregadas")
+public class CalificacionAgregada {
+
+    public enum Ambito {
+        SEDE,
+        CREADOR
+    }
+
+    @EmbeddedId
+    private Clave id;
+
+    @Column(nullable = false)
+    private Long suma = 0L;
+
+    @Column(nullable = false)
+    private Integer cantidad = 0;
+
+    public Clave getId() {
+        return id;
+    }
+
+    public void setId(Clave id) {
+        this.id = id;
+    }
+
+    public Long getSuma() {
+        return suma;
+    }
+
+    public void setSuma(Long suma) {
+        this.suma = suma;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    /**
+     * Ámbito y clave (ID de la sede o nombre del creador)
+     */
+    @Embeddable
+    public static class Clave implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 20)
+        private Ambito ambito;
+
+        @Column(nullable = false, length = 100)
+        private String clave;
+
+        protected Clave() {
+        }
+
+        public Clave(Ambito ambito, String clave) {
+            this.ambito = ambito;
+            this.clave = clave;
+        }
+
+        public static Clave sede(Long sedeId) {
+            return new Clave(Ambito.SEDE, sedeId.toString());
+        }
+
+        public static Clave creador(String creadorNombre) {
+            return new Clave(Ambito.CREADOR, creadorNombre);
+        }
+
+        public Ambito getAmbito() {
+            return ambito;
+        }
+
+        public String getClave() {
+            return clave;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Clave otra)) {
+                return false;
+            }
+            return ambito == otra.ambito && Objects.equals(clave, otra.clave);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ambito, clave);
+        }
+
+        @Override
+        public String toString() {
+            return ambito.name().toLowerCase() + "[" + clave + "]";
+        }
+    }
+}
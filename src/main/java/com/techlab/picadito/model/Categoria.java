@@ -1,16 +1,24 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.config.CacheSegundoNivelConfig;
+import com.techlab.picadito.config.VersionesRecursosListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "categorias")
+@EntityListeners(VersionesRecursosListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_CATEGORIAS)
 public class Categoria {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categorias_seq")
+    @SequenceGenerator(name = "categorias_seq", sequenceName = "categorias_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre es requerido")
@@ -1,15 +1,18 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.config.VersionesRecursosListener;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "equipos")
+@EntityListeners(VersionesRecursosListener.class)
 public class Equipo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipos_seq")
+    @SequenceGenerator(name = "equipos_seq", sequenceName = "equipos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
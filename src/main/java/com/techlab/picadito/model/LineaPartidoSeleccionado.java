@@ -13,7 +13,8 @@ import lombok.NoArgsConstructor;
 public class LineaPartidoSeleccionado {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lineas_partido_seleccionado_seq")
+    @SequenceGenerator(name = "lineas_partido_seleccionado_seq", sequenceName = "lineas_partido_seleccionado_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
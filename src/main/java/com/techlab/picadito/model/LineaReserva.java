@@ -13,7 +13,8 @@ import lombok.NoArgsConstructor;
 public class LineaReserva {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lineas_reserva_seq")
+    @SequenceGenerator(name = "lineas_reserva_seq", sequenceName = "lineas_reserva_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
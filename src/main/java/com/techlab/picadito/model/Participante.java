@@ -1,5 +1,7 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.config.VersionesRecursosListener;
+import com.techlab.picadito.service.EstadisticasAgregadasListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
@@ -8,10 +10,12 @@ import java.time.LocalDateTime;
 @Table(name = "participantes", indexes = {
     @Index(name = "idx_participantes_partido_id", columnList = "partido_id")
 })
+@EntityListeners({EstadisticasAgregadasListener.class, VersionesRecursosListener.class})
 public class Participante {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participantes_seq")
+    @SequenceGenerator(name = "participantes_seq", sequenceName = "participantes_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre es requerido")
@@ -1,7 +1,12 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.config.VersionesRecursosListener;
+import com.techlab.picadito.partido.PartidoSearchIndexListener;
+import com.techlab.picadito.service.EstadisticasAgregadas;
+import com.techlab.picadito.service.EstadisticasAgregadasListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -13,12 +18,16 @@ import java.util.Set;
     @Index(name = "idx_partidos_estado", columnList = "estado"),
     @Index(name = "idx_partidos_fecha_hora", columnList = "fechaHora"),
     @Index(name = "idx_partidos_estado_fecha", columnList = "estado, fechaHora"),
-    @Index(name = "idx_partidos_sede_id", columnList = "sede_id")
+    @Index(name = "idx_partidos_sede_id", columnList = "sede_id"),
+    @Index(name = "idx_partidos_estado_cantidad", columnList = "estado, cantidad_participantes"),
+    @Index(name = "idx_partidos_cantidad_participantes", columnList = "cantidad_participantes")
 })
+@EntityListeners({PartidoSearchIndexListener.class, EstadisticasAgregadasListener.class, VersionesRecursosListener.class})
 public class Partido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "partidos_seq")
+    @SequenceGenerator(name = "partidos_seq", sequenceName = "partidos_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El título es requerido")
@@ -56,6 +65,27 @@ public class Partido {
     @Column(nullable = false)
     private Integer maxJugadores = 22;
 
+    /**
+     * Contador desnormalizado de participantes inscritos.
+     * Solo se modifica con las actualizaciones condicionales de PartidoRepository,
+     * por eso no se incluye en los UPDATE que genera Hibernate al guardar la entidad.
+     */
+    @ColumnDefault("0")
+    @Column(name = "cantidad_participantes", nullable = false, updatable = false)
+    private Integer cantidadParticipantes = 0;
+
+    /**
+     * Suma y cantidad de calificaciones del partido, mantenidas por CalificacionesAgregadas con
+     * actualizaciones atómicas al crear o eliminar una calificación (mismo criterio que cantidadParticipantes)
+     */
+    @ColumnDefault("0")
+    @Column(name = "suma_calificaciones", nullable = false, updatable = false)
+    private Long sumaCalificaciones = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "cantidad_calificaciones", nullable = false, updatable = false)
+    private Integer cantidadCalificaciones = 0;
+
     @Version
     private Long version;
 
@@ -84,6 +114,13 @@ public class Partido {
     @OneToMany(mappedBy = "partido", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Equipo> equipos = new ArrayList<>();
 
+    /**
+     * Aporte a las estadísticas agregadas tal como se leyó o guardó por última vez, para que
+     * EstadisticasAgregadasListener informe la diferencia al actualizar. Null si el partido se está
+     * eliminando. No se persiste.
+     */
+    private transient EstadisticasAgregadas.ContribucionPartido contribucionEstadisticas;
+
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
@@ -170,7 +207,39 @@ public class Partido {
     }
 
     public Integer getCantidadParticipantes() {
-        return participantes != null ? participantes.size() : 0;
+        return cantidadParticipantes != null ? cantidadParticipantes : 0;
+    }
+
+    public void setCantidadParticipantes(Integer cantidadParticipantes) {
+        this.cantidadParticipantes = cantidadParticipantes;
+    }
+
+    public Long getSumaCalificaciones() {
+        return sumaCalificaciones != null ? sumaCalificaciones : 0L;
+    }
+
+    public void setSumaCalificaciones(Long sumaCalificaciones) {
+        this.sumaCalificaciones = sumaCalificaciones;
+    }
+
+    public Integer getCantidadCalificaciones() {
+        return cantidadCalificaciones != null ? cantidadCalificaciones : 0;
+    }
+
+    public void setCantidadCalificaciones(Integer cantidadCalificaciones) {
+        this.cantidadCalificaciones = cantidadCalificaciones;
+    }
+
+    /**
+     * Promedio de calificaciones, o null si el partido no tiene calificaciones
+     */
+    public Double getPromedioCalificacion() {
+        int cantidad = getCantidadCalificaciones();
+        return cantidad > 0 ? (double) getSumaCalificaciones() / cantidad : null;
+    }
+
+    public int getCuposDisponibles() {
+        return maxJugadores - getCantidadParticipantes();
     }
 
     public boolean estaCompleto() {
@@ -228,5 +297,12 @@ public class Partido {
     public void setEquipos(List<Equipo> equipos) {
         this.equipos = equipos;
     }
-}
 
+    public EstadisticasAgregadas.ContribucionPartido getContribucionEstadisticas() {
+        return contribucionEstadisticas;
+    }
+
+    public void setContribucionEstadisticas(EstadisticasAgregadas.ContribucionPartido contribucionEstadisticas) {
+        this.contribucionEstadisticas = contribucionEstadisticas;
+    }
+}
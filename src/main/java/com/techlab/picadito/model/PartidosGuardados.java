@@ -17,7 +17,8 @@ import java.util.List;
 public class PartidosGuardados {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "partidos_guardados_seq")
+    @SequenceGenerator(name = "partidos_guardados_seq", sequenceName = "partidos_guardados_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne
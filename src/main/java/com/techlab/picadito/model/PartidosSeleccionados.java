@@ -17,7 +17,8 @@ import java.util.List;
 public class PartidosSeleccionados {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "partidos_seleccionados_seq")
+    @SequenceGenerator(name = "partidos_seleccionados_seq", sequenceName = "partidos_seleccionados_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne
@@ -1,5 +1,6 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.service.EstadisticasAgregadasListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,13 +15,15 @@ import java.util.List;
     @Index(name = "idx_reservas_usuario_id", columnList = "usuario_id"),
     @Index(name = "idx_reservas_estado", columnList = "estado")
 })
+@EntityListeners(EstadisticasAgregadasListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reserva {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.EAGER)
@@ -40,6 +43,12 @@ public class Reserva {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
     
+    /**
+     * Estado tal como se leyó o guardó por última vez, para que EstadisticasAgregadasListener
+     * informe los cambios de estado. No se persiste.
+     */
+    private transient EstadoReserva estadoEstadisticas;
+    
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
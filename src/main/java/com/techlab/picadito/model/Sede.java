@@ -1,22 +1,31 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.config.CacheSegundoNivelConfig;
+import com.techlab.picadito.config.VersionesRecursosListener;
+import com.techlab.picadito.sede.SedeGeoIndexListener;
+import com.techlab.picadito.util.GeoUtil;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "sedes")
+@EntityListeners({SedeGeoIndexListener.class, VersionesRecursosListener.class})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_SEDES)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Sede {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sedes_seq")
+    @SequenceGenerator(name = "sedes_seq", sequenceName = "sedes_seq", allocationSize = 50)
     private Long id;
     
     @Size(max = 200, message = "El nombre no puede exceder 200 caracteres")
@@ -39,6 +48,13 @@ public class Sede {
     @Column(nullable = true, length = 100)
     private String coordenadas;
     
+    // Coordenadas numéricas derivadas del texto libre de coordenadas (null si no se pudo interpretar)
+    @Column(nullable = true)
+    private Double latitud;
+    
+    @Column(nullable = true)
+    private Double longitud;
+    
     @Column(name = "fecha_creacion", nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
     
@@ -49,11 +65,22 @@ public class Sede {
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
         fechaActualizacion = LocalDateTime.now();
+        actualizarLatitudLongitud();
     }
     
     @PreUpdate
     protected void onUpdate() {
         fechaActualizacion = LocalDateTime.now();
+        actualizarLatitudLongitud();
+    }
+    
+    /**
+     * Recalcula latitud y longitud a partir del texto de coordenadas
+     */
+    public void actualizarLatitudLongitud() {
+        double[] latLon = GeoUtil.parsearCoordenadas(coordenadas);
+        latitud = latLon != null ? latLon[0] : null;
+        longitud = latLon != null ? latLon[1] : null;
     }
 }
 
@@ -1,9 +1,16 @@
 package com.techlab.picadito.model;
 
+import com.techlab.picadito.config.CacheSegundoNivelConfig;
+import com.techlab.picadito.security.UserDetailsCacheListener;
+import com.techlab.picadito.service.EstadisticasAgregadasListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
@@ -11,18 +18,24 @@ import java.time.LocalDateTime;
 @Table(name = "usuarios", indexes = {
     @Index(name = "idx_usuarios_email", columnList = "email", unique = true)
 })
+@EntityListeners({EstadisticasAgregadasListener.class, UserDetailsCacheListener.class})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_USUARIOS)
+@NaturalIdCache(region = CacheSegundoNivelConfig.REGION_USUARIOS_EMAIL)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Usuario {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
     private String nombre;
     
+    // Id natural: UsuarioRepository.findByEmail resuelve el id desde la cache de segundo nivel
+    @NaturalId
     @Column(nullable = false, unique = true, length = 100)
     private String email;
     
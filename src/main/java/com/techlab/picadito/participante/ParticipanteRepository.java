@@ -5,6 +5,7 @@ import com.techlab.picadito.model.Partido;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +13,9 @@ import java.util.Optional;
 public interface ParticipanteRepository extends JpaRepository<Participante, Long> {
     List<Participante> findByPartido(Partido partido);
     List<Participante> findByPartidoId(Long partidoId);
+    List<Participante> findByPartidoIdInOrderByIdAsc(Collection<Long> partidoIds);
     Optional<Participante> findByPartidoAndNombre(Partido partido, String nombre);
     boolean existsByPartidoAndNombre(Partido partido, String nombre);
+    boolean existsByPartidoIdAndNombre(Long partidoId, String nombre);
 }
 
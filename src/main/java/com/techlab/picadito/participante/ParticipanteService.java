@@ -4,12 +4,13 @@ import com.techlab.picadito.dto.ParticipanteDTO;
 import com.techlab.picadito.dto.ParticipanteResponseDTO;
 import com.techlab.picadito.dto.ParticipantesResponseDTO;
 import com.techlab.picadito.exception.BusinessException;
+import com.techlab.picadito.exception.CuposInsuficientesException;
 import com.techlab.picadito.exception.ResourceNotFoundException;
 import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Partido;
 import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.partido.CuposLedger;
 import com.techlab.picadito.partido.PartidoRepository;
-import com.techlab.picadito.partido.PartidoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +18,10 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -35,61 +39,103 @@ public class ParticipanteService {
     private PartidoRepository partidoRepository;
 
     @Autowired
-    private PartidoService partidoService;
+    private CuposLedger cuposLedger;
 
     public ParticipanteResponseDTO inscribirseAPartido(@NonNull Long partidoId, ParticipanteDTO participanteDTO) {
         logger.info("Inscribiendo participante {} al partido {}", participanteDTO.getNombre(), partidoId);
         
-        Partido partido = obtenerYValidarPartido(partidoId, participanteDTO);
-        Participante participante = crearYGuardarParticipante(participanteDTO, partido);
-        actualizarEstadoPartido(partidoId, partido);
+        Participante participante = inscribirParticipantes(partidoId, List.of(participanteDTO)).get(0);
 
         logger.info("Participante inscrito exitosamente con id: {}", participante.getId());
         return convertirADTO(participante);
     }
     
-    private Partido obtenerYValidarPartido(Long partidoId, ParticipanteDTO participanteDTO) {
-        Partido partido = partidoRepository.findById(partidoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Partido no encontrado con id: " + partidoId));
-
-        validarPartidoDisponible(partido);
-        validarPartidoNoCompleto(partido);
-        validarNombreNoDuplicado(partido, participanteDTO.getNombre());
-        
-        return partido;
+    /**
+     * Inscribe varios participantes en un partido reservando todos los cupos con una única
+     * actualización condicional del contador, sin cargar la colección de participantes.
+     * 
+     * @param partidoId ID del partido
+     * @param participantesDTO Participantes a inscribir
+     * @return Participantes guardados, en el mismo orden recibido
+     */
+    public List<Participante> inscribirParticipantes(@NonNull Long partidoId, List<ParticipanteDTO> participantesDTO) {
+        Map<Long, List<ParticipanteDTO>> participantesPorPartido = new LinkedHashMap<>();
+        participantesPorPartido.put(partidoId, participantesDTO);
+        return inscribirParticipantesEnPartidos(participantesPorPartido);
     }
     
-    private void validarPartidoDisponible(Partido partido) {
-        if (partido.getEstado() != EstadoPartido.DISPONIBLE) {
-            throw new BusinessException("No se puede inscribir a un partido que no está disponible. Estado actual: " + partido.getEstado());
+    /**
+     * Inscribe participantes en varios partidos. Primero reserva los cupos de todos los partidos
+     * y después guarda todos los participantes con un único saveAll: cada actualización del
+     * contador hace flush, y si se intercalara con los participantes cada partido saldría en su
+     * propio lote de INSERT.
+     * 
+     * @param participantesPorPartido Participantes a inscribir por ID de partido
+     * @return Participantes guardados, en el orden de los partidos y de cada lista
+     */
+    public List<Participante> inscribirParticipantesEnPartidos(Map<Long, List<ParticipanteDTO>> participantesPorPartido) {
+        participantesPorPartido.forEach((partidoId, participantesDTO) -> {
+            for (ParticipanteDTO participanteDTO : participantesDTO) {
+                validarNombreNoDuplicado(partidoId, participanteDTO.getNombre());
+            }
+        });
+        participantesPorPartido.forEach((partidoId, participantesDTO) -> reservarCupos(partidoId, participantesDTO.size()));
+
+        List<Participante> participantes = new ArrayList<>();
+        participantesPorPartido.forEach((partidoId, participantesDTO) -> {
+            Partido partido = partidoRepository.getReferenceById(partidoId);
+            for (ParticipanteDTO participanteDTO : participantesDTO) {
+                participantes.add(crearParticipante(participanteDTO, partido));
+            }
+        });
+        return participanteRepository.saveAll(participantes);
+    }
+    
+    private void reservarCupos(Long partidoId, int cantidad) {
+        // Con el ledger activo, los intentos que no entran se rechazan sin tocar la base
+        if (!cuposLedger.reservar(partidoId, cantidad)) {
+            throw new CuposInsuficientesException("No hay suficiente capacidad disponible en el partido. Cupos solicitados: " + cantidad);
+        }
+        cuposLedger.liberarSiRevierte(partidoId, cantidad);
+
+        if (partidoRepository.incrementarCantidadParticipantes(partidoId, cantidad) == 0) {
+            throw explicarRechazoDeInscripcion(partidoId, cantidad);
         }
     }
     
-    private void validarPartidoNoCompleto(Partido partido) {
+    /**
+     * Determina por qué la actualización condicional no reservó cupos, para informar el motivo real
+     */
+    private RuntimeException explicarRechazoDeInscripcion(Long partidoId, int cantidad) {
+        Partido partido = partidoRepository.findSinRelacionesById(partidoId)
+                .orElse(null);
+        if (partido == null) {
+            return new ResourceNotFoundException("Partido no encontrado con id: " + partidoId);
+        }
+        if (partido.getEstado() != EstadoPartido.DISPONIBLE) {
+            return new BusinessException("No se puede inscribir a un partido que no está disponible. Estado actual: " + partido.getEstado());
+        }
         if (partido.estaCompleto()) {
-            throw new BusinessException("El partido ya está completo. Máximo de jugadores: " + partido.getMaxJugadores());
+            return new BusinessException("El partido ya está completo. Máximo de jugadores: " + partido.getMaxJugadores());
         }
+        return new BusinessException("No hay suficiente capacidad disponible en el partido. Cupos solicitados: " + cantidad
+                + ", capacidad disponible: " + partido.getCuposDisponibles());
     }
     
-    private void validarNombreNoDuplicado(Partido partido, String nombre) {
-        if (participanteRepository.existsByPartidoAndNombre(partido, nombre)) {
+    private void validarNombreNoDuplicado(Long partidoId, String nombre) {
+        if (participanteRepository.existsByPartidoIdAndNombre(partidoId, nombre)) {
             throw new BusinessException("Ya existe un participante con el nombre '" + nombre + "' en este partido");
         }
     }
     
-    private Participante crearYGuardarParticipante(ParticipanteDTO participanteDTO, Partido partido) {
+    private Participante crearParticipante(ParticipanteDTO participanteDTO, Partido partido) {
         Participante participante = new Participante();
         participante.setNombre(participanteDTO.getNombre());
         participante.setApodo(participanteDTO.getApodo());
         participante.setPosicion(participanteDTO.getPosicion());
         participante.setNivel(participanteDTO.getNivel());
         participante.setPartido(partido);
-        return participanteRepository.save(participante);
-    }
-    
-    private void actualizarEstadoPartido(@NonNull Long partidoId, Partido partido) {
-        Partido partidoActualizado = partidoRepository.findById(partidoId).orElse(partido);
-        partidoService.actualizarEstadoSegunParticipantes(partidoActualizado);
+        return participante;
     }
 
     public ParticipantesResponseDTO obtenerParticipantesPorPartido(@NonNull Long partidoId) {
@@ -106,8 +152,9 @@ public class ParticipanteService {
 
     public void desinscribirseDePartido(@NonNull Long partidoId, @NonNull Long participanteId) {
         logger.info("Desinscribiendo participante {} del partido {}", participanteId, partidoId);
-        Partido partido = partidoRepository.findById(partidoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Partido no encontrado con id: " + partidoId));
+        if (!partidoRepository.existsById(partidoId)) {
+            throw new ResourceNotFoundException("Partido no encontrado con id: " + partidoId);
+        }
 
         Participante participante = participanteRepository.findById(participanteId)
                 .orElseThrow(() -> new ResourceNotFoundException("Participante no encontrado con id: " + participanteId));
@@ -117,10 +164,10 @@ public class ParticipanteService {
         }
 
         participanteRepository.delete(participante);
-        partido.getParticipantes().remove(participante);
 
-        // Actualizar estado del partido si ya no está completo
-        partidoService.actualizarEstadoSegunParticipantes(partido);
+        // Libera el cupo y, si el partido estaba completo, lo vuelve a dejar disponible
+        partidoRepository.decrementarCantidadParticipantes(partidoId, 1);
+        cuposLedger.liberar(partidoId, 1);
         logger.info("Participante desinscrito exitosamente");
     }
 
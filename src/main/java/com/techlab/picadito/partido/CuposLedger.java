@@ -0,0 +1,153 @@
+package com.techlab.picadito.partido;
+
+import com.techlab.picadito.model.Partido;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro en memoria de cupos ocupados por partido, para admitir o rechazar inscripciones
+ * antes de tocar la base de datos cuando un partido recibe muchas inscripciones simultáneas.
+ *
+ * Cada partido tiene su propio contador atómico que se reserva con compare-and-set, por lo que
+ * las inscripciones a partidos distintos no compiten entre sí. El contador se inicializa desde
+ * la columna cantidad_participantes la primera vez que se usa; la actualización condicional en
+ * la base sigue siendo la fuente de verdad y el ledger solo filtra los intentos que no pueden entrar.
+ *
+ * El estado es local a cada instancia: pensado para despliegues de una sola instancia, donde
+ * la reconciliación diaria (ver ScheduledTasks) también lo reinicia.
+ *
+ * Se activa con app.inscripciones.ledger.enabled=true. Desactivado, todas las reservas se admiten.
+ */
+@Component
+public class CuposLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(CuposLedger.class);
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Value("${app.inscripciones.ledger.enabled:false}")
+    private boolean habilitado;
+
+    private final ConcurrentMap<Long, Cupos> cuposPorPartido = new ConcurrentHashMap<>();
+
+    /**
+     * Intenta reservar cupos sin superar el máximo de jugadores del partido
+     *
+     * @param partidoId ID del partido
+     * @param cantidad Cupos a reservar
+     * @return true si hay lugar (o el ledger está desactivado), false si la reserva excedería la capacidad
+     */
+    public boolean reservar(Long partidoId, int cantidad) {
+        if (!habilitado) {
+            return true;
+        }
+        Cupos cupos = obtenerCupos(partidoId);
+        if (cupos == null) {
+            // Partido inexistente: se deja que la base informe el error
+            return true;
+        }
+        boolean reservado = cupos.reservar(cantidad);
+        if (!reservado) {
+            logger.debug("Ledger rechazó {} cupos en partido {} (ocupados: {}/{})",
+                    cantidad, partidoId, cupos.ocupados.get(), cupos.maximo);
+        }
+        return reservado;
+    }
+
+    /**
+     * Devuelve cupos al ledger (desinscripción o reserva que la base no confirmó)
+     */
+    public void liberar(Long partidoId, int cantidad) {
+        if (!habilitado) {
+            return;
+        }
+        Cupos cupos = cuposPorPartido.get(partidoId);
+        if (cupos != null) {
+            cupos.liberar(cantidad);
+        }
+    }
+
+    /**
+     * Libera los cupos reservados si la transacción actual termina en rollback,
+     * para que un fallo posterior a la reserva no deje lugares tomados en memoria
+     */
+    public void liberarSiRevierte(Long partidoId, int cantidad) {
+        if (!habilitado || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    liberar(partidoId, cantidad);
+                }
+            }
+        });
+    }
+
+    /**
+     * Descarta el estado de un partido para que se vuelva a leer de la base en el próximo uso
+     * (por ejemplo, cuando cambia su máximo de jugadores)
+     */
+    public void invalidar(Long partidoId) {
+        cuposPorPartido.remove(partidoId);
+    }
+
+    /**
+     * Descarta el estado de todos los partidos. Se usa después de reconciliar los contadores en la base
+     */
+    public void limpiar() {
+        cuposPorPartido.clear();
+    }
+
+    private Cupos obtenerCupos(Long partidoId) {
+        Cupos cupos = cuposPorPartido.get(partidoId);
+        if (cupos != null) {
+            return cupos;
+        }
+        // computeIfAbsent bloquea solo la entrada del partido mientras se lee de la base
+        return cuposPorPartido.computeIfAbsent(partidoId, id -> partidoRepository.findSinRelacionesById(id)
+                .map(Cupos::desde)
+                .orElse(null));
+    }
+
+    private static final class Cupos {
+        private final int maximo;
+        private final AtomicInteger ocupados;
+
+        private Cupos(int maximo, int ocupados) {
+            this.maximo = maximo;
+            this.ocupados = new AtomicInteger(ocupados);
+        }
+
+        static Cupos desde(Partido partido) {
+            return new Cupos(partido.getMaxJugadores(), partido.getCantidadParticipantes());
+        }
+
+        boolean reservar(int cantidad) {
+            while (true) {
+                int actuales = ocupados.get();
+                if (actuales + cantidad > maximo) {
+                    return false;
+                }
+                if (ocupados.compareAndSet(actuales, actuales + cantidad)) {
+                    return true;
+                }
+            }
+        }
+
+        void liberar(int cantidad) {
+            ocupados.updateAndGet(actuales -> Math.max(0, actuales - cantidad));
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.techlab.picadito.partido;
 
+import com.techlab.picadito.config.RespuestasSerializadas;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
 import com.techlab.picadito.dto.BusquedaPartidoDTO;
+import com.techlab.picadito.dto.CursorPageResponseDTO;
 import com.techlab.picadito.dto.PageResponseDTO;
 import com.techlab.picadito.dto.PartidoDTO;
 import com.techlab.picadito.dto.PartidoResponseDTO;
@@ -13,6 +17,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,6 +30,12 @@ public class PartidoController {
     @Autowired
     private PartidoService partidoService;
 
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private RespuestasSerializadas respuestasSerializadas;
+
     @GetMapping
     public ResponseEntity<PageResponseDTO<PartidoResponseDTO>> obtenerTodosLosPartidos(
             @RequestParam(defaultValue = "0") int page,
@@ -37,24 +48,68 @@ public class PartidoController {
         return ResponseEntity.ok(partidos);
     }
 
+    /**
+     * Paginación por cursor: se activa al enviar el parámetro cursor (vacío para la primera página)
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponseDTO<PartidoResponseDTO>> obtenerTodosLosPartidosPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "ASC") String direction) {
+        Sort.Direction sortDirection = "DESC".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(partidoService.obtenerTodosLosPartidosPorCursor(cursor, size, sortDirection));
+    }
+
     @GetMapping("/disponibles")
     public ResponseEntity<PageResponseDTO<PartidoResponseDTO>> obtenerPartidosDisponibles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "fechaHora") String sortBy,
-            @RequestParam(defaultValue = "ASC") String direction) {
+            @RequestParam(defaultValue = "ASC") String direction,
+            WebRequest webRequest) {
         Sort.Direction sortDirection = "DESC".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // Parámetros normalizados: "asc" y "ASC" comparten ETag y respuesta guardada
+        List<Object> consulta = List.of("disponibles", page, size, sortBy, sortDirection.name());
+        // Si el cliente tiene la versión actual se responde 304 sin consultar
+        if (webRequest.checkNotModified(versionesRecursos.etag(Coleccion.PARTIDOS, consulta.toArray()))) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        PageResponseDTO<PartidoResponseDTO> partidos = partidoService.obtenerPartidosDisponibles(pageable);
-        return ResponseEntity.ok(partidos);
+        return respuestasSerializadas.obtener(Coleccion.PARTIDOS, consulta,
+                () -> partidoService.obtenerPartidosDisponibles(pageable));
+    }
+
+    @GetMapping(value = "/disponibles", params = "cursor")
+    public ResponseEntity<CursorPageResponseDTO<PartidoResponseDTO>> obtenerPartidosDisponiblesPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "ASC") String direction,
+            WebRequest webRequest) {
+        Sort.Direction sortDirection = "DESC".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (webRequest.checkNotModified(versionesRecursos.etag(Coleccion.PARTIDOS, "disponibles-cursor", cursor, size, sortDirection.name()))) {
+            return null;
+        }
+        return ResponseEntity.ok(partidoService.obtenerPartidosDisponiblesPorCursor(cursor, size, sortDirection));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PartidoResponseDTO> obtenerPartidoPorId(
-            @PathVariable String id) {
+            @PathVariable String id,
+            WebRequest webRequest) {
         try {
             Long idLong = Long.parseLong(id);
+            String etag = versionesRecursos.etagPartido(idLong);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            long versionAntes = versionesRecursos.getVersion(Coleccion.PARTIDOS);
             PartidoResponseDTO partido = partidoService.obtenerPartidoPorId(idLong);
+            if (etag == null) {
+                // Primera consulta desde el último cambio: el ETag sale de Partido.version
+                return ResponseEntity.ok()
+                        .eTag(versionesRecursos.registrarPartido(idLong, partido.getVersion(), versionAntes))
+                        .body(partido);
+            }
             return ResponseEntity.ok(partido);
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
@@ -0,0 +1,51 @@
+package com.techlab.picadito.partido;
+
+import com.techlab.picadito.exception.ValidationException;
+import com.techlab.picadito.model.Partido;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la paginación por cursor sobre (fechaHora, id). Se envía al cliente como un
+ * token opaco en Base64 URL-safe que también guarda la dirección del orden.
+ */
+record PartidoCursor(Sort.Direction direccion, LocalDateTime fechaHora, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    static PartidoCursor despuesDe(Partido partido, Sort.Direction direccion) {
+        return new PartidoCursor(direccion, partido.getFechaHora(), partido.getId());
+    }
+
+    String codificar() {
+        String valor = direccion.name() + SEPARADOR + fechaHora + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Token recibido del cliente
+     * @return La posición decodificada, o null si el cursor está vacío (primera página)
+     */
+    static PartidoCursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\" + SEPARADOR);
+            if (partes.length != 3) {
+                throw new ValidationException("Cursor de paginación inválido");
+            }
+            return new PartidoCursor(
+                    Sort.Direction.valueOf(partes[0]),
+                    LocalDateTime.parse(partes[1]),
+                    Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.techlab.picadito.partido;
+
+import com.techlab.picadito.dto.CategoriaResponseDTO;
+import com.techlab.picadito.dto.EquipoResponseDTO;
+import com.techlab.picadito.dto.ParticipanteResponseDTO;
+import com.techlab.picadito.dto.PartidoResponseDTO;
+import com.techlab.picadito.dto.SedeResponseDTO;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.Equipo;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Conversión de Partido y sus relaciones a DTOs, compartida por el detalle (PartidoService) y
+ * las páginas (PartidoPageAssembler): cada camino carga las relaciones a su manera, pero el DTO
+ * sale siempre de acá. Las colecciones se ordenan por ID para que los dos caminos devuelvan el
+ * mismo JSON sin depender del orden en que las trajo la base.
+ */
+@Component
+public class PartidoMapper {
+
+    /**
+     * Arma el DTO del partido con las relaciones ya cargadas
+     *
+     * @param sede Sede del partido, o null si no tiene o no se encontró
+     */
+    public PartidoResponseDTO toPartidoResponseDTO(Partido partido, Collection<Participante> participantes,
+                                                   Collection<Categoria> categorias, Sede sede,
+                                                   Collection<Equipo> equipos) {
+        PartidoResponseDTO dto = new PartidoResponseDTO();
+        dto.setId(partido.getId());
+        dto.setTitulo(partido.getTitulo());
+        dto.setDescripcion(partido.getDescripcion());
+        dto.setFechaHora(partido.getFechaHora());
+        dto.setUbicacion(partido.getUbicacion());
+        dto.setMaxJugadores(partido.getMaxJugadores());
+        dto.setEstado(partido.getEstado());
+        dto.setCreadorNombre(partido.getCreadorNombre());
+        dto.setFechaCreacion(partido.getFechaCreacion());
+        dto.setVersion(partido.getVersion());
+        dto.setCantidadParticipantes(partido.getCantidadParticipantes());
+        dto.setPrecio(partido.getPrecio());
+        dto.setImagenUrl(partido.getImagenUrl());
+        // Suma y cantidad se mantienen en el partido al calificar: no hace falta consultar las calificaciones
+        dto.setPromedioCalificacion(partido.getPromedioCalificacion());
+
+        dto.setParticipantes(ordenarPorId(participantes, Participante::getId, this::toParticipanteResponseDTO));
+        List<CategoriaResponseDTO> categoriasDTO = ordenarPorId(categorias, Categoria::getId, this::toCategoriaResponseDTO);
+        dto.setCategorias(categoriasDTO);
+        dto.setCategoriaIds(categoriasDTO.stream().map(CategoriaResponseDTO::getId).collect(Collectors.toList()));
+        // El ID sale del proxy lazy sin inicializarlo
+        if (partido.getSede() != null) {
+            dto.setSedeId(partido.getSede().getId());
+            dto.setSede(sede != null ? toSedeResponseDTO(sede) : null);
+        }
+        dto.setEquipos(ordenarPorId(equipos, Equipo::getId, this::toEquipoResponseDTO));
+        return dto;
+    }
+
+    public CategoriaResponseDTO toCategoriaResponseDTO(Categoria categoria) {
+        CategoriaResponseDTO categoriaDTO = new CategoriaResponseDTO();
+        categoriaDTO.setId(categoria.getId());
+        categoriaDTO.setNombre(categoria.getNombre());
+        categoriaDTO.setDescripcion(categoria.getDescripcion());
+        categoriaDTO.setIcono(categoria.getIcono());
+        categoriaDTO.setColor(categoria.getColor());
+        categoriaDTO.setFechaCreacion(categoria.getFechaCreacion());
+        categoriaDTO.setFechaActualizacion(categoria.getFechaActualizacion());
+        return categoriaDTO;
+    }
+
+    public SedeResponseDTO toSedeResponseDTO(Sede sede) {
+        SedeResponseDTO sedeDTO = new SedeResponseDTO();
+        sedeDTO.setId(sede.getId());
+        sedeDTO.setNombre(sede.getNombre());
+        sedeDTO.setDireccion(sede.getDireccion());
+        sedeDTO.setDescripcion(sede.getDescripcion());
+        sedeDTO.setTelefono(sede.getTelefono());
+        sedeDTO.setCoordenadas(sede.getCoordenadas());
+        sedeDTO.setFechaCreacion(sede.getFechaCreacion());
+        sedeDTO.setFechaActualizacion(sede.getFechaActualizacion());
+        return sedeDTO;
+    }
+
+    public EquipoResponseDTO toEquipoResponseDTO(Equipo equipo) {
+        EquipoResponseDTO dto = new EquipoResponseDTO();
+        dto.setId(equipo.getId());
+        dto.setNombre(equipo.getNombre());
+        dto.setPartidoId(equipo.getPartido().getId());
+        dto.setCantidadParticipantes(equipo.getCantidadParticipantes());
+        dto.setParticipantes(ordenarPorId(equipo.getParticipantes(), Participante::getId, this::toParticipanteResponseDTO));
+        return dto;
+    }
+
+    public ParticipanteResponseDTO toParticipanteResponseDTO(Participante participante) {
+        ParticipanteResponseDTO dto = new ParticipanteResponseDTO();
+        dto.setId(participante.getId());
+        dto.setNombre(participante.getNombre());
+        dto.setApodo(participante.getApodo());
+        dto.setPosicion(participante.getPosicion());
+        dto.setNivel(participante.getNivel());
+        dto.setFechaInscripcion(participante.getFechaInscripcion());
+        return dto;
+    }
+
+    private <E, D> List<D> ordenarPorId(Collection<E> entidades, Function<E, Long> id, Function<E, D> convertir) {
+        if (entidades == null || entidades.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return entidades.stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(id, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(convertir)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,134 @@
+package com.techlab.picadito.partido;
+
+import com.techlab.picadito.dto.PartidoResponseDTO;
+import com.techlab.picadito.equipo.EquipoRepository;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.Equipo;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.participante.ParticipanteRepository;
+import com.techlab.picadito.sede.SedeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Arma los DTOs de una página de partidos con un número constante de consultas.
+ * En lugar de resolver equipos, categorías, sede y participantes partido por partido,
+ * los trae agrupados por los IDs de la página y los combina en memoria. El promedio de
+ * calificaciones sale de la suma y cantidad guardadas en cada partido. Los DTOs los arma
+ * PartidoMapper, el mismo que usa el detalle de un partido.
+ */
+@Component
+@Transactional(readOnly = true)
+public class PartidoPageAssembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartidoPageAssembler.class);
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private ParticipanteRepository participanteRepository;
+
+    @Autowired
+    private EquipoRepository equipoRepository;
+
+    @Autowired
+    private PartidoMapper partidoMapper;
+
+    /**
+     * Convierte una lista de partidos a DTOs respetando el orden recibido
+     *
+     * @param partidos Partidos de la página (sin relaciones inicializadas)
+     * @return DTOs completos, en el mismo orden que la lista original
+     */
+    public List<PartidoResponseDTO> ensamblar(List<Partido> partidos) {
+        if (partidos == null || partidos.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> partidoIds = partidos.stream()
+                .map(Partido::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        logger.debug("Ensamblando {} partidos en lote", partidoIds.size());
+
+        Map<Long, List<Participante>> participantesPorPartido = cargarParticipantes(partidoIds);
+        Map<Long, List<Categoria>> categoriasPorPartido = cargarCategorias(partidoIds);
+        Map<Long, Sede> sedesPorId = cargarSedes(partidos);
+        Map<Long, List<Equipo>> equiposPorPartido = cargarEquipos(partidoIds);
+
+        List<PartidoResponseDTO> resultado = new ArrayList<>(partidos.size());
+        for (Partido partido : partidos) {
+            Long sedeId = obtenerSedeId(partido);
+            resultado.add(partidoMapper.toPartidoResponseDTO(partido,
+                    participantesPorPartido.get(partido.getId()),
+                    categoriasPorPartido.get(partido.getId()),
+                    sedeId != null ? sedesPorId.get(sedeId) : null,
+                    equiposPorPartido.get(partido.getId())));
+        }
+        return resultado;
+    }
+
+    private Map<Long, List<Participante>> cargarParticipantes(Set<Long> partidoIds) {
+        Map<Long, List<Participante>> resultado = new HashMap<>();
+        for (Participante participante : participanteRepository.findByPartidoIdInOrderByIdAsc(partidoIds)) {
+            resultado.computeIfAbsent(participante.getPartido().getId(), id -> new ArrayList<>()).add(participante);
+        }
+        return resultado;
+    }
+
+    private Map<Long, List<Categoria>> cargarCategorias(Set<Long> partidoIds) {
+        Map<Long, List<Categoria>> resultado = new HashMap<>();
+        for (Object[] fila : partidoRepository.findCategoriasByPartidoIds(partidoIds)) {
+            Long partidoId = (Long) fila[0];
+            Categoria categoria = (Categoria) fila[1];
+            resultado.computeIfAbsent(partidoId, id -> new ArrayList<>()).add(categoria);
+        }
+        return resultado;
+    }
+
+    private Map<Long, Sede> cargarSedes(List<Partido> partidos) {
+        Set<Long> sedeIds = partidos.stream()
+                .map(this::obtenerSedeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (sedeIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return sedeRepository.findAllById(sedeIds).stream()
+                .collect(Collectors.toMap(Sede::getId, Function.identity()));
+    }
+
+    private Map<Long, List<Equipo>> cargarEquipos(Set<Long> partidoIds) {
+        Map<Long, List<Equipo>> resultado = new HashMap<>();
+        for (Equipo equipo : equipoRepository.findByPartidoIdInOrderByIdAsc(partidoIds)) {
+            resultado.computeIfAbsent(equipo.getPartido().getId(), id -> new ArrayList<>()).add(equipo);
+        }
+        return resultado;
+    }
+
+    /**
+     * Lee el ID de la sede sin inicializar el proxy lazy
+     */
+    private Long obtenerSedeId(Partido partido) {
+        return partido.getSede() != null ? partido.getSede().getId() : null;
+    }
+}
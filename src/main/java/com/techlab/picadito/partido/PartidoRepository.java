@@ -2,16 +2,23 @@ package com.techlab.picadito.partido;
 
 import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Partido;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PartidoRepository extends JpaRepository<Partido, Long>, JpaSpecificationExecutor<Partido> {
@@ -20,7 +27,7 @@ public interface PartidoRepository extends JpaRepository<Partido, Long>, JpaSpec
     @EntityGraph(attributePaths = {"participantes", "sede", "categorias"})
     List<Partido> findByEstadoOrderByFechaHoraAsc(EstadoPartido estado);
     
-    @EntityGraph(attributePaths = {"participantes", "sede", "categorias"})
+    @EntityGraph(attributePaths = {"sede", "categorias"})
     @Override
     @NonNull
     Optional<Partido> findById(@NonNull Long id);
@@ -36,7 +43,156 @@ public interface PartidoRepository extends JpaRepository<Partido, Long>, JpaSpec
     
     List<Partido> findByFechaCreacionBetweenOrderByFechaCreacionAsc(java.time.LocalDateTime fechaInicio, java.time.LocalDateTime fechaFin);
     
-    @Query("SELECT p FROM Partido p WHERE SIZE(p.participantes) > :cantidad")
-    List<Partido> findByCantidadParticipantesGreaterThan(@Param("cantidad") Integer cantidad);
-}
+    List<Partido> findByCantidadParticipantesGreaterThan(Integer cantidad);
+    
+    /**
+     * Totales de los partidos creados en el período, agrupados por estado
+     */
+    @Query("SELECT new com.techlab.picadito.partido.PartidosPorEstado(p.estado, COUNT(p), " +
+           "SUM(COALESCE(p.cantidadParticipantes, 0)), " +
+           "SUM(CASE WHEN COALESCE(p.cantidadParticipantes, 0) >= p.maxJugadores THEN 1 ELSE 0 END)) " +
+           "FROM Partido p WHERE p.fechaCreacion BETWEEN :fechaInicio AND :fechaFin GROUP BY p.estado")
+    List<PartidosPorEstado> resumirPorEstadoEntre(@Param("fechaInicio") java.time.LocalDateTime fechaInicio,
+                                                  @Param("fechaFin") java.time.LocalDateTime fechaFin);
+    
+    /**
+     * Partidos creados en el período para exportar, leídos de a lotes con un cursor de la base.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Partido p WHERE p.fechaCreacion BETWEEN :fechaInicio AND :fechaFin ORDER BY p.fechaCreacion, p.id")
+    Stream<Partido> streamParaExportacion(@Param("fechaInicio") java.time.LocalDateTime fechaInicio,
+                                          @Param("fechaFin") java.time.LocalDateTime fechaFin);
+    
+    @Query("SELECT p FROM Partido p WHERE p.estado = :estado " +
+           "AND (p.maxJugadores - p.cantidadParticipantes) <= :capacidadMaxima " +
+           "ORDER BY (p.maxJugadores - p.cantidadParticipantes) ASC, p.fechaHora ASC")
+    List<Partido> findByEstadoConCapacidadDisponibleHasta(@Param("estado") EstadoPartido estado,
+                                                          @Param("capacidadMaxima") Integer capacidadMaxima);
+    
+    /**
+     * Carga el partido sin relaciones, para validaciones que solo leen columnas propias
+     */
+    @Query("SELECT p FROM Partido p WHERE p.id = :id")
+    Optional<Partido> findSinRelacionesById(@Param("id") Long id);
+    
+    /**
+     * Reserva cupos de forma atómica: suma {@code cantidad} al contador solo si el partido está
+     * disponible y no se supera el máximo de jugadores. Si se llena, pasa a COMPLETO en la misma sentencia.
+     * El estado se asigna antes que el contador para que la expresión use el valor previo en todos los motores.
+     *
+     * Vacía el contexto de persistencia después de la sentencia: un Partido ya cargado tendría el
+     * contador y la versión anteriores (y el próximo guardado fallaría por versión). Las entidades
+     * cargadas antes quedan desasociadas: para guardar cambios posteriores hay que usar save.
+     *
+     * @return 1 si se reservaron los cupos, 0 si el partido no existe, no está disponible o no hay capacidad
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Partido p SET " +
+           "p.estado = CASE WHEN p.cantidadParticipantes + :cantidad >= p.maxJugadores " +
+           "THEN com.techlab.picadito.model.EstadoPartido.COMPLETO ELSE p.estado END, " +
+           "p.cantidadParticipantes = p.cantidadParticipantes + :cantidad, " +
+           "p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.estado = com.techlab.picadito.model.EstadoPartido.DISPONIBLE " +
+           "AND p.cantidadParticipantes + :cantidad <= p.maxJugadores")
+    int incrementarCantidadParticipantes(@Param("id") Long id, @Param("cantidad") int cantidad);
+    
+    /**
+     * Libera cupos de forma atómica. Si el partido estaba COMPLETO y queda lugar, vuelve a DISPONIBLE.
+     * Vacía el contexto de persistencia igual que incrementarCantidadParticipantes.
+     *
+     * @return 1 si se liberaron los cupos, 0 si el partido no existe o el contador quedaría negativo
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Partido p SET " +
+           "p.estado = CASE WHEN p.estado = com.techlab.picadito.model.EstadoPartido.COMPLETO " +
+           "AND p.cantidadParticipantes - :cantidad < p.maxJugadores " +
+           "THEN com.techlab.picadito.model.EstadoPartido.DISPONIBLE ELSE p.estado END, " +
+           "p.cantidadParticipantes = p.cantidadParticipantes - :cantidad, " +
+           "p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.cantidadParticipantes - :cantidad >= 0")
+    int decrementarCantidadParticipantes(@Param("id") Long id, @Param("cantidad") int cantidad);
+    
+    /**
+     * Recalcula el contador desde la tabla de participantes en los partidos donde está desfasado
+     *
+     * @return Cantidad de partidos corregidos
+     */
+    @Modifying
+    // Solo toca la tabla partidos: sin este hint Hibernate vacía todas las regiones de la cache de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "partidos"))
+    @Query(value = "UPDATE partidos SET cantidad_participantes = " +
+                   "(SELECT COUNT(*) FROM participantes pa WHERE pa.partido_id = partidos.id) " +
+                   "WHERE cantidad_participantes <> " +
+                   "(SELECT COUNT(*) FROM participantes pa WHERE pa.partido_id = partidos.id)",
+           nativeQuery = true)
+    int reconciliarCantidadParticipantes();
+    
+    /**
+     * Suma puntos y calificaciones al partido de forma atómica. No cambia la versión: las columnas
+     * no se incluyen en los UPDATE de la entidad, así que un guardado concurrente no las pisa
+     *
+     * @return 1 si el partido existe, 0 si no
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Partido p SET p.sumaCalificaciones = p.sumaCalificaciones + :puntos, " +
+           "p.cantidadCalificaciones = p.cantidadCalificaciones + :cantidad WHERE p.id = :id")
+    int sumarCalificaciones(@Param("id") Long id, @Param("puntos") long puntos, @Param("cantidad") int cantidad);
+    
+    /**
+     * Reemplaza la suma y cantidad de calificaciones por las recalculadas desde la tabla
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Partido p SET p.sumaCalificaciones = :suma, p.cantidadCalificaciones = :cantidad WHERE p.id = :id")
+    int fijarCalificaciones(@Param("id") Long id, @Param("suma") long suma, @Param("cantidad") int cantidad);
+    
+    /**
+     * Devuelve filas [partidoId, suma, cantidad] de los partidos con calificaciones registradas
+     */
+    @Query("SELECT p.id, p.sumaCalificaciones, p.cantidadCalificaciones FROM Partido p " +
+           "WHERE p.cantidadCalificaciones <> 0 OR p.sumaCalificaciones <> 0")
+    List<Object[]> findAgregadosDeCalificaciones();
+    
+    /**
+     * Devuelve pares [partidoId, categoria] para un conjunto de partidos en una sola consulta
+     */
+    @Query("SELECT p.id, c FROM Partido p JOIN p.categorias c WHERE p.id IN :partidoIds")
+    List<Object[]> findCategoriasByPartidoIds(@Param("partidoIds") Collection<Long> partidoIds);
+
+    /**
+     * Textos de todos los partidos para reconstruir el índice de búsqueda: [id, titulo, descripcion, ubicacion, creadorNombre]
+     */
+    @Query("SELECT p.id, p.titulo, p.descripcion, p.ubicacion, p.creadorNombre FROM Partido p")
+    List<Object[]> findTextosParaBusqueda();
+
+    /**
+     * Partidos por sede para reconstruir las estadísticas agregadas: [sedeId, cantidad]
+     */
+    @Query("SELECT p.sede.id, COUNT(p) FROM Partido p WHERE p.sede IS NOT NULL GROUP BY p.sede.id")
+    List<Object[]> contarPorSede();
 
+    /**
+     * Partidos por categoría para reconstruir las estadísticas agregadas: [categoriaId, cantidad]
+     */
+    @Query("SELECT c.id, COUNT(p) FROM Partido p JOIN p.categorias c GROUP BY c.id")
+    List<Object[]> contarPorCategoria();
+
+    /**
+     * Partidos con capacidad y suma de sus porcentajes de ocupación: [cantidad, sumaOcupacion]
+     */
+    @Query("SELECT COUNT(p), COALESCE(SUM(CAST(p.cantidadParticipantes AS Double) * 100 / p.maxJugadores), 0) " +
+           "FROM Partido p WHERE p.maxJugadores > 0")
+    List<Object[]> sumarOcupacion();
+
+    /**
+     * Partidos con más participantes inscritos (al menos uno), desempatando por ID
+     */
+    @Query("SELECT p FROM Partido p WHERE p.cantidadParticipantes > 0 ORDER BY p.cantidadParticipantes DESC, p.id ASC")
+    List<Partido> findMasPopulares(Pageable pageable);
+
+    @Query("SELECT p.maxJugadores FROM Partido p WHERE p.id = :id")
+    Optional<Integer> findMaxJugadoresById(@Param("id") Long id);
+}
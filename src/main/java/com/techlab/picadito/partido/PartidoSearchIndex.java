@@ -0,0 +1,220 @@
+package com.techlab.picadito.partido;
+
+import com.techlab.picadito.dto.BusquedaPartidoDTO;
+import com.techlab.picadito.model.Partido;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre título, descripción, ubicación y creador de los partidos.
+ *
+ * Reemplaza los filtros lower(col) LIKE '%término%' de la búsqueda, que no pueden usar índices.
+ * Los textos se separan en palabras normalizadas (minúsculas y sin acentos, "Fútbol" -> "futbol")
+ * y cada palabra apunta a los IDs de los partidos que la contienen. Una palabra buscada coincide
+ * con las palabras indexadas que empiezan con ella, y todas las palabras buscadas deben coincidir.
+ *
+ * El índice se reconstruye desde la base al iniciar la aplicación y se mantiene al día con los
+ * eventos de persistencia de Partido (ver PartidoSearchIndexListener). Hasta que está listo,
+ * la búsqueda sigue usando los filtros LIKE.
+ */
+@Component
+public class PartidoSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartidoSearchIndex.class);
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    enum Campo { TITULO, DESCRIPCION, UBICACION, CREADOR }
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    private final Map<Campo, NavigableMap<String, Set<Long>>> postings = new EnumMap<>(Campo.class);
+    private final Map<Long, Map<Campo, Set<String>>> palabrasPorPartido = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean listo = false;
+
+    public PartidoSearchIndex() {
+        for (Campo campo : Campo.values()) {
+            postings.put(campo, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Carga todos los partidos desde la base. Se ejecuta al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Map::clear);
+            palabrasPorPartido.clear();
+            for (Object[] fila : partidoRepository.findTextosParaBusqueda()) {
+                indexarSinBloqueo((Long) fila[0], (String) fila[1], (String) fila[2], (String) fila[3], (String) fila[4]);
+            }
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de búsqueda de partidos reconstruido: {} partidos en {} ms",
+                palabrasPorPartido.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * Indica si la búsqueda tiene criterios de texto que este índice puede resolver
+     */
+    public boolean puedeResolver(BusquedaPartidoDTO busqueda) {
+        return listo && (tieneTexto(busqueda.getTexto()) || tieneTexto(busqueda.getTitulo())
+                || tieneTexto(busqueda.getUbicacion()) || tieneTexto(busqueda.getCreadorNombre()));
+    }
+
+    /**
+     * Resuelve los criterios de texto de la búsqueda
+     *
+     * @param busqueda Criterios de búsqueda (solo se usan los de texto)
+     * @return IDs de los partidos que cumplen todos los criterios de texto
+     */
+    public Set<Long> buscar(BusquedaPartidoDTO busqueda) {
+        lock.readLock().lock();
+        try {
+            Set<Long> resultado = null;
+            resultado = intersectar(resultado, busqueda.getTitulo(), List.of(Campo.TITULO));
+            resultado = intersectar(resultado, busqueda.getUbicacion(), List.of(Campo.UBICACION));
+            resultado = intersectar(resultado, busqueda.getCreadorNombre(), List.of(Campo.CREADOR));
+            resultado = intersectar(resultado, busqueda.getTexto(), List.of(Campo.values()));
+            return resultado != null ? resultado : new HashSet<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza las palabras indexadas de un partido
+     */
+    public void indexar(Long id, String titulo, String descripcion, String ubicacion, String creadorNombre) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinBloqueo(id);
+            indexarSinBloqueo(id, titulo, descripcion, ubicacion, creadorNombre);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexar(Partido partido) {
+        indexar(partido.getId(), partido.getTitulo(), partido.getDescripcion(), partido.getUbicacion(), partido.getCreadorNombre());
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinBloqueo(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Separa un texto en palabras en minúsculas y sin acentos
+     */
+    static Set<String> tokenizar(String texto) {
+        Set<String> palabras = new LinkedHashSet<>();
+        if (texto == null) {
+            return palabras;
+        }
+        String normalizado = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        for (String palabra : SEPARADORES.split(normalizado.toLowerCase(Locale.ROOT))) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    private Set<Long> intersectar(Set<Long> acumulado, String consulta, Collection<Campo> campos) {
+        if (!tieneTexto(consulta)) {
+            return acumulado;
+        }
+        Set<Long> resultado = acumulado;
+        for (String prefijo : tokenizar(consulta)) {
+            Set<Long> coincidencias = new HashSet<>();
+            for (Campo campo : campos) {
+                // Todas las palabras que empiezan con el prefijo quedan en un rango contiguo del TreeMap
+                postings.get(campo).subMap(prefijo, true, prefijo + Character.MAX_VALUE, false)
+                        .values()
+                        .forEach(coincidencias::addAll);
+            }
+            if (resultado == null) {
+                resultado = coincidencias;
+            } else {
+                resultado.retainAll(coincidencias);
+            }
+            if (resultado.isEmpty()) {
+                break;
+            }
+        }
+        return resultado != null ? resultado : acumulado;
+    }
+
+    private void indexarSinBloqueo(Long id, String titulo, String descripcion, String ubicacion, String creadorNombre) {
+        Map<Campo, Set<String>> palabras = new EnumMap<>(Campo.class);
+        palabras.put(Campo.TITULO, tokenizar(titulo));
+        palabras.put(Campo.DESCRIPCION, tokenizar(descripcion));
+        palabras.put(Campo.UBICACION, tokenizar(ubicacion));
+        palabras.put(Campo.CREADOR, tokenizar(creadorNombre));
+        palabras.forEach((campo, palabrasCampo) -> palabrasCampo.forEach(palabra ->
+                postings.get(campo).computeIfAbsent(palabra, p -> new HashSet<>()).add(id)));
+        palabrasPorPartido.put(id, palabras);
+    }
+
+    private void eliminarSinBloqueo(Long id) {
+        Map<Campo, Set<String>> palabras = palabrasPorPartido.remove(id);
+        if (palabras == null) {
+            return;
+        }
+        palabras.forEach((campo, palabrasCampo) -> {
+            NavigableMap<String, Set<Long>> postingsCampo = postings.get(campo);
+            for (String palabra : palabrasCampo) {
+                Set<Long> ids = postingsCampo.get(palabra);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postingsCampo.remove(palabra);
+                    }
+                }
+            }
+        });
+    }
+
+    private static boolean tieneTexto(String valor) {
+        return valor != null && !valor.trim().isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+package com.techlab.picadito.partido;
+
+import com.techlab.picadito.model.Partido;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Listener JPA de Partido que mantiene actualizado el índice de búsqueda.
+ * Los cambios se aplican después del commit, para que un rollback no deje el índice desalineado.
+ */
+@Component
+public class PartidoSearchIndexListener {
+
+    @Autowired
+    private ObjectProvider<PartidoSearchIndex> partidoSearchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void alGuardar(Partido partido) {
+        Long id = partido.getId();
+        String titulo = partido.getTitulo();
+        String descripcion = partido.getDescripcion();
+        String ubicacion = partido.getUbicacion();
+        String creadorNombre = partido.getCreadorNombre();
+        despuesDelCommit(indice -> indice.indexar(id, titulo, descripcion, ubicacion, creadorNombre));
+    }
+
+    @PostRemove
+    public void alEliminar(Partido partido) {
+        Long id = partido.getId();
+        despuesDelCommit(indice -> indice.eliminar(id));
+    }
+
+    private void despuesDelCommit(Consumer<PartidoSearchIndex> accion) {
+        // Sin contenedor de Spring (Hibernate instanciando el listener por reflexión) o sin índice registrado no hay nada que actualizar
+        PartidoSearchIndex indice = partidoSearchIndex != null ? partidoSearchIndex.getIfAvailable() : null;
+        if (indice == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.accept(indice);
+                }
+            });
+        } else {
+            accion.accept(indice);
+        }
+    }
+}
@@ -1,37 +1,41 @@
 package com.techlab.picadito.partido;
 
+import com.techlab.picadito.config.VersionesRecursos;
 import com.techlab.picadito.dto.BusquedaPartidoDTO;
-import com.techlab.picadito.dto.CategoriaResponseDTO;
-import com.techlab.picadito.dto.EquiposResponseDTO;
+import com.techlab.picadito.dto.CursorPageResponseDTO;
 import com.techlab.picadito.dto.PageResponseDTO;
 import com.techlab.picadito.dto.PartidoDTO;
 import com.techlab.picadito.dto.PartidoResponseDTO;
 import com.techlab.picadito.dto.PartidosResponseDTO;
-import com.techlab.picadito.dto.ParticipanteResponseDTO;
-import com.techlab.picadito.dto.SedeResponseDTO;
 import com.techlab.picadito.exception.BusinessException;
 import com.techlab.picadito.exception.ResourceNotFoundException;
 import com.techlab.picadito.exception.ValidationException;
 import com.techlab.picadito.model.Categoria;
 import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Partido;
-import com.techlab.picadito.model.Participante;
 import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.sede.SedeGeoIndex;
 import com.techlab.picadito.sede.SedeRepository;
 import com.techlab.picadito.categoria.CategoriaService;
 import com.techlab.picadito.alerta.AlertaService;
-import com.techlab.picadito.calificacion.CalificacionService;
-import com.techlab.picadito.equipo.EquipoService;
+import com.techlab.picadito.calificacion.CalificacionesAgregadas;
+import com.techlab.picadito.service.EstadisticasAgregadas;
+import com.techlab.picadito.util.GeoUtil;
 import jakarta.persistence.criteria.*;
 import jakarta.persistence.criteria.Join;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
@@ -41,7 +45,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -51,6 +55,11 @@ public class PartidoService {
 
     private static final Logger logger = LoggerFactory.getLogger(PartidoService.class);
 
+    private static final double RADIO_BUSQUEDA_DEFAULT_KM = 10.0;
+    private static final double RADIO_BUSQUEDA_MAXIMO_KM = 100.0;
+    // Una página por cursor no pide más filas que esto aunque el cliente mande un size mayor
+    private static final int TAMANO_PAGINA_CURSOR_MAXIMO = 100;
+
     @Autowired
     private PartidoRepository partidoRepository;
 
@@ -65,20 +74,43 @@ public class PartidoService {
     private AlertaService alertaService;
 
     @Autowired
-    @Lazy
-    private CalificacionService calificacionService;
+    private CalificacionesAgregadas calificacionesAgregadas;
 
     @Autowired
-    @Lazy
-    private EquipoService equipoService;
+    private EstadisticasAgregadas estadisticasAgregadas;
+
+
+    @Autowired
+    private PartidoPageAssembler partidoPageAssembler;
+
+    @Autowired
+    private PartidoMapper partidoMapper;
+
+    @Autowired
+    private CuposLedger cuposLedger;
+
+    @Autowired
+    private PartidoSearchIndex partidoSearchIndex;
+
+    @Autowired
+    private SedeGeoIndex sedeGeoIndex;
+
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    // Más IDs que esto no se pasan como parámetros del IN sino como un único parámetro array
+    @Value("${app.busqueda.max-ids-indice:1000}")
+    private int maxIdsPorTexto;
+
+    // Cada sede cercana va dos veces a la consulta (en el IN y en el CASE del orden por distancia)
+    @Value("${app.busqueda.max-sedes-cercania:500}")
+    private int maxSedesCercania;
 
     public PageResponseDTO<PartidoResponseDTO> obtenerTodosLosPartidos(Pageable pageable) {
         logger.debug("Obteniendo todos los partidos paginados - página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
         Page<Partido> partidosPage = partidoRepository.findAll(pageable);
         
-        List<PartidoResponseDTO> partidosDTO = partidosPage.getContent().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        List<PartidoResponseDTO> partidosDTO = partidoPageAssembler.ensamblar(partidosPage.getContent());
         
         return PageResponseDTO.of(
                 partidosDTO,
@@ -88,6 +120,51 @@ public class PartidoService {
         );
     }
 
+    /**
+     * Lista los partidos por cursor sobre (fechaHora, id), sin count(*) y con costo constante
+     * sin importar qué tan profunda sea la página
+     *
+     * @param cursor Cursor devuelto por la página anterior, o null/vacío para la primera
+     * @param size Cantidad de partidos por página
+     * @param direccion Orden por fecha para la primera página (las siguientes usan el del cursor)
+     */
+    public CursorPageResponseDTO<PartidoResponseDTO> obtenerTodosLosPartidosPorCursor(String cursor, int size, Sort.Direction direccion) {
+        logger.debug("Obteniendo partidos por cursor - tamaño: {}", size);
+        return obtenerPaginaPorCursor(Specification.unrestricted(), cursor, size, direccion);
+    }
+
+    public CursorPageResponseDTO<PartidoResponseDTO> obtenerPartidosDisponiblesPorCursor(String cursor, int size, Sort.Direction direccion) {
+        logger.debug("Obteniendo partidos disponibles por cursor - tamaño: {}", size);
+        Specification<Partido> spec = (root, query, cb) ->
+            cb.equal(root.get("estado"), EstadoPartido.DISPONIBLE);
+        return obtenerPaginaPorCursor(spec, cursor, size, direccion);
+    }
+
+    private CursorPageResponseDTO<PartidoResponseDTO> obtenerPaginaPorCursor(Specification<Partido> spec, String cursor,
+                                                                            int size, Sort.Direction direccion) {
+        if (size < 1) {
+            throw new ValidationException("El tamaño de página debe ser mayor a 0");
+        }
+        int tamano = Math.min(size, TAMANO_PAGINA_CURSOR_MAXIMO);
+        PartidoCursor desde = PartidoCursor.decodificar(cursor);
+        Sort.Direction orden = desde != null ? desde.direccion() : direccion;
+        ScrollPosition posicion = desde != null
+                ? ScrollPosition.forward(Map.of("fechaHora", desde.fechaHora(), "id", desde.id()))
+                : ScrollPosition.keyset();
+
+        // Orden (fechaHora, id): coincide con idx_partidos_estado_fecha y desempata partidos a la misma hora
+        Window<Partido> ventana = partidoRepository.findBy(spec, consulta -> consulta
+                .sortBy(Sort.by(orden, "fechaHora").and(Sort.by(orden, "id")))
+                .limit(tamano)
+                .scroll(posicion));
+
+        List<Partido> partidos = ventana.getContent();
+        String nextCursor = ventana.hasNext() && !partidos.isEmpty()
+                ? PartidoCursor.despuesDe(partidos.get(partidos.size() - 1), orden).codificar()
+                : null;
+        return new CursorPageResponseDTO<>(partidoPageAssembler.ensamblar(partidos), tamano, nextCursor, nextCursor != null);
+    }
+
     public PageResponseDTO<PartidoResponseDTO> obtenerPartidosDisponibles(Pageable pageable) {
         try {
             logger.debug("Obteniendo partidos disponibles paginados - página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
@@ -97,9 +174,7 @@ public class PartidoService {
             Page<Partido> partidosPage = partidoRepository.findAll(spec, pageable);
             logger.debug("Se encontraron {} partidos disponibles (total: {})", partidosPage.getNumberOfElements(), partidosPage.getTotalElements());
             
-            List<PartidoResponseDTO> partidosDTO = partidosPage.getContent().stream()
-                    .map(this::convertirADTO)
-                    .collect(Collectors.toList());
+            List<PartidoResponseDTO> partidosDTO = partidoPageAssembler.ensamblar(partidosPage.getContent());
             
             return PageResponseDTO.of(
                     partidosDTO,
@@ -255,6 +330,8 @@ public class PartidoService {
 
         partido = partidoRepository.save(partido);
         actualizarEstadoSegunParticipantes(partido);
+        // El máximo de jugadores pudo cambiar: el ledger se vuelve a leer de la base
+        cuposLedger.invalidar(id);
         
         // Generar alerta si hay cupos bajos después de actualizar
         alertaService.crearAlertaCuposBajos(partido);
@@ -309,6 +386,7 @@ public class PartidoService {
     }
     
     private void actualizarSede(Partido partido, Long sedeId) {
+        Long sedeAnterior = partido.getSede() != null ? partido.getSede().getId() : null;
         if (sedeId != null) {
             Sede sede = sedeRepository.findById(sedeId)
                     .orElseThrow(() -> new ResourceNotFoundException("Sede no encontrada con id: " + sedeId));
@@ -317,9 +395,13 @@ public class PartidoService {
             // Si se envía null explícitamente, remover la sede
             partido.setSede(null);
         }
+        calificacionesAgregadas.partidoCambioDeSede(partido, sedeAnterior, sedeId);
     }
 
     private void actualizarCategorias(Partido partido, PartidoDTO partidoDTO) {
+        Set<Long> categoriasAnteriores = partido.getCategorias().stream()
+                .map(Categoria::getId)
+                .collect(Collectors.toSet());
         List<Long> categoriaIds = partidoDTO.getCategoriaIds();
         if (categoriaIds == null || categoriaIds.isEmpty()) {
             partido.setCategorias(new HashSet<>());
@@ -333,6 +415,9 @@ public class PartidoService {
             }
             partido.setCategorias(categorias);
         }
+        estadisticasAgregadas.partidoCambioDeCategorias(categoriasAnteriores, partido.getCategorias().stream()
+                .map(Categoria::getId)
+                .collect(Collectors.toSet()));
     }
 
     public void eliminarPartido(@NonNull Long id) {
@@ -343,6 +428,7 @@ public class PartidoService {
         
         try {
             partidoRepository.deleteById(id);
+            cuposLedger.invalidar(id);
             logger.info("Partido eliminado exitosamente");
         } catch (DataIntegrityViolationException e) {
             logger.warn("No se puede eliminar el partido {} debido a restricciones de integridad referencial: {}", 
@@ -369,6 +455,23 @@ public class PartidoService {
         }
     }
 
+    /**
+     * Corrige el contador desnormalizado de participantes en los partidos donde no coincide
+     * con la cantidad real de filas en la tabla de participantes
+     * @return Cantidad de partidos corregidos
+     */
+    public int reconciliarCantidadParticipantes() {
+        int corregidos = partidoRepository.reconciliarCantidadParticipantes();
+        cuposLedger.limpiar();
+        if (corregidos > 0) {
+            versionesRecursos.partidosModificados();
+            logger.warn("Se corrigió el contador de participantes en {} partidos", corregidos);
+        } else {
+            logger.debug("Contadores de participantes consistentes");
+        }
+        return corregidos;
+    }
+
     public Partido obtenerPartidoEntity(@NonNull Long id) {
         return partidoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Partido no encontrado con id: " + id));
@@ -397,13 +500,36 @@ public class PartidoService {
     public PageResponseDTO<PartidoResponseDTO> buscarPartidos(BusquedaPartidoDTO busqueda, Pageable pageable) {
         logger.info("Buscando partidos con criterios: {} - página: {}, tamaño: {}", busqueda, pageable.getPageNumber(), pageable.getPageSize());
         
-        Specification<Partido> spec = crearSpecification(busqueda);
+        // Los criterios de texto se resuelven en el índice en memoria y se cruzan con los filtros estructurados
+        Set<Long> idsPorTexto = null;
+        if (partidoSearchIndex.puedeResolver(busqueda)) {
+            idsPorTexto = partidoSearchIndex.buscar(busqueda);
+            if (idsPorTexto.isEmpty()) {
+                return PageResponseDTO.of(new ArrayList<>(), pageable.getPageNumber(), pageable.getPageSize(), 0);
+            }
+        }
+        
+        // La búsqueda por cercanía se resuelve en el índice geográfico de sedes
+        Map<Long, Double> distanciasPorSede = null;
+        if (busqueda.getLatitud() != null || busqueda.getLongitud() != null) {
+            distanciasPorSede = buscarSedesCercanas(busqueda);
+            if (distanciasPorSede.isEmpty()) {
+                return PageResponseDTO.of(new ArrayList<>(), pageable.getPageNumber(), pageable.getPageSize(), 0);
+            }
+            // El orden por distancia lo define la specification
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        }
+        
+        Specification<Partido> spec = crearSpecification(busqueda, idsPorTexto, distanciasPorSede);
         Page<Partido> partidosPage = partidoRepository.findAll(spec, pageable);
         
         logger.info("Se encontraron {} partidos (total: {})", partidosPage.getNumberOfElements(), partidosPage.getTotalElements());
-        List<PartidoResponseDTO> partidosDTO = partidosPage.getContent().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        List<PartidoResponseDTO> partidosDTO = partidoPageAssembler.ensamblar(partidosPage.getContent());
+        if (distanciasPorSede != null) {
+            for (PartidoResponseDTO dto : partidosDTO) {
+                dto.setDistanciaKm(distanciasPorSede.get(dto.getSedeId()));
+            }
+        }
         
         return PageResponseDTO.of(
                 partidosDTO,
@@ -421,25 +547,82 @@ public class PartidoService {
         return new PartidosResponseDTO(pageResult.getContent());
     }
 
-    private Specification<Partido> crearSpecification(BusquedaPartidoDTO busqueda) {
+    private Map<Long, Double> buscarSedesCercanas(BusquedaPartidoDTO busqueda) {
+        Double latitud = busqueda.getLatitud();
+        Double longitud = busqueda.getLongitud();
+        if (latitud == null || longitud == null) {
+            throw new ValidationException("La búsqueda por cercanía requiere latitud y longitud");
+        }
+        if (!GeoUtil.esLatitudValida(latitud) || !GeoUtil.esLongitudValida(longitud)) {
+            throw new ValidationException("Latitud o longitud fuera de rango");
+        }
+        double radioKm = busqueda.getRadioKm() != null ? busqueda.getRadioKm() : RADIO_BUSQUEDA_DEFAULT_KM;
+        if (radioKm <= 0 || radioKm > RADIO_BUSQUEDA_MAXIMO_KM) {
+            throw new ValidationException("El radio de búsqueda debe estar entre 0 y " + RADIO_BUSQUEDA_MAXIMO_KM + " km");
+        }
+        // Con más sedes en el radio se buscan los partidos de las más cercanas
+        return sedeGeoIndex.buscarCercanas(latitud, longitud, radioKm, maxSedesCercania);
+    }
+
+    /**
+     * @param idsPorTexto IDs resueltos por el índice de búsqueda, o null si los criterios de texto
+     *                    se deben filtrar en la base
+     * @param distanciasPorSede Sedes cercanas ordenadas por distancia, o null si no se busca por cercanía
+     */
+    private Specification<Partido> crearSpecification(BusquedaPartidoDTO busqueda, Set<Long> idsPorTexto,
+                                                      Map<Long, Double> distanciasPorSede) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            agregarFiltroTitulo(predicates, busqueda, root, cb);
-            agregarFiltroUbicacion(predicates, busqueda, root, cb);
-            agregarFiltroCreador(predicates, busqueda, root, cb);
+            if (distanciasPorSede != null) {
+                predicates.add(root.get("sede").get("id").in(distanciasPorSede.keySet()));
+                predicates.add(cb.equal(root.get("estado"), EstadoPartido.DISPONIBLE));
+            }
+
+            if (idsPorTexto != null) {
+                predicates.add(filtrarPorIds(idsPorTexto, root, cb));
+            } else {
+                agregarFiltroTexto(predicates, busqueda, root, cb);
+                agregarFiltroTitulo(predicates, busqueda, root, cb);
+                agregarFiltroUbicacion(predicates, busqueda, root, cb);
+                agregarFiltroCreador(predicates, busqueda, root, cb);
+            }
             agregarFiltroEstado(predicates, busqueda, root, cb);
             agregarFiltrosFecha(predicates, busqueda, root, cb);
             agregarFiltrosJugadores(predicates, busqueda, root, cb);
             agregarFiltroCuposDisponibles(predicates, busqueda, root, cb);
             agregarFiltroSoloDisponibles(predicates, busqueda, root, cb);
             agregarFiltroCategoria(predicates, busqueda, root, cb, query);
-            aplicarOrdenamiento(query, root, cb);
+            aplicarOrdenamiento(query, root, cb, distanciasPorSede);
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
     
+    /**
+     * Un prefijo corto o muy común puede devolver miles de IDs: en un IN superarían el límite de
+     * parámetros por sentencia (32767 en PostgreSQL) y cada tamaño de lista sería otro plan. Por
+     * encima de {@code app.busqueda.max-ids-indice} se pasan todos en un único parámetro array.
+     */
+    private Predicate filtrarPorIds(Set<Long> ids, Root<Partido> root, CriteriaBuilder cb) {
+        if (ids.size() <= maxIdsPorTexto) {
+            return root.get("id").in(ids);
+        }
+        return ((HibernateCriteriaBuilder) cb).arrayContains(ids.toArray(new Long[0]), root.<Long>get("id"));
+    }
+    
+    private void agregarFiltroTexto(List<Predicate> predicates, BusquedaPartidoDTO busqueda, Root<Partido> root, CriteriaBuilder cb) {
+        if (busqueda.getTexto() != null && !busqueda.getTexto().trim().isEmpty()) {
+            String patron = "%" + busqueda.getTexto().toLowerCase() + "%";
+            predicates.add(cb.or(
+                cb.like(cb.lower(root.get("titulo")), patron),
+                cb.like(cb.lower(root.get("descripcion")), patron),
+                cb.like(cb.lower(root.get("ubicacion")), patron),
+                cb.like(cb.lower(root.get("creadorNombre")), patron)
+            ));
+        }
+    }
+    
     private void agregarFiltroTitulo(List<Predicate> predicates, BusquedaPartidoDTO busqueda, Root<Partido> root, CriteriaBuilder cb) {
         if (busqueda.getTitulo() != null && !busqueda.getTitulo().trim().isEmpty()) {
             predicates.add(cb.like(
@@ -493,10 +676,11 @@ public class PartidoService {
     
     private void agregarFiltroCuposDisponibles(List<Predicate> predicates, BusquedaPartidoDTO busqueda, Root<Partido> root, CriteriaBuilder cb) {
         if (busqueda.getCuposDisponiblesMin() != null) {
-            // Cupos disponibles = maxJugadores - cantidadParticipantes
+            // Cupos disponibles = maxJugadores - cantidadParticipantes (columna desnormalizada,
+            // evita la subconsulta correlacionada que generaba cb.size sobre la colección)
             predicates.add(cb.greaterThanOrEqualTo(
                 cb.diff(root.get("maxJugadores"), 
-                    cb.size(root.get("participantes"))),
+                    root.<Integer>get("cantidadParticipantes")),
                 busqueda.getCuposDisponiblesMin()
             ));
         }
@@ -511,18 +695,32 @@ public class PartidoService {
     private void agregarFiltroCategoria(List<Predicate> predicates, BusquedaPartidoDTO busqueda, Root<Partido> root, CriteriaBuilder cb, CriteriaQuery<?> query) {
         List<Long> categoriaIds = busqueda.getCategoriaIds();
         if (categoriaIds != null && !categoriaIds.isEmpty()) {
-            // Filtrar partidos que tengan al menos una de las categorías especificadas
-            Join<Partido, Categoria> categoriasJoin = root.join("categorias");
-            predicates.add(categoriasJoin.get("id").in(categoriaIds));
-            // Evitar duplicados cuando hay join con categorias
-            query.distinct(true);
+            // Filtrar partidos que tengan al menos una de las categorías especificadas. Con EXISTS
+            // no hay filas duplicadas que eliminar con DISTINCT, que no admite el orden por distancia
+            Subquery<Integer> conCategoria = query.subquery(Integer.class);
+            Root<Partido> partido = conCategoria.correlate(root);
+            Join<Partido, Categoria> categoriasJoin = partido.join("categorias");
+            conCategoria.select(cb.literal(1)).where(categoriasJoin.get("id").in(categoriaIds));
+            predicates.add(cb.exists(conCategoria));
         }
     }
     
-    private void aplicarOrdenamiento(CriteriaQuery<?> query, Root<Partido> root, CriteriaBuilder cb) {
-        if (query != null) {
+    private void aplicarOrdenamiento(CriteriaQuery<?> query, Root<Partido> root, CriteriaBuilder cb,
+                                     Map<Long, Double> distanciasPorSede) {
+        if (query == null) {
+            return;
+        }
+        if (distanciasPorSede == null) {
             query.orderBy(cb.asc(root.get("fechaHora")));
+            return;
         }
+        // Ordena por la posición de la sede en el ranking de distancia, sin trigonometría en la base
+        CriteriaBuilder.SimpleCase<Long, Integer> posicionSede = cb.selectCase(root.get("sede").get("id"));
+        int posicion = 0;
+        for (Long sedeId : distanciasPorSede.keySet()) {
+            posicionSede.when(sedeId, posicion++);
+        }
+        query.orderBy(cb.asc(posicionSede.otherwise(posicion)), cb.asc(root.get("fechaHora")));
     }
 
     private void validarFechaFutura(LocalDateTime fechaHora) {
@@ -533,141 +731,23 @@ public class PartidoService {
 
     private PartidoResponseDTO convertirADTO(Partido partido) {
         try {
-            PartidoResponseDTO dto = mapearCamposBasicos(partido);
-            asignarSedeADTO(dto, partido);
-            asignarCategoriasADTO(dto, partido);
-            asignarParticipantesADTO(dto, partido);
-            asignarPromedioCalificacion(dto, partido);
-            asignarEquiposADTO(dto, partido);
-            return dto;
+            return partidoMapper.toPartidoResponseDTO(partido, partido.getParticipantes(),
+                    obtenerCategorias(partido), partido.getSede(), partido.getEquipos());
         } catch (Exception e) {
             logger.error("Error al convertir partido {} a DTO", partido.getId(), e);
             throw new RuntimeException("Error al convertir partido a DTO: " + e.getMessage(), e);
         }
     }
-    
-    private PartidoResponseDTO mapearCamposBasicos(Partido partido) {
-        PartidoResponseDTO dto = new PartidoResponseDTO();
-        dto.setId(partido.getId());
-        dto.setTitulo(partido.getTitulo());
-        dto.setDescripcion(partido.getDescripcion());
-        dto.setFechaHora(partido.getFechaHora());
-        dto.setUbicacion(partido.getUbicacion());
-        dto.setMaxJugadores(partido.getMaxJugadores());
-        dto.setEstado(partido.getEstado());
-        dto.setCreadorNombre(partido.getCreadorNombre());
-        dto.setFechaCreacion(partido.getFechaCreacion());
-        dto.setCantidadParticipantes(partido.getCantidadParticipantes());
-        dto.setPrecio(partido.getPrecio());
-        dto.setImagenUrl(partido.getImagenUrl());
-        return dto;
-    }
-    
-    private void asignarSedeADTO(PartidoResponseDTO dto, Partido partido) {
-        if (partido.getSede() != null) {
-            dto.setSedeId(partido.getSede().getId());
-            dto.setSede(convertirSedeADTO(partido.getSede()));
-        }
-    }
 
-    private void asignarCategoriasADTO(PartidoResponseDTO dto, Partido partido) {
+    private Set<Categoria> obtenerCategorias(Partido partido) {
         try {
             Set<Categoria> categorias = partido.getCategorias();
-            if (categorias != null && !categorias.isEmpty()) {
-                List<CategoriaResponseDTO> categoriasDTO = new ArrayList<>();
-                List<Long> categoriaIds = new ArrayList<>();
-                
-                for (Categoria categoria : categorias) {
-                    if (categoria != null) {
-                        categoriasDTO.add(convertirCategoriaADTO(categoria));
-                        categoriaIds.add(categoria.getId());
-                    }
-                }
-                
-                dto.setCategorias(categoriasDTO);
-                dto.setCategoriaIds(categoriaIds);
-            } else {
-                dto.setCategorias(new ArrayList<>());
-                dto.setCategoriaIds(new ArrayList<>());
-            }
-        } catch (Exception e) {
-            logger.warn("Error al asignar categorías al DTO para partido {}: {}", 
-                    partido.getId(), e.getMessage());
-            dto.setCategorias(new ArrayList<>());
-            dto.setCategoriaIds(new ArrayList<>());
-        }
-    }
-
-    private CategoriaResponseDTO convertirCategoriaADTO(Categoria categoria) {
-        CategoriaResponseDTO categoriaDTO = new CategoriaResponseDTO();
-        categoriaDTO.setId(categoria.getId());
-        categoriaDTO.setNombre(categoria.getNombre());
-        categoriaDTO.setDescripcion(categoria.getDescripcion());
-        categoriaDTO.setIcono(categoria.getIcono());
-        categoriaDTO.setColor(categoria.getColor());
-        categoriaDTO.setFechaCreacion(categoria.getFechaCreacion());
-        categoriaDTO.setFechaActualizacion(categoria.getFechaActualizacion());
-        return categoriaDTO;
-    }
-
-    private void asignarPromedioCalificacion(PartidoResponseDTO dto, Partido partido) {
-        try {
-            Long partidoId = Objects.requireNonNull(partido.getId(), "El partido debe tener un ID");
-            Double promedio = calificacionService.obtenerPromedioPorPartido(partidoId);
-            dto.setPromedioCalificacion(promedio > 0 ? promedio : null);
-        } catch (Exception e) {
-            logger.debug("No se pudo obtener el promedio de calificaciones para el partido {}: {}", 
-                    partido.getId(), e.getMessage());
-            dto.setPromedioCalificacion(null);
-        }
-    }
-
-    private void asignarEquiposADTO(PartidoResponseDTO dto, Partido partido) {
-        try {
-            Long partidoId = Objects.requireNonNull(partido.getId(), "El partido debe tener un ID");
-            EquiposResponseDTO equiposResponse = equipoService.obtenerEquiposPorPartido(partidoId);
-            dto.setEquipos(equiposResponse != null && equiposResponse.getEquipos() != null 
-                    ? equiposResponse.getEquipos() : new ArrayList<>());
+            // Fuerza la carga acá para que un error deje el partido sin categorías y no sin DTO
+            return categorias != null ? new HashSet<>(categorias) : new HashSet<>();
         } catch (Exception e) {
-            logger.debug("No se pudieron obtener los equipos para el partido {}: {}", 
+            logger.warn("Error al asignar categorías al DTO para partido {}: {}",
                     partido.getId(), e.getMessage());
-            dto.setEquipos(new ArrayList<>());
-        }
-    }
-    
-    private SedeResponseDTO convertirSedeADTO(Sede sede) {
-        SedeResponseDTO sedeDTO = new SedeResponseDTO();
-        sedeDTO.setId(sede.getId());
-        sedeDTO.setNombre(sede.getNombre());
-        sedeDTO.setDireccion(sede.getDireccion());
-        sedeDTO.setDescripcion(sede.getDescripcion());
-        sedeDTO.setTelefono(sede.getTelefono());
-        sedeDTO.setCoordenadas(sede.getCoordenadas());
-        sedeDTO.setFechaCreacion(sede.getFechaCreacion());
-        sedeDTO.setFechaActualizacion(sede.getFechaActualizacion());
-        return sedeDTO;
-    }
-    
-    private void asignarParticipantesADTO(PartidoResponseDTO dto, Partido partido) {
-        if (partido.getParticipantes() != null && !partido.getParticipantes().isEmpty()) {
-            List<ParticipanteResponseDTO> participantesDTO = partido.getParticipantes().stream()
-                    .map(this::convertirParticipanteADTO)
-                    .collect(Collectors.toList());
-            dto.setParticipantes(participantesDTO);
-        } else {
-            dto.setParticipantes(new ArrayList<>());
+            return new HashSet<>();
         }
     }
-
-    private ParticipanteResponseDTO convertirParticipanteADTO(Participante participante) {
-        ParticipanteResponseDTO dto = new ParticipanteResponseDTO();
-        dto.setId(participante.getId());
-        dto.setNombre(participante.getNombre());
-        dto.setApodo(participante.getApodo());
-        dto.setPosicion(participante.getPosicion());
-        dto.setNivel(participante.getNivel());
-        dto.setFechaInscripcion(participante.getFechaInscripcion());
-        return dto;
-    }
 }
-
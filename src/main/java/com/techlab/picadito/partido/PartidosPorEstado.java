@@ -0,0 +1,13 @@
+package com.techlab.picadito.partido;
+
+import com.techlab.picadito.model.EstadoPartido;
+
+/**
+ * Totales de los partidos en un estado, resultado de una consulta agrupada
+ *
+ * @param cantidad Cantidad de partidos
+ * @param participantes Suma de participantes inscriptos
+ * @param completos Partidos con todos los cupos ocupados
+ */
+public record PartidosPorEstado(EstadoPartido estado, Long cantidad, Long participantes, Long completos) {
+}
@@ -65,7 +65,7 @@ public class PartidosSeleccionadosService {
             throw new BusinessException("El partido ya está completo. Máximo de jugadores: " + partido.getMaxJugadores());
         }
         
-        int capacidadDisponible = partido.getMaxJugadores() - partido.getCantidadParticipantes();
+        int capacidadDisponible = partido.getCuposDisponibles();
         if (cantidad > capacidadDisponible) {
             throw new BusinessException("No hay suficiente capacidad disponible. Capacidad disponible: " + capacidadDisponible);
         }
@@ -89,7 +89,7 @@ public class PartidosSeleccionadosService {
     }
     
     private void actualizarLineaExistente(LineaPartidoSeleccionado lineaExistente, Partido partido, Integer cantidad) {
-        int capacidadDisponible = partido.getMaxJugadores() - partido.getCantidadParticipantes();
+        int capacidadDisponible = partido.getCuposDisponibles();
         int nuevaCantidad = lineaExistente.getCantidad() + cantidad;
         
         if (nuevaCantidad > capacidadDisponible) {
@@ -121,7 +121,7 @@ public class PartidosSeleccionadosService {
             partidosSeleccionados.getItems().remove(linea);
         } else {
             Partido partido = linea.getPartido();
-            int capacidadDisponible = partido.getMaxJugadores() - partido.getCantidadParticipantes();
+            int capacidadDisponible = partido.getCuposDisponibles();
             if (cantidad > capacidadDisponible) {
                 throw new BusinessException("No hay suficiente capacidad disponible. Capacidad disponible: " + capacidadDisponible);
             }
@@ -0,0 +1,7 @@
+package com.techlab.picadito.reserva;
+
+/**
+ * Total gastado por un usuario (precio por cantidad de cada línea), resultado de una consulta agrupada
+ */
+public record GastoPorUsuario(Long usuarioId, Double total) {
+}
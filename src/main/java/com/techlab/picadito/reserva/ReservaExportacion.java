@@ -0,0 +1,12 @@
+package com.techlab.picadito.reserva;
+
+import com.techlab.picadito.model.Reserva;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la exportación de reservas, con el total y las unidades de sus líneas ya sumados en la base
+ */
+public record ReservaExportacion(Long id, Long usuarioId, String usuarioEmail, Reserva.EstadoReserva estado,
+                                 LocalDateTime fechaCreacion, Long unidades, Double total) {
+}
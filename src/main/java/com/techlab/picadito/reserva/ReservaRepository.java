@@ -2,9 +2,17 @@ package com.techlab.picadito.reserva;
 
 import com.techlab.picadito.model.Reserva;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
@@ -22,5 +30,93 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     List<Reserva> findByFechaCreacionBetweenOrderByFechaCreacionDesc(java.time.LocalDateTime fechaInicio, java.time.LocalDateTime fechaFin);
     
     List<Reserva> findByEstadoInAndFechaCreacionBetween(List<Reserva.EstadoReserva> estados, java.time.LocalDateTime fechaInicio, java.time.LocalDateTime fechaFin);
+    
+    /**
+     * Cantidad de reservas por estado, para reconstruir las estadísticas agregadas
+     */
+    @Query("SELECT new com.techlab.picadito.reserva.ReservasPorEstado(r.estado, COUNT(r)) FROM Reserva r GROUP BY r.estado")
+    List<ReservasPorEstado> contarPorEstado();
+    
+    /**
+     * Cantidad de reservas por usuario, para reconstruir las estadísticas agregadas
+     */
+    @Query("SELECT new com.techlab.picadito.reserva.ReservasPorUsuario(r.usuario.id, COUNT(r)) FROM Reserva r GROUP BY r.usuario.id")
+    List<ReservasPorUsuario> contarPorUsuario();
+    
+    /**
+     * Importe de las reservas en los estados dados, por usuario, valuado al precio actual de cada
+     * partido (como Reserva.calcularTotal): [usuarioId, importe]
+     */
+    @Query("SELECT r.usuario.id, COALESCE(SUM(l.cantidad * p.precio), 0) FROM LineaReserva l JOIN l.reserva r JOIN l.partido p " +
+           "WHERE r.estado IN :estados GROUP BY r.usuario.id")
+    List<Object[]> sumarImportePorUsuario(@Param("estados") Collection<Reserva.EstadoReserva> estados);
+    
+    /**
+     * Importe de una reserva al precio actual de cada partido, como Reserva.calcularTotal
+     */
+    @Query("SELECT COALESCE(SUM(l.cantidad * p.precio), 0) FROM LineaReserva l JOIN l.partido p WHERE l.reserva.id = :reservaId")
+    Double calcularTotal(@Param("reservaId") Long reservaId);
+    
+    /**
+     * Unidades de un partido en reservas con los estados dados, por usuario: [usuarioId, unidades]
+     */
+    @Query("SELECT r.usuario.id, SUM(l.cantidad) FROM LineaReserva l JOIN l.reserva r " +
+           "WHERE l.partido.id = :partidoId AND r.estado IN :estados GROUP BY r.usuario.id")
+    List<Object[]> sumarUnidadesPorUsuario(@Param("partidoId") Long partidoId,
+                                           @Param("estados") Collection<Reserva.EstadoReserva> estados);
+    
+    /**
+     * Cantidad de reservas creadas en el período, agrupadas por estado
+     */
+    @Query("SELECT new com.techlab.picadito.reserva.ReservasPorEstado(r.estado, COUNT(r)) FROM Reserva r " +
+           "WHERE r.fechaCreacion BETWEEN :fechaInicio AND :fechaFin GROUP BY r.estado")
+    List<ReservasPorEstado> contarPorEstadoEntre(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                                 @Param("fechaFin") LocalDateTime fechaFin);
+    
+    /**
+     * Cantidad de reservas creadas en el período, agrupadas por usuario
+     */
+    @Query("SELECT new com.techlab.picadito.reserva.ReservasPorUsuario(r.usuario.id, COUNT(r)) FROM Reserva r " +
+           "WHERE r.fechaCreacion BETWEEN :fechaInicio AND :fechaFin GROUP BY r.usuario.id")
+    List<ReservasPorUsuario> contarPorUsuarioEntre(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                                   @Param("fechaFin") LocalDateTime fechaFin);
+    
+    /**
+     * Total (precio por cantidad de cada línea) de las reservas en los estados indicados creadas en el período,
+     * agrupado por usuario. Igual que Reserva.calcularTotal, las líneas sin precio suman 0 y los usuarios
+     * con reservas sin líneas aparecen con total 0
+     */
+    @Query("SELECT new com.techlab.picadito.reserva.GastoPorUsuario(r.usuario.id, SUM(COALESCE(p.precio * l.cantidad, 0.0))) " +
+           "FROM Reserva r LEFT JOIN r.lineasReserva l LEFT JOIN l.partido p " +
+           "WHERE r.estado IN :estados AND r.fechaCreacion BETWEEN :fechaInicio AND :fechaFin GROUP BY r.usuario.id")
+    List<GastoPorUsuario> sumarGastoPorUsuarioEntre(@Param("estados") Collection<Reserva.EstadoReserva> estados,
+                                                    @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                    @Param("fechaFin") LocalDateTime fechaFin);
+    
+    /**
+     * Total (precio por cantidad de cada línea) de las reservas en los estados indicados creadas en el período
+     *
+     * @return Suma de los totales, o null si no hay líneas
+     */
+    @Query("SELECT SUM(COALESCE(p.precio * l.cantidad, 0.0)) FROM LineaReserva l JOIN l.reserva r JOIN l.partido p " +
+           "WHERE r.estado IN :estados AND r.fechaCreacion BETWEEN :fechaInicio AND :fechaFin")
+    Double sumarIngresosEntre(@Param("estados") Collection<Reserva.EstadoReserva> estados,
+                              @Param("fechaInicio") LocalDateTime fechaInicio,
+                              @Param("fechaFin") LocalDateTime fechaFin);
+    
+    /**
+     * Reservas creadas en el período para exportar, leídas de a lotes con un cursor de la base.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.techlab.picadito.reserva.ReservaExportacion(r.id, u.id, u.email, r.estado, r.fechaCreacion, " +
+           "SUM(COALESCE(l.cantidad, 0)), SUM(COALESCE(p.precio * l.cantidad, 0.0))) " +
+           "FROM Reserva r JOIN r.usuario u LEFT JOIN r.lineasReserva l LEFT JOIN l.partido p " +
+           "WHERE r.fechaCreacion BETWEEN :fechaInicio AND :fechaFin " +
+           "GROUP BY r.id, u.id, u.email, r.estado, r.fechaCreacion ORDER BY r.fechaCreacion, r.id")
+    Stream<ReservaExportacion> streamParaExportacion(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                                     @Param("fechaFin") LocalDateTime fechaFin);
 }
-
@@ -76,18 +76,20 @@ public class ReservaService {
         
         Reserva reserva = crearReservaInicial(usuarioId);
         validarYCrearLineasReserva(reserva, partidosSeleccionadosDTO);
-        reserva = reservaRepository.save(reserva);
         
-        inscribirParticipantesEnReserva(reserva, usuarioId);
+        // Los cupos de todas las líneas se reservan antes de guardar nada: cada actualización del
+        // contador hace flush, y así la reserva, sus líneas, los participantes y las alertas se
+        // escriben juntos al final, en un lote de INSERT por tabla
+        inscribirParticipantesEnReserva(reserva);
         
         // Confirmar la reserva
         reserva.setEstado(Reserva.EstadoReserva.CONFIRMADO);
         reserva = reservaRepository.save(reserva);
         
         // Generar alertas de confirmación para cada partido
-        for (LineaReserva linea : reserva.getLineasReserva()) {
-            alertaService.crearAlertaReservaConfirmada(usuarioId, linea.getPartido().getTitulo());
-        }
+        alertaService.crearAlertasReservaConfirmada(usuarioId, reserva.getLineasReserva().stream()
+                .map(linea -> linea.getPartido().getTitulo())
+                .collect(Collectors.toList()));
         
         // Actualizar estado automáticamente si algún partido está próximo
         actualizarEstadoAutomatico(reserva);
@@ -127,7 +129,7 @@ public class ReservaService {
         }
         
         // Validar capacidad
-        int capacidadDisponible = partido.getMaxJugadores() - partido.getCantidadParticipantes();
+        int capacidadDisponible = partido.getCuposDisponibles();
         if (cantidad > capacidadDisponible) {
             throw new BusinessException("No hay suficiente capacidad disponible en el partido '" + partido.getTitulo() + "'. Capacidad disponible: " + capacidadDisponible);
         }
@@ -138,17 +140,26 @@ public class ReservaService {
         }
     }
     
-    private void inscribirParticipantesEnReserva(Reserva reserva, Long usuarioId) {
-        Usuario usuario = usuarioService.obtenerUsuarioEntity(usuarioId);
+    /**
+     * Inscribe los participantes de todas las líneas con una sola llamada, que reserva los cupos
+     * de cada partido y guarda todos los participantes juntos
+     */
+    private void inscribirParticipantesEnReserva(Reserva reserva) {
+        Usuario usuario = reserva.getUsuario();
+        Map<Long, List<com.techlab.picadito.dto.ParticipanteDTO>> participantesPorPartido = new LinkedHashMap<>();
         for (LineaReserva linea : reserva.getLineasReserva()) {
-            inscribirParticipantesEnLinea(linea, usuario, reserva);
+            Long partidoId = Objects.requireNonNull(linea.getPartido().getId(), "El ID del partido no puede ser null");
+            List<com.techlab.picadito.dto.ParticipanteDTO> participantesDTO =
+                    participantesPorPartido.computeIfAbsent(partidoId, id -> new ArrayList<>());
+            for (int i = 0; i < linea.getCantidad(); i++) {
+                participantesDTO.add(crearParticipanteDTO(usuario, participantesDTO.size()));
+            }
         }
-    }
-    
-    private void inscribirParticipantesEnLinea(LineaReserva linea, Usuario usuario, Reserva reserva) {
-        for (int i = 0; i < linea.getCantidad(); i++) {
-            com.techlab.picadito.dto.ParticipanteDTO participanteDTO = crearParticipanteDTO(usuario, i);
-            inscribirParticipanteConManejoErrores(linea, participanteDTO, reserva);
+        try {
+            participanteService.inscribirParticipantesEnPartidos(participantesPorPartido);
+        } catch (BusinessException e) {
+            cancelarReservaPorError(reserva, e);
+            throw new BusinessException("Error al inscribir participantes: " + e.getMessage());
         }
     }
     
@@ -158,16 +169,6 @@ public class ReservaService {
         return participanteDTO;
     }
     
-    private void inscribirParticipanteConManejoErrores(LineaReserva linea, com.techlab.picadito.dto.ParticipanteDTO participanteDTO, Reserva reserva) {
-        try {
-            Long partidoId = Objects.requireNonNull(linea.getPartido().getId(), "El ID del partido no puede ser null");
-            participanteService.inscribirseAPartido(partidoId, participanteDTO);
-        } catch (BusinessException e) {
-            cancelarReservaPorError(reserva, e);
-            throw new BusinessException("Error al inscribir participantes: " + e.getMessage());
-        }
-    }
-    
     private void cancelarReservaPorError(Reserva reserva, BusinessException e) {
         reserva.setEstado(Reserva.EstadoReserva.CANCELADO);
         reservaRepository.save(reserva);
@@ -0,0 +1,9 @@
+package com.techlab.picadito.reserva;
+
+import com.techlab.picadito.model.Reserva;
+
+/**
+ * Cantidad de reservas en un estado, resultado de una consulta agrupada
+ */
+public record ReservasPorEstado(Reserva.EstadoReserva estado, Long cantidad) {
+}
@@ -0,0 +1,7 @@
+package com.techlab.picadito.reserva;
+
+/**
+ * Cantidad de reservas de un usuario, resultado de una consulta agrupada
+ */
+public record ReservasPorUsuario(Long usuarioId, Long cantidad) {
+}
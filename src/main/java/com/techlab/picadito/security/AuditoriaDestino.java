@@ -0,0 +1,15 @@
+package com.techlab.picadito.security;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos de auditoría. El AuditoriaPipeline entrega los eventos en lotes desde
+ * su hilo consumidor, nunca desde el hilo del request.
+ */
+public interface AuditoriaDestino {
+
+    /**
+     * Escribe un lote de eventos en el orden en que se publicaron
+     */
+    void escribir(List<EventoAuditoria> lote);
+}
@@ -0,0 +1,187 @@
+package com.techlab.picadito.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pipeline asíncrono de auditoría.
+ *
+ * Los hilos de request solo publican el evento en un RingBufferAuditoria (sin locks ni I/O). Un
+ * hilo consumidor drena el buffer en lotes y los entrega a cada AuditoriaDestino (logger AUDIT y,
+ * si está habilitada, la tabla auditoria_eventos). Con el buffer lleno el evento nuevo se descarta
+ * y se cuenta en audit.events.dropped: una ráfaga de 429 no puede frenar a los requests.
+ */
+@Component
+public class AuditoriaPipeline implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditoriaPipeline.class);
+
+    // Espera del consumidor cuando no hay eventos
+    private static final long ESPERA_VACIO_NANOS = Duration.ofMillis(20).toNanos();
+
+    private final RingBufferAuditoria buffer;
+    private final List<AuditoriaDestino> destinos;
+    private final int tamanioLote;
+
+    private final Map<EventoAuditoria.Tipo, Counter> descartadosPorTipo = new EnumMap<>(EventoAuditoria.Tipo.class);
+    private final Counter escritos;
+    private final Counter fallidos;
+
+    private volatile Thread consumidor;
+    private volatile boolean activo;
+
+    public AuditoriaPipeline(
+            List<AuditoriaDestino> destinos,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.buffer-size:8192}") int capacidad,
+            @Value("${app.audit.batch-size:256}") int tamanioLote) {
+        if (tamanioLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        this.buffer = new RingBufferAuditoria(capacidad);
+        this.destinos = List.copyOf(destinos);
+        this.tamanioLote = tamanioLote;
+
+        for (EventoAuditoria.Tipo tipo : EventoAuditoria.Tipo.values()) {
+            descartadosPorTipo.put(tipo, Counter.builder("audit.events.dropped")
+                .description("Eventos de auditoría descartados por buffer lleno")
+                .tag("tipo", tipo.name())
+                .register(meterRegistry));
+        }
+        this.escritos = Counter.builder("audit.events.written")
+            .description("Eventos de auditoría entregados a todos los destinos")
+            .register(meterRegistry);
+        this.fallidos = Counter.builder("audit.events.failed")
+            .description("Eventos de auditoría de lotes que un destino no pudo escribir")
+            .register(meterRegistry);
+        Gauge.builder("audit.queue.size", buffer, RingBufferAuditoria::getTamanio)
+            .description("Eventos de auditoría esperando al consumidor")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publica un evento sin bloquear al hilo que llama
+     *
+     * @return false si el buffer estaba lleno y el evento se descartó
+     */
+    public boolean publicar(EventoAuditoria evento) {
+        if (buffer.publicar(evento)) {
+            return true;
+        }
+        descartadosPorTipo.get(evento.tipo()).increment();
+        return false;
+    }
+
+    /**
+     * Entrega a los destinos todos los eventos publicados hasta ahora, en lotes.
+     * Lo invoca el hilo consumidor; fuera de él solo con el pipeline detenido
+     *
+     * @return Cantidad de eventos entregados
+     */
+    public int procesarPendientes() {
+        List<EventoAuditoria> lote = new ArrayList<>(tamanioLote);
+        int total = 0;
+        while (buffer.drenar(lote, tamanioLote) > 0) {
+            entregar(lote);
+            total += lote.size();
+            lote.clear();
+        }
+        return total;
+    }
+
+    private void entregar(List<EventoAuditoria> lote) {
+        boolean entregado = true;
+        for (AuditoriaDestino destino : destinos) {
+            try {
+                destino.escribir(lote);
+            } catch (RuntimeException e) {
+                // Un destino caído (por ejemplo, la base) no debe frenar a los demás
+                entregado = false;
+                fallidos.increment(lote.size());
+                logger.error("Error escribiendo {} eventos de auditoría en {}: {}",
+                        lote.size(), destino.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        // Un lote que falló en algún destino solo cuenta en audit.events.failed
+        if (entregado) {
+            escritos.increment(lote.size());
+        }
+    }
+
+    public long getDescartados() {
+        return (long) descartadosPorTipo.values().stream().mapToDouble(Counter::count).sum();
+    }
+
+    public int getPendientes() {
+        return buffer.getTamanio();
+    }
+
+    @Override
+    public void start() {
+        activo = true;
+        Thread hilo = new Thread(this::consumir, "audit-consumer");
+        hilo.setDaemon(true);
+        consumidor = hilo;
+        hilo.start();
+    }
+
+    private void consumir() {
+        while (activo) {
+            if (procesarPendientes() == 0) {
+                LockSupport.parkNanos(this, ESPERA_VACIO_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Detiene al consumidor y entrega lo que quedó en el buffer
+     */
+    @Override
+    public void stop() {
+        activo = false;
+        Thread hilo = consumidor;
+        if (hilo != null) {
+            LockSupport.unpark(hilo);
+            try {
+                hilo.join(Duration.ofSeconds(5).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (hilo.isAlive()) {
+                // Sigue escribiendo un lote: no puede haber dos consumidores sobre el buffer
+                logger.warn("El consumidor de auditoría no terminó; quedan {} eventos sin escribir", buffer.getTamanio());
+                return;
+            }
+            consumidor = null;
+        }
+        procesarPendientes();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+
+    /**
+     * Fase menor que la del cierre ordenado del servidor web (Integer.MAX_VALUE - 2048): las fases
+     * mayores se detienen primero, así que el pipeline se detiene después de que terminan los
+     * requests en curso y entrega también sus eventos
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 4096;
+    }
+}
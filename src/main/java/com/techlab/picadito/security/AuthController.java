@@ -1,5 +1,6 @@
 package com.techlab.picadito.security;
 
+import com.techlab.picadito.config.RequestProfile;
 import com.techlab.picadito.dto.AuthResponseDTO;
 import com.techlab.picadito.dto.LoginRequestDTO;
 import com.techlab.picadito.dto.RefreshTokenRequestDTO;
@@ -22,7 +23,7 @@ public class AuthController {
     public ResponseEntity<AuthResponseDTO> register(
             @Valid @RequestBody RegisterRequestDTO request,
             HttpServletRequest httpRequest) {
-        String ipAddress = getClientIpAddress(httpRequest);
+        String ipAddress = RequestProfile.de(httpRequest).ipCliente();
         AuthResponseDTO response = authService.register(request, ipAddress);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -31,28 +32,11 @@ public class AuthController {
     public ResponseEntity<AuthResponseDTO> login(
             @Valid @RequestBody LoginRequestDTO request,
             HttpServletRequest httpRequest) {
-        String ipAddress = getClientIpAddress(httpRequest);
+        String ipAddress = RequestProfile.de(httpRequest).ipCliente();
         AuthResponseDTO response = authService.login(request, ipAddress);
         return ResponseEntity.ok(response);
     }
 
-    /**
-     * Obtiene la IP real del cliente, considerando proxies
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
-    }
-
     @PostMapping("/refresh")
     public ResponseEntity<AuthResponseDTO> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO request) {
         AuthResponseDTO response = authService.refreshToken(request);
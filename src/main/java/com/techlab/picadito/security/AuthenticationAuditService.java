@@ -1,186 +1,161 @@
 package com.techlab.picadito.security;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Servicio para registrar eventos de autenticación para auditoría
- * y detectar patrones sospechosos
+ * y detectar patrones sospechosos.
+ *
+ * Los eventos se publican en el AuditoriaPipeline y se escriben en lotes desde otro hilo.
  */
 @Service
 public class AuthenticationAuditService {
 
-    private static final Logger auditLogger = LoggerFactory.getLogger("AUDIT");
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private final AuditoriaPipeline auditoriaPipeline;
     
-    // Contadores para detección de patrones sospechosos
-    private final Map<String, AtomicInteger> failedLoginAttemptsByIp = new ConcurrentHashMap<>();
-    private final Map<String, AtomicInteger> failedLoginAttemptsByEmail = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> lastFailedLoginByIp = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> lastFailedLoginByEmail = new ConcurrentHashMap<>();
+    // Contadores por ventana deslizante para detección de patrones sospechosos
+    private final DetectorFuerzaBruta detector;
     
     // Umbrales para alertas
     private static final int SUSPICIOUS_FAILED_ATTEMPTS_THRESHOLD = 10;
     private static final int SUSPICIOUS_FAILED_ATTEMPTS_WINDOW_MINUTES = 15;
+    // Ataques distribuidos: IPs distintas contra un email y emails distintos desde una IP
+    private static final int SUSPICIOUS_DISTINCT_IPS_PER_EMAIL_THRESHOLD = 5;
+    private static final int SUSPICIOUS_DISTINCT_EMAILS_PER_IP_THRESHOLD = 10;
+
+    public AuthenticationAuditService(
+            AuditoriaPipeline auditoriaPipeline,
+            @Value("${app.security.brute-force.max-claves:10000}") int maxClaves) {
+        this.auditoriaPipeline = auditoriaPipeline;
+        // Un tramo por minuto de la ventana
+        this.detector = new DetectorFuerzaBruta(
+            Duration.ofMinutes(SUSPICIOUS_FAILED_ATTEMPTS_WINDOW_MINUTES),
+            SUSPICIOUS_FAILED_ATTEMPTS_WINDOW_MINUTES,
+            SUSPICIOUS_FAILED_ATTEMPTS_THRESHOLD,
+            SUSPICIOUS_DISTINCT_IPS_PER_EMAIL_THRESHOLD,
+            SUSPICIOUS_DISTINCT_EMAILS_PER_IP_THRESHOLD,
+            maxClaves,
+            Clock.systemUTC());
+    }
 
     /**
      * Registra un intento de login exitoso
      */
     public void logSuccessfulLogin(String email, String ipAddress) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.info("LOGIN_SUCCESS|email={}|ip={}|timestamp={}|correlationId={}",
-            email, ipAddress, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.LOGIN_SUCCESS, email, ipAddress, null, null, null, null);
     }
 
     /**
      * Registra un intento de login fallido
      */
     public void logFailedLogin(String email, String ipAddress, String reason) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.warn("LOGIN_FAILED|email={}|ip={}|reason={}|timestamp={}|correlationId={}",
-            email, ipAddress, reason, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.LOGIN_FAILED, email, ipAddress, null, null, reason, null);
     }
 
     /**
      * Registra un registro de usuario exitoso
      */
     public void logSuccessfulRegistration(String email, String ipAddress) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.info("REGISTRATION_SUCCESS|email={}|ip={}|timestamp={}|correlationId={}",
-            email, ipAddress, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.REGISTRATION_SUCCESS, email, ipAddress, null, null, null, null);
     }
 
     /**
      * Registra un intento de registro fallido
      */
     public void logFailedRegistration(String email, String ipAddress, String reason) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.warn("REGISTRATION_FAILED|email={}|ip={}|reason={}|timestamp={}|correlationId={}",
-            email, ipAddress, reason, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.REGISTRATION_FAILED, email, ipAddress, null, null, reason, null);
     }
 
     /**
      * Registra un bloqueo de cuenta
      */
     public void logAccountLocked(String email, String ipAddress, int failedAttempts) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.error("ACCOUNT_LOCKED|email={}|ip={}|failedAttempts={}|timestamp={}|correlationId={}",
-            email, ipAddress, failedAttempts, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.ACCOUNT_LOCKED, email, ipAddress, null, null, null, failedAttempts);
     }
 
     /**
      * Registra un desbloqueo de cuenta
      */
     public void logAccountUnlocked(String email) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.info("ACCOUNT_UNLOCKED|email={}|timestamp={}|correlationId={}",
-            email, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.ACCOUNT_UNLOCKED, email, null, null, null, null, null);
     }
 
     /**
      * Registra un intento de acceso con token inválido
      */
     public void logInvalidToken(String ipAddress, String reason) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.warn("INVALID_TOKEN|ip={}|reason={}|timestamp={}|correlationId={}",
-            ipAddress, reason, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.INVALID_TOKEN, null, ipAddress, null, null, reason, null);
     }
 
     /**
      * Registra rate limiting aplicado
      */
     public void logRateLimitExceeded(String endpoint, String identifier, String type) {
-        String correlationId = MDC.get("correlationId");
-        auditLogger.warn("RATE_LIMIT_EXCEEDED|endpoint={}|identifier={}|type={}|timestamp={}|correlationId={}",
-            endpoint, identifier, type, LocalDateTime.now().format(formatter), correlationId);
+        registrar(EventoAuditoria.Tipo.RATE_LIMIT_EXCEEDED, null, null, endpoint, identifier, type, null);
     }
-    
+
     /**
-     * Detecta patrones sospechosos en intentos de login fallidos
+     * Publica el evento en el pipeline de auditoría; la escritura ocurre fuera del hilo del request
      */
-    public void detectSuspiciousPatterns(String email, String ipAddress) {
-        LocalDateTime now = LocalDateTime.now();
-        
-        // Limpiar intentos antiguos
-        cleanupOldAttempts(now);
-        
-        // Incrementar contadores
-        int ipAttempts = failedLoginAttemptsByIp.computeIfAbsent(ipAddress, k -> new AtomicInteger(0)).incrementAndGet();
-        int emailAttempts = failedLoginAttemptsByEmail.computeIfAbsent(email.toLowerCase(), k -> new AtomicInteger(0)).incrementAndGet();
-        
-        lastFailedLoginByIp.put(ipAddress, now);
-        lastFailedLoginByEmail.put(email.toLowerCase(), now);
-        
-        // Detectar patrones sospechosos
-        if (ipAttempts >= SUSPICIOUS_FAILED_ATTEMPTS_THRESHOLD) {
-            String correlationId = MDC.get("correlationId");
-            auditLogger.error("SUSPICIOUS_ACTIVITY_DETECTED|type=IP_BRUTE_FORCE|ip={}|attempts={}|timestamp={}|correlationId={}",
-                ipAddress, ipAttempts, now.format(formatter), correlationId);
-        }
-        
-        if (emailAttempts >= SUSPICIOUS_FAILED_ATTEMPTS_THRESHOLD) {
-            String correlationId = MDC.get("correlationId");
-            auditLogger.error("SUSPICIOUS_ACTIVITY_DETECTED|type=EMAIL_BRUTE_FORCE|email={}|attempts={}|timestamp={}|correlationId={}",
-                email, emailAttempts, now.format(formatter), correlationId);
-        }
+    private void registrar(EventoAuditoria.Tipo tipo, String email, String ip, String endpoint,
+                           String identificador, String detalle, Integer intentos) {
+        auditoriaPipeline.publicar(new EventoAuditoria(tipo, System.currentTimeMillis(), email, ip, endpoint,
+                identificador, detalle, intentos, MDC.get("correlationId")));
     }
     
     /**
-     * Limpia intentos antiguos fuera de la ventana de tiempo
+     * Detecta patrones sospechosos en intentos de login fallidos
      */
-    private void cleanupOldAttempts(LocalDateTime now) {
-        LocalDateTime threshold = now.minusMinutes(SUSPICIOUS_FAILED_ATTEMPTS_WINDOW_MINUTES);
-        
-        lastFailedLoginByIp.entrySet().removeIf(entry -> {
-            if (entry.getValue().isBefore(threshold)) {
-                failedLoginAttemptsByIp.remove(entry.getKey());
-                return true;
-            }
-            return false;
-        });
-        
-        lastFailedLoginByEmail.entrySet().removeIf(entry -> {
-            if (entry.getValue().isBefore(threshold)) {
-                failedLoginAttemptsByEmail.remove(entry.getKey());
-                return true;
-            }
-            return false;
-        });
+    public void detectSuspiciousPatterns(String email, String ipAddress) {
+        for (DetectorFuerzaBruta.Deteccion deteccion : detector.registrarFallo(email, ipAddress)) {
+            boolean porEmail = deteccion.tipo() == DetectorFuerzaBruta.TipoAtaque.EMAIL_BRUTE_FORCE
+                || deteccion.tipo() == DetectorFuerzaBruta.TipoAtaque.DISTRIBUTED_BRUTE_FORCE;
+            registrar(EventoAuditoria.Tipo.SUSPICIOUS_ACTIVITY_DETECTED,
+                porEmail ? deteccion.clave() : null,
+                porEmail ? null : deteccion.clave(),
+                null, null, deteccion.tipo().name(), deteccion.cantidad());
+        }
     }
     
     /**
      * Resetea contadores después de un login exitoso
      */
     public void resetFailedAttempts(String email, String ipAddress) {
-        failedLoginAttemptsByIp.remove(ipAddress);
-        failedLoginAttemptsByEmail.remove(email.toLowerCase());
-        lastFailedLoginByIp.remove(ipAddress);
-        lastFailedLoginByEmail.remove(email.toLowerCase());
+        detector.reiniciar(email, ipAddress);
     }
     
     /**
      * Obtiene métricas de seguridad
      */
     public SecurityMetrics getSecurityMetrics() {
+        DetectorFuerzaBruta.Resumen resumen = detector.getResumen();
+        Map<String, Long> detecciones = new LinkedHashMap<>();
+        resumen.detecciones().forEach((tipo, cantidad) -> detecciones.put(tipo.name(), cantidad));
         return new SecurityMetrics(
-            failedLoginAttemptsByIp.size(),
-            failedLoginAttemptsByEmail.size(),
-            failedLoginAttemptsByIp.values().stream()
-                .mapToInt(AtomicInteger::get)
-                .sum(),
-            failedLoginAttemptsByEmail.values().stream()
-                .mapToInt(AtomicInteger::get)
-                .sum()
+            resumen.ipsConFallos(),
+            resumen.emailsConFallos(),
+            (int) resumen.fallosPorIp(),
+            (int) resumen.fallosPorEmail(),
+            resumen.emailsConAtaqueDistribuido(),
+            resumen.ipsConCredentialStuffing(),
+            detecciones,
+            resumen.evicciones()
         );
     }
+
+    /**
+     * Detecciones acumuladas de un tipo de ataque (para métricas)
+     */
+    public long getDetecciones(DetectorFuerzaBruta.TipoAtaque tipo) {
+        return detector.getDetecciones(tipo);
+    }
     
     /**
      * Clase para métricas de seguridad
@@ -190,13 +165,23 @@ public class AuthenticationAuditService {
         private final int uniqueEmailsWithFailedAttempts;
         private final int totalFailedAttemptsByIp;
         private final int totalFailedAttemptsByEmail;
+        private final int emailsUnderDistributedAttack;
+        private final int ipsTargetingManyEmails;
+        private final Map<String, Long> detections;
+        private final long evictedKeys;
         
         public SecurityMetrics(int uniqueIpsWithFailedAttempts, int uniqueEmailsWithFailedAttempts,
-                              int totalFailedAttemptsByIp, int totalFailedAttemptsByEmail) {
+                              int totalFailedAttemptsByIp, int totalFailedAttemptsByEmail,
+                              int emailsUnderDistributedAttack, int ipsTargetingManyEmails,
+                              Map<String, Long> detections, long evictedKeys) {
             this.uniqueIpsWithFailedAttempts = uniqueIpsWithFailedAttempts;
             this.uniqueEmailsWithFailedAttempts = uniqueEmailsWithFailedAttempts;
             this.totalFailedAttemptsByIp = totalFailedAttemptsByIp;
             this.totalFailedAttemptsByEmail = totalFailedAttemptsByEmail;
+            this.emailsUnderDistributedAttack = emailsUnderDistributedAttack;
+            this.ipsTargetingManyEmails = ipsTargetingManyEmails;
+            this.detections = detections;
+            this.evictedKeys = evictedKeys;
         }
         
         public int getUniqueIpsWithFailedAttempts() {
@@ -214,6 +199,34 @@ public class AuthenticationAuditService {
         public int getTotalFailedAttemptsByEmail() {
             return totalFailedAttemptsByEmail;
         }
+        
+        /**
+         * Emails atacados desde muchas IPs distintas dentro de la ventana
+         */
+        public int getEmailsUnderDistributedAttack() {
+            return emailsUnderDistributedAttack;
+        }
+        
+        /**
+         * IPs que intentaron contra muchos emails distintos dentro de la ventana
+         */
+        public int getIpsTargetingManyEmails() {
+            return ipsTargetingManyEmails;
+        }
+        
+        /**
+         * Detecciones acumuladas por tipo de ataque
+         */
+        public Map<String, Long> getDetections() {
+            return detections;
+        }
+        
+        /**
+         * IPs o emails descartados por llenar el detector antes de salir de la ventana
+         */
+        public long getEvictedKeys() {
+            return evictedKeys;
+        }
     }
 }
 
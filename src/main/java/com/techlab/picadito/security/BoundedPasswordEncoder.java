@@ -0,0 +1,152 @@
+package com.techlab.picadito.security;
+
+import com.techlab.picadito.exception.ServicioSaturadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que ejecuta el hash (BCrypt) en un pool propio y acotado.
+ *
+ * El pool tiene tantos hilos como núcleos y una cola con capacidad fija. Cuando la cola está llena
+ * la operación se rechaza enseguida con ServicioSaturadoException (503), así una ráfaga de logins
+ * no deja a todos los hilos de Tomcat ocupados calculando hashes y el resto de los endpoints sigue
+ * respondiendo. El hilo del request espera el resultado, con un máximo de espera.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final String MENSAJE_SATURADO =
+            "El servicio de autenticación está saturado. Por favor, intenta nuevamente en unos segundos.";
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMillis;
+
+    private final Timer tiempoEncode;
+    private final Timer tiempoMatches;
+    private final Counter rechazos;
+
+    /**
+     * @param hilos Hilos dedicados al hash
+     * @param capacidadCola Operaciones que pueden esperar un hilo libre antes de rechazar
+     * @param esperaMaxima Tiempo máximo que el request espera el resultado (cola más hash)
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegado, int hilos, int capacidadCola, Duration esperaMaxima,
+                                  MeterRegistry meterRegistry) {
+        if (hilos < 1 || capacidadCola < 1) {
+            throw new IllegalArgumentException("hilos y capacidadCola deben ser positivos");
+        }
+        this.delegado = delegado;
+        this.esperaMaximaMillis = esperaMaxima.toMillis();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), new HilosHash(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.tiempoEncode = Timer.builder("password.hash.duration")
+            .description("Tiempo de cálculo del hash de contraseñas")
+            .tag("operacion", "encode")
+            .register(meterRegistry);
+        this.tiempoMatches = Timer.builder("password.hash.duration")
+            .description("Tiempo de cálculo del hash de contraseñas")
+            .tag("operacion", "matches")
+            .register(meterRegistry);
+        this.rechazos = Counter.builder("password.hash.rejected")
+            .description("Operaciones de hash rechazadas por saturación")
+            .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, e -> e.getQueue().size())
+            .description("Operaciones de hash esperando un hilo libre")
+            .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hilos calculando un hash")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> tiempoEncode.recordCallable(() -> delegado.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> tiempoMatches.recordCallable(() -> delegado.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * No calcula ningún hash: corre en el hilo que llama
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    public int getTamanioCola() {
+        return executor.getQueue().size();
+    }
+
+    public long getRechazos() {
+        return (long) rechazos.count();
+    }
+
+    private <T> T ejecutar(Callable<T> operacion) {
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(operacion);
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            logger.warn("Hash de contraseña rechazado: cola llena ({} en espera)", executor.getQueue().size());
+            throw new ServicioSaturadoException(MENSAJE_SATURADO);
+        }
+        try {
+            return resultado.get(esperaMaximaMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Si todavía estaba en la cola se descarta sin calcularlo
+            resultado.cancel(false);
+            rechazos.increment();
+            logger.warn("Hash de contraseña sin respuesta en {} ms", esperaMaximaMillis);
+            throw new ServicioSaturadoException(MENSAJE_SATURADO);
+        } catch (InterruptedException e) {
+            resultado.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServicioSaturadoException(MENSAJE_SATURADO);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error calculando el hash de la contraseña", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static final class HilosHash implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarea) {
+            Thread hilo = new Thread(tarea, "password-hash-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.techlab.picadito.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Detector de fuerza bruta con ventana deslizante y memoria acotada.
+ *
+ * Por cada IP y cada email guarda un anillo de contadores por tramo de la ventana (por ejemplo 15
+ * tramos de un minuto): registrar un fallo es incrementar el tramo actual y sumar el anillo, sin
+ * recorrer las demás claves. Además guarda los emails distintos atacados desde cada IP y las IPs
+ * distintas que atacan cada email, para detectar ataques distribuidos (muchas IPs contra un email)
+ * y credential stuffing (una IP contra muchos emails).
+ *
+ * Las claves viven en tablas segmentadas con un máximo de entradas y orden de último fallo: las que
+ * quedaron fuera de la ventana se descartan desde la más antigua al registrar, y si una tabla se
+ * llena se descarta la de fallo más antiguo.
+ */
+public class DetectorFuerzaBruta {
+
+    public enum TipoAtaque {
+        IP_BRUTE_FORCE,
+        EMAIL_BRUTE_FORCE,
+        // Muchas IPs contra un mismo email
+        DISTRIBUTED_BRUTE_FORCE,
+        // Una IP contra muchos emails
+        CREDENTIAL_STUFFING
+    }
+
+    /**
+     * @param clave IP o email según el tipo de ataque
+     * @param cantidad Intentos en la ventana, o claves distintas para los ataques distribuidos
+     */
+    public record Deteccion(TipoAtaque tipo, String clave, int cantidad) {
+    }
+
+    public record Resumen(
+            int ipsConFallos,
+            int emailsConFallos,
+            long fallosPorIp,
+            long fallosPorEmail,
+            int emailsConAtaqueDistribuido,
+            int ipsConCredentialStuffing,
+            Map<TipoAtaque, Long> detecciones,
+            long evicciones) {
+    }
+
+    private static final int SEGMENTOS = 16;
+
+    private final int cantidadTramos;
+    private final long tramoMillis;
+    private final long ventanaMillis;
+    private final int umbralIntentos;
+    private final int umbralIpsPorEmail;
+    private final int umbralEmailsPorIp;
+    private final Clock reloj;
+
+    private final Tabla porIp;
+    private final Tabla porEmail;
+
+    private final Map<TipoAtaque, LongAdder> detecciones = new EnumMap<>(TipoAtaque.class);
+    private final LongAdder evicciones = new LongAdder();
+
+    /**
+     * @param ventana Ventana de detección, dividida en cantidadTramos contadores
+     * @param maxClaves Máximo de IPs (y de emails) con estado a la vez
+     */
+    public DetectorFuerzaBruta(Duration ventana, int cantidadTramos, int umbralIntentos, int umbralIpsPorEmail,
+                               int umbralEmailsPorIp, int maxClaves, Clock reloj) {
+        if (cantidadTramos < 1 || maxClaves < 1) {
+            throw new IllegalArgumentException("cantidadTramos y maxClaves deben ser positivos");
+        }
+        this.cantidadTramos = cantidadTramos;
+        this.tramoMillis = Math.max(1, ventana.toMillis() / cantidadTramos);
+        this.ventanaMillis = tramoMillis * cantidadTramos;
+        this.umbralIntentos = umbralIntentos;
+        this.umbralIpsPorEmail = umbralIpsPorEmail;
+        this.umbralEmailsPorIp = umbralEmailsPorIp;
+        this.reloj = reloj;
+        // Alcanza con recordar una clave distinta más que el umbral
+        this.porIp = new Tabla(maxClaves, umbralEmailsPorIp + 1);
+        this.porEmail = new Tabla(maxClaves, umbralIpsPorEmail + 1);
+        for (TipoAtaque tipo : TipoAtaque.values()) {
+            detecciones.put(tipo, new LongAdder());
+        }
+    }
+
+    /**
+     * Registra un login fallido
+     *
+     * @return Ataques que superan su umbral con este fallo (vacío en el caso normal)
+     */
+    public List<Deteccion> registrarFallo(String email, String ip) {
+        long ahora = reloj.millis();
+        String emailNormalizado = email.toLowerCase();
+        long conteoIp = porIp.registrar(ip, emailNormalizado, ahora);
+        long conteoEmail = porEmail.registrar(emailNormalizado, ip, ahora);
+
+        List<Deteccion> encontradas = new ArrayList<>(0);
+        agregarSiSupera(encontradas, TipoAtaque.IP_BRUTE_FORCE, ip, intentos(conteoIp), umbralIntentos);
+        agregarSiSupera(encontradas, TipoAtaque.EMAIL_BRUTE_FORCE, email, intentos(conteoEmail), umbralIntentos);
+        agregarSiSupera(encontradas, TipoAtaque.DISTRIBUTED_BRUTE_FORCE, email, distintos(conteoEmail), umbralIpsPorEmail);
+        agregarSiSupera(encontradas, TipoAtaque.CREDENTIAL_STUFFING, ip, distintos(conteoIp), umbralEmailsPorIp);
+        return encontradas;
+    }
+
+    private void agregarSiSupera(List<Deteccion> encontradas, TipoAtaque tipo, String clave, int cantidad, int umbral) {
+        if (cantidad >= umbral) {
+            detecciones.get(tipo).increment();
+            encontradas.add(new Deteccion(tipo, clave, cantidad));
+        }
+    }
+
+    /**
+     * Olvida los fallos de la IP y del email (login exitoso)
+     */
+    public void reiniciar(String email, String ip) {
+        porIp.remover(ip);
+        porEmail.remover(email.toLowerCase());
+    }
+
+    /**
+     * Recorre todas las claves: pensado para el endpoint de métricas, no para cada request
+     */
+    public Resumen getResumen() {
+        long ahora = reloj.millis();
+        long[] ips = porIp.resumir(ahora, umbralEmailsPorIp);
+        long[] emails = porEmail.resumir(ahora, umbralIpsPorEmail);
+        Map<TipoAtaque, Long> totales = new EnumMap<>(TipoAtaque.class);
+        detecciones.forEach((tipo, contador) -> totales.put(tipo, contador.sum()));
+        return new Resumen((int) ips[0], (int) emails[0], ips[1], emails[1], (int) emails[2], (int) ips[2],
+                totales, evicciones.sum());
+    }
+
+    public long getDetecciones(TipoAtaque tipo) {
+        return detecciones.get(tipo).sum();
+    }
+
+    // registrar devuelve intentos y claves distintas empaquetados en un long para no crear objetos
+    private static int intentos(long conteo) {
+        return (int) (conteo >>> 32);
+    }
+
+    private static int distintos(long conteo) {
+        return (int) conteo;
+    }
+
+    /**
+     * Estado de una IP o un email. Se accede con el lock de su segmento tomado
+     */
+    private final class Estado {
+        private final int[] conteos = new int[cantidadTramos];
+        private final long[] tramos = new long[cantidadTramos];
+        // Clave relacionada (email o IP) -> último fallo, en orden de último fallo
+        private final LinkedHashMap<String, Long> relacionadas = new LinkedHashMap<>();
+        private long ultimoFallo;
+
+        private Estado() {
+            Arrays.fill(tramos, Long.MIN_VALUE);
+        }
+
+        private void sumar(long ahora) {
+            long tramo = ahora / tramoMillis;
+            int indice = (int) (tramo % cantidadTramos);
+            if (tramos[indice] != tramo) {
+                // El contador era de una vuelta anterior del anillo
+                tramos[indice] = tramo;
+                conteos[indice] = 0;
+            }
+            conteos[indice]++;
+            ultimoFallo = ahora;
+        }
+
+        private int total(long ahora) {
+            long desde = ahora / tramoMillis - cantidadTramos;
+            int total = 0;
+            for (int i = 0; i < cantidadTramos; i++) {
+                if (tramos[i] > desde) {
+                    total += conteos[i];
+                }
+            }
+            return total;
+        }
+
+        private void relacionar(String clave, long ahora, int maximo) {
+            // Reinsertar mueve la clave al final
+            relacionadas.remove(clave);
+            relacionadas.put(clave, ahora);
+            Iterator<Long> it = relacionadas.values().iterator();
+            while (it.hasNext()) {
+                long visto = it.next();
+                if (ahora - visto < ventanaMillis && relacionadas.size() <= maximo) {
+                    break;
+                }
+                it.remove();
+            }
+        }
+
+        private int distintas(long ahora) {
+            int vigentes = 0;
+            for (long visto : relacionadas.values()) {
+                if (ahora - visto < ventanaMillis) {
+                    vigentes++;
+                }
+            }
+            return vigentes;
+        }
+    }
+
+    private final class Tabla {
+        private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+        private final int maximoRelacionadas;
+
+        private Tabla(int maxClaves, int maximoRelacionadas) {
+            int maximoPorSegmento = Math.max(1, (maxClaves + SEGMENTOS - 1) / SEGMENTOS);
+            for (int i = 0; i < SEGMENTOS; i++) {
+                segmentos[i] = new Segmento(maximoPorSegmento);
+            }
+            this.maximoRelacionadas = maximoRelacionadas;
+        }
+
+        private long registrar(String clave, String relacionada, long ahora) {
+            Segmento segmento = segmento(clave);
+            segmento.lock.lock();
+            try {
+                Estado estado = segmento.estados.get(clave);
+                if (estado == null) {
+                    segmento.descartarVencidos(ahora);
+                    if (segmento.estados.size() >= segmento.maximo) {
+                        Iterator<Estado> masAntiguo = segmento.estados.values().iterator();
+                        masAntiguo.next();
+                        masAntiguo.remove();
+                        evicciones.increment();
+                    }
+                    estado = new Estado();
+                    segmento.estados.put(clave, estado);
+                }
+                estado.sumar(ahora);
+                estado.relacionar(relacionada, ahora, maximoRelacionadas);
+                return ((long) estado.total(ahora) << 32) | estado.relacionadas.size();
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+
+        private void remover(String clave) {
+            Segmento segmento = segmento(clave);
+            segmento.lock.lock();
+            try {
+                segmento.estados.remove(clave);
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+
+        /**
+         * @return Claves con fallos en la ventana, total de fallos y claves sobre el umbral de relacionadas
+         */
+        private long[] resumir(long ahora, int umbralRelacionadas) {
+            long[] resumen = new long[3];
+            for (Segmento segmento : segmentos) {
+                segmento.lock.lock();
+                try {
+                    for (Estado estado : segmento.estados.values()) {
+                        int total = estado.total(ahora);
+                        if (total > 0) {
+                            resumen[0]++;
+                            resumen[1] += total;
+                        }
+                        if (estado.distintas(ahora) >= umbralRelacionadas) {
+                            resumen[2]++;
+                        }
+                    }
+                } finally {
+                    segmento.lock.unlock();
+                }
+            }
+            return resumen;
+        }
+
+        private Segmento segmento(String clave) {
+            int hash = clave.hashCode();
+            return segmentos[(hash ^ (hash >>> 16)) & (SEGMENTOS - 1)];
+        }
+    }
+
+    private final class Segmento {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Orden de acceso: el primero es el de fallo más antiguo
+        private final LinkedHashMap<String, Estado> estados = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maximo;
+
+        private Segmento(int maximo) {
+            this.maximo = maximo;
+        }
+
+        private void descartarVencidos(long ahora) {
+            Iterator<Map.Entry<String, Estado>> it = estados.entrySet().iterator();
+            while (it.hasNext()) {
+                if (ahora - it.next().getValue().ultimoFallo < ventanaMillis) {
+                    break;
+                }
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.techlab.picadito.security;
+
+import org.slf4j.event.Level;
+
+/**
+ * Evento de auditoría de seguridad. Se arma en el hilo del request sin formatear nada: el
+ * formato de la línea de log y la fecha los resuelve el consumidor del AuditoriaPipeline.
+ *
+ * Los campos que no aplican a un tipo de evento quedan en null.
+ *
+ * @param instante Momento del evento en milisegundos epoch
+ * @param identificador IP, email o usuario al que se aplicó un rate limit
+ * @param detalle Motivo del fallo, tipo de rate limit o patrón sospechoso detectado
+ */
+public record EventoAuditoria(
+        Tipo tipo,
+        long instante,
+        String email,
+        String ip,
+        String endpoint,
+        String identificador,
+        String detalle,
+        Integer intentos,
+        String correlationId) {
+
+    public enum Tipo {
+        LOGIN_SUCCESS(Level.INFO),
+        LOGIN_FAILED(Level.WARN),
+        REGISTRATION_SUCCESS(Level.INFO),
+        REGISTRATION_FAILED(Level.WARN),
+        ACCOUNT_LOCKED(Level.ERROR),
+        ACCOUNT_UNLOCKED(Level.INFO),
+        INVALID_TOKEN(Level.WARN),
+        RATE_LIMIT_EXCEEDED(Level.WARN),
+        SUSPICIOUS_ACTIVITY_DETECTED(Level.ERROR);
+
+        private final Level nivel;
+
+        Tipo(Level nivel) {
+            this.nivel = nivel;
+        }
+
+        public Level getNivel() {
+            return nivel;
+        }
+    }
+}
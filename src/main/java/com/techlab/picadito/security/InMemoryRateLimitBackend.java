@@ -0,0 +1,31 @@
+package com.techlab.picadito.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Backend por defecto: buckets en memoria del proceso, acotados por tipo
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private final int maxBuckets;
+    private final int segmentos;
+
+    public InMemoryRateLimitBackend(
+            @Value("${app.rate-limit.store.max-buckets:10000}") int maxBuckets,
+            @Value("${app.rate-limit.store.segmentos:16}") int segmentos) {
+        this.maxBuckets = maxBuckets;
+        this.segmentos = segmentos;
+    }
+
+    @Override
+    public RateLimitStore crearStore(String tipo, long capacidad, Duration periodo) {
+        return new InMemoryRateLimitStore(capacidad, periodo, maxBuckets, segmentos, Clock.systemUTC());
+    }
+}
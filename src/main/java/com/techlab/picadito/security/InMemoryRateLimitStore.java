@@ -0,0 +1,184 @@
+package com.techlab.picadito.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Store de buckets Bucket4j en memoria con tamaño acotado.
+ *
+ * Las claves se reparten en segmentos con lock propio, cada uno con un máximo de buckets y
+ * ordenado por último acceso. Un bucket sin uso durante un período de recarga ya tiene todos sus
+ * tokens, así que descartarlo no cambia el límite que ve el cliente. Si un segmento se llena con
+ * buckets activos (por ejemplo, un escaneo desde muchas IPs) se descarta el de acceso más antiguo.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final long capacidad;
+    private final Duration periodo;
+    private final long periodoMillis;
+    private final Segmento[] segmentos;
+    private final Clock reloj;
+
+    private final LongAdder eviccionesPorCapacidad = new LongAdder();
+    private final LongAdder eviccionesPorInactividad = new LongAdder();
+
+    public InMemoryRateLimitStore(long capacidad, Duration periodo, int maxBuckets, int cantidadSegmentos, Clock reloj) {
+        if (maxBuckets < 1 || cantidadSegmentos < 1) {
+            throw new IllegalArgumentException("maxBuckets y cantidadSegmentos deben ser positivos");
+        }
+        this.capacidad = capacidad;
+        this.periodo = periodo;
+        this.periodoMillis = periodo.toMillis();
+        this.reloj = reloj;
+
+        // Potencia de dos para elegir el segmento con una máscara
+        int cantidad = Integer.highestOneBit(cantidadSegmentos);
+        if (cantidad < cantidadSegmentos) {
+            cantidad <<= 1;
+        }
+        int maximoPorSegmento = Math.max(1, (maxBuckets + cantidad - 1) / cantidad);
+        this.segmentos = new Segmento[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            segmentos[i] = new Segmento(maximoPorSegmento);
+        }
+    }
+
+    @Override
+    public boolean tryConsume(String clave) {
+        return obtenerOCrear(clave).tryConsume(1);
+    }
+
+    @Override
+    public long getAvailableTokens(String clave) {
+        Segmento segmento = segmento(clave);
+        segmento.lock.lock();
+        try {
+            Entrada entrada = segmento.entradas.get(clave);
+            return entrada != null ? entrada.bucket.getAvailableTokens() : capacidad;
+        } finally {
+            segmento.lock.unlock();
+        }
+    }
+
+    @Override
+    public long getCantidadBuckets() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            segmento.lock.lock();
+            try {
+                total += segmento.entradas.size();
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long getEviccionesPorCapacidad() {
+        return eviccionesPorCapacidad.sum();
+    }
+
+    @Override
+    public long getEviccionesPorInactividad() {
+        return eviccionesPorInactividad.sum();
+    }
+
+    @Override
+    public long limpiarInactivos() {
+        long ahora = reloj.millis();
+        long descartados = 0;
+        for (Segmento segmento : segmentos) {
+            segmento.lock.lock();
+            try {
+                descartados += segmento.descartarInactivos(ahora);
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+        return descartados;
+    }
+
+    private Bucket obtenerOCrear(String clave) {
+        Segmento segmento = segmento(clave);
+        long ahora = reloj.millis();
+        segmento.lock.lock();
+        try {
+            // get() en un LinkedHashMap por orden de acceso mueve la entrada al final
+            Entrada entrada = segmento.entradas.get(clave);
+            if (entrada == null) {
+                segmento.descartarInactivos(ahora);
+                if (segmento.entradas.size() >= segmento.maximo) {
+                    Iterator<Entrada> masAntigua = segmento.entradas.values().iterator();
+                    masAntigua.next();
+                    masAntigua.remove();
+                    eviccionesPorCapacidad.increment();
+                }
+                entrada = new Entrada(crearBucket());
+                segmento.entradas.put(clave, entrada);
+            }
+            entrada.ultimoAcceso = ahora;
+            return entrada.bucket;
+        } finally {
+            segmento.lock.unlock();
+        }
+    }
+
+    private Bucket crearBucket() {
+        Bandwidth limit = Bandwidth.builder()
+            .capacity(capacidad)
+            .refillIntervally(capacidad, periodo)
+            .build();
+        return Bucket.builder().addLimit(limit).build();
+    }
+
+    private Segmento segmento(String clave) {
+        int hash = clave.hashCode();
+        return segmentos[(hash ^ (hash >>> 16)) & (segmentos.length - 1)];
+    }
+
+    private static final class Entrada {
+        private final Bucket bucket;
+        private long ultimoAcceso;
+
+        private Entrada(Bucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private final class Segmento {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maximo;
+
+        private Segmento(int maximo) {
+            this.maximo = maximo;
+        }
+
+        /**
+         * Las entradas están ordenadas por último acceso: se recorre desde la más antigua
+         * hasta la primera que sigue activa
+         */
+        private int descartarInactivos(long ahora) {
+            int descartados = 0;
+            Iterator<Map.Entry<String, Entrada>> it = entradas.entrySet().iterator();
+            while (it.hasNext()) {
+                if (ahora - it.next().getValue().ultimoAcceso < periodoMillis) {
+                    break;
+                }
+                it.remove();
+                descartados++;
+            }
+            eviccionesPorInactividad.add(descartados);
+            return descartados;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.techlab.picadito.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Persiste los eventos en auditoria_eventos con un INSERT por lote (batch JDBC), para poder
+ * consultarlos por email, IP o fecha. Se activa con app.audit.jdbc.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.jdbc.enabled", havingValue = "true")
+public class JdbcAuditoriaDestino implements AuditoriaDestino {
+
+    private static final String INSERTAR = """
+            INSERT INTO auditoria_eventos
+                (tipo, fecha, email, ip, endpoint, identificador, detalle, intentos, correlation_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcAuditoriaDestino(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        MigracionJdbc.aplicar(jdbcTemplate, "V6__add_auditoria_eventos.sql");
+    }
+
+    @Override
+    public void escribir(List<EventoAuditoria> lote) {
+        jdbcTemplate.batchUpdate(INSERTAR, lote, lote.size(), (ps, evento) -> {
+            ps.setString(1, evento.tipo().name());
+            ps.setTimestamp(2, new Timestamp(evento.instante()));
+            ps.setString(3, recortar(evento.email(), 255));
+            ps.setString(4, recortar(evento.ip(), 64));
+            ps.setString(5, recortar(evento.endpoint(), 255));
+            ps.setString(6, recortar(evento.identificador(), 255));
+            ps.setString(7, recortar(evento.detalle(), 500));
+            if (evento.intentos() != null) {
+                ps.setInt(8, evento.intentos());
+            } else {
+                ps.setNull(8, Types.INTEGER);
+            }
+            ps.setString(9, recortar(evento.correlationId(), 100));
+        });
+    }
+
+    private static String recortar(String valor, int maximo) {
+        return valor != null && valor.length() > maximo ? valor.substring(0, maximo) : valor;
+    }
+}
@@ -0,0 +1,32 @@
+package com.techlab.picadito.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Backend compartido entre instancias: cada bucket es una fila de rate_limit_buckets.
+ * Se activa con app.rate-limit.backend=jdbc.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "jdbc")
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    public JdbcRateLimitBackend(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        MigracionJdbc.aplicar(jdbcTemplate, "V5__add_rate_limit_buckets.sql");
+    }
+
+    @Override
+    public RateLimitStore crearStore(String tipo, long capacidad, Duration periodo) {
+        return new JdbcRateLimitStore(jdbcTemplate, transactionManager, tipo, capacidad, periodo, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,120 @@
+package com.techlab.picadito.security;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Store de buckets en la base, como ventanas fijas: cada fila cuenta los tokens consumidos
+ * hasta ventana_fin, momento en que se recargan todos (igual que refillIntervally en memoria).
+ *
+ * Cada consumo es un UPDATE condicional, así que instancias concurrentes no superan la capacidad.
+ * Las operaciones corren en una transacción propia para no quedar atadas a la transacción del
+ * request (un rechazo o un rollback del negocio no deben deshacer el conteo).
+ */
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String REINICIAR_VENCIDA =
+            "UPDATE rate_limit_buckets SET consumidos = 1, ventana_fin = ? WHERE tipo = ? AND clave = ? AND ventana_fin <= ?";
+    private static final String CONSUMIR =
+            "UPDATE rate_limit_buckets SET consumidos = consumidos + 1 WHERE tipo = ? AND clave = ? AND consumidos < ? AND ventana_fin > ?";
+    private static final String INSERTAR =
+            "INSERT INTO rate_limit_buckets (tipo, clave, consumidos, ventana_fin) VALUES (?, ?, 1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccion;
+    private final String tipo;
+    private final long capacidad;
+    private final long periodoMillis;
+    private final Clock reloj;
+
+    private final LongAdder eviccionesPorInactividad = new LongAdder();
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              String tipo, long capacidad, Duration periodo, Clock reloj) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tipo = tipo;
+        this.capacidad = capacidad;
+        this.periodoMillis = periodo.toMillis();
+        this.reloj = reloj;
+    }
+
+    @Override
+    public boolean tryConsume(String clave) {
+        long ahora = reloj.millis();
+        Boolean permitido = transaccion.execute(status -> {
+            if (jdbcTemplate.update(REINICIAR_VENCIDA, ahora + periodoMillis, tipo, clave, ahora) == 1) {
+                return true;
+            }
+            if (jdbcTemplate.update(CONSUMIR, tipo, clave, capacidad, ahora) == 1) {
+                return true;
+            }
+            // Si la fila existe, la ventana no tiene tokens; si no, hay que crearla
+            return existe(clave) ? false : null;
+        });
+        if (permitido != null) {
+            return permitido;
+        }
+        // En otra transacción porque en PostgreSQL la clave duplicada invalida la transacción en curso
+        try {
+            transaccion.executeWithoutResult(status ->
+                    jdbcTemplate.update(INSERTAR, tipo, clave, ahora + periodoMillis));
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Otra instancia creó la fila entre medio
+            return Boolean.TRUE.equals(transaccion.execute(status ->
+                    jdbcTemplate.update(CONSUMIR, tipo, clave, capacidad, ahora) == 1));
+        }
+    }
+
+    private boolean existe(String clave) {
+        return !jdbcTemplate.queryForList(
+                "SELECT 1 FROM rate_limit_buckets WHERE tipo = ? AND clave = ?", Integer.class, tipo, clave).isEmpty();
+    }
+
+    @Override
+    public long getAvailableTokens(String clave) {
+        List<Long> consumidos = jdbcTemplate.queryForList(
+                "SELECT consumidos FROM rate_limit_buckets WHERE tipo = ? AND clave = ? AND ventana_fin > ?",
+                Long.class, tipo, clave, reloj.millis());
+        return consumidos.isEmpty() ? capacidad : Math.max(0, capacidad - consumidos.get(0));
+    }
+
+    @Override
+    public long getCantidadBuckets() {
+        Long cantidad = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rate_limit_buckets WHERE tipo = ?", Long.class, tipo);
+        return cantidad != null ? cantidad : 0;
+    }
+
+    /**
+     * La base no tiene máximo de filas: las ventanas vencidas se borran en limpiarInactivos
+     */
+    @Override
+    public long getEviccionesPorCapacidad() {
+        return 0;
+    }
+
+    @Override
+    public long getEviccionesPorInactividad() {
+        return eviccionesPorInactividad.sum();
+    }
+
+    @Override
+    public long limpiarInactivos() {
+        Integer borradas = transaccion.execute(status -> jdbcTemplate.update(
+                "DELETE FROM rate_limit_buckets WHERE tipo = ? AND ventana_fin <= ?", tipo, reloj.millis()));
+        long descartados = borradas != null ? borradas : 0;
+        eviccionesPorInactividad.add(descartados);
+        return descartados;
+    }
+}
@@ -41,21 +41,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail;
+            final TokenVerificado tokenVerificado;
 
-            // Extract username from token - may throw exception if token is malformed
+            // Verify the token once (or take it from the verified-token cache) - throws if invalid
             try {
-                userEmail = jwtService.extractUsername(jwt);
+                tokenVerificado = jwtService.verificarToken(jwt);
             } catch (Exception e) {
                 // Invalid token format - continue filter chain without authentication
                 filterChain.doFilter(request, response);
                 return;
             }
+            final String userEmail = tokenVerificado.subject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 try {
                     UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                    if (jwtService.validateToken(jwt, userDetails)) {
+                    if (jwtService.validateToken(tokenVerificado, userDetails)) {
                         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                                 userDetails,
                                 null,
@@ -1,6 +1,11 @@
 package com.techlab.picadito.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,11 +14,24 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Genera y verifica los JWT de la aplicación.
+ *
+ * La clave y el parser se construyen una sola vez. Los tokens ya verificados se guardan en una
+ * cache acotada, por hash SHA-256 del token y hasta su expiración, así que las requests siguientes
+ * con el mismo token no vuelven a parsearlo ni a verificar la firma. La blacklist se consulta igual
+ * en cada request.
+ */
 @Service
 public class JwtService {
 
@@ -33,9 +51,37 @@ public class JwtService {
     private String audience;
     
     private final TokenBlacklistService tokenBlacklistService;
-    
-    public JwtService(TokenBlacklistService tokenBlacklistService) {
+
+    private final Cache<String, TokenVerificado> tokensVerificados;
+
+    // Se construyen en el primer uso: SecretsValidator reporta un secreto inválido al iniciar
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
+    public JwtService(
+            TokenBlacklistService tokenBlacklistService,
+            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
         this.tokenBlacklistService = tokenBlacklistService;
+        this.tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ExpiraConElToken())
+                .build();
+    }
+
+    /**
+     * Verifica firma, emisor, audiencia y expiración del token, una sola vez por token
+     *
+     * @throws io.jsonwebtoken.JwtException si el token no es válido
+     */
+    public TokenVerificado verificarToken(String token) {
+        String hash = hashToken(token);
+        TokenVerificado verificado = tokensVerificados.getIfPresent(hash);
+        if (verificado == null) {
+            // Los tokens inválidos no se guardan: cada intento vuelve a fallar en el parser
+            verificado = TokenVerificado.desde(getParser().parseSignedClaims(token).getPayload(), hash);
+            tokensVerificados.put(hash, verificado);
+        }
+        return verificado;
     }
 
     public String extractUsername(String token) {
@@ -52,22 +98,43 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .requireIssuer(issuer)
-                .requireAudience(audience)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verificarToken(token).claims();
     }
 
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signingKey;
+        if (key == null) {
+            // Carrera benigna: dos hilos construyen la misma clave
+            key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser actual = parser;
+        if (actual == null) {
+            actual = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .requireIssuer(issuer)
+                    .requireAudience(audience)
+                    .build();
+            parser = actual;
+        }
+        return actual;
+    }
+
+    private static String hashToken(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 
     public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verificarToken(token).estaExpirado();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -82,6 +149,7 @@ public class JwtService {
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuer(issuer)
                 .audience().add(audience).and()
@@ -92,13 +160,19 @@ public class JwtService {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(verificarToken(token), userDetails);
+    }
+
+    /**
+     * Valida un token ya verificado con verificarToken, sin volver a parsearlo
+     */
+    public Boolean validateToken(TokenVerificado verificado, UserDetails userDetails) {
         // Verificar si el token está en la blacklist
-        if (tokenBlacklistService.isTokenRevoked(token)) {
+        if (tokenBlacklistService.isTokenRevoked(verificado.jti())) {
             return false;
         }
-        
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+
+        return verificado.subject().equals(userDetails.getUsername()) && !verificado.estaExpirado();
     }
     
     public String generateRefreshToken(UserDetails userDetails) {
@@ -110,6 +184,7 @@ public class JwtService {
     private String createRefreshToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuer(issuer)
                 .audience().add(audience).and()
@@ -120,15 +195,13 @@ public class JwtService {
     }
     
     public Boolean validateRefreshToken(String token) {
-        // Verificar si el token está en la blacklist
-        if (tokenBlacklistService.isTokenRevoked(token)) {
-            return false;
-        }
-        
         try {
-            Claims claims = extractAllClaims(token);
-            String type = claims.get("type", String.class);
-            return "refresh".equals(type) && !isTokenExpired(token);
+            TokenVerificado verificado = verificarToken(token);
+            // Verificar si el token está en la blacklist
+            if (tokenBlacklistService.isTokenRevoked(verificado.jti())) {
+                return false;
+            }
+            return "refresh".equals(verificado.tipo()) && !verificado.estaExpirado();
         } catch (Exception e) {
             return false;
         }
@@ -138,7 +211,43 @@ public class JwtService {
      * Revoca un token agregándolo a la blacklist
      */
     public void revokeToken(String token) {
-        tokenBlacklistService.revokeToken(token);
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        TokenVerificado verificado;
+        try {
+            verificado = verificarToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Un token inválido o expirado ya es rechazado: no hay nada que revocar
+            return;
+        }
+        tokenBlacklistService.revokeToken(verificado.jti(), verificado.expiracion().toInstant());
+        tokensVerificados.invalidate(hashToken(token));
+    }
+
+    /**
+     * Cada token verificado vence en la cache al expirar el token
+     */
+    private static final class ExpiraConElToken implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String hash, TokenVerificado verificado, long currentTime) {
+            if (verificado.expiracion() == null) {
+                return 0;
+            }
+            long restanteMillis = verificado.expiracion().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, restanteMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String hash, TokenVerificado verificado, long currentTime, long currentDuration) {
+            return expireAfterCreate(hash, verificado, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String hash, TokenVerificado verificado, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
 
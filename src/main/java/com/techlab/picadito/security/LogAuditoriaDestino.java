@@ -0,0 +1,78 @@
+package com.techlab.picadito.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Escribe los eventos en el logger AUDIT, con el mismo formato de línea que antes
+ * (TIPO|clave=valor|...|timestamp=...|correlationId=...)
+ */
+@Component
+public class LogAuditoriaDestino implements AuditoriaDestino {
+
+    private static final Logger auditLogger = LoggerFactory.getLogger("AUDIT");
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    @Override
+    public void escribir(List<EventoAuditoria> lote) {
+        StringBuilder linea = new StringBuilder(160);
+        for (EventoAuditoria evento : lote) {
+            linea.setLength(0);
+            formatear(evento, linea);
+            auditLogger.atLevel(evento.tipo().getNivel()).log(linea.toString());
+        }
+    }
+
+    static void formatear(EventoAuditoria evento, StringBuilder linea) {
+        linea.append(evento.tipo().name());
+        switch (evento.tipo()) {
+            case LOGIN_SUCCESS, REGISTRATION_SUCCESS -> {
+                campo(linea, "email", evento.email());
+                campo(linea, "ip", evento.ip());
+            }
+            case LOGIN_FAILED, REGISTRATION_FAILED -> {
+                campo(linea, "email", evento.email());
+                campo(linea, "ip", evento.ip());
+                campo(linea, "reason", evento.detalle());
+            }
+            case ACCOUNT_LOCKED -> {
+                campo(linea, "email", evento.email());
+                campo(linea, "ip", evento.ip());
+                campo(linea, "failedAttempts", evento.intentos());
+            }
+            case ACCOUNT_UNLOCKED -> campo(linea, "email", evento.email());
+            case INVALID_TOKEN -> {
+                campo(linea, "ip", evento.ip());
+                campo(linea, "reason", evento.detalle());
+            }
+            case RATE_LIMIT_EXCEEDED -> {
+                campo(linea, "endpoint", evento.endpoint());
+                campo(linea, "identifier", evento.identificador());
+                campo(linea, "type", evento.detalle());
+            }
+            case SUSPICIOUS_ACTIVITY_DETECTED -> {
+                campo(linea, "type", evento.detalle());
+                if (evento.email() != null) {
+                    campo(linea, "email", evento.email());
+                } else {
+                    campo(linea, "ip", evento.ip());
+                }
+                campo(linea, "attempts", evento.intentos());
+            }
+        }
+        campo(linea, "timestamp", LocalDateTime.ofInstant(Instant.ofEpochMilli(evento.instante()), ZoneId.systemDefault())
+                .format(formatter));
+        campo(linea, "correlationId", evento.correlationId());
+    }
+
+    private static void campo(StringBuilder linea, String nombre, Object valor) {
+        linea.append('|').append(nombre).append('=').append(valor);
+    }
+}
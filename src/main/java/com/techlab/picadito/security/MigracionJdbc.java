@@ -0,0 +1,20 @@
+package com.techlab.picadito.security;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Aplica al iniciar una migración de db/migration para las tablas que no son entidades JPA
+ * (ddl-auto no las crea). Los scripts usan IF NOT EXISTS, así que correrlos de nuevo no cambia nada.
+ */
+final class MigracionJdbc {
+
+    private MigracionJdbc() {
+    }
+
+    static void aplicar(JdbcTemplate jdbcTemplate, String script) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/" + script))
+                .execute(jdbcTemplate.getDataSource());
+    }
+}
@@ -0,0 +1,21 @@
+package com.techlab.picadito.security;
+
+import java.time.Duration;
+
+/**
+ * Backend donde se guardan los buckets de rate limiting.
+ *
+ * Se elige con app.rate-limit.backend: "memory" (por defecto) mantiene los buckets en el proceso;
+ * "jdbc" los guarda en la base para que varias instancias compartan los mismos límites.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Crea el store de un tipo de bucket
+     *
+     * @param tipo Nombre del tipo de bucket (login, registro, publico, ...)
+     * @param capacidad Requests permitidos por período
+     * @param periodo Período tras el cual se recargan todos los tokens
+     */
+    RateLimitStore crearStore(String tipo, long capacidad, Duration periodo);
+}
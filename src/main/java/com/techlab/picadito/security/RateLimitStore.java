@@ -0,0 +1,42 @@
+package com.techlab.picadito.security;
+
+/**
+ * Buckets de rate limiting de un mismo tipo (login por IP, registro por IP, etc.),
+ * todos con la misma capacidad y período de recarga.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Consume un token del bucket de la clave, creándolo si no existe
+     *
+     * @return true si había tokens disponibles
+     */
+    boolean tryConsume(String clave);
+
+    /**
+     * Tokens disponibles para la clave, sin crear el bucket si no existe
+     */
+    long getAvailableTokens(String clave);
+
+    /**
+     * Cantidad de buckets vivos
+     */
+    long getCantidadBuckets();
+
+    /**
+     * Buckets descartados por superar el máximo de buckets del tipo
+     */
+    long getEviccionesPorCapacidad();
+
+    /**
+     * Buckets descartados por inactividad
+     */
+    long getEviccionesPorInactividad();
+
+    /**
+     * Descarta los buckets sin uso durante al menos un período de recarga
+     *
+     * @return Cantidad de buckets descartados
+     */
+    long limpiarInactivos();
+}
@@ -1,5 +1,7 @@
 package com.techlab.picadito.security;
 
+import com.techlab.picadito.config.RequestProfile;
+import com.techlab.picadito.config.RequestProfile.ClaseRuta;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,31 +37,32 @@ public class RateLimitingFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
 
-        String path = request.getRequestURI();
-        String method = request.getMethod();
-        String ipAddress = getClientIpAddress(request);
+        RequestProfile perfil = RequestProfile.de(request);
+        String path = perfil.path();
+        String ipAddress = perfil.ipCliente();
         
         // Omitir rate limiting para OPTIONS (preflight CORS)
-        if ("OPTIONS".equals(method)) {
+        if (perfil.esPreflight()) {
             filterChain.doFilter(request, response);
             return;
         }
 
         // Rate limiting específico para endpoints de autenticación
-        if (path.startsWith("/api/auth/login")) {
+        if (perfil.clase() == ClaseRuta.LOGIN) {
             if (!rateLimitingService.tryConsumeLogin(ipAddress)) {
                 auditService.logRateLimitExceeded("/api/auth/login", ipAddress, "IP");
                 sendRateLimitResponse(response, "Demasiados intentos de login. Por favor, intenta más tarde.");
                 return;
             }
-        } else if (path.startsWith("/api/auth/register")) {
+        } else if (perfil.clase() == ClaseRuta.REGISTRO) {
             if (!rateLimitingService.tryConsumeRegister(ipAddress)) {
                 auditService.logRateLimitExceeded("/api/auth/register", ipAddress, "IP");
                 sendRateLimitResponse(response, "Demasiados intentos de registro. Por favor, intenta más tarde.");
                 return;
             }
         } else {
-            // Rate limiting global para otros endpoints
+            // Rate limiting global para otros endpoints. La autenticación la resuelve
+            // JwtAuthenticationFilter, así que no forma parte del perfil
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             boolean isAuthenticated = authentication != null && 
                                      authentication.isAuthenticated() &&
@@ -74,7 +77,7 @@ public class RateLimitingFilter extends OncePerRequestFilter {
             boolean allowed = true;
             String endpointType = "";
             
-            if (path.startsWith("/api/admin")) {
+            if (perfil.clase() == ClaseRuta.ADMIN) {
                 // Endpoints de administración
                 allowed = rateLimitingService.tryConsumeAdminEndpoint(ipAddress);
                 endpointType = "ADMIN";
@@ -83,10 +86,8 @@ public class RateLimitingFilter extends OncePerRequestFilter {
                 if (allowed && username != null) {
                     allowed = rateLimitingService.tryConsumeUserRequest(username);
                 }
-            } else if (isAuthenticated && !path.startsWith("/api/auth") && 
-                      !path.startsWith("/actuator") && 
-                      !path.startsWith("/swagger-ui") && 
-                      !path.startsWith("/v3/api-docs")) {
+            } else if (isAuthenticated && perfil.clase() != ClaseRuta.AUTH
+                      && perfil.clase() != ClaseRuta.INFRAESTRUCTURA) {
                 // Endpoints autenticados (no admin, no auth)
                 allowed = rateLimitingService.tryConsumeAuthenticatedEndpoint(ipAddress);
                 endpointType = "AUTHENTICATED";
@@ -95,10 +96,7 @@ public class RateLimitingFilter extends OncePerRequestFilter {
                 if (allowed && username != null) {
                     allowed = rateLimitingService.tryConsumeUserRequest(username);
                 }
-            } else if (!isAuthenticated && 
-                      (path.startsWith("/api/partidos") || 
-                       path.startsWith("/api/categorias") || 
-                       path.startsWith("/api/sedes"))) {
+            } else if (!isAuthenticated && perfil.clase() == ClaseRuta.CATALOGO) {
                 // Endpoints públicos (solo lectura)
                 allowed = rateLimitingService.tryConsumePublicEndpoint(ipAddress);
                 endpointType = "PUBLIC";
@@ -122,23 +120,4 @@ public class RateLimitingFilter extends OncePerRequestFilter {
             String.format("{\"error\":\"Too Many Requests\",\"message\":\"%s\",\"status\":429}", message)
         );
     }
-
-    /**
-     * Obtiene la IP real del cliente, considerando proxies
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            // Tomar la primera IP de la lista (IP original del cliente)
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
-    }
 }
-
@@ -0,0 +1,107 @@
+package com.techlab.picadito.security;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola acotada sin locks para eventos de auditoría: muchos productores (hilos de request) y un
+ * único consumidor.
+ *
+ * Cada posición tiene un número de secuencia que indica si está libre para la vuelta actual del
+ * productor o ya tiene un evento publicado para el consumidor (cola acotada de Vyukov). Publicar
+ * es un CAS sobre la posición de escritura; si el buffer está lleno se devuelve false en lugar de
+ * esperar, y quien publica decide qué hacer con el evento.
+ */
+public class RingBufferAuditoria {
+
+    private final int mascara;
+    private final AtomicReferenceArray<EventoAuditoria> eventos;
+    private final AtomicLongArray secuencias;
+    private final AtomicLong escritura = new AtomicLong();
+    // Solo la modifica el consumidor; volatile para leer el tamaño desde otros hilos (métricas)
+    private volatile long lectura;
+
+    /**
+     * @param capacidad Se redondea a la siguiente potencia de dos
+     */
+    public RingBufferAuditoria(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        int tamanio = Integer.highestOneBit(capacidad);
+        if (tamanio < capacidad) {
+            tamanio <<= 1;
+        }
+        this.mascara = tamanio - 1;
+        this.eventos = new AtomicReferenceArray<>(tamanio);
+        this.secuencias = new AtomicLongArray(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Publica un evento sin bloquear
+     *
+     * @return false si el buffer está lleno
+     */
+    public boolean publicar(EventoAuditoria evento) {
+        long posicion = escritura.get();
+        while (true) {
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (escritura.compareAndSet(posicion, posicion + 1)) {
+                    eventos.set(indice, evento);
+                    // Recién acá el consumidor ve la posición como publicada
+                    secuencias.set(indice, posicion + 1);
+                    return true;
+                }
+                posicion = escritura.get();
+            } else if (diferencia < 0) {
+                // La posición todavía tiene un evento de la vuelta anterior sin consumir
+                return false;
+            } else {
+                // Otro productor tomó la posición: reintentar con la actual
+                posicion = escritura.get();
+            }
+        }
+    }
+
+    /**
+     * Mueve hasta maximo eventos publicados a destino. Solo lo invoca el consumidor
+     *
+     * @return Cantidad de eventos movidos
+     */
+    public int drenar(List<EventoAuditoria> destino, int maximo) {
+        long posicion = lectura;
+        int movidos = 0;
+        while (movidos < maximo) {
+            int indice = (int) (posicion & mascara);
+            if (secuencias.get(indice) != posicion + 1) {
+                break;
+            }
+            destino.add(eventos.get(indice));
+            eventos.set(indice, null);
+            // Libera la posición para la próxima vuelta de los productores
+            secuencias.set(indice, posicion + mascara + 1);
+            posicion++;
+            movidos++;
+        }
+        lectura = posicion;
+        return movidos;
+    }
+
+    public int getCapacidad() {
+        return mascara + 1;
+    }
+
+    /**
+     * Eventos reservados y todavía no consumidos (aproximado mientras hay productores publicando)
+     */
+    public int getTamanio() {
+        return (int) Math.max(0, Math.min(escritura.get() - lectura, mascara + 1));
+    }
+}
@@ -1,5 +1,6 @@
 package com.techlab.picadito.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,9 +21,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
-import com.techlab.picadito.config.CorrelationIdFilter;
+import com.techlab.picadito.config.RequestProfileFilter;
 import com.techlab.picadito.config.InputSanitizationFilter;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 @Configuration
@@ -32,7 +34,7 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
-    private final CorrelationIdFilter correlationIdFilter;
+    private final RequestProfileFilter requestProfileFilter;
     private final SecurityHeadersFilter securityHeadersFilter;
     private final RateLimitingFilter rateLimitingFilter;
     private final InputSanitizationFilter inputSanitizationFilter;
@@ -40,20 +42,20 @@ public class SecurityConfig {
     public SecurityConfig(
             JwtAuthenticationFilter jwtAuthFilter,
             UserDetailsService userDetailsService,
-            CorrelationIdFilter correlationIdFilter,
+            RequestProfileFilter requestProfileFilter,
             SecurityHeadersFilter securityHeadersFilter,
             RateLimitingFilter rateLimitingFilter,
             InputSanitizationFilter inputSanitizationFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userDetailsService = userDetailsService;
-        this.correlationIdFilter = correlationIdFilter;
+        this.requestProfileFilter = requestProfileFilter;
         this.securityHeadersFilter = securityHeadersFilter;
         this.rateLimitingFilter = rateLimitingFilter;
         this.inputSanitizationFilter = inputSanitizationFilter;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         // CSRF está deshabilitado porque usamos JWT stateless authentication
         // CSRF protection no es necesaria para APIs REST con tokens stateless
         // La protección se logra mediante:
@@ -99,8 +101,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .authenticationProvider(authenticationProvider())
-                .addFilterBefore(correlationIdFilter, UsernamePasswordAuthenticationFilter.class)
+                .authenticationProvider(authenticationProvider)
+                .addFilterBefore(requestProfileFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(inputSanitizationFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(securityHeadersFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
@@ -131,13 +133,13 @@ public class SecurityConfig {
 
     @Bean
     @SuppressWarnings("deprecation")
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         // En Spring Security 6.x, aunque los métodos están marcados como deprecated,
         // siguen siendo la forma estándar de configurar DaoAuthenticationProvider
         // hasta que se publique una API alternativa estable en versiones futuras
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -146,9 +148,18 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt en un pool acotado: hilos = núcleos si no se configura otro valor
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.threads:0}") int hilos,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int capacidadCola,
+            @Value("${app.security.password-hashing.timeout-ms:5000}") long esperaMaximaMillis) {
+        int hilosHash = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hilosHash, capacidadCola,
+                Duration.ofMillis(esperaMaximaMillis), meterRegistry);
     }
 }
 
@@ -26,6 +26,9 @@ public class SecurityHeadersFilter extends OncePerRequestFilter {
     @Value("${app.security.csp.allowed-sources:}")
     private String allowedSources;
 
+    // Depende solo de la configuración: se arma una vez al inicializar el filtro
+    private String contentSecurityPolicy;
+
     public SecurityHeadersFilter(Environment environment) {
         this.environment = environment;
     }
@@ -40,6 +43,11 @@ public class SecurityHeadersFilter extends OncePerRequestFilter {
         return false;
     }
 
+    @Override
+    protected void initFilterBean() {
+        contentSecurityPolicy = buildCSP();
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -60,7 +68,7 @@ public class SecurityHeadersFilter extends OncePerRequestFilter {
         response.setHeader("Referrer-Policy", "strict-origin-when-cross-origin");
         
         // Content Security Policy (más restrictivo en producción)
-        response.setHeader("Content-Security-Policy", buildCSP());
+        response.setHeader("Content-Security-Policy", contentSecurityPolicy);
         
         // Permissions Policy
         response.setHeader("Permissions-Policy", 
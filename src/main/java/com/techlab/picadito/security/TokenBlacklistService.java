@@ -1,57 +1,246 @@
 package com.techlab.picadito.security;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Servicio para gestionar la blacklist de tokens JWT revocados
+ * Servicio para gestionar la blacklist de tokens JWT revocados.
+ *
+ * Guarda solo el jti de cada token revocado y su expiración. Los jti se agrupan en una rueda de
+ * buckets por instante de expiración: cuando pasa el fin de un bucket sus tokens ya expiraron por
+ * sí solos y se descartan juntos, así que la memoria es proporcional a los tokens revocados dentro
+ * de la vida máxima de un token. Delante hay un filtro de Bloom: el caso común (token no revocado)
+ * se resuelve con unas pocas lecturas de bits.
  */
 @Service
 public class TokenBlacklistService {
 
-    // Usar un Set en memoria para tokens revocados
-    // En producción, considerar usar Redis o base de datos para persistencia
-    private final Set<String> revokedTokens = ConcurrentHashMap.newKeySet();
+    // Probabilidad de falso positivo del filtro de Bloom (un falso positivo solo cuesta una búsqueda en el mapa)
+    private static final double FALSOS_POSITIVOS = 0.01;
+
+    // jti -> expiración (millis epoch)
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+
+    private final long granularidadMillis;
+    private final Bucket[] rueda;
+    private final int capacidadEsperada;
+    private final Clock reloj;
+
+    // Revocaciones, purgas y reconstrucción del filtro; las consultas no toman el lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile FiltroBloom filtro;
+
+    @Autowired
+    public TokenBlacklistService(
+            @Value("${jwt.expiration:86400000}") long expiration,
+            @Value("${jwt.refresh-expiration:604800000}") long refreshExpiration,
+            @Value("${jwt.blacklist.granularidad-minutos:10}") long granularidadMinutos,
+            @Value("${jwt.blacklist.capacidad-esperada:100000}") int capacidadEsperada) {
+        this(Duration.ofMillis(Math.max(expiration, refreshExpiration)), Duration.ofMinutes(granularidadMinutos),
+                capacidadEsperada, Clock.systemUTC());
+    }
 
     /**
-     * Agrega un token a la blacklist
+     * @param vidaMaxima Vida máxima de un token: define cuántos buckets tiene la rueda
+     * @param granularidad Rango de expiraciones que agrupa cada bucket
+     * @param capacidadEsperada Tokens revocados a la vez para los que se dimensiona el filtro de Bloom
      */
-    @CacheEvict(value = "tokenBlacklist", key = "#token")
-    public void revokeToken(String token) {
-        if (token != null && !token.trim().isEmpty()) {
-            revokedTokens.add(token);
+    public TokenBlacklistService(Duration vidaMaxima, Duration granularidad, int capacidadEsperada, Clock reloj) {
+        this.granularidadMillis = granularidad.toMillis();
+        int cantidadBuckets = (int) ((vidaMaxima.toMillis() + granularidadMillis - 1) / granularidadMillis) + 2;
+        this.rueda = new Bucket[cantidadBuckets];
+        for (int i = 0; i < cantidadBuckets; i++) {
+            rueda[i] = new Bucket();
+        }
+        this.capacidadEsperada = capacidadEsperada;
+        this.reloj = reloj;
+        this.filtro = new FiltroBloom(capacidadEsperada);
+    }
+
+    /**
+     * Agrega un token a la blacklist hasta su expiración
+     */
+    public void revokeToken(String jti, Instant expiracion) {
+        if (jti == null || jti.isBlank() || expiracion == null) {
+            return;
+        }
+        long ahora = reloj.millis();
+        long expiraEn = expiracion.toEpochMilli();
+        if (expiraEn <= ahora) {
+            // Un token expirado ya no es válido: no hace falta recordarlo
+            return;
+        }
+        lock.lock();
+        try {
+            purgarExpirados(ahora);
+            revocados.merge(jti, expiraEn, Math::max);
+            agendar(jti, expiraEn, ahora);
+            filtro.agregar(jti);
+            if (revocados.size() > filtro.capacidad) {
+                reconstruirFiltro();
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
      * Verifica si un token está en la blacklist
      */
-    @Cacheable(value = "tokenBlacklist", key = "#token")
-    public boolean isTokenRevoked(String token) {
-        if (token == null || token.trim().isEmpty()) {
+    public boolean isTokenRevoked(String jti) {
+        if (jti == null || !filtro.puedeContener(jti)) {
             return false;
         }
-        return revokedTokens.contains(token);
+        return revocados.containsKey(jti);
     }
 
     /**
-     * Limpia tokens antiguos de la blacklist
-     * Nota: En producción, implementar limpieza basada en expiración de tokens
+     * Descarta los buckets cuyos tokens ya expiraron
+     *
+     * @return Cantidad de tokens descartados
      */
-    public void cleanup() {
-        // Por ahora, mantener todos los tokens hasta que expiren
-        // En producción, implementar limpieza periódica basada en tiempo de expiración
+    public int cleanup() {
+        lock.lock();
+        try {
+            return purgarExpirados(reloj.millis());
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Obtiene el número de tokens revocados (para métricas)
      */
     public int getRevokedTokenCount() {
-        return revokedTokens.size();
+        return revocados.size();
+    }
+
+    private void agendar(String jti, long expiraEn, long ahora) {
+        long bucket = expiraEn / granularidadMillis;
+        // Una expiración más allá de la rueda va al último bucket y se reagenda al purgarlo
+        bucket = Math.min(bucket, ahora / granularidadMillis + rueda.length - 1);
+        Bucket destino = rueda[(int) (bucket % rueda.length)];
+        destino.numero = bucket;
+        destino.jtis.add(jti);
     }
-}
 
+    /**
+     * Un bucket se descarta cuando terminó su rango: todas sus expiraciones quedaron en el pasado.
+     * Se invoca con el lock tomado
+     */
+    private int purgarExpirados(long ahora) {
+        int descartados = 0;
+        List<String> pendientes = new ArrayList<>();
+        for (Bucket bucket : rueda) {
+            if (bucket.numero < 0 || (bucket.numero + 1) * granularidadMillis > ahora) {
+                continue;
+            }
+            for (String jti : bucket.jtis) {
+                Long expiraEn = revocados.get(jti);
+                if (expiraEn == null) {
+                    continue;
+                }
+                if (expiraEn <= ahora) {
+                    revocados.remove(jti);
+                    descartados++;
+                } else {
+                    pendientes.add(jti);
+                }
+            }
+            bucket.jtis.clear();
+            bucket.numero = -1;
+        }
+        for (String jti : pendientes) {
+            agendar(jti, revocados.get(jti), ahora);
+        }
+        if (descartados > 0) {
+            // Los bits de un filtro de Bloom no se pueden borrar: se arma de nuevo con los que quedan
+            reconstruirFiltro();
+        }
+        return descartados;
+    }
+
+    private void reconstruirFiltro() {
+        FiltroBloom nuevo = new FiltroBloom(Math.max(capacidadEsperada, revocados.size() * 2));
+        revocados.keySet().forEach(nuevo::agregar);
+        filtro = nuevo;
+    }
+
+    private static final class Bucket {
+        private long numero = -1;
+        private final List<String> jtis = new ArrayList<>();
+    }
+
+    /**
+     * Filtro de Bloom con doble hashing sobre un hash de 64 bits del jti
+     */
+    private static final class FiltroBloom {
+        private final int capacidad;
+        private final long cantidadBits;
+        private final int cantidadHashes;
+        private final AtomicLongArray bits;
+
+        private FiltroBloom(int capacidad) {
+            this.capacidad = Math.max(1, capacidad);
+            double ln2 = Math.log(2);
+            this.cantidadBits = Math.max(64, (long) Math.ceil(-this.capacidad * Math.log(FALSOS_POSITIVOS) / (ln2 * ln2)));
+            this.cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / this.capacidad * ln2));
+            this.bits = new AtomicLongArray((int) ((cantidadBits + 63) / 64));
+        }
+
+        private void agregar(String valor) {
+            long hash = hash64(valor);
+            for (int i = 1; i <= cantidadHashes; i++) {
+                long bit = posicion(hash, i);
+                int palabra = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long actual;
+                do {
+                    actual = bits.get(palabra);
+                } while ((actual & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara));
+            }
+        }
+
+        private boolean puedeContener(String valor) {
+            long hash = hash64(valor);
+            for (int i = 1; i <= cantidadHashes; i++) {
+                long bit = posicion(hash, i);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long posicion(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            return Math.floorMod(h1 + (long) i * h2, cantidadBits);
+        }
+
+        /**
+         * FNV-1a de 64 bits con la mezcla final de SplitMix64
+         */
+        private static long hash64(String valor) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < valor.length(); i++) {
+                hash ^= valor.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+            return hash ^ (hash >>> 31);
+        }
+    }
+}
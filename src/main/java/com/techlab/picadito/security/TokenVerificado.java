@@ -0,0 +1,21 @@
+package com.techlab.picadito.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims de un JWT cuya firma, emisor, audiencia y expiración ya se verificaron.
+ * jti identifica el token en la blacklist; los tokens emitidos sin jti usan el hash del token.
+ */
+public record TokenVerificado(String jti, String subject, String tipo, Date expiracion, Claims claims) {
+
+    static TokenVerificado desde(Claims claims, String hashToken) {
+        String jti = claims.getId() != null ? claims.getId() : "sha256:" + hashToken;
+        return new TokenVerificado(jti, claims.getSubject(), claims.get("type", String.class), claims.getExpiration(), claims);
+    }
+
+    public boolean estaExpirado() {
+        return expiracion.before(new Date());
+    }
+}
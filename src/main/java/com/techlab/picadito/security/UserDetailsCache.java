@@ -0,0 +1,84 @@
+package com.techlab.picadito.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache acotada, con TTL, de los datos de usuario que necesita la autenticación (por email).
+ *
+ * Guarda una copia inmutable y no el UserDetails: Spring Security borra la contraseña del
+ * principal después de un login exitoso, y un objeto compartido quedaría sin credenciales.
+ * Se invalida después del commit de cualquier cambio del usuario (ver UserDetailsCacheListener);
+ * el TTL acota cualquier carrera entre una lectura y esa invalidación. Un índice id → email
+ * (el email es el natural id inmutable de Usuario) permite invalidar por id sin recorrer la cache.
+ * Las métricas de aciertos y fallos se publican como cache.gets{cache=userDetails}.
+ */
+@Component
+public class UserDetailsCache {
+
+    /**
+     * Datos del usuario necesarios para armar su UserDetails
+     */
+    public record UsuarioAutenticado(Long id, String email, String password, String rol, boolean activo) {
+    }
+
+    private final Cache<String, UsuarioAutenticado> usuarios;
+
+    /** Email con el que está guardado cada usuario en la cache */
+    private final Map<Long, String> emailPorId = new ConcurrentHashMap<>();
+
+    public UserDetailsCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                // Síncrono dentro del desalojo (tamaño o TTL): la entrada del índice se va con la de la cache
+                .evictionListener((String email, UsuarioAutenticado usuario, RemovalCause causa) -> {
+                    if (usuario != null) {
+                        emailPorId.remove(usuario.id(), email);
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "userDetails", "cache.manager", "seguridad");
+    }
+
+    /**
+     * Devuelve el usuario de la cache o lo carga con el loader. Si el loader lanza una excepción
+     * (usuario inexistente) no se guarda nada
+     */
+    public UsuarioAutenticado obtener(String email, Function<String, UsuarioAutenticado> loader) {
+        return usuarios.get(email, clave -> {
+            UsuarioAutenticado usuario = loader.apply(clave);
+            emailPorId.put(usuario.id(), clave);
+            return usuario;
+        });
+    }
+
+    /**
+     * Descarta el usuario por id, buscando en el índice el email con el que se guardó
+     */
+    public void invalidar(Long usuarioId) {
+        String email = emailPorId.remove(usuarioId);
+        if (email != null) {
+            usuarios.invalidate(email);
+        }
+    }
+
+    public void invalidarTodo() {
+        usuarios.invalidateAll();
+        emailPorId.clear();
+    }
+}
@@ -0,0 +1,43 @@
+package com.techlab.picadito.security;
+
+import com.techlab.picadito.model.Usuario;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de Usuario que descarta el usuario de UserDetailsCache cuando cambia o se elimina:
+ * desactivación, cambio de rol o de contraseña, bloqueo por intentos fallidos.
+ * Se invalida después del commit, para que una request concurrente no vuelva a cargar el estado anterior.
+ */
+@Component
+public class UserDetailsCacheListener {
+
+    @Autowired
+    private ObjectProvider<UserDetailsCache> userDetailsCache;
+
+    @PostUpdate
+    @PostRemove
+    public void alCambiar(Usuario usuario) {
+        // Sin contenedor de Spring (Hibernate instanciando el listener por reflexión) no hay cache que invalidar
+        UserDetailsCache cache = userDetailsCache != null ? userDetailsCache.getIfAvailable() : null;
+        if (cache == null) {
+            return;
+        }
+        Long id = usuario.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidar(id);
+                }
+            });
+        } else {
+            cache.invalidar(id);
+        }
+    }
+}
@@ -9,43 +9,54 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Collections;
 
+/**
+ * Carga los usuarios para la autenticación. Las requests autenticadas pasan por acá en cada
+ * llamada a la API, así que los datos se toman de UserDetailsCache y solo se consulta la base
+ * cuando el usuario no está en la cache.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository) {
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository, UserDetailsCache userDetailsCache) {
         this.usuarioRepository = usuarioRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
+        UserDetailsCache.UsuarioAutenticado usuario = userDetailsCache.obtener(email, this::cargarUsuario);
 
-        if (!usuario.getActivo()) {
+        if (!usuario.activo()) {
             throw new UsernameNotFoundException("Usuario inactivo: " + email);
         }
 
         Collection<GrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + usuario.getRol().name())
+                new SimpleGrantedAuthority("ROLE_" + usuario.rol())
         );
 
+        // Un User nuevo por llamada: Spring Security borra la contraseña del principal después del login
         return User.builder()
-                .username(usuario.getEmail())
-                .password(usuario.getPassword())
+                .username(usuario.email())
+                .password(usuario.password())
                 .authorities(authorities)
                 .accountExpired(false)
                 .accountLocked(false)
                 .credentialsExpired(false)
-                .disabled(!usuario.getActivo())
+                .disabled(!usuario.activo())
                 .build();
     }
-}
 
+    private UserDetailsCache.UsuarioAutenticado cargarUsuario(String email) {
+        Usuario usuario = usuarioRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
+        return new UserDetailsCache.UsuarioAutenticado(usuario.getId(), usuario.getEmail(), usuario.getPassword(),
+                usuario.getRol().name(), Boolean.TRUE.equals(usuario.getActivo()));
+    }
+}
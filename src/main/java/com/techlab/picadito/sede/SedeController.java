@@ -1,5 +1,8 @@
 package com.techlab.picadito.sede;
 
+import com.techlab.picadito.config.RespuestasSerializadas;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
 import com.techlab.picadito.dto.SedeDTO;
 import com.techlab.picadito.dto.SedeResponseDTO;
 import com.techlab.picadito.dto.SedesResponseDTO;
@@ -10,7 +13,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,15 +26,29 @@ public class SedeController {
     @Autowired
     private SedeService sedeService;
 
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private RespuestasSerializadas respuestasSerializadas;
+
     @GetMapping
-    public ResponseEntity<SedesResponseDTO> obtenerTodas() {
-        SedesResponseDTO sedes = sedeService.obtenerTodas();
-        return ResponseEntity.ok(sedes);
+    public ResponseEntity<SedesResponseDTO> obtenerTodas(WebRequest webRequest) {
+        // Si el cliente tiene la versión actual se responde 304 sin consultar
+        if (webRequest.checkNotModified(versionesRecursos.etag(Coleccion.SEDES))) {
+            return null;
+        }
+        // Si no, la respuesta ya serializada de la versión actual
+        return respuestasSerializadas.obtener(Coleccion.SEDES, List.of(), sedeService::obtenerTodas);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<SedeResponseDTO> obtenerPorId(
-            @PathVariable @Positive(message = "El ID debe ser un número positivo") @NonNull Long id) {
+            @PathVariable @Positive(message = "El ID debe ser un número positivo") @NonNull Long id,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(versionesRecursos.etag(Coleccion.SEDES, id))) {
+            return null;
+        }
         SedeResponseDTO sede = sedeService.obtenerPorId(id);
         return ResponseEntity.ok(sede);
     }
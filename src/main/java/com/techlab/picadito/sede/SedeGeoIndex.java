@@ -0,0 +1,187 @@
+package com.techlab.picadito.sede;
+
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.util.GeoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice espacial en memoria de las sedes con coordenadas, para buscar partidos cercanos
+ * sin calcular distancias en la base.
+ *
+ * Las sedes se agrupan en una grilla de celdas de TAMANIO_CELDA_GRADOS. Una búsqueda por radio
+ * solo recorre las celdas que cubren el rectángulo que contiene al círculo y calcula la distancia
+ * exacta (haversine) de las sedes de esas celdas. La grilla es inmutable y se reemplaza completa
+ * en cada cambio, así las búsquedas no toman locks (las sedes cambian muy poco).
+ */
+@Component
+public class SedeGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SedeGeoIndex.class);
+
+    // ~5,5 km de lado en latitud
+    private static final double TAMANIO_CELDA_GRADOS = 0.05;
+    private static final double KM_POR_GRADO_LATITUD = 111.32;
+    // Por encima de esta cantidad de celdas conviene recorrer todas las sedes directamente
+    private static final int MAX_CELDAS_POR_BUSQUEDA = 4096;
+
+    private record Punto(Long sedeId, double latitud, double longitud) {
+    }
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    private final Map<Long, Punto> puntosPorSede = new HashMap<>();
+    private volatile Map<Long, List<Punto>> celdas = Map.of();
+
+    /**
+     * Carga las sedes con coordenadas al iniciar la aplicación. Completa latitud y longitud
+     * en las sedes guardadas antes de que existieran esas columnas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruir() {
+        int completadas = 0;
+        synchronized (this) {
+            puntosPorSede.clear();
+            for (Sede sede : sedeRepository.findByCoordenadasIsNotNull()) {
+                if (sede.getLatitud() == null) {
+                    sede.actualizarLatitudLongitud();
+                    if (sede.getLatitud() != null) {
+                        completadas++;
+                    }
+                }
+                if (sede.getLatitud() != null && sede.getLongitud() != null) {
+                    puntosPorSede.put(sede.getId(), new Punto(sede.getId(), sede.getLatitud(), sede.getLongitud()));
+                }
+            }
+            publicarGrilla();
+        }
+        logger.info("Índice geográfico de sedes reconstruido: {} sedes ({} con latitud/longitud completadas)",
+                puntosPorSede.size(), completadas);
+    }
+
+    public synchronized void actualizar(Long sedeId, Double latitud, Double longitud) {
+        if (latitud == null || longitud == null) {
+            puntosPorSede.remove(sedeId);
+        } else {
+            puntosPorSede.put(sedeId, new Punto(sedeId, latitud, longitud));
+        }
+        publicarGrilla();
+    }
+
+    public synchronized void eliminar(Long sedeId) {
+        if (puntosPorSede.remove(sedeId) != null) {
+            publicarGrilla();
+        }
+    }
+
+    /**
+     * Busca las sedes dentro de un radio
+     *
+     * @param latitud Latitud del centro
+     * @param longitud Longitud del centro
+     * @param radioKm Radio en kilómetros
+     * @return Distancia en km por ID de sede, ordenado de la más cercana a la más lejana
+     */
+    public Map<Long, Double> buscarCercanas(double latitud, double longitud, double radioKm) {
+        return buscarCercanas(latitud, longitud, radioKm, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Busca las sedes dentro de un radio, quedándose con las más cercanas
+     *
+     * @param limite Máximo de sedes a devolver
+     * @return Distancia en km por ID de sede de las limite sedes más cercanas, ordenado de la más
+     *         cercana a la más lejana
+     */
+    public Map<Long, Double> buscarCercanas(double latitud, double longitud, double radioKm, int limite) {
+        Map<Long, List<Punto>> grilla = celdas;
+        List<Map.Entry<Long, Double>> encontradas = new ArrayList<>();
+
+        for (Collection<Punto> candidatos : celdasCandidatas(grilla, latitud, longitud, radioKm)) {
+            for (Punto punto : candidatos) {
+                double distancia = GeoUtil.distanciaKm(latitud, longitud, punto.latitud(), punto.longitud());
+                if (distancia <= radioKm) {
+                    encontradas.add(Map.entry(punto.sedeId(), distancia));
+                }
+            }
+        }
+
+        encontradas.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+        Map<Long, Double> resultado = new LinkedHashMap<>();
+        for (Map.Entry<Long, Double> entrada : encontradas.subList(0, Math.min(limite, encontradas.size()))) {
+            resultado.put(entrada.getKey(), entrada.getValue());
+        }
+        return resultado;
+    }
+
+    private List<Collection<Punto>> celdasCandidatas(Map<Long, List<Punto>> grilla, double latitud, double longitud, double radioKm) {
+        double deltaLatitud = radioKm / KM_POR_GRADO_LATITUD;
+        double cosLatitud = Math.cos(Math.toRadians(latitud));
+        double latitudMin = latitud - deltaLatitud;
+        double latitudMax = latitud + deltaLatitud;
+
+        // Cerca de los polos o cruzando el antimeridiano el rectángulo no es válido: se revisan todas las sedes
+        if (latitudMin < -90 || latitudMax > 90 || cosLatitud < 0.01) {
+            return new ArrayList<>(grilla.values());
+        }
+        double deltaLongitud = radioKm / (KM_POR_GRADO_LATITUD * cosLatitud);
+        double longitudMin = longitud - deltaLongitud;
+        double longitudMax = longitud + deltaLongitud;
+        if (longitudMin < -180 || longitudMax > 180) {
+            return new ArrayList<>(grilla.values());
+        }
+
+        int filaMin = indiceCelda(latitudMin);
+        int filaMax = indiceCelda(latitudMax);
+        int columnaMin = indiceCelda(longitudMin);
+        int columnaMax = indiceCelda(longitudMax);
+        long cantidadCeldas = (long) (filaMax - filaMin + 1) * (columnaMax - columnaMin + 1);
+        if (cantidadCeldas > MAX_CELDAS_POR_BUSQUEDA || cantidadCeldas > grilla.size() * 4L) {
+            return new ArrayList<>(grilla.values());
+        }
+
+        List<Collection<Punto>> resultado = new ArrayList<>();
+        for (int fila = filaMin; fila <= filaMax; fila++) {
+            for (int columna = columnaMin; columna <= columnaMax; columna++) {
+                List<Punto> celda = grilla.get(claveCelda(fila, columna));
+                if (celda != null) {
+                    resultado.add(celda);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private void publicarGrilla() {
+        Map<Long, List<Punto>> nuevaGrilla = new HashMap<>();
+        for (Punto punto : puntosPorSede.values()) {
+            long clave = claveCelda(indiceCelda(punto.latitud()), indiceCelda(punto.longitud()));
+            nuevaGrilla.computeIfAbsent(clave, c -> new ArrayList<>()).add(punto);
+        }
+        nuevaGrilla.replaceAll((clave, puntos) -> List.copyOf(puntos));
+        celdas = Map.copyOf(nuevaGrilla);
+    }
+
+    private static int indiceCelda(double grados) {
+        return (int) Math.floor(grados / TAMANIO_CELDA_GRADOS);
+    }
+
+    private static long claveCelda(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xffffffffL);
+    }
+}
@@ -0,0 +1,55 @@
+package com.techlab.picadito.sede;
+
+import com.techlab.picadito.model.Sede;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Listener JPA de Sede que mantiene actualizado el índice geográfico después del commit
+ */
+@Component
+public class SedeGeoIndexListener {
+
+    @Autowired
+    private ObjectProvider<SedeGeoIndex> sedeGeoIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void alGuardar(Sede sede) {
+        Long id = sede.getId();
+        Double latitud = sede.getLatitud();
+        Double longitud = sede.getLongitud();
+        despuesDelCommit(indice -> indice.actualizar(id, latitud, longitud));
+    }
+
+    @PostRemove
+    public void alEliminar(Sede sede) {
+        Long id = sede.getId();
+        despuesDelCommit(indice -> indice.eliminar(id));
+    }
+
+    private void despuesDelCommit(Consumer<SedeGeoIndex> accion) {
+        SedeGeoIndex indice = sedeGeoIndex != null ? sedeGeoIndex.getIfAvailable() : null;
+        if (indice == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.accept(indice);
+                }
+            });
+        } else {
+            accion.accept(indice);
+        }
+    }
+}
@@ -17,5 +17,7 @@ public interface SedeRepository extends JpaRepository<Sede, Long> {
     List<Sede> findByDireccion(String direccion);
     
     Optional<Sede> findByNombreIgnoreCase(String nombre);
+    
+    List<Sede> findByCoordenadasIsNotNull();
 }
 
@@ -1,5 +1,6 @@
 package com.techlab.picadito.sede;
 
+import com.techlab.picadito.calificacion.CalificacionesAgregadas;
 import com.techlab.picadito.dto.SedeDTO;
 import com.techlab.picadito.dto.SedeResponseDTO;
 import com.techlab.picadito.dto.SedesResponseDTO;
@@ -31,6 +32,9 @@ public class SedeService {
     @Autowired
     private PartidoRepository partidoRepository;
 
+    @Autowired
+    private CalificacionesAgregadas calificacionesAgregadas;
+
     public SedesResponseDTO obtenerTodas() {
         logger.debug("Obteniendo todas las sedes");
         List<SedeResponseDTO> sedes = sedeRepository.findAllByOrderByNombreAsc().stream()
@@ -177,6 +181,7 @@ public class SedeService {
 
             for (Partido partido : partidos) {
                 partido.setSede(sede);
+                calificacionesAgregadas.partidoCambioDeSede(partido, null, sede.getId());
                 partidosActualizados++;
             }
         }
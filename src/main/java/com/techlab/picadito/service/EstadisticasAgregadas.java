@@ -0,0 +1,435 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.model.Reserva;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Agregados de las estadísticas generales mantenidos en memoria: contadores de partidos por sede y
+ * por categoría, reservas por estado y por usuario, ingresos y suma de ocupación.
+ *
+ * Reemplaza el recálculo sobre todas las filas de partidos, reservas y usuarios en cada consulta
+ * del panel de administración. Solo se guardan contadores (nada por partido ni por reserva), así que
+ * la memoria no crece con las tablas: cada evento de persistencia de Partido, Participante, Reserva
+ * y Usuario (ver EstadisticasAgregadasListener) informa el valor anterior y el nuevo, y se aplica la
+ * diferencia después del commit. Lo que el evento no trae (capacidad de un partido no cargado,
+ * importe de una reserva que pasa a confirmada, unidades facturadas de un partido que cambia de
+ * precio) se consulta a la base después del commit con EstadisticasAgregadasCarga.
+ *
+ * Los ingresos se valúan al precio actual de cada partido, igual que Reserva.calcularTotal.
+ *
+ * La reconstrucción completa con consultas agrupadas se ejecuta al primer uso y diariamente junto
+ * con la reconciliación de participantes (ver ScheduledTasks), y devuelve las diferencias
+ * encontradas contra el estado incremental. Corrige los desvíos que los eventos no pueden ver, como
+ * la cantidad de participantes desactualizada en un partido cargado antes de una actualización
+ * masiva o una consulta posterior al commit que se cruza con otra transacción.
+ */
+@Component
+public class EstadisticasAgregadas {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasAgregadas.class);
+
+    static final Set<Reserva.EstadoReserva> ESTADOS_CON_INGRESOS =
+            EnumSet.of(Reserva.EstadoReserva.CONFIRMADO, Reserva.EstadoReserva.FINALIZADO);
+
+    private static final double TOLERANCIA = 1e-6;
+
+    @Autowired
+    private EstadisticasAgregadasCarga carga;
+
+    private final ReentrantLock reconstruccion = new ReentrantLock();
+
+    // Protegidos por el monitor de esta instancia
+    private Estado estado;
+    private List<Consumer<Estado>> pendientes;
+
+    /**
+     * Reconstruye los agregados desde la base y reemplaza el estado actual
+     *
+     * @return Diferencias entre el estado incremental y el reconstruido (vacía si coincidían)
+     */
+    public List<String> reconstruir() {
+        reconstruccion.lock();
+        try {
+            long inicio = System.currentTimeMillis();
+            synchronized (this) {
+                pendientes = new ArrayList<>();
+            }
+            Estado nuevo = carga.cargar();
+            List<String> diferencias;
+            synchronized (this) {
+                // Los cambios confirmados mientras se leía la base se aplican también al estado nuevo
+                pendientes.forEach(cambio -> cambio.accept(nuevo));
+                pendientes = null;
+                diferencias = estado != null ? estado.diferencias(nuevo) : List.of();
+                estado = nuevo;
+            }
+            if (diferencias.isEmpty()) {
+                logger.info("Estadísticas agregadas reconstruidas en {} ms", System.currentTimeMillis() - inicio);
+            } else {
+                logger.warn("Estadísticas agregadas reconstruidas en {} ms con {} diferencias: {}",
+                        System.currentTimeMillis() - inicio, diferencias.size(), diferencias);
+            }
+            return diferencias;
+        } finally {
+            synchronized (this) {
+                pendientes = null;
+            }
+            reconstruccion.unlock();
+        }
+    }
+
+    public synchronized boolean estaListo() {
+        return estado != null;
+    }
+
+    /**
+     * Devuelve una copia de los agregados, con los rankings limitados a los primeros elementos
+     *
+     * @param limite Cantidad máxima de elementos por ranking
+     */
+    public Resumen resumen(int limite) {
+        if (!estaListo()) {
+            reconstruir();
+        }
+        synchronized (this) {
+            return estado.resumir(limite);
+        }
+    }
+
+    public void partidoCreado(ContribucionPartido partido, Set<Long> categoriaIds) {
+        Set<Long> categorias = Set.copyOf(categoriaIds);
+        aplicar(e -> {
+            e.totalPartidos++;
+            e.sumarPartido(partido, 1);
+            categorias.forEach(categoriaId -> e.partidosPorCategoria.sumar(categoriaId, 1));
+        });
+    }
+
+    /**
+     * Cambio de sede, capacidad o precio de un partido. Si cambió el precio, las unidades ya
+     * facturadas del partido se revalúan con una consulta después del commit
+     */
+    public void partidoActualizado(Long partidoId, ContribucionPartido anterior, ContribucionPartido nueva) {
+        aplicar(e -> {
+            e.sumarPartido(anterior, -1);
+            e.sumarPartido(nueva, 1);
+        });
+        double diferenciaPrecio = nueva.precio() - anterior.precio();
+        if (diferenciaPrecio != 0) {
+            despuesDelCommit(() -> {
+                Map<Long, Long> unidades = carga.unidadesFacturadasPorUsuario(partidoId);
+                aplicarConfirmado(e -> unidades.forEach((usuarioId, cantidad) ->
+                        e.sumarIngresos(usuarioId, cantidad * diferenciaPrecio)));
+            });
+        }
+    }
+
+    public void partidoCambioDeCategorias(Set<Long> anteriores, Set<Long> nuevas) {
+        if (anteriores.equals(nuevas)) {
+            return;
+        }
+        Set<Long> quitadas = Set.copyOf(anteriores);
+        Set<Long> agregadas = Set.copyOf(nuevas);
+        aplicar(e -> {
+            quitadas.forEach(categoriaId -> e.partidosPorCategoria.sumar(categoriaId, -1));
+            agregadas.forEach(categoriaId -> e.partidosPorCategoria.sumar(categoriaId, 1));
+        });
+    }
+
+    public void partidoEliminado(ContribucionPartido partido, Set<Long> categoriaIds) {
+        Set<Long> categorias = Set.copyOf(categoriaIds);
+        aplicar(e -> {
+            e.totalPartidos--;
+            e.sumarPartido(partido, -1);
+            categorias.forEach(categoriaId -> e.partidosPorCategoria.sumar(categoriaId, -1));
+        });
+    }
+
+    /**
+     * Alta o baja de participantes de un partido
+     *
+     * @param maxJugadores Capacidad del partido, o null si no está cargado (se consulta después del commit)
+     */
+    public void participantesCambiados(Long partidoId, Integer maxJugadores, int diferencia) {
+        if (maxJugadores != null) {
+            aplicar(e -> e.sumarParticipantes(maxJugadores, diferencia));
+            return;
+        }
+        despuesDelCommit(() -> carga.maxJugadores(partidoId).ifPresent(max ->
+                aplicarConfirmado(e -> e.sumarParticipantes(max, diferencia))));
+    }
+
+    /**
+     * @param total Importe de la reserva, o null si hace falta consultarlo (solo se usa si el estado tiene ingresos)
+     */
+    public void reservaCreada(Long reservaId, Long usuarioId, Reserva.EstadoReserva estadoReserva, Double total) {
+        aplicar(e -> e.contarReserva(usuarioId, estadoReserva, 1));
+        if (ESTADOS_CON_INGRESOS.contains(estadoReserva)) {
+            sumarIngresos(reservaId, usuarioId, total, 1);
+        }
+    }
+
+    /**
+     * @param total Importe de la reserva, o null si hace falta consultarlo (solo se usa si el cambio
+     *              entra o sale de los estados con ingresos)
+     */
+    public void reservaCambioDeEstado(Long reservaId, Long usuarioId, Reserva.EstadoReserva anterior,
+                                      Reserva.EstadoReserva nuevo, Double total) {
+        if (anterior == nuevo) {
+            return;
+        }
+        aplicar(e -> {
+            e.reservasPorEstado.merge(anterior, -1L, EstadisticasAgregadas::sumarSinCeros);
+            e.reservasPorEstado.merge(nuevo, 1L, EstadisticasAgregadas::sumarSinCeros);
+        });
+        boolean teniaIngresos = ESTADOS_CON_INGRESOS.contains(anterior);
+        if (teniaIngresos != ESTADOS_CON_INGRESOS.contains(nuevo)) {
+            sumarIngresos(reservaId, usuarioId, total, teniaIngresos ? -1 : 1);
+        }
+    }
+
+    /**
+     * @param total Importe de la reserva al eliminarla (Reserva.calcularTotal)
+     */
+    public void reservaEliminada(Long usuarioId, Reserva.EstadoReserva estadoReserva, double total) {
+        aplicar(e -> {
+            e.contarReserva(usuarioId, estadoReserva, -1);
+            if (ESTADOS_CON_INGRESOS.contains(estadoReserva)) {
+                e.sumarIngresos(usuarioId, -total);
+            }
+        });
+    }
+
+    public void usuariosCambiados(int diferencia) {
+        aplicar(e -> e.totalUsuarios += diferencia);
+    }
+
+    private void sumarIngresos(Long reservaId, Long usuarioId, Double total, int signo) {
+        if (total != null) {
+            aplicar(e -> e.sumarIngresos(usuarioId, signo * total));
+            return;
+        }
+        despuesDelCommit(() -> {
+            double importe = carga.totalReserva(reservaId);
+            aplicarConfirmado(e -> e.sumarIngresos(usuarioId, signo * importe));
+        });
+    }
+
+    /**
+     * Aplica un cambio después del commit de la transacción actual (o en el momento si no hay
+     * transacción), para que un rollback no deje los agregados desalineados
+     */
+    private void aplicar(Consumer<Estado> cambio) {
+        despuesDelCommit(() -> aplicarConfirmado(cambio));
+    }
+
+    /**
+     * Ejecuta una acción después del commit. Las que consultan la base lo hacen fuera del monitor y
+     * se omiten antes de la primera reconstrucción, que ya va a leer el cambio de la base
+     */
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (estaListo()) {
+                        accion.run();
+                    }
+                }
+            });
+        } else if (estaListo()) {
+            accion.run();
+        }
+    }
+
+    private synchronized void aplicarConfirmado(Consumer<Estado> cambio) {
+        if (pendientes != null) {
+            pendientes.add(cambio);
+        }
+        if (estado != null) {
+            cambio.accept(estado);
+        }
+    }
+
+    private static Long sumarSinCeros(Long a, Long b) {
+        return a + b == 0 ? null : a + b;
+    }
+
+    /**
+     * Lo que aporta un partido a los contadores, fuera de sus categorías
+     */
+    public record ContribucionPartido(Long sedeId, int maxJugadores, int cantidadParticipantes, double precio) {
+    }
+
+    public record Resumen(long totalPartidos, long totalReservas, long totalUsuarios, double ingresosTotales,
+                          double tasaOcupacionPromedio, Map<Reserva.EstadoReserva, Long> reservasPorEstado,
+                          Map<Long, Long> partidosPorCategoria, Map<Long, Long> partidosPorSede,
+                          List<UsuarioActivo> usuariosActivos) {
+    }
+
+    public record UsuarioActivo(Long usuarioId, long cantidadReservas, double totalGastado) {
+    }
+
+    /**
+     * Contadores por clave con un orden mantenido por valor descendente y clave ascendente,
+     * para leer los primeros del ranking sin ordenar en cada consulta
+     */
+    static final class Ranking {
+
+        private static final Comparator<Map.Entry<Long, Long>> ORDEN =
+                Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+        private final Map<Long, Long> valores = new HashMap<>();
+        private final NavigableSet<Map.Entry<Long, Long>> orden = new TreeSet<>(ORDEN);
+
+        void sumar(Long clave, long diferencia) {
+            if (clave == null || diferencia == 0) {
+                return;
+            }
+            Long anterior = valores.get(clave);
+            asignar(clave, (anterior != null ? anterior : 0) + diferencia);
+        }
+
+        void asignar(Long clave, long valor) {
+            Long anterior = valor > 0 ? valores.put(clave, valor) : valores.remove(clave);
+            if (anterior != null) {
+                orden.remove(Map.entry(clave, anterior));
+            }
+            if (valor > 0) {
+                orden.add(Map.entry(clave, valor));
+            }
+        }
+
+        long obtener(Long clave) {
+            return valores.getOrDefault(clave, 0L);
+        }
+
+        Map<Long, Long> primeros(int limite) {
+            Map<Long, Long> primeros = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> entrada : orden) {
+                if (primeros.size() >= limite) {
+                    break;
+                }
+                primeros.put(entrada.getKey(), entrada.getValue());
+            }
+            return primeros;
+        }
+
+        Map<Long, Long> valores() {
+            return Collections.unmodifiableMap(valores);
+        }
+    }
+
+    /**
+     * Estado mutable de los agregados. No es seguro para uso concurrente: se accede bajo el monitor de
+     * EstadisticasAgregadas, salvo mientras EstadisticasAgregadasCarga lo arma
+     */
+    static final class Estado {
+        long totalPartidos;
+        final Ranking partidosPorSede = new Ranking();
+        final Ranking partidosPorCategoria = new Ranking();
+        double sumaOcupacion;
+        long partidosConCapacidad;
+
+        long totalReservas;
+        final Map<Reserva.EstadoReserva, Long> reservasPorEstado = new EnumMap<>(Reserva.EstadoReserva.class);
+        final Ranking reservasPorUsuario = new Ranking();
+        final Map<Long, Double> gastoPorUsuario = new HashMap<>();
+        double ingresosTotales;
+
+        long totalUsuarios;
+
+        void sumarPartido(ContribucionPartido partido, int signo) {
+            partidosPorSede.sumar(partido.sedeId(), signo);
+            if (partido.maxJugadores() > 0) {
+                sumaOcupacion += signo * ((double) partido.cantidadParticipantes() / partido.maxJugadores() * 100);
+                partidosConCapacidad += signo;
+            }
+        }
+
+        void sumarParticipantes(int maxJugadores, int diferencia) {
+            if (maxJugadores > 0) {
+                sumaOcupacion += (double) diferencia / maxJugadores * 100;
+            }
+        }
+
+        void contarReserva(Long usuarioId, Reserva.EstadoReserva estadoReserva, int signo) {
+            totalReservas += signo;
+            reservasPorEstado.merge(estadoReserva, (long) signo, EstadisticasAgregadas::sumarSinCeros);
+            reservasPorUsuario.sumar(usuarioId, signo);
+        }
+
+        void sumarIngresos(Long usuarioId, double monto) {
+            ingresosTotales += monto;
+            gastoPorUsuario.merge(usuarioId, monto, Double::sum);
+        }
+
+        Resumen resumir(int limite) {
+            List<UsuarioActivo> usuariosActivos = new ArrayList<>();
+            reservasPorUsuario.primeros(limite).forEach((usuarioId, cantidad) -> usuariosActivos.add(
+                    new UsuarioActivo(usuarioId, cantidad, gastoPorUsuario.getOrDefault(usuarioId, 0.0))));
+            double tasaOcupacion = partidosConCapacidad > 0 ? sumaOcupacion / partidosConCapacidad : 0.0;
+            return new Resumen(totalPartidos, totalReservas, totalUsuarios, ingresosTotales, tasaOcupacion,
+                    new EnumMap<>(reservasPorEstado), new HashMap<>(partidosPorCategoria.valores()),
+                    partidosPorSede.primeros(limite), usuariosActivos);
+        }
+
+        /**
+         * Compara contra otro estado (normalmente uno reconstruido desde la base)
+         */
+        List<String> diferencias(Estado otro) {
+            List<String> diferencias = new ArrayList<>();
+            comparar(diferencias, "totalPartidos", totalPartidos, otro.totalPartidos);
+            comparar(diferencias, "totalReservas", totalReservas, otro.totalReservas);
+            comparar(diferencias, "totalUsuarios", totalUsuarios, otro.totalUsuarios);
+            comparar(diferencias, "partidosConCapacidad", partidosConCapacidad, otro.partidosConCapacidad);
+            compararDecimal(diferencias, "sumaOcupacion", sumaOcupacion, otro.sumaOcupacion);
+            compararDecimal(diferencias, "ingresosTotales", ingresosTotales, otro.ingresosTotales);
+            comparar(diferencias, "reservasPorEstado", reservasPorEstado, otro.reservasPorEstado);
+            comparar(diferencias, "partidosPorSede", partidosPorSede.valores(), otro.partidosPorSede.valores());
+            comparar(diferencias, "partidosPorCategoria", partidosPorCategoria.valores(), otro.partidosPorCategoria.valores());
+            comparar(diferencias, "reservasPorUsuario", reservasPorUsuario.valores(), otro.reservasPorUsuario.valores());
+            Set<Long> usuarios = new HashSet<>(gastoPorUsuario.keySet());
+            usuarios.addAll(otro.gastoPorUsuario.keySet());
+            for (Long usuarioId : usuarios) {
+                compararDecimal(diferencias, "gastoPorUsuario[" + usuarioId + "]",
+                        gastoPorUsuario.getOrDefault(usuarioId, 0.0), otro.gastoPorUsuario.getOrDefault(usuarioId, 0.0));
+            }
+            return diferencias;
+        }
+
+        private static void comparar(List<String> diferencias, String nombre, Object actual, Object reconstruido) {
+            if (!Objects.equals(actual, reconstruido)) {
+                diferencias.add(nombre + ": " + actual + " != " + reconstruido);
+            }
+        }
+
+        private static void compararDecimal(List<String> diferencias, String nombre, double actual, double reconstruido) {
+            if (Math.abs(actual - reconstruido) > TOLERANCIA * Math.max(1.0, Math.abs(reconstruido))) {
+                diferencias.add(nombre + ": " + actual + " != " + reconstruido);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.reserva.ReservaRepository;
+import com.techlab.picadito.reserva.ReservasPorEstado;
+import com.techlab.picadito.reserva.ReservasPorUsuario;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Consultas de EstadisticasAgregadas: la reconstrucción completa con consultas agrupadas y los
+ * datos que un evento no trae. Es un bean aparte para que las llamadas pasen por el proxy
+ * transaccional, y cada una abre su propia transacción porque también se invoca desde los
+ * callbacks posteriores al commit, donde la transacción que terminó sigue asociada al hilo.
+ */
+@Component
+@Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+public class EstadisticasAgregadasCarga {
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    /**
+     * Arma los agregados desde la base, en una sola transacción de lectura
+     */
+    public EstadisticasAgregadas.Estado cargar() {
+        EstadisticasAgregadas.Estado estado = new EstadisticasAgregadas.Estado();
+        estado.totalPartidos = partidoRepository.count();
+        for (Object[] fila : partidoRepository.contarPorSede()) {
+            estado.partidosPorSede.asignar((Long) fila[0], ((Number) fila[1]).longValue());
+        }
+        for (Object[] fila : partidoRepository.contarPorCategoria()) {
+            estado.partidosPorCategoria.asignar((Long) fila[0], ((Number) fila[1]).longValue());
+        }
+        for (Object[] fila : partidoRepository.sumarOcupacion()) {
+            estado.partidosConCapacidad = ((Number) fila[0]).longValue();
+            estado.sumaOcupacion = ((Number) fila[1]).doubleValue();
+        }
+
+        for (ReservasPorEstado fila : reservaRepository.contarPorEstado()) {
+            estado.reservasPorEstado.put(fila.estado(), fila.cantidad());
+            estado.totalReservas += fila.cantidad();
+        }
+        for (ReservasPorUsuario fila : reservaRepository.contarPorUsuario()) {
+            estado.reservasPorUsuario.asignar(fila.usuarioId(), fila.cantidad());
+        }
+        for (Object[] fila : reservaRepository.sumarImportePorUsuario(EstadisticasAgregadas.ESTADOS_CON_INGRESOS)) {
+            estado.sumarIngresos((Long) fila[0], ((Number) fila[1]).doubleValue());
+        }
+
+        estado.totalUsuarios = usuarioRepository.count();
+        return estado;
+    }
+
+    public Optional<Integer> maxJugadores(Long partidoId) {
+        return partidoRepository.findMaxJugadoresById(partidoId);
+    }
+
+    public double totalReserva(Long reservaId) {
+        Double total = reservaRepository.calcularTotal(reservaId);
+        return total != null ? total : 0.0;
+    }
+
+    /**
+     * Unidades del partido en reservas con ingresos, por usuario
+     */
+    public Map<Long, Long> unidadesFacturadasPorUsuario(Long partidoId) {
+        Map<Long, Long> unidades = new HashMap<>();
+        for (Object[] fila : reservaRepository.sumarUnidadesPorUsuario(partidoId, EstadisticasAgregadas.ESTADOS_CON_INGRESOS)) {
+            unidades.put((Long) fila[0], ((Number) fila[1]).longValue());
+        }
+        return unidades;
+    }
+}
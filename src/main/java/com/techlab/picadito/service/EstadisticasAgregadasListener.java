@@ -0,0 +1,153 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.LineaReserva;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Reserva;
+import com.techlab.picadito.model.Usuario;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Listener JPA de Partido, Participante, Reserva y Usuario que mantiene las estadísticas agregadas.
+ * Guarda en cada partido y reserva lo que aportaba al leerse (campos transient) para informar solo
+ * la diferencia al actualizar o eliminar. EstadisticasAgregadas aplica cada cambio después del commit.
+ *
+ * Las categorías de un partido existente las informa PartidoService al reemplazarlas, porque la
+ * colección es lazy y acá no se conoce su valor anterior.
+ */
+@Component
+public class EstadisticasAgregadasListener {
+
+    @Autowired
+    private ObjectProvider<EstadisticasAgregadas> estadisticasAgregadas;
+
+    @PostLoad
+    public void alCargar(Object entidad) {
+        guardarContribucion(entidad);
+    }
+
+    @PostPersist
+    public void alCrear(Object entidad) {
+        EstadisticasAgregadas agregados = obtenerAgregados();
+        if (agregados != null) {
+            switch (entidad) {
+                case Partido partido -> agregados.partidoCreado(contribucion(partido), categoriaIds(partido));
+                case Participante participante -> participantesCambiados(agregados, participante, 1);
+                case Reserva reserva -> agregados.reservaCreada(reserva.getId(), reserva.getUsuario().getId(),
+                        reserva.getEstado(), totalSiEstaCargado(reserva));
+                case Usuario usuario -> agregados.usuariosCambiados(1);
+                default -> { }
+            }
+        }
+        guardarContribucion(entidad);
+    }
+
+    @PostUpdate
+    public void alActualizar(Object entidad) {
+        EstadisticasAgregadas agregados = obtenerAgregados();
+        if (agregados != null) {
+            switch (entidad) {
+                case Partido partido when partido.getContribucionEstadisticas() != null ->
+                        agregados.partidoActualizado(partido.getId(), partido.getContribucionEstadisticas(),
+                                contribucion(partido));
+                case Reserva reserva when reserva.getEstadoEstadisticas() != null
+                        && reserva.getEstadoEstadisticas() != reserva.getEstado() ->
+                        agregados.reservaCambioDeEstado(reserva.getId(), reserva.getUsuario().getId(),
+                                reserva.getEstadoEstadisticas(), reserva.getEstado(), totalSiEstaCargado(reserva));
+                default -> { }
+            }
+        }
+        guardarContribucion(entidad);
+    }
+
+    /**
+     * Antes de eliminar, mientras las relaciones lazy todavía se pueden cargar. Si la transacción se
+     * revierte, EstadisticasAgregadas descarta el cambio
+     */
+    @PreRemove
+    public void alEliminar(Object entidad) {
+        EstadisticasAgregadas agregados = obtenerAgregados();
+        if (agregados == null) {
+            return;
+        }
+        switch (entidad) {
+            case Partido partido -> {
+                EstadisticasAgregadas.ContribucionPartido anterior = partido.getContribucionEstadisticas();
+                agregados.partidoEliminado(anterior != null ? anterior : contribucion(partido), categoriaIds(partido));
+                // Los participantes que se eliminan en cascada ya están descontados con el partido
+                partido.setContribucionEstadisticas(null);
+            }
+            case Participante participante -> participantesCambiados(agregados, participante, -1);
+            case Reserva reserva -> agregados.reservaEliminada(reserva.getUsuario().getId(),
+                    reserva.getEstadoEstadisticas() != null ? reserva.getEstadoEstadisticas() : reserva.getEstado(),
+                    reserva.calcularTotal());
+            case Usuario usuario -> agregados.usuariosCambiados(-1);
+            default -> { }
+        }
+    }
+
+    private void participantesCambiados(EstadisticasAgregadas agregados, Participante participante, int diferencia) {
+        Partido partido = participante.getPartido();
+        if (partido == null) {
+            return;
+        }
+        // Con el partido sin cargar (referencia lazy) la capacidad se consulta después del commit
+        if (!Hibernate.isInitialized(partido)) {
+            agregados.participantesCambiados(partido.getId(), null, diferencia);
+        } else if (partido.getContribucionEstadisticas() != null) {
+            agregados.participantesCambiados(partido.getId(), partido.getMaxJugadores(), diferencia);
+        }
+    }
+
+    private static void guardarContribucion(Object entidad) {
+        switch (entidad) {
+            case Partido partido -> partido.setContribucionEstadisticas(contribucion(partido));
+            case Reserva reserva -> reserva.setEstadoEstadisticas(reserva.getEstado());
+            default -> { }
+        }
+    }
+
+    private static EstadisticasAgregadas.ContribucionPartido contribucion(Partido partido) {
+        return new EstadisticasAgregadas.ContribucionPartido(
+                partido.getSede() != null ? partido.getSede().getId() : null,
+                partido.getMaxJugadores() != null ? partido.getMaxJugadores() : 0,
+                partido.getCantidadParticipantes() != null ? partido.getCantidadParticipantes() : 0,
+                partido.getPrecio() != null ? partido.getPrecio() : 0.0);
+    }
+
+    private static Set<Long> categoriaIds(Partido partido) {
+        return partido.getCategorias().stream().map(Categoria::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Importe de la reserva si sus líneas y partidos están en memoria, o null para consultarlo
+     * después del commit (durante el flush no se cargan relaciones lazy)
+     */
+    private static Double totalSiEstaCargado(Reserva reserva) {
+        if (!Hibernate.isInitialized(reserva.getLineasReserva())) {
+            return null;
+        }
+        for (LineaReserva linea : reserva.getLineasReserva()) {
+            if (linea.getPartido() != null && !Hibernate.isInitialized(linea.getPartido())) {
+                return null;
+            }
+        }
+        return reserva.calcularTotal();
+    }
+
+    private EstadisticasAgregadas obtenerAgregados() {
+        // Sin contenedor de Spring (Hibernate instanciando el listener por reflexión) no hay agregados que mantener
+        return estadisticasAgregadas != null ? estadisticasAgregadas.getIfAvailable() : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.techlab.picadito.service;
 
+import com.techlab.picadito.categoria.CategoriaRepository;
 import com.techlab.picadito.dto.EstadisticasDTO;
 import com.techlab.picadito.model.*;
 import com.techlab.picadito.partido.PartidoRepository;
@@ -9,6 +10,7 @@ import com.techlab.picadito.usuario.UsuarioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,8 @@ public class EstadisticasService {
 
     private static final Logger logger = LoggerFactory.getLogger(EstadisticasService.class);
 
+    private static final int LIMITE_RANKING = 10;
+
     @Autowired
     private PartidoRepository partidoRepository;
 
@@ -34,43 +38,56 @@ public class EstadisticasService {
     @Autowired
     private SedeRepository sedeRepository;
 
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private EstadisticasAgregadas estadisticasAgregadas;
+
     public EstadisticasDTO obtenerEstadisticasGenerales() {
         logger.info("Generando estadísticas generales");
         
+        // Los totales y rankings salen de los agregados en memoria; la base resuelve nombres y los partidos más populares
+        EstadisticasAgregadas.Resumen resumen = estadisticasAgregadas.resumen(LIMITE_RANKING);
+        
         EstadisticasDTO estadisticas = new EstadisticasDTO();
         
-        estadisticas.setTotalPartidos(partidoRepository.count());
-        estadisticas.setTotalReservas(reservaRepository.count());
-        estadisticas.setTotalUsuarios(usuarioRepository.count());
+        estadisticas.setTotalPartidos(resumen.totalPartidos());
+        estadisticas.setTotalReservas(resumen.totalReservas());
+        estadisticas.setTotalUsuarios(resumen.totalUsuarios());
+        estadisticas.setIngresosTotales(resumen.ingresosTotales());
         
-        // Calcular ingresos totales
-        List<Reserva.EstadoReserva> estadosConIngresos = List.of(
-            Reserva.EstadoReserva.CONFIRMADO,
-            Reserva.EstadoReserva.FINALIZADO
-        );
-        Double ingresosTotales = reservaRepository.findByEstadoInOrderByFechaCreacionDesc(estadosConIngresos).stream()
-                .mapToDouble(Reserva::calcularTotal)
-                .sum();
-        estadisticas.setIngresosTotales(ingresosTotales);
+        Map<String, Long> reservasPorEstado = new LinkedHashMap<>();
+        resumen.reservasPorEstado().forEach((estado, cantidad) -> reservasPorEstado.put(estado.name(), cantidad));
+        estadisticas.setReservasPorEstado(reservasPorEstado);
         
         // Partidos más populares
         estadisticas.setPartidosPopulares(obtenerPartidosPopulares());
         
         // Usuarios más activos
-        estadisticas.setUsuariosActivos(obtenerUsuariosActivos());
+        estadisticas.setUsuariosActivos(obtenerUsuariosActivos(resumen.usuariosActivos()));
         
         // Sedes más utilizadas
-        estadisticas.setSedesUtilizadas(obtenerSedesUtilizadas());
+        estadisticas.setSedesUtilizadas(obtenerSedesUtilizadas(resumen.partidosPorSede()));
         
         // Partidos por categoría
-        estadisticas.setPartidosPorCategoria(obtenerPartidosPorCategoria());
+        estadisticas.setPartidosPorCategoria(obtenerPartidosPorCategoria(resumen.partidosPorCategoria()));
         
         // Tasa de ocupación promedio
-        estadisticas.setTasaOcupacionPromedio(calcularTasaOcupacionPromedio());
+        estadisticas.setTasaOcupacionPromedio(resumen.tasaOcupacionPromedio());
         
         return estadisticas;
     }
 
+    /**
+     * Reconstruye las estadísticas agregadas desde la base
+     *
+     * @return Diferencias encontradas contra los agregados mantenidos incrementalmente (vacía si coincidían)
+     */
+    public List<String> reconstruirAgregados() {
+        return estadisticasAgregadas.reconstruir();
+    }
+
     public EstadisticasDTO obtenerEstadisticasPorPeriodo(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         logger.info("Generando estadísticas para el período {} - {}", fechaInicio, fechaFin);
         
@@ -97,7 +114,8 @@ public class EstadisticasService {
     }
 
     private List<EstadisticasDTO.PartidoPopularDTO> obtenerPartidosPopulares() {
-        return partidoRepository.findByCantidadParticipantesGreaterThan(0).stream()
+        // Con el índice sobre cantidad_participantes la base devuelve solo los primeros
+        return partidoRepository.findMasPopulares(PageRequest.of(0, LIMITE_RANKING)).stream()
                 .map(p -> {
                     EstadisticasDTO.PartidoPopularDTO dto = new EstadisticasDTO.PartidoPopularDTO();
                     dto.setPartidoId(p.getId());
@@ -108,95 +126,48 @@ public class EstadisticasService {
                     dto.setPorcentajeOcupacion(porcentaje);
                     return dto;
                 })
-                .sorted((a, b) -> b.getCantidadParticipantes().compareTo(a.getCantidadParticipantes()))
-                .limit(10)
                 .collect(Collectors.toList());
     }
 
-    private List<EstadisticasDTO.UsuarioActivoDTO> obtenerUsuariosActivos() {
-        List<Reserva> todasLasReservas = reservaRepository.findAll();
-        Map<Long, Long> reservasPorUsuario = todasLasReservas.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getUsuario().getId(),
-                        Collectors.counting()
-                ));
-        
-        List<Reserva.EstadoReserva> estadosConIngresos = List.of(
-            Reserva.EstadoReserva.CONFIRMADO,
-            Reserva.EstadoReserva.FINALIZADO
-        );
-        Map<Long, Double> gastosPorUsuario = reservaRepository.findByEstadoInOrderByFechaCreacionDesc(estadosConIngresos).stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getUsuario().getId(),
-                        Collectors.summingDouble(Reserva::calcularTotal)
-                ));
-        
-        return usuarioRepository.findAll().stream()
+    private List<EstadisticasDTO.UsuarioActivoDTO> obtenerUsuariosActivos(List<EstadisticasAgregadas.UsuarioActivo> usuariosActivos) {
+        Map<Long, Usuario> usuarios = usuarioRepository.findAllById(usuariosActivos.stream()
+                        .map(EstadisticasAgregadas.UsuarioActivo::usuarioId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Usuario::getId, u -> u));
+        return usuariosActivos.stream()
+                .filter(u -> usuarios.containsKey(u.usuarioId()))
                 .map(u -> {
                     EstadisticasDTO.UsuarioActivoDTO dto = new EstadisticasDTO.UsuarioActivoDTO();
-                    dto.setUsuarioId(u.getId());
-                    dto.setNombre(u.getNombre());
-                    dto.setCantidadReservas(reservasPorUsuario.getOrDefault(u.getId(), 0L));
-                    dto.setTotalGastado(gastosPorUsuario.getOrDefault(u.getId(), 0.0));
+                    dto.setUsuarioId(u.usuarioId());
+                    dto.setNombre(usuarios.get(u.usuarioId()).getNombre());
+                    dto.setCantidadReservas(u.cantidadReservas());
+                    dto.setTotalGastado(u.totalGastado());
                     return dto;
                 })
-                .filter(u -> u.getCantidadReservas() > 0)
-                .sorted((a, b) -> b.getCantidadReservas().compareTo(a.getCantidadReservas()))
-                .limit(10)
                 .collect(Collectors.toList());
     }
 
-    private List<EstadisticasDTO.SedeUtilizadaDTO> obtenerSedesUtilizadas() {
-        List<Partido> todosLosPartidos = partidoRepository.findAll();
-        Map<Long, Long> partidosPorSede = todosLosPartidos.stream()
-                .filter(p -> p.getSede() != null)
-                .collect(Collectors.groupingBy(
-                        p -> p.getSede().getId(),
-                        Collectors.counting()
-                ));
-        
-        return sedeRepository.findAll().stream()
-                .filter(s -> partidosPorSede.containsKey(s.getId()))
-                .map(s -> {
+    private List<EstadisticasDTO.SedeUtilizadaDTO> obtenerSedesUtilizadas(Map<Long, Long> partidosPorSede) {
+        Map<Long, Sede> sedes = sedeRepository.findAllById(partidosPorSede.keySet()).stream()
+                .collect(Collectors.toMap(Sede::getId, s -> s));
+        return partidosPorSede.entrySet().stream()
+                .filter(e -> sedes.containsKey(e.getKey()))
+                .map(e -> {
+                    Sede s = sedes.get(e.getKey());
                     EstadisticasDTO.SedeUtilizadaDTO dto = new EstadisticasDTO.SedeUtilizadaDTO();
                     dto.setSedeId(s.getId());
                     dto.setNombre(s.getNombre() != null ? s.getNombre() : s.getDireccion());
-                    dto.setCantidadPartidos(partidosPorSede.get(s.getId()));
+                    dto.setCantidadPartidos(e.getValue());
                     return dto;
                 })
-                .sorted((a, b) -> b.getCantidadPartidos().compareTo(a.getCantidadPartidos()))
-                .limit(10)
                 .collect(Collectors.toList());
     }
 
-    private Map<String, Long> obtenerPartidosPorCategoria() {
-        List<Partido> todosLosPartidos = partidoRepository.findAll();
-        return todosLosPartidos.stream()
-                .filter(p -> p.getCategorias() != null && !p.getCategorias().isEmpty())
-                .flatMap(p -> p.getCategorias().stream()
-                        .map(c -> new AbstractMap.SimpleEntry<>(c.getNombre(), p.getId())))
-                .collect(Collectors.groupingBy(
-                        Map.Entry::getKey,
-                        Collectors.counting()
-                ));
-    }
-
-    private Double calcularTasaOcupacionPromedio() {
-        List<Partido> partidos = partidoRepository.findAll();
-        if (partidos.isEmpty()) {
-            return 0.0;
+    private Map<String, Long> obtenerPartidosPorCategoria(Map<Long, Long> partidosPorCategoria) {
+        Map<String, Long> resultado = new HashMap<>();
+        for (Categoria categoria : categoriaRepository.findAllById(partidosPorCategoria.keySet())) {
+            resultado.merge(categoria.getNombre(), partidosPorCategoria.get(categoria.getId()), Long::sum);
         }
-        
-        double sumaPorcentajes = partidos.stream()
-                .filter(p -> p.getMaxJugadores() > 0)
-                .mapToDouble(p -> (double) p.getCantidadParticipantes() / p.getMaxJugadores() * 100)
-                .sum();
-        
-        long totalPartidos = partidos.stream()
-                .filter(p -> p.getMaxJugadores() > 0)
-                .count();
-        
-        return totalPartidos > 0 ? sumaPorcentajes / totalPartidos : 0.0;
+        return resultado;
     }
 }
-
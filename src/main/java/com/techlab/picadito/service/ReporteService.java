@@ -4,7 +4,11 @@ import com.techlab.picadito.dto.ReporteDTO;
 import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Reserva;
 import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.partido.PartidosPorEstado;
+import com.techlab.picadito.reserva.GastoPorUsuario;
 import com.techlab.picadito.reserva.ReservaRepository;
+import com.techlab.picadito.reserva.ReservasPorEstado;
+import com.techlab.picadito.reserva.ReservasPorUsuario;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +25,11 @@ public class ReporteService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReporteService.class);
 
+    private static final List<Reserva.EstadoReserva> ESTADOS_CON_INGRESOS = List.of(
+        Reserva.EstadoReserva.CONFIRMADO,
+        Reserva.EstadoReserva.FINALIZADO
+    );
+
     @Autowired
     private ReservaRepository reservaRepository;
 
@@ -36,22 +45,25 @@ public class ReporteService {
         reporte.setFechaFin(fechaFin);
         reporte.setFechaGeneracion(LocalDateTime.now());
         
-        List<Reserva> reservas = reservaRepository.findByFechaCreacionBetweenOrderByFechaCreacionDesc(fechaInicio, fechaFin);
+        // Conteos e ingresos agrupados en la base: no se cargan las reservas del período
+        List<ReservasPorEstado> reservasPorEstado = reservaRepository.contarPorEstadoEntre(fechaInicio, fechaFin);
         
         Map<String, Object> datos = new HashMap<>();
-        datos.put("totalReservas", reservas.size());
+        long totalReservas = reservasPorEstado.stream()
+                .mapToLong(ReservasPorEstado::cantidad)
+                .sum();
+        datos.put("totalReservas", (int) totalReservas);
         
-        long reservasConfirmadas = reservas.stream()
-                .filter(r -> r.getEstado() == Reserva.EstadoReserva.CONFIRMADO || 
-                           r.getEstado() == Reserva.EstadoReserva.FINALIZADO)
-                .count();
+        long reservasConfirmadas = reservasPorEstado.stream()
+                .filter(r -> ESTADOS_CON_INGRESOS.contains(r.estado()))
+                .mapToLong(ReservasPorEstado::cantidad)
+                .sum();
         datos.put("reservasConfirmadas", reservasConfirmadas);
         
-        double ingresosTotales = reservas.stream()
-                .filter(r -> r.getEstado() == Reserva.EstadoReserva.CONFIRMADO || 
-                           r.getEstado() == Reserva.EstadoReserva.FINALIZADO)
-                .mapToDouble(Reserva::calcularTotal)
-                .sum();
+        Double ingresos = reservasConfirmadas > 0
+                ? reservaRepository.sumarIngresosEntre(ESTADOS_CON_INGRESOS, fechaInicio, fechaFin)
+                : null;
+        double ingresosTotales = ingresos != null ? ingresos : 0.0;
         datos.put("ingresosTotales", ingresosTotales);
         
         double promedioPorReserva = reservasConfirmadas > 0 ? ingresosTotales / reservasConfirmadas : 0.0;
@@ -70,32 +82,30 @@ public class ReporteService {
         reporte.setFechaFin(fechaFin);
         reporte.setFechaGeneracion(LocalDateTime.now());
         
-        List<com.techlab.picadito.model.Partido> partidos = partidoRepository.findByFechaCreacionBetweenOrderByFechaCreacionAsc(fechaInicio, fechaFin);
+        List<PartidosPorEstado> resumenPorEstado = partidoRepository.resumirPorEstadoEntre(fechaInicio, fechaFin);
         
         Map<String, Object> datos = new HashMap<>();
-        datos.put("totalPartidos", partidos.size());
+        long totalPartidos = resumenPorEstado.stream()
+                .mapToLong(PartidosPorEstado::cantidad)
+                .sum();
+        datos.put("totalPartidos", (int) totalPartidos);
         
-        Map<EstadoPartido, Long> partidosPorEstado = partidos.stream()
-                .collect(Collectors.groupingBy(
-                        com.techlab.picadito.model.Partido::getEstado,
-                        Collectors.counting()
-                ));
+        Map<EstadoPartido, Long> partidosPorEstado = resumenPorEstado.stream()
+                .collect(Collectors.toMap(PartidosPorEstado::estado, PartidosPorEstado::cantidad));
         datos.put("partidosPorEstado", partidosPorEstado);
         
-        long partidosCompletos = partidos.stream()
-                .filter(com.techlab.picadito.model.Partido::estaCompleto)
-                .count();
+        long partidosCompletos = resumenPorEstado.stream()
+                .mapToLong(PartidosPorEstado::completos)
+                .sum();
         datos.put("partidosCompletos", partidosCompletos);
         
-        long partidosDisponibles = partidos.stream()
-                .filter(p -> p.getEstado() == EstadoPartido.DISPONIBLE)
-                .count();
+        long partidosDisponibles = partidosPorEstado.getOrDefault(EstadoPartido.DISPONIBLE, 0L);
         datos.put("partidosDisponibles", partidosDisponibles);
         
-        double promedioParticipantes = partidos.stream()
-                .mapToInt(com.techlab.picadito.model.Partido::getCantidadParticipantes)
-                .average()
-                .orElse(0.0);
+        long totalParticipantes = resumenPorEstado.stream()
+                .mapToLong(PartidosPorEstado::participantes)
+                .sum();
+        double promedioParticipantes = totalPartidos > 0 ? (double) totalParticipantes / totalPartidos : 0.0;
         datos.put("promedioParticipantes", promedioParticipantes);
         
         reporte.setDatos(datos);
@@ -111,29 +121,15 @@ public class ReporteService {
         reporte.setFechaFin(fechaFin);
         reporte.setFechaGeneracion(LocalDateTime.now());
         
-        List<Reserva> reservas = reservaRepository.findByFechaCreacionBetweenOrderByFechaCreacionDesc(fechaInicio, fechaFin);
-        
         Map<String, Object> datos = new HashMap<>();
         
-        Set<Long> usuariosActivos = reservas.stream()
-                .map(r -> r.getUsuario().getId())
-                .collect(Collectors.toSet());
-        datos.put("usuariosActivos", usuariosActivos.size());
-        
-        Map<Long, Long> reservasPorUsuario = reservas.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getUsuario().getId(),
-                        Collectors.counting()
-                ));
+        Map<Long, Long> reservasPorUsuario = reservaRepository.contarPorUsuarioEntre(fechaInicio, fechaFin).stream()
+                .collect(Collectors.toMap(ReservasPorUsuario::usuarioId, ReservasPorUsuario::cantidad));
+        datos.put("usuariosActivos", reservasPorUsuario.size());
         datos.put("reservasPorUsuario", reservasPorUsuario);
         
-        Map<Long, Double> gastosPorUsuario = reservas.stream()
-                .filter(r -> r.getEstado() == Reserva.EstadoReserva.CONFIRMADO || 
-                           r.getEstado() == Reserva.EstadoReserva.FINALIZADO)
-                .collect(Collectors.groupingBy(
-                        r -> r.getUsuario().getId(),
-                        Collectors.summingDouble(Reserva::calcularTotal)
-                ));
+        Map<Long, Double> gastosPorUsuario = reservaRepository.sumarGastoPorUsuarioEntre(ESTADOS_CON_INGRESOS, fechaInicio, fechaFin).stream()
+                .collect(Collectors.toMap(GastoPorUsuario::usuarioId, GastoPorUsuario::total));
         datos.put("gastosPorUsuario", gastosPorUsuario);
         
         double promedioGasto = gastosPorUsuario.values().stream()
@@ -0,0 +1,16 @@
+package com.techlab.picadito.usuario;
+
+import com.techlab.picadito.model.Usuario;
+
+import java.util.Optional;
+
+/**
+ * Búsqueda de usuarios por email a través del id natural
+ */
+public interface UsuarioPorEmailRepository {
+
+    /**
+     * Resuelve email -> id y el usuario desde la cache de segundo nivel; solo consulta la base si no están
+     */
+    Optional<Usuario> findByEmail(String email);
+}
@@ -1,16 +1,32 @@
 package com.techlab.picadito.usuario;
 
 import com.techlab.picadito.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
-    
-    Optional<Usuario> findByEmail(String email);
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioPorEmailRepository {
     
     boolean existsByEmail(String email);
+    
+    /**
+     * Usuarios registrados en el período para exportar, leídos de a lotes con un cursor de la base.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM Usuario u WHERE u.fechaCreacion BETWEEN :fechaInicio AND :fechaFin ORDER BY u.fechaCreacion, u.id")
+    Stream<Usuario> streamParaExportacion(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                          @Param("fechaFin") LocalDateTime fechaFin);
 }
 
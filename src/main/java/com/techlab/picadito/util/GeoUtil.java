@@ -0,0 +1,64 @@
+package com.techlab.picadito.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades para coordenadas geográficas
+ */
+public final class GeoUtil {
+
+    public static final double RADIO_TIERRA_KM = 6371.0;
+
+    // "lat,lon", "lat, lon" o "lat lon", con decimales y signo opcional
+    private static final Pattern COORDENADAS_PATTERN = Pattern.compile(
+            "^\\s*(-?\\d{1,2}(?:\\.\\d+)?)\\s*[,; ]\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*$"
+    );
+
+    private GeoUtil() {
+    }
+
+    /**
+     * Convierte el texto libre de coordenadas a [latitud, longitud]
+     *
+     * @param coordenadas Texto con formato "latitud,longitud"
+     * @return Par [latitud, longitud], o null si el texto no tiene un formato válido o está fuera de rango
+     */
+    public static double[] parsearCoordenadas(String coordenadas) {
+        if (coordenadas == null) {
+            return null;
+        }
+        Matcher matcher = COORDENADAS_PATTERN.matcher(coordenadas);
+        if (!matcher.matches()) {
+            return null;
+        }
+        double latitud = Double.parseDouble(matcher.group(1));
+        double longitud = Double.parseDouble(matcher.group(2));
+        if (!esLatitudValida(latitud) || !esLongitudValida(longitud)) {
+            return null;
+        }
+        return new double[]{latitud, longitud};
+    }
+
+    public static boolean esLatitudValida(double latitud) {
+        return latitud >= -90 && latitud <= 90;
+    }
+
+    public static boolean esLongitudValida(double longitud) {
+        return longitud >= -180 && longitud <= 180;
+    }
+
+    /**
+     * Distancia sobre la superficie terrestre (fórmula de haversine)
+     *
+     * @return Distancia en kilómetros
+     */
+    public static double distanciaKm(double latitud1, double longitud1, double latitud2, double longitud2) {
+        double dLat = Math.toRadians(latitud2 - latitud1);
+        double dLon = Math.toRadians(longitud2 - longitud1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitud1)) * Math.cos(Math.toRadians(latitud2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
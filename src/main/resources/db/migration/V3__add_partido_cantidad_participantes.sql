@@ -0,0 +1,24 @@
+-- Migración: Contador desnormalizado de participantes en partidos
+-- Descripción: Evita cargar la colección de participantes para validar capacidad.
+-- El contador se actualiza con UPDATE condicionales (ver PartidoRepository) y se
+-- reconcilia al iniciar la aplicación y diariamente (ver ScheduledTasks)
+
+-- Agregar columna del contador
+ALTER TABLE partidos
+ADD COLUMN IF NOT EXISTS cantidad_participantes INTEGER DEFAULT 0 NOT NULL;
+
+-- Completar el contador con los participantes existentes
+UPDATE partidos
+SET cantidad_participantes = (
+    SELECT COUNT(*) FROM participantes pa WHERE pa.partido_id = partidos.id
+);
+
+-- Índice para filtrar partidos por estado y ocupación
+CREATE INDEX IF NOT EXISTS idx_partidos_estado_cantidad ON partidos(estado, cantidad_participantes);
+
+-- Índice de expresión para el filtro de cupos disponibles (solo PostgreSQL)
+-- Coincide con el predicado (max_jugadores - cantidad_participantes) >= :cuposDisponiblesMin
+CREATE INDEX IF NOT EXISTS idx_partidos_cupos_disponibles ON partidos((max_jugadores - cantidad_participantes));
+
+-- Comentarios para documentación
+COMMENT ON COLUMN partidos.cantidad_participantes IS 'Cantidad de participantes inscritos (contador desnormalizado)';
@@ -0,0 +1,14 @@
+-- Migración: Coordenadas numéricas en sedes
+-- Descripción: Latitud y longitud derivadas del texto libre de coordenadas, para la búsqueda
+-- de partidos cercanos. Se completan al guardar la sede y, para sedes existentes, al iniciar
+-- la aplicación (ver SedeGeoIndex). Las distancias se calculan en memoria, no en la base
+
+ALTER TABLE sedes
+ADD COLUMN IF NOT EXISTS latitud DOUBLE PRECISION;
+
+ALTER TABLE sedes
+ADD COLUMN IF NOT EXISTS longitud DOUBLE PRECISION;
+
+-- Comentarios para documentación
+COMMENT ON COLUMN sedes.latitud IS 'Latitud en grados decimales, derivada de coordenadas';
+COMMENT ON COLUMN sedes.longitud IS 'Longitud en grados decimales, derivada de coordenadas';
@@ -0,0 +1,20 @@
+-- Migración: Buckets de rate limiting compartidos entre instancias
+-- Descripción: Usada solo con app.rate-limit.backend=jdbc. Cada fila es una ventana fija por
+-- tipo de límite y clave (IP, email o usuario); ventana_fin está en milisegundos epoch.
+-- JdbcRateLimitBackend aplica esta migración al iniciar, y las ventanas vencidas se
+-- borran periódicamente (ver ScheduledTasks)
+
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    tipo VARCHAR(50) NOT NULL,
+    clave VARCHAR(255) NOT NULL,
+    consumidos BIGINT NOT NULL,
+    ventana_fin BIGINT NOT NULL,
+    PRIMARY KEY (tipo, clave)
+);
+
+-- Índice para la limpieza de ventanas vencidas
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_ventana_fin ON rate_limit_buckets(tipo, ventana_fin);
+
+-- Comentarios para documentación
+COMMENT ON TABLE rate_limit_buckets IS 'Ventanas de rate limiting compartidas entre instancias';
+COMMENT ON COLUMN rate_limit_buckets.ventana_fin IS 'Fin de la ventana actual (ms epoch); al vencer se recargan los tokens';
@@ -0,0 +1,26 @@
+-- Migración: Eventos de auditoría de seguridad
+-- Descripción: Usada solo con app.audit.jdbc.enabled=true. AuditoriaPipeline escribe los eventos
+-- (logins, registros, bloqueos, rate limits, actividad sospechosa) en lotes desde su propio hilo.
+-- JdbcAuditoriaDestino aplica esta migración al iniciar
+
+CREATE TABLE IF NOT EXISTS auditoria_eventos (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tipo VARCHAR(40) NOT NULL,
+    fecha TIMESTAMP NOT NULL,
+    email VARCHAR(255),
+    ip VARCHAR(64),
+    endpoint VARCHAR(255),
+    identificador VARCHAR(255),
+    detalle VARCHAR(500),
+    intentos INTEGER,
+    correlation_id VARCHAR(100)
+);
+
+-- Índices para las consultas habituales: por fecha, por usuario y por IP
+CREATE INDEX IF NOT EXISTS idx_auditoria_eventos_fecha ON auditoria_eventos(fecha);
+CREATE INDEX IF NOT EXISTS idx_auditoria_eventos_email_fecha ON auditoria_eventos(email, fecha);
+CREATE INDEX IF NOT EXISTS idx_auditoria_eventos_ip_fecha ON auditoria_eventos(ip, fecha);
+
+-- Comentarios para documentación
+COMMENT ON TABLE auditoria_eventos IS 'Eventos de auditoría de seguridad (escritos en lotes por AuditoriaPipeline)';
+COMMENT ON COLUMN auditoria_eventos.detalle IS 'Motivo del fallo, tipo de rate limit o patrón sospechoso';
@@ -0,0 +1,37 @@
+-- Migración: Suma y cantidad de calificaciones mantenidas al escribir
+-- Descripción: Evita recorrer la tabla de calificaciones para calcular promedios. Las de cada
+-- partido están en la tabla partidos; las de sedes y creadores, en calificaciones_agregadas.
+-- Se actualizan al crear o eliminar una calificación (ver CalificacionesAgregadas) y se
+-- reconstruyen al iniciar la aplicación y diariamente (ver ScheduledTasks)
+
+-- Agregar columnas de suma y cantidad por partido
+ALTER TABLE partidos
+ADD COLUMN IF NOT EXISTS suma_calificaciones BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE partidos
+ADD COLUMN IF NOT EXISTS cantidad_calificaciones INTEGER DEFAULT 0 NOT NULL;
+
+-- Completar con las calificaciones existentes
+UPDATE partidos
+SET suma_calificaciones = (
+        SELECT COALESCE(SUM(c.puntuacion), 0) FROM calificaciones c WHERE c.partido_id = partidos.id
+    ),
+    cantidad_calificaciones = (
+        SELECT COUNT(*) FROM calificaciones c WHERE c.partido_id = partidos.id
+    );
+
+-- Suma y cantidad por sede (clave = ID de la sede) y por creador (clave = nombre)
+CREATE TABLE IF NOT EXISTS calificaciones_agregadas (
+    ambito VARCHAR(20) NOT NULL,
+    clave VARCHAR(100) NOT NULL,
+    suma BIGINT NOT NULL,
+    cantidad INTEGER NOT NULL,
+    PRIMARY KEY (ambito, clave)
+);
+
+-- Las filas de sedes y creadores las completa la reconstrucción al iniciar la aplicación
+
+-- Comentarios para documentación
+COMMENT ON COLUMN partidos.suma_calificaciones IS 'Suma de las puntuaciones del partido (agregado desnormalizado)';
+COMMENT ON COLUMN partidos.cantidad_calificaciones IS 'Cantidad de calificaciones del partido (agregado desnormalizado)';
+COMMENT ON TABLE calificaciones_agregadas IS 'Suma y cantidad de calificaciones por sede y por creador';
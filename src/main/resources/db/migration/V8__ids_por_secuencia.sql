@@ -0,0 +1,22 @@
+-- Migración: IDs por secuencia con optimizador pooled-lo
+-- Descripción: Con IDENTITY, Hibernate inserta cada fila apenas se guarda para leer su ID y no
+-- puede agrupar INSERT en lotes. Cada entidad pasa a tomar su ID de <tabla>_seq, de a bloques de
+-- 50 (INCREMENT BY debe coincidir con allocationSize). Funciona igual en PostgreSQL y H2.
+-- Las columnas id siguen siendo IDENTITY (GENERATED BY DEFAULT acepta el ID que envía Hibernate).
+-- Las secuencias empiezan en 1: SecuenciasIds las reinicia al iniciar la aplicación en
+-- MAX(id) + 1 de su tabla, así que los IDs existentes no se repiten
+
+CREATE SEQUENCE IF NOT EXISTS alertas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS calificaciones_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS categorias_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS equipos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lineas_partido_guardado_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lineas_partido_seleccionado_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lineas_reserva_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS participantes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS partidos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS partidos_guardados_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS partidos_seleccionados_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reservas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sedes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS usuarios_seq START WITH 1 INCREMENT BY 50;
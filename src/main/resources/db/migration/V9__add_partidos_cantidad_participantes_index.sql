@@ -0,0 +1,6 @@
+-- Migración: Índice sobre cantidad_participantes
+-- Descripción: Las estadísticas generales piden los partidos con más participantes
+-- (PartidoRepository.findMasPopulares) en lugar de mantener un contador por partido en memoria.
+-- Con el índice la base lee solo los primeros en orden descendente.
+
+CREATE INDEX IF NOT EXISTS idx_partidos_cantidad_participantes ON partidos(cantidad_participantes);
@@ -0,0 +1,117 @@
+package com.techlab.picadito.controller;
+
+import com.techlab.picadito.admin.AdminController;
+import com.techlab.picadito.admin.AdminService;
+import com.techlab.picadito.admin.ExportacionService;
+import com.techlab.picadito.calificacion.CalificacionService;
+import com.techlab.picadito.config.InputSanitizationFilter;
+import com.techlab.picadito.dto.AuthResponseDTO;
+import com.techlab.picadito.dto.LoginRequestDTO;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoPageAssembler;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.security.AuthService;
+import com.techlab.picadito.security.AuthenticationAuditService;
+import com.techlab.picadito.security.JwtService;
+import com.techlab.picadito.security.PasswordValidator;
+import com.techlab.picadito.security.RateLimitingService;
+import com.techlab.picadito.security.UserDetailsCache;
+import com.techlab.picadito.security.UserDetailsServiceImpl;
+import com.techlab.picadito.service.EstadisticasService;
+import com.techlab.picadito.service.ReporteService;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica que una contraseña con caracteres especiales cambiada por los endpoints de admin, con
+ * InputSanitizationFilter delante, llega intacta al hash y sirve para iniciar sesión
+ */
+class AdminCambioPasswordTest {
+
+    private static final String EMAIL = "ana@picadito.test";
+    private static final String PASSWORD = "Clave&1'2;3x";
+
+    private MockMvc mockMvc;
+    private AuthService authService;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setNombre("Ana");
+        usuario.setEmail(EMAIL);
+        usuario.setRol(Usuario.RolUsuario.CLIENTE);
+
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.save(any(Usuario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        AdminService adminService = new AdminService(mock(PartidoRepository.class), mock(PartidoPageAssembler.class),
+                usuarioRepository, passwordEncoder);
+        AdminController adminController = new AdminController(adminService, mock(EstadisticasService.class),
+                mock(ReporteService.class), mock(ExportacionService.class), mock(CalificacionService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(adminController)
+                .addFilters(new InputSanitizationFilter())
+                .build();
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(usuarioRepository,
+                new UserDetailsCache(new SimpleMeterRegistry(), 100, 300));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        RateLimitingService rateLimitingService = mock(RateLimitingService.class);
+        when(rateLimitingService.tryConsumeLoginAttempt(anyString())).thenReturn(true);
+        authService = new AuthService(usuarioRepository, passwordEncoder, mock(JwtService.class),
+                new ProviderManager(provider), userDetailsService, new PasswordValidator(),
+                rateLimitingService, mock(AuthenticationAuditService.class));
+    }
+
+    @Test
+    void cambiarPasswordUsuario_WithSpecialCharacters_ShouldAllowLogin() throws Exception {
+        mockMvc.perform(put("/api/admin/usuarios/1/cambiar-password").param("nuevaPassword", PASSWORD))
+                .andExpect(status().isOk());
+
+        assertLoginExitoso();
+    }
+
+    @Test
+    void cambiarPasswordUsuarioPorEmail_WithSpecialCharacters_ShouldAllowLogin() throws Exception {
+        mockMvc.perform(put("/api/admin/usuarios/cambiar-password")
+                        .param("email", EMAIL)
+                        .param("nuevaPassword", PASSWORD))
+                .andExpect(status().isOk());
+
+        assertLoginExitoso();
+    }
+
+    private void assertLoginExitoso() {
+        LoginRequestDTO login = new LoginRequestDTO();
+        login.setEmail(EMAIL);
+        login.setPassword(PASSWORD);
+
+        AuthResponseDTO respuesta = authService.login(login, "127.0.0.1");
+
+        assertEquals(EMAIL, respuesta.getEmail());
+        assertEquals("Login exitoso", respuesta.getMessage());
+    }
+}
@@ -5,6 +5,7 @@ import com.techlab.picadito.dto.PartidoResponseDTO;
 import com.techlab.picadito.dto.PartidosResponseDTO;
 import com.techlab.picadito.dto.ReporteDTO;
 import com.techlab.picadito.admin.AdminService;
+import com.techlab.picadito.admin.ExportacionService;
 import com.techlab.picadito.service.EstadisticasService;
 import com.techlab.picadito.service.ReporteService;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,6 +45,14 @@ class AdminControllerTest {
     @SuppressWarnings("removal")
     private ReporteService reporteService;
 
+    @MockBean
+    @SuppressWarnings("removal")
+    private ExportacionService exportacionService;
+
+    @MockBean
+    @SuppressWarnings("removal")
+    private com.techlab.picadito.calificacion.CalificacionService calificacionService;
+
     private EstadisticasDTO estadisticasDTO;
     private ReporteDTO reporteDTO;
 
@@ -1,6 +1,8 @@
 package com.techlab.picadito.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techlab.picadito.config.RespuestasSerializadas;
+import com.techlab.picadito.config.VersionesRecursos;
 import com.techlab.picadito.dto.CategoriaDTO;
 import com.techlab.picadito.dto.CategoriaResponseDTO;
 import com.techlab.picadito.dto.CategoriasResponseDTO;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -23,7 +26,10 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(com.techlab.picadito.categoria.CategoriaController.class)
+@WebMvcTest(value = com.techlab.picadito.categoria.CategoriaController.class,
+        // Las respuestas de los mocks cambian entre tests sin que cambie la versión de la colección
+        properties = "app.cache.respuestas.enabled=false")
+@Import({VersionesRecursos.class, RespuestasSerializadas.class})
 class CategoriaControllerTest {
 
     @Autowired
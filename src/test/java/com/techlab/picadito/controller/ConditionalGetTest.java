@@ -0,0 +1,200 @@
+package com.techlab.picadito.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techlab.picadito.config.RespuestasSerializadas;
+import com.techlab.picadito.config.RespuestasSerializadasConverter;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
+import com.techlab.picadito.dto.PageResponseDTO;
+import com.techlab.picadito.dto.PartidoResponseDTO;
+import com.techlab.picadito.dto.SedesResponseDTO;
+import com.techlab.picadito.partido.PartidoController;
+import com.techlab.picadito.partido.PartidoService;
+import com.techlab.picadito.sede.SedeController;
+import com.techlab.picadito.sede.SedeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ConditionalGetTest {
+
+    private PartidoService partidoService;
+    private SedeService sedeService;
+    private VersionesRecursos versionesRecursos;
+    private RespuestasSerializadas respuestasSerializadas;
+    private PartidoResponseDTO partido;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        partidoService = mock(PartidoService.class);
+        sedeService = mock(SedeService.class);
+        versionesRecursos = new VersionesRecursos();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        respuestasSerializadas = new RespuestasSerializadas(versionesRecursos, objectMapper, true, 1_000_000, 60);
+
+        PartidoController partidoController = new PartidoController();
+        ReflectionTestUtils.setField(partidoController, "partidoService", partidoService);
+        ReflectionTestUtils.setField(partidoController, "versionesRecursos", versionesRecursos);
+        ReflectionTestUtils.setField(partidoController, "respuestasSerializadas", respuestasSerializadas);
+        SedeController sedeController = new SedeController();
+        ReflectionTestUtils.setField(sedeController, "sedeService", sedeService);
+        ReflectionTestUtils.setField(sedeController, "versionesRecursos", versionesRecursos);
+        ReflectionTestUtils.setField(sedeController, "respuestasSerializadas", respuestasSerializadas);
+        mockMvc = MockMvcBuilders.standaloneSetup(partidoController, sedeController)
+                .setMessageConverters(new RespuestasSerializadasConverter(objectMapper))
+                .build();
+
+        partido = new PartidoResponseDTO();
+        partido.setId(7L);
+        partido.setTitulo("Fútbol 5");
+        partido.setVersion(3L);
+        when(partidoService.obtenerPartidoPorId(7L)).thenReturn(partido);
+        when(partidoService.obtenerPartidosDisponibles(any(Pageable.class)))
+                .thenReturn(PageResponseDTO.of(List.of(partido), 0, 20, 1));
+        when(sedeService.obtenerTodas()).thenReturn(new SedesResponseDTO(List.of()));
+    }
+
+    @Test
+    void obtenerPartidoPorId_WithCurrentEtag_ShouldReturn304WithoutQuerying() throws Exception {
+        String etag = mockMvc.perform(get("/api/partidos/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Fútbol 5"))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        assertTrue(etag.contains("-partido-7-3-"));
+
+        mockMvc.perform(get("/api/partidos/7").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        verify(partidoService, times(1)).obtenerPartidoPorId(7L);
+    }
+
+    @Test
+    void obtenerPartidoPorId_AfterModification_ShouldQueryAgain() throws Exception {
+        String etag = mockMvc.perform(get("/api/partidos/7"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        versionesRecursos.partidoModificado(7L);
+
+        String nuevo = mockMvc.perform(get("/api/partidos/7").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, nuevo);
+        verify(partidoService, times(2)).obtenerPartidoPorId(7L);
+    }
+
+    @Test
+    void obtenerPartidoPorId_WithEtagsDisabled_ShouldNotSendEtagNorReturn304() throws Exception {
+        VersionesRecursos sinEtags = new VersionesRecursos(false);
+        PartidoController partidoController = new PartidoController();
+        ReflectionTestUtils.setField(partidoController, "partidoService", partidoService);
+        ReflectionTestUtils.setField(partidoController, "versionesRecursos", sinEtags);
+        MockMvc sinEtagsMvc = MockMvcBuilders.standaloneSetup(partidoController).build();
+
+        for (int i = 0; i < 2; i++) {
+            sinEtagsMvc.perform(get("/api/partidos/7").header("If-None-Match", "*"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"));
+        }
+        assertNull(sinEtags.etag(Coleccion.PARTIDOS, 0));
+        verify(partidoService, times(2)).obtenerPartidoPorId(7L);
+    }
+
+    @Test
+    void registrarPartido_WhenCollectionChangedDuringQuery_ShouldNotStoreEtag() {
+        long versionAntes = versionesRecursos.getVersion(Coleccion.PARTIDOS);
+        versionesRecursos.partidoModificado(9L);
+
+        versionesRecursos.registrarPartido(7L, 3L, versionAntes);
+
+        assertNull(versionesRecursos.etagPartido(7L));
+    }
+
+    @Test
+    void obtenerPartidosDisponibles_ShouldValidateByCollectionVersionAndParameters() throws Exception {
+        String etag = mockMvc.perform(get("/api/partidos/disponibles").param("page", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/partidos/disponibles").param("page", "0").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/partidos/disponibles").param("page", "1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        verify(partidoService, times(2)).obtenerPartidosDisponibles(any(Pageable.class));
+
+        // Un cambio en una sede cambia también los partidos que la muestran
+        versionesRecursos.coleccionModificada(Coleccion.SEDES);
+        mockMvc.perform(get("/api/partidos/disponibles").param("page", "0").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void obtenerSedes_WithCurrentEtag_ShouldReturn304UntilASedeChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/sedes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/sedes").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(sedeService, times(1)).obtenerTodas();
+
+        versionesRecursos.coleccionModificada(Coleccion.SEDES);
+        mockMvc.perform(get("/api/sedes").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        verify(sedeService, times(2)).obtenerTodas();
+    }
+
+    @Test
+    void obtenerPartidosDisponibles_ShouldServeSerializedBytesUntilTheCollectionChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/partidos/disponibles").param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(jsonPath("$.content[0].titulo").value("Fútbol 5"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // El DTO guardado no se vuelve a serializar: se escriben los bytes de la primera respuesta
+        partido.setTitulo("Modificado después de serializar");
+
+        // Sin If-None-Match, con los parámetros escritos de otra forma: mismos bytes y ETag, sin consultar
+        mockMvc.perform(get("/api/partidos/disponibles").param("page", "0").param("direction", "ASC"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$.content[0].titulo").value("Fútbol 5"));
+        verify(partidoService, times(1)).obtenerPartidosDisponibles(any(Pageable.class));
+
+        versionesRecursos.partidoModificado(7L);
+        String nuevo = mockMvc.perform(get("/api/partidos/disponibles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, nuevo);
+        verify(partidoService, times(2)).obtenerPartidosDisponibles(any(Pageable.class));
+    }
+
+    @Test
+    void obtener_WhenCollectionChangesDuringQuery_ShouldNotStoreTheResponse() throws Exception {
+        when(sedeService.obtenerTodas()).thenAnswer(invocation -> {
+            versionesRecursos.coleccionModificada(Coleccion.SEDES);
+            return new SedesResponseDTO(List.of());
+        });
+
+        mockMvc.perform(get("/api/sedes")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/sedes")).andExpect(status().isOk());
+
+        verify(sedeService, times(2)).obtenerTodas();
+    }
+}
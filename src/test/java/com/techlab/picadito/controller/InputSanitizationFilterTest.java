@@ -0,0 +1,137 @@
+package com.techlab.picadito.controller;
+
+import com.techlab.picadito.config.InputSanitizationFilter;
+import com.techlab.picadito.config.SanitizadorEntrada;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputSanitizationFilterTest {
+
+    // Implementación anterior del filtro: referencia para verificar que el comportamiento no cambia
+    private static final Pattern SQL_INJECTION_PATTERN = Pattern.compile(
+        "(?i)(union|select|insert|update|delete|drop|create|alter|exec|execute|script|javascript|onerror|onload|xp_|sp_)"
+    );
+    private static final Pattern XSS_PATTERN = Pattern.compile(
+        "(?i)(<script|</script>|javascript:|onerror=|onload=|onclick=|onmouseover=|onfocus=|onblur=|eval\\(|expression\\()"
+    );
+
+    private static final List<String> CORPUS = List.of(
+        "", " ", "   ", "\t", "0", "20", "fechaHora,desc", "futbol 5 palermo", "2025-03-01T20:00:00",
+        "-34.6037", "-58.3816", "ana@picadito.test", "Núñez", "Ñandú & Cía", "São Paulo", "naïve café",
+        " con espacios ", "\tTab\n", "O'Higgins", "a;b", "a--b", "a - b", "a-b-c", "/* comentario */",
+        "a/b*c", "*/", "/*/", "x'p_", "s;p_", "xp_cmdshell", "XP_CMDSHELL", "sp_who", "Sp_Who",
+        "UNION SELECT", "uNiOn", "reunion", "Selección", "selector", "insertar", "Update", "deleted",
+        "dropdown", "created_at", "alterar", "EXECUTE", "exe c", "descripción", "onload", "OnError",
+        "javascript:alert(1)", "JaVaScRiPt:", "<script>alert(1)</script>", "<SCRIPT", "</script>",
+        "<b>negrita</b>", "a < b > c", "\"comillas\"", "&amp;", "onclick=hola", "onclick = hola",
+        "onmouseover=x", "onfocus=", "onblur=", "eval(1)", "eval (1)", "expression(x)", "expresion(x)",
+        "ondrop", "on load", "é", "emoji 😀", " nbsp ", "KKelvin",
+        "ſcript", "ſelect", "--'--", "-'-", "'';;", "/'*", "*'/", "x'x'p_", "ＳＥＬＥＣＴ"
+    );
+
+    @Test
+    void esPeligroso_ShouldMatchPreviousImplementationOnCorpus() {
+        for (String valor : CORPUS) {
+            assertMismoComportamiento(valor);
+        }
+    }
+
+    @Test
+    void esPeligroso_ShouldMatchPreviousImplementationOnRandomValues() {
+        String[] piezas = {"a", "B", "z", " ", "\t", "-", "'", ";", "/", "*", "_", "<", ">", "&", "\"", "=", "(",
+            "x", "p", "s", "á", "Ñ", "€", "union", "SeLeCt", "script", "on", "load", "error", "click", "eval",
+            "xp", "sp", "exec", "java", ":", " "};
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder valor = new StringBuilder();
+            int cantidad = random.nextInt(8);
+            for (int j = 0; j < cantidad; j++) {
+                valor.append(piezas[random.nextInt(piezas.length)]);
+            }
+            assertMismoComportamiento(valor.toString());
+        }
+    }
+
+    @Test
+    void doFilter_WithCleanParameters_ShouldPassOriginalRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/partidos");
+        request.addParameter("q", "futbol 5");
+        request.addParameter("page", "0");
+        MockFilterChain chain = new MockFilterChain();
+
+        new InputSanitizationFilter().doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void doFilter_WithSpecialCharacters_ShouldPassRawValuesToBinding() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sedes");
+        request.addParameter("nombre", " O'Higgins & Cía ");
+        MockFilterChain chain = new MockFilterChain();
+
+        new InputSanitizationFilter().doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+        assertEquals(" O'Higgins & Cía ", chain.getRequest().getParameter("nombre"));
+    }
+
+    @Test
+    void doFilter_WithCredentialMatchingPatterns_ShouldNotReject() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/admin/usuarios/cambiar-password");
+        request.addParameter("email", "ana@picadito.test");
+        request.addParameter("nuevaPassword", "Select&Drop';1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        new InputSanitizationFilter().doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("Select&Drop';1", chain.getRequest().getParameter("nuevaPassword"));
+    }
+
+    @Test
+    void doFilter_WithDangerousParameter_ShouldRejectWith400() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/partidos");
+        request.addParameter("q", "1 UNION SELECT password");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        new InputSanitizationFilter().doFilter(request, response, chain);
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("patrones no permitidos"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_WithDangerousPathInfo_ShouldRejectWith400() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/partidos");
+        request.setPathInfo("/<script>");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new InputSanitizationFilter().doFilter(request, response, new MockFilterChain());
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("La URL contiene"));
+    }
+
+    private static void assertMismoComportamiento(String valor) {
+        assertEquals(contienePatronAntes(valor), SanitizadorEntrada.esPeligroso(valor), () -> "Detección distinta para: " + valor);
+    }
+
+    private static boolean contienePatronAntes(String input) {
+        if (input == null || input.trim().isEmpty()) {
+            return false;
+        }
+        return SQL_INJECTION_PATTERN.matcher(input).find() || XSS_PATTERN.matcher(input).find();
+    }
+}
@@ -0,0 +1,115 @@
+package com.techlab.picadito.controller;
+
+import com.techlab.picadito.config.RequestProfile;
+import com.techlab.picadito.config.RequestProfile.ClaseRuta;
+import com.techlab.picadito.config.RequestProfileFilter;
+import com.techlab.picadito.config.TablaRutas;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestProfileFilterTest {
+
+    @Test
+    void clasificar_ShouldUseLongestMatchingPrefix() {
+        TablaRutas<String> tabla = new TablaRutas<>(Map.of(
+            "/api", "api",
+            "/api/auth", "auth",
+            "/api/auth/login", "login"
+        ), "otra");
+
+        assertEquals("login", tabla.clasificar("/api/auth/login"));
+        assertEquals("login", tabla.clasificar("/api/auth/login/extra"));
+        assertEquals("auth", tabla.clasificar("/api/auth/log"));
+        assertEquals("api", tabla.clasificar("/api/partidos"));
+        assertEquals("otra", tabla.clasificar("/ap"));
+        assertEquals("otra", tabla.clasificar(""));
+    }
+
+    @Test
+    void de_ShouldClassifyRoutesLikePreviousStartsWithChecks() {
+        Map<String, ClaseRuta> esperadas = Map.ofEntries(
+            Map.entry("/api/auth/login", ClaseRuta.LOGIN),
+            Map.entry("/api/auth/register", ClaseRuta.REGISTRO),
+            Map.entry("/api/auth/refresh", ClaseRuta.AUTH),
+            Map.entry("/api/admin/usuarios", ClaseRuta.ADMIN),
+            Map.entry("/actuator/health", ClaseRuta.INFRAESTRUCTURA),
+            Map.entry("/swagger-ui/index.html", ClaseRuta.INFRAESTRUCTURA),
+            Map.entry("/v3/api-docs", ClaseRuta.INFRAESTRUCTURA),
+            Map.entry("/api/partidos/3", ClaseRuta.CATALOGO),
+            Map.entry("/api/partidos-guardados", ClaseRuta.CATALOGO),
+            Map.entry("/api/categorias", ClaseRuta.CATALOGO),
+            Map.entry("/api/sedes", ClaseRuta.CATALOGO),
+            Map.entry("/api/alertas", ClaseRuta.OTRA),
+            Map.entry("/", ClaseRuta.OTRA)
+        );
+
+        esperadas.forEach((path, clase) ->
+            assertEquals(clase, RequestProfile.de(new MockHttpServletRequest("GET", path)).clase(), path));
+    }
+
+    @Test
+    void de_ShouldResolveClientIpFromProxyHeaders() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/partidos");
+        request.setRemoteAddr("10.0.0.1");
+        assertEquals("10.0.0.1", RequestProfile.de(request).ipCliente());
+
+        request.addHeader("X-Real-IP", "172.16.0.9");
+        assertEquals("172.16.0.9", RequestProfile.de(request).ipCliente());
+
+        request.addHeader("X-Forwarded-For", " 203.0.113.7 , 10.0.0.2, 10.0.0.3");
+        assertEquals("203.0.113.7", RequestProfile.de(request).ipCliente());
+    }
+
+    @Test
+    void doFilter_ShouldStoreProfileOnceAndPropagateCorrelationId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/auth/login");
+        request.addHeader("X-Correlation-ID", "abc-123");
+        request.addHeader("X-Forwarded-For", "198.51.100.4");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> mdcDuranteRequest = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                mdcDuranteRequest.set(MDC.get("correlationId"));
+            }
+        };
+
+        new RequestProfileFilter().doFilter(request, response, chain);
+
+        RequestProfile perfil = (RequestProfile) request.getAttribute(RequestProfile.ATRIBUTO);
+        assertNotNull(perfil);
+        assertSame(perfil, RequestProfile.de(request));
+        assertEquals(ClaseRuta.LOGIN, perfil.clase());
+        assertEquals("198.51.100.4", perfil.ipCliente());
+        assertEquals("abc-123", perfil.correlationId());
+        assertTrue(perfil.esPreflight());
+        assertEquals("abc-123", response.getHeader("X-Correlation-ID"));
+        assertEquals("abc-123", mdcDuranteRequest.get());
+        assertNull(MDC.get("correlationId"));
+    }
+
+    @Test
+    void doFilter_WithoutCorrelationHeader_ShouldGenerateOne() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sedes");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestProfileFilter().doFilter(request, response, new MockFilterChain());
+
+        String generado = response.getHeader("X-Correlation-ID");
+        assertNotNull(generado);
+        assertFalse(generado.isEmpty());
+        assertEquals(generado, RequestProfile.de(request).correlationId());
+        assertFalse(RequestProfile.de(request).esPreflight());
+        assertNull(MDC.get("correlationId"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.techlab.picadito.integration;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.techlab.picadito.categoria.CategoriaRepository;
+import com.techlab.picadito.categoria.CategoriaService;
+import com.techlab.picadito.config.CacheConfig;
+import com.techlab.picadito.dto.CategoriaDTO;
+import com.techlab.picadito.dto.CategoriasResponseDTO;
+import com.techlab.picadito.model.Categoria;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la región de cache de categorías: aciertos registrados en las estadísticas, carga de
+ * los fallos con el loader de la región, recarga anticipada y rechazo de regiones no declaradas.
+ */
+@DataJpaTest
+@Import({CacheConfig.class, CategoriaService.class, CacheCategoriasTest.Cacheo.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheCategoriasTest {
+
+    @TestConfiguration
+    @EnableCaching
+    static class Cacheo {
+    }
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.getCache(CacheConfig.CACHE_CATEGORIAS).clear();
+        categoriaRepository.deleteAll();
+    }
+
+    @Test
+    void obtenerTodas_ShouldLoadOnceAndRecordStats() {
+        categoriaRepository.save(crearCategoria("Fútbol 5"));
+        CacheStats antes = nativa().stats();
+
+        assertEquals(1, categoriaService.obtenerTodas().getTotal());
+        assertEquals(1, categoriaService.obtenerTodas().getTotal());
+
+        CacheStats stats = nativa().stats().minus(antes);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.loadSuccessCount());
+        assertTrue(stats.totalLoadTime() > 0);
+    }
+
+    @Test
+    void crear_ShouldEvictTheCachedList() {
+        categoriaRepository.save(crearCategoria("Fútbol 5"));
+        assertEquals(1, categoriaService.obtenerTodas().getTotal());
+
+        CategoriaDTO nueva = new CategoriaDTO();
+        nueva.setNombre("Fútbol 11");
+        categoriaService.crear(nueva);
+
+        assertEquals(2, categoriaService.obtenerTodas().getTotal());
+    }
+
+    @Test
+    void refresh_ShouldReloadFromTheRepository() throws InterruptedException {
+        Categoria futbol5 = categoriaRepository.save(crearCategoria("Fútbol 5"));
+        assertEquals(1, categoriaService.obtenerTodas().getTotal());
+        assertEquals("Fútbol 5", categoriaService.obtenerPorId(futbol5.getId()).getNombre());
+
+        // Cambios que no pasan por el servicio: solo la recarga los trae
+        categoriaRepository.save(crearCategoria("Fútbol 11"));
+        categoriaRepository.deleteById(futbol5.getId());
+        nativa().refreshAll(nativa().asMap().keySet()).join();
+        // La cache guarda el valor recargado después de completar el future
+        esperarRecarga(() -> !nativa().asMap().containsKey(futbol5.getId())
+                && nativa().asMap().get("all") instanceof CategoriasResponseDTO todas
+                && todas.getCategorias().stream().noneMatch(c -> c.getId().equals(futbol5.getId())));
+
+        CategoriasResponseDTO todas = categoriaService.obtenerTodas();
+        assertEquals(1, todas.getTotal());
+        assertEquals("Fútbol 11", todas.getCategorias().get(0).getNombre());
+        // La categoría borrada se descarta en vez de quedar con el valor anterior
+        assertFalse(nativa().asMap().containsKey(futbol5.getId()));
+    }
+
+    @Test
+    void region_ShouldUseConfiguredPolicies() {
+        LoadingCache<Object, Object> cache = nativa();
+
+        assertEquals(Duration.ofMinutes(5), cache.policy().refreshAfterWrite().orElseThrow().getRefreshesAfter());
+        assertEquals(Duration.ofMinutes(10), cache.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertEquals(500, cache.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(cache.policy().isRecordingStats());
+        assertNull(cacheManager.getCache("no-declarada"));
+    }
+
+    private void esperarRecarga(BooleanSupplier recargada) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!recargada.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private LoadingCache<Object, Object> nativa() {
+        return (LoadingCache<Object, Object>) cacheManager.getCache(CacheConfig.CACHE_CATEGORIAS).getNativeCache();
+    }
+
+    private Categoria crearCategoria(String nombre) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        return categoria;
+    }
+}
@@ -0,0 +1,171 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.categoria.CategoriaRepository;
+import com.techlab.picadito.config.CacheSegundoNivelConfig;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.sede.SedeRepository;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 que sedes, categorías y usuarios (por id y por email) se leen de la cache de
+ * segundo nivel sin consultar la base, y que una modificación se ve en la lectura siguiente
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CacheSegundoNivelConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterBinder cacheSegundoNivelMetricas;
+
+    private Statistics statistics;
+    private TransactionTemplate transaccion;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sedeRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromCacheAfterFirstLoad() {
+        Sede sede = crearSede("Sede Norte");
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Fútbol 5");
+        categoria = categoriaRepository.save(categoria);
+        sedeRepository.findById(sede.getId());
+        categoriaRepository.findById(categoria.getId());
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Sede Norte", sedeRepository.findById(sede.getId()).orElseThrow().getNombre());
+            assertEquals("Fútbol 5", categoriaRepository.findById(categoria.getId()).orElseThrow().getNombre());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(6, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findById_AfterUpdate_ShouldReturnNewState() {
+        Sede sede = crearSede("Sede Norte");
+        sedeRepository.findById(sede.getId());
+
+        transaccion.executeWithoutResult(status -> {
+            Sede cargada = sedeRepository.findById(sede.getId()).orElseThrow();
+            cargada.setNombre("Sede Sur");
+        });
+
+        statistics.clear();
+        assertEquals("Sede Sur", sedeRepository.findById(sede.getId()).orElseThrow().getNombre());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByEmail_ShouldResolveNaturalIdFromCache() {
+        Usuario usuario = crearUsuario("ana@picadito.test");
+        usuarioRepository.findByEmail("ana@picadito.test");
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(usuario.getId(), usuarioRepository.findByEmail("ana@picadito.test").orElseThrow().getId());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(usuarioRepository.findByEmail("otro@picadito.test").isEmpty());
+
+        transaccion.executeWithoutResult(status -> {
+            Usuario cargado = usuarioRepository.findByEmail("ana@picadito.test").orElseThrow();
+            cargado.setIntentosFallidos(3);
+        });
+        assertEquals(3, usuarioRepository.findByEmail("ana@picadito.test").orElseThrow().getIntentosFallidos());
+    }
+
+    @Test
+    void reconciliarCantidadParticipantes_ShouldKeepOtherRegions() {
+        Sede sede = crearSede("Sede Norte");
+        sedeRepository.findById(sede.getId());
+
+        transaccion.executeWithoutResult(status -> partidoRepository.reconciliarCantidadParticipantes());
+
+        statistics.clear();
+        sedeRepository.findById(sede.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void metricas_ShouldPublishHitsPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheSegundoNivelMetricas.bindTo(registry);
+        Sede sede = crearSede("Sede Norte");
+
+        sedeRepository.findById(sede.getId());
+        sedeRepository.findById(sede.getId());
+
+        double aciertos = registry.get("cache.gets")
+                .tag("cache", CacheSegundoNivelConfig.REGION_SEDES)
+                .tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(aciertos >= 2);
+    }
+
+    private Sede crearSede(String nombre) {
+        Sede sede = new Sede();
+        sede.setNombre(nombre);
+        sede.setDireccion("Calle 1");
+        return sedeRepository.save(sede);
+    }
+
+    private Usuario crearUsuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setEmail(email);
+        usuario.setPassword("hash");
+        usuario.setRol(Usuario.RolUsuario.CLIENTE);
+        return usuarioRepository.save(usuario);
+    }
+}
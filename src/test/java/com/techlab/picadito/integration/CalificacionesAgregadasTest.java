@@ -0,0 +1,214 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.calificacion.CalificacionAgregadaRepository;
+import com.techlab.picadito.calificacion.CalificacionRepository;
+import com.techlab.picadito.calificacion.CalificacionesAgregadas;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
+import com.techlab.picadito.model.Calificacion;
+import com.techlab.picadito.model.CalificacionAgregada;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.sede.SedeRepository;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 que las sumas de calificaciones mantenidas al escribir coinciden con las
+ * recalculadas desde la tabla, y que reconstruir() corrige las que se desviaron.
+ */
+@DataJpaTest
+@Import({CalificacionesAgregadas.class, VersionesRecursos.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CalificacionesAgregadasTest {
+
+    @Autowired
+    private CalificacionesAgregadas calificacionesAgregadas;
+
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+
+    @Autowired
+    private CalificacionAgregadaRepository calificacionAgregadaRepository;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    @BeforeEach
+    void setUp() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        calificacionRepository.deleteAll();
+        calificacionAgregadaRepository.deleteAll();
+        partidoRepository.deleteAll();
+        sedeRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    void sumarYRestar_ShouldKeepAveragesByPartidoSedeAndCreador() {
+        Sede sede = sedeRepository.save(crearSede());
+        Partido conSede = partidoRepository.save(crearPartido(sede, "Ana"));
+        Partido sinSede = partidoRepository.save(crearPartido(null, "Ana"));
+        Usuario beto = usuarioRepository.save(crearUsuario("beto"));
+        Usuario caro = usuarioRepository.save(crearUsuario("caro"));
+
+        calificar(beto, conSede, 5);
+        Calificacion eliminada = calificar(caro, conSede, 2);
+        calificar(beto, sinSede, 3);
+
+        assertEquals(3.5, calificacionesAgregadas.promedioPorPartido(conSede.getId()));
+        assertEquals(3.5, calificacionesAgregadas.promedioPorSede(sede.getId()));
+        assertEquals(10.0 / 3, calificacionesAgregadas.promedioPorCreador("Ana"), 1e-9);
+
+        transaccion.executeWithoutResult(status -> {
+            calificacionRepository.deleteById(eliminada.getId());
+            calificacionesAgregadas.restar(partidoRepository.findById(conSede.getId()).orElseThrow(), 2);
+        });
+
+        assertEquals(5.0, calificacionesAgregadas.promedioPorPartido(conSede.getId()));
+        assertEquals(5.0, calificacionesAgregadas.promedioPorSede(sede.getId()));
+        assertEquals(4.0, calificacionesAgregadas.promedioPorCreador("Ana"));
+        assertNull(calificacionesAgregadas.promedioPorCreador("Nadie"));
+        assertEquals(List.of(), calificacionesAgregadas.verificar());
+    }
+
+    @Test
+    void partidoCambioDeSede_ShouldMoveItsRatings() {
+        Sede origen = sedeRepository.save(crearSede());
+        Sede destino = sedeRepository.save(crearSede());
+        Partido partido = partidoRepository.save(crearPartido(origen, "Ana"));
+        calificar(usuarioRepository.save(crearUsuario("beto")), partido, 4);
+
+        transaccion.executeWithoutResult(status -> {
+            Partido cargado = partidoRepository.findById(partido.getId()).orElseThrow();
+            cargado.setSede(destino);
+            calificacionesAgregadas.partidoCambioDeSede(cargado, origen.getId(), destino.getId());
+        });
+
+        assertNull(calificacionesAgregadas.promedioPorSede(origen.getId()));
+        assertEquals(4.0, calificacionesAgregadas.promedioPorSede(destino.getId()));
+        assertEquals(List.of(), calificacionesAgregadas.verificar());
+    }
+
+    @Test
+    void reconstruir_ShouldFixDriftedAggregates() {
+        Sede sede = sedeRepository.save(crearSede());
+        Partido partido = partidoRepository.save(crearPartido(sede, "Ana"));
+        calificar(usuarioRepository.save(crearUsuario("beto")), partido, 4);
+        // Calificación insertada sin pasar por los agregados (por ejemplo, una carga manual)
+        Calificacion manual = crearCalificacion(usuarioRepository.save(crearUsuario("caro")), partido, 2);
+        calificacionRepository.save(manual);
+
+        List<String> diferencias = calificacionesAgregadas.verificar();
+        assertEquals(3, diferencias.size());
+        assertTrue(diferencias.contains("partido[" + partido.getId() + "]: 4/1 != 6/2"));
+        assertTrue(diferencias.contains("sede[" + sede.getId() + "]: 4/1 != 6/2"));
+        assertTrue(diferencias.contains("creador[Ana]: 4/1 != 6/2"));
+        assertEquals(4.0, calificacionesAgregadas.promedioPorPartido(partido.getId()));
+        long versionAntes = versionesRecursos.getVersion(Coleccion.PARTIDOS);
+
+        assertEquals(diferencias.size(), calificacionesAgregadas.reconstruir().size());
+
+        // El promedio del partido cambió: los ETags de partidos ya no valen
+        assertTrue(versionesRecursos.getVersion(Coleccion.PARTIDOS) > versionAntes);
+
+        assertEquals(List.of(), calificacionesAgregadas.verificar());
+        assertEquals(3.0, calificacionesAgregadas.promedioPorPartido(partido.getId()));
+        assertEquals(3.0, calificacionesAgregadas.promedioPorSede(sede.getId()));
+        assertEquals(3.0, calificacionesAgregadas.promedioPorCreador("Ana"));
+    }
+
+    @Test
+    void reconstruir_ShouldCreateMissingRows() {
+        Partido partido = partidoRepository.save(crearPartido(null, "Ana"));
+        calificar(usuarioRepository.save(crearUsuario("beto")), partido, 5);
+        calificacionAgregadaRepository.deleteAll();
+        long versionAntes = versionesRecursos.getVersion(Coleccion.PARTIDOS);
+
+        assertEquals(List.of("creador[Ana]: 0/0 != 5/1"), calificacionesAgregadas.reconstruir());
+        assertEquals(versionAntes, versionesRecursos.getVersion(Coleccion.PARTIDOS));
+
+        CalificacionAgregada agregada = calificacionAgregadaRepository
+                .findById(CalificacionAgregada.Clave.creador("Ana"))
+                .orElseThrow();
+        assertEquals(5L, agregada.getSuma());
+        assertEquals(1, agregada.getCantidad());
+    }
+
+    private Calificacion calificar(Usuario usuario, Partido partido, int puntuacion) {
+        return transaccion.execute(status -> {
+            Calificacion calificacion = calificacionRepository.save(crearCalificacion(usuario, partido, puntuacion));
+            calificacionesAgregadas.sumar(partido, puntuacion);
+            return calificacion;
+        });
+    }
+
+    private Calificacion crearCalificacion(Usuario usuario, Partido partido, int puntuacion) {
+        Calificacion calificacion = new Calificacion();
+        calificacion.setUsuario(usuario);
+        calificacion.setPartido(partidoRepository.getReferenceById(partido.getId()));
+        calificacion.setPuntuacion(puntuacion);
+        return calificacion;
+    }
+
+    private Sede crearSede() {
+        Sede sede = new Sede();
+        sede.setNombre("Sede Centro");
+        sede.setDireccion("Av. Siempre Viva 123");
+        return sede;
+    }
+
+    private Usuario crearUsuario(String nombre) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(nombre);
+        usuario.setEmail(nombre + "@picadito.test");
+        usuario.setPassword("secreto");
+        return usuario;
+    }
+
+    private Partido crearPartido(Sede sede, String creadorNombre) {
+        Partido partido = new Partido();
+        partido.setTitulo("Partido");
+        partido.setFechaHora(LocalDateTime.now().minusDays(1));
+        partido.setCreadorNombre(creadorNombre);
+        partido.setMaxJugadores(10);
+        partido.setEstado(EstadoPartido.FINALIZADO);
+        partido.setSede(sede);
+        return partido;
+    }
+}
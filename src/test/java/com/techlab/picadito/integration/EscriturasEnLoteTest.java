@@ -0,0 +1,209 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.alerta.AlertaRepository;
+import com.techlab.picadito.alerta.AlertaService;
+import com.techlab.picadito.dto.LineaPartidoSeleccionadoDTO;
+import com.techlab.picadito.dto.PartidosSeleccionadosDTO;
+import com.techlab.picadito.equipo.EquipoRepository;
+import com.techlab.picadito.equipo.EquipoService;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Reserva;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.participante.ParticipanteRepository;
+import com.techlab.picadito.participante.ParticipanteService;
+import com.techlab.picadito.partido.CuposLedger;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.partido.PartidoService;
+import com.techlab.picadito.partidosseleccionados.PartidosSeleccionadosService;
+import com.techlab.picadito.reserva.ReservaRepository;
+import com.techlab.picadito.reserva.ReservaService;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import com.techlab.picadito.usuario.UsuarioService;
+import com.techlab.picadito.util.MapperUtil;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica, a través de los servicios, que el checkout y la generación de equipos escriben sus
+ * filas con un INSERT en lote por tabla, sin importar cuántas filas sean. Cada servicio corre con
+ * su propia transacción (sin la del test) para que el flush del commit ocurra de verdad.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.techlab.picadito.integration.EscriturasEnLoteTest$InsertsPorTabla")
+@Import({ReservaService.class, ParticipanteService.class, CuposLedger.class, AlertaService.class, EquipoService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EscriturasEnLoteTest {
+
+    private static final int PARTIDOS = 3;
+    private static final int CUPOS_POR_PARTIDO = 4;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private EquipoService equipoService;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private ParticipanteRepository participanteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    @Autowired
+    private EquipoRepository equipoRepository;
+
+    @MockBean
+    private PartidoService partidoService;
+
+    @MockBean
+    private UsuarioService usuarioService;
+
+    @MockBean
+    private PartidosSeleccionadosService partidosSeleccionadosService;
+
+    @MockBean
+    private MapperUtil mapperUtil;
+
+    private Usuario usuario;
+    private List<Partido> partidos;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setNombre("Comprador");
+        usuario.setEmail("comprador@test.com");
+        usuario.setPassword("hash");
+        usuario = usuarioRepository.save(usuario);
+
+        partidos = new ArrayList<>();
+        for (int i = 0; i < PARTIDOS; i++) {
+            Partido partido = new Partido();
+            partido.setTitulo("Partido " + i);
+            partido.setFechaHora(LocalDateTime.now().plusDays(3));
+            partido.setCreadorNombre("Creador");
+            partido.setMaxJugadores(20);
+            partido.setPrecio(1000.0);
+            partido.setEstado(EstadoPartido.DISPONIBLE);
+            partidos.add(partidoRepository.save(partido));
+        }
+
+        when(usuarioService.obtenerUsuarioEntity(any()))
+                .thenAnswer(invocacion -> usuarioRepository.findById(invocacion.getArgument(0)).orElseThrow());
+        when(partidoService.obtenerPartidoEntity(any()))
+                .thenAnswer(invocacion -> partidoRepository.findById(invocacion.getArgument(0)).orElseThrow());
+        InsertsPorTabla.reiniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        alertaRepository.deleteAll();
+        equipoRepository.deleteAll();
+        reservaRepository.deleteAll();
+        participanteRepository.deleteAll();
+        partidoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    void checkout_ShouldWriteEachTableInOneBatch() {
+        PartidosSeleccionadosDTO seleccion = new PartidosSeleccionadosDTO();
+        seleccion.setUsuarioId(usuario.getId());
+        List<LineaPartidoSeleccionadoDTO> items = new ArrayList<>();
+        for (Partido partido : partidos) {
+            LineaPartidoSeleccionadoDTO item = new LineaPartidoSeleccionadoDTO();
+            item.setPartidoId(partido.getId());
+            item.setCantidad(CUPOS_POR_PARTIDO);
+            items.add(item);
+        }
+        seleccion.setItems(items);
+        when(partidosSeleccionadosService.obtenerPartidosSeleccionadosPorUsuario(usuario.getId())).thenReturn(seleccion);
+
+        reservaService.crearDesdePartidosSeleccionados(usuario.getId());
+
+        List<Reserva> reservas = reservaRepository.findAll();
+        assertEquals(1, reservas.size());
+        assertEquals(Reserva.EstadoReserva.CONFIRMADO, reservas.get(0).getEstado());
+        assertEquals(PARTIDOS * CUPOS_POR_PARTIDO, participanteRepository.count());
+        assertEquals(PARTIDOS, alertaRepository.count());
+        for (Partido partido : partidos) {
+            assertEquals(CUPOS_POR_PARTIDO, partidoRepository.findById(partido.getId()).orElseThrow().getCantidadParticipantes());
+        }
+        assertEquals(Map.of("reservas", 1, "lineas_reserva", 1, "participantes", 1, "alertas", 1),
+                InsertsPorTabla.sentencias());
+    }
+
+    @Test
+    void generarEquipos_ShouldWriteTeamsAndMembersInOneBatchEach() {
+        Partido partido = partidos.get(0);
+        for (int i = 0; i < 10; i++) {
+            Participante participante = new Participante();
+            participante.setNombre("Jugador " + i);
+            participante.setPartido(partido);
+            participanteRepository.save(participante);
+        }
+        InsertsPorTabla.reiniciar();
+
+        equipoService.generarEquiposAutomaticos(partido.getId());
+
+        assertEquals(2, equipoRepository.count());
+        assertEquals(Map.of("equipos", 1, "equipo_participantes", 1), InsertsPorTabla.sentencias());
+    }
+
+    /**
+     * Cuenta las sentencias INSERT que Hibernate prepara por tabla. Un lote se prepara una sola
+     * vez, así que una fila por sentencia aparece como tantas sentencias como filas
+     */
+    public static class InsertsPorTabla implements StatementInspector {
+
+        private static final Map<String, AtomicInteger> SENTENCIAS = new ConcurrentHashMap<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("insert into ")) {
+                String tabla = sql.substring("insert into ".length()).split("[ (]", 2)[0];
+                SENTENCIAS.computeIfAbsent(tabla, t -> new AtomicInteger()).incrementAndGet();
+            }
+            return sql;
+        }
+
+        static void reiniciar() {
+            SENTENCIAS.clear();
+        }
+
+        static Map<String, Integer> sentencias() {
+            Map<String, Integer> sentencias = new java.util.HashMap<>();
+            SENTENCIAS.forEach((tabla, cantidad) -> sentencias.put(tabla, cantidad.get()));
+            return sentencias;
+        }
+    }
+}
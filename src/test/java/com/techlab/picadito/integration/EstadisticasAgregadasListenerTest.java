@@ -0,0 +1,224 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.categoria.CategoriaRepository;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.LineaReserva;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Reserva;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.participante.ParticipanteRepository;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.reserva.ReservaRepository;
+import com.techlab.picadito.sede.SedeRepository;
+import com.techlab.picadito.service.EstadisticasAgregadas;
+import com.techlab.picadito.service.EstadisticasAgregadasCarga;
+import com.techlab.picadito.service.EstadisticasAgregadasListener;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 que las estadísticas agregadas mantenidas con los eventos de persistencia
+ * coinciden con una reconstrucción completa desde la base.
+ */
+@DataJpaTest
+@Import({EstadisticasAgregadas.class, EstadisticasAgregadasCarga.class, EstadisticasAgregadasListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EstadisticasAgregadasListenerTest {
+
+    @Autowired
+    private EstadisticasAgregadas estadisticasAgregadas;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private ParticipanteRepository participanteRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    @BeforeEach
+    void setUp() {
+        transaccion = new TransactionTemplate(transactionManager);
+        estadisticasAgregadas.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservaRepository.deleteAll();
+        participanteRepository.deleteAll();
+        partidoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        sedeRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    void incrementalAggregates_ShouldMatchFullRebuild() {
+        Sede sede = sedeRepository.save(crearSede());
+        Categoria futbol5 = categoriaRepository.save(crearCategoria("Fútbol 5"));
+        Categoria nocturno = categoriaRepository.save(crearCategoria("Nocturno"));
+        Usuario ana = usuarioRepository.save(crearUsuario("ana"));
+        Usuario beto = usuarioRepository.save(crearUsuario("beto"));
+        Partido conSede = partidoRepository.save(crearPartido(sede, Set.of(futbol5, nocturno), 100.0));
+        Partido sinSede = partidoRepository.save(crearPartido(null, Set.of(futbol5), 50.0));
+
+        transaccion.executeWithoutResult(status -> {
+            partidoRepository.incrementarCantidadParticipantes(conSede.getId(), 3);
+            for (int i = 0; i < 3; i++) {
+                participanteRepository.save(crearParticipante(conSede, "Jugador " + i));
+            }
+        });
+        reservaRepository.save(crearReserva(ana, conSede, 2, Reserva.EstadoReserva.CONFIRMADO));
+        Reserva pendiente = reservaRepository.save(crearReserva(beto, sinSede, 1, Reserva.EstadoReserva.PENDIENTE));
+
+        // Cambio de estado sobre una reserva recargada (líneas sin cargar)
+        transaccion.executeWithoutResult(status -> {
+            Reserva reserva = reservaRepository.findById(pendiente.getId()).orElseThrow();
+            reserva.setEstado(Reserva.EstadoReserva.CONFIRMADO);
+        });
+        // Cambio de precio: revalúa las unidades ya confirmadas
+        transaccion.executeWithoutResult(status -> {
+            Partido partido = partidoRepository.findById(conSede.getId()).orElseThrow();
+            partido.setPrecio(120.0);
+        });
+        // Una transacción revertida no debe llegar a los agregados
+        assertThrows(IllegalStateException.class, () -> transaccion.executeWithoutResult(status -> {
+            reservaRepository.save(crearReserva(ana, sinSede, 4, Reserva.EstadoReserva.CONFIRMADO));
+            throw new IllegalStateException("rollback");
+        }));
+
+        EstadisticasAgregadas.Resumen resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(2, resumen.totalPartidos());
+        assertEquals(2, resumen.totalReservas());
+        assertEquals(2, resumen.totalUsuarios());
+        assertEquals(2 * 120.0 + 50.0, resumen.ingresosTotales(), 1e-9);
+        assertEquals(15.0, resumen.tasaOcupacionPromedio(), 1e-9);
+        assertEquals(Map.of(Reserva.EstadoReserva.CONFIRMADO, 2L), resumen.reservasPorEstado());
+        assertEquals(Map.of(sede.getId(), 1L), resumen.partidosPorSede());
+        assertEquals(Map.of(futbol5.getId(), 2L, nocturno.getId(), 1L), resumen.partidosPorCategoria());
+        assertEquals(List.of(conSede.getId()), partidoRepository.findMasPopulares(PageRequest.of(0, 10)).stream()
+                .map(Partido::getId).toList());
+        assertEquals(List.of(
+                new EstadisticasAgregadas.UsuarioActivo(ana.getId(), 1L, 240.0),
+                new EstadisticasAgregadas.UsuarioActivo(beto.getId(), 1L, 50.0)), resumen.usuariosActivos());
+
+        assertEquals(List.of(), estadisticasAgregadas.reconstruir());
+    }
+
+    @Test
+    void deletes_ShouldBeReflectedInAggregates() {
+        Usuario ana = usuarioRepository.save(crearUsuario("ana"));
+        Partido partido = partidoRepository.save(crearPartido(null, Set.of(), 80.0));
+        Participante participante = transaccion.execute(status -> {
+            partidoRepository.incrementarCantidadParticipantes(partido.getId(), 1);
+            return participanteRepository.save(crearParticipante(partido, "Jugador"));
+        });
+        Reserva reserva = reservaRepository.save(crearReserva(ana, partido, 1, Reserva.EstadoReserva.CONFIRMADO));
+
+        reservaRepository.deleteById(reserva.getId());
+        transaccion.executeWithoutResult(status -> {
+            participanteRepository.deleteById(participante.getId());
+            partidoRepository.decrementarCantidadParticipantes(partido.getId(), 1);
+        });
+
+        EstadisticasAgregadas.Resumen resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(0, resumen.totalReservas());
+        assertEquals(0.0, resumen.ingresosTotales(), 1e-9);
+        assertEquals(0.0, resumen.tasaOcupacionPromedio(), 1e-9);
+        assertTrue(partidoRepository.findMasPopulares(PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(), estadisticasAgregadas.reconstruir());
+
+        partidoRepository.deleteById(partido.getId());
+        assertEquals(0, estadisticasAgregadas.resumen(10).totalPartidos());
+        assertEquals(List.of(), estadisticasAgregadas.reconstruir());
+    }
+
+    private Sede crearSede() {
+        Sede sede = new Sede();
+        sede.setNombre("Sede Centro");
+        sede.setDireccion("Av. Siempre Viva 123");
+        return sede;
+    }
+
+    private Categoria crearCategoria(String nombre) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        return categoria;
+    }
+
+    private Usuario crearUsuario(String nombre) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(nombre);
+        usuario.setEmail(nombre + "@picadito.test");
+        usuario.setPassword("secreto");
+        return usuario;
+    }
+
+    private Partido crearPartido(Sede sede, Set<Categoria> categorias, Double precio) {
+        Partido partido = new Partido();
+        partido.setTitulo("Partido");
+        partido.setFechaHora(LocalDateTime.now().plusDays(1));
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(10);
+        partido.setEstado(EstadoPartido.DISPONIBLE);
+        partido.setSede(sede);
+        partido.setCategorias(new HashSet<>(categorias));
+        partido.setPrecio(precio);
+        return partido;
+    }
+
+    private Participante crearParticipante(Partido partido, String nombre) {
+        Participante participante = new Participante();
+        participante.setNombre(nombre);
+        participante.setPartido(partidoRepository.getReferenceById(partido.getId()));
+        return participante;
+    }
+
+    private Reserva crearReserva(Usuario usuario, Partido partido, int cantidad, Reserva.EstadoReserva estado) {
+        Reserva reserva = new Reserva();
+        reserva.setUsuario(usuario);
+        reserva.setEstado(estado);
+        LineaReserva linea = new LineaReserva();
+        linea.setReserva(reserva);
+        linea.setPartido(partido);
+        linea.setCantidad(cantidad);
+        reserva.getLineasReserva().add(linea);
+        return reserva;
+    }
+}
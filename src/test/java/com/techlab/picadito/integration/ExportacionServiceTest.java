@@ -0,0 +1,180 @@
+package com.techlab.picadito.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techlab.picadito.admin.ExportacionService;
+import com.techlab.picadito.admin.ExportacionService.FormatoExportacion;
+import com.techlab.picadito.admin.ExportacionService.TipoExportacion;
+import com.techlab.picadito.exception.ValidationException;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.LineaReserva;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Reserva;
+import com.techlab.picadito.model.Usuario;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ExportacionService.class)
+class ExportacionServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.now().minusDays(30).withNano(0);
+    private static final LocalDateTime FIN = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    private Usuario ana;
+    private Partido caro;
+
+    @BeforeEach
+    void setUp() {
+        ana = persistirUsuario("ana", "Ana");
+        Usuario beto = persistirUsuario("beto", "Beto, \"el 9\"");
+        caro = persistirPartido("Partido, nocturno", 100.0);
+        Partido barato = persistirPartido("Partido barato", 50.0);
+        Partido viejo = persistirPartido("Partido viejo", 10.0);
+        moverFuera("partidos", viejo.getId());
+
+        persistirReserva(ana, Reserva.EstadoReserva.CONFIRMADO, Map.of(caro, 2, barato, 1));
+        persistirReserva(beto, Reserva.EstadoReserva.PENDIENTE, Map.of());
+        Reserva vieja = persistirReserva(beto, Reserva.EstadoReserva.CONFIRMADO, Map.of(caro, 5));
+        moverFuera("reservas", vieja.getId());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportar_Reservas_Csv_ShouldWriteHeaderAndRowsOfPeriod() throws Exception {
+        List<String> lineas = exportarLineas(TipoExportacion.RESERVAS, FormatoExportacion.CSV);
+
+        assertEquals("id,usuarioId,usuarioEmail,estado,fechaCreacion,unidades,total", lineas.get(0));
+        assertEquals(3, lineas.size());
+        assertTrue(lineas.get(1).contains(",ana@picadito.test,CONFIRMADO,"));
+        assertTrue(lineas.get(1).endsWith(",3,250.0"));
+        // Reserva sin líneas: cero unidades y total cero
+        assertTrue(lineas.get(2).contains(",PENDIENTE,"));
+        assertTrue(lineas.get(2).endsWith(",0,0.0"));
+    }
+
+    @Test
+    void exportar_Partidos_Csv_ShouldQuoteSeparators() throws Exception {
+        List<String> lineas = exportarLineas(TipoExportacion.PARTIDOS, FormatoExportacion.CSV);
+
+        assertEquals(3, lineas.size());
+        assertTrue(lineas.get(1).startsWith(caro.getId() + ",\"Partido, nocturno\",DISPONIBLE,"));
+        // Partido sin sede: columna vacía
+        assertTrue(lineas.get(1).contains(",,10,0,100.0,Creador,"));
+    }
+
+    @Test
+    void exportar_Usuarios_Ndjson_ShouldWriteOneTypedObjectPerLineWithoutPassword() throws Exception {
+        List<String> lineas = exportarLineas(TipoExportacion.USUARIOS, FormatoExportacion.NDJSON);
+
+        assertEquals(2, lineas.size());
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode primero = mapper.readTree(lineas.get(0));
+        assertEquals(ana.getId().longValue(), primero.get("id").asLong());
+        assertTrue(primero.get("activo").isBoolean());
+        assertFalse(primero.has("password"));
+        assertEquals("Beto, \"el 9\"", mapper.readTree(lineas.get(1)).get("nombre").asText());
+    }
+
+    @Test
+    void exportar_ShouldNotRetainEntitiesInPersistenceContext() throws Exception {
+        long filas = exportacionService.exportar(TipoExportacion.PARTIDOS, FormatoExportacion.NDJSON,
+                INICIO, FIN, new ByteArrayOutputStream());
+
+        assertEquals(2, filas);
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    void exportar_WithInvertedPeriod_ShouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> exportacionService.exportar(TipoExportacion.USUARIOS,
+                FormatoExportacion.CSV, FIN, INICIO, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void desde_WithUnknownValue_ShouldThrowValidationException() {
+        assertEquals(TipoExportacion.RESERVAS, TipoExportacion.desde("reservas"));
+        assertThrows(ValidationException.class, () -> TipoExportacion.desde("sedes"));
+        assertThrows(ValidationException.class, () -> FormatoExportacion.desde("xml"));
+    }
+
+    private List<String> exportarLineas(TipoExportacion tipo, FormatoExportacion formato) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportacionService.exportar(tipo, formato, INICIO, FIN, salida);
+        List<String> lineas = new ArrayList<>();
+        for (String linea : salida.toString(StandardCharsets.UTF_8).split("\r?\n")) {
+            if (!linea.isEmpty()) {
+                lineas.add(linea);
+            }
+        }
+        return lineas;
+    }
+
+    private Usuario persistirUsuario(String usuario, String nombre) {
+        Usuario nuevo = new Usuario();
+        nuevo.setNombre(nombre);
+        nuevo.setEmail(usuario + "@picadito.test");
+        nuevo.setPassword("secreto");
+        return entityManager.persist(nuevo);
+    }
+
+    private Partido persistirPartido(String titulo, Double precio) {
+        Partido partido = new Partido();
+        partido.setTitulo(titulo);
+        partido.setFechaHora(LocalDateTime.now().plusDays(2));
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(10);
+        partido.setEstado(EstadoPartido.DISPONIBLE);
+        partido.setPrecio(precio);
+        return entityManager.persist(partido);
+    }
+
+    private Reserva persistirReserva(Usuario usuario, Reserva.EstadoReserva estado, Map<Partido, Integer> cantidades) {
+        Reserva reserva = new Reserva();
+        reserva.setUsuario(usuario);
+        reserva.setEstado(estado);
+        cantidades.forEach((partido, cantidad) -> {
+            LineaReserva linea = new LineaReserva();
+            linea.setReserva(reserva);
+            linea.setPartido(partido);
+            linea.setCantidad(cantidad);
+            reserva.getLineasReserva().add(linea);
+        });
+        return entityManager.persist(reserva);
+    }
+
+    /**
+     * La fecha de creación la asigna @PrePersist y no es actualizable desde la entidad
+     */
+    private void moverFuera(String tabla, Long id) {
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE " + tabla + " SET fecha_creacion = ? WHERE id = ?")
+                .setParameter(1, INICIO.minusDays(5))
+                .setParameter(2, id)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,73 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.security.EventoAuditoria;
+import com.techlab.picadito.security.JdbcAuditoriaDestino;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 la persistencia en lote de los eventos de auditoría
+ */
+@DataJpaTest
+class JdbcAuditoriaDestinoTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcAuditoriaDestino destino;
+
+    @BeforeEach
+    void setUp() {
+        destino = new JdbcAuditoriaDestino(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM auditoria_eventos");
+    }
+
+    @Test
+    void escribir_ShouldInsertWholeBatchWithNullableColumns() {
+        long instante = 1_700_000_000_000L;
+        destino.escribir(List.of(
+                new EventoAuditoria(EventoAuditoria.Tipo.LOGIN_FAILED, instante, "ana@picadito.test", "10.0.0.1",
+                        null, null, "Credenciales inválidas", null, "corr-1"),
+                new EventoAuditoria(EventoAuditoria.Tipo.ACCOUNT_LOCKED, instante + 1, "ana@picadito.test", "10.0.0.1",
+                        null, null, null, 5, "corr-1"),
+                new EventoAuditoria(EventoAuditoria.Tipo.RATE_LIMIT_EXCEEDED, instante + 2, null, null,
+                        "/api/auth/login", "10.0.0.2", "IP", null, null)));
+
+        List<Map<String, Object>> filas = jdbcTemplate.queryForList(
+                "SELECT tipo, fecha, email, endpoint, identificador, detalle, intentos FROM auditoria_eventos ORDER BY id");
+
+        assertEquals(3, filas.size());
+        assertEquals("LOGIN_FAILED", filas.get(0).get("TIPO"));
+        assertEquals(new Timestamp(instante), filas.get(0).get("FECHA"));
+        assertNull(filas.get(0).get("INTENTOS"));
+        assertEquals(5, ((Number) filas.get(1).get("INTENTOS")).intValue());
+        assertNull(filas.get(2).get("EMAIL"));
+        assertEquals("/api/auth/login", filas.get(2).get("ENDPOINT"));
+        assertEquals("10.0.0.2", filas.get(2).get("IDENTIFICADOR"));
+        assertEquals("IP", filas.get(2).get("DETALLE"));
+    }
+
+    @Test
+    void escribir_ShouldTruncateLongValues() {
+        String motivo = "x".repeat(800);
+        destino.escribir(List.of(new EventoAuditoria(EventoAuditoria.Tipo.REGISTRATION_FAILED,
+                System.currentTimeMillis(), "ana@picadito.test", "10.0.0.1", null, null, motivo, null, null)));
+
+        String guardado = jdbcTemplate.queryForObject("SELECT detalle FROM auditoria_eventos", String.class);
+        assertEquals(500, guardado.length());
+    }
+}
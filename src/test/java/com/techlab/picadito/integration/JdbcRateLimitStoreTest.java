@@ -0,0 +1,145 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.security.JdbcRateLimitBackend;
+import com.techlab.picadito.security.JdbcRateLimitStore;
+import com.techlab.picadito.security.RateLimitStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 el store de rate limiting compartido entre instancias
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcRateLimitStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RelojManual reloj;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcRateLimitBackend(jdbcTemplate, transactionManager);
+        reloj = new RelojManual();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets");
+    }
+
+    @Test
+    void tryConsume_ShouldShareLimitBetweenInstancesAndRefillAfterWindow() {
+        RateLimitStore instanciaA = crearStore("login", 2);
+        RateLimitStore instanciaB = crearStore("login", 2);
+
+        assertTrue(instanciaA.tryConsume("10.0.0.1"));
+        assertTrue(instanciaB.tryConsume("10.0.0.1"));
+        assertFalse(instanciaA.tryConsume("10.0.0.1"));
+        assertEquals(0, instanciaB.getAvailableTokens("10.0.0.1"));
+        // Otro tipo de límite con la misma clave es independiente
+        assertTrue(crearStore("registro", 2).tryConsume("10.0.0.1"));
+
+        reloj.avanzar(Duration.ofMinutes(1));
+
+        assertEquals(2, instanciaA.getAvailableTokens("10.0.0.1"));
+        assertTrue(instanciaB.tryConsume("10.0.0.1"));
+        assertEquals(1, instanciaA.getAvailableTokens("10.0.0.1"));
+    }
+
+    @Test
+    void tryConsume_InsideRolledBackTransaction_ShouldKeepCount() {
+        RateLimitStore store = crearStore("login", 3);
+
+        assertThrows(IllegalStateException.class, () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            store.tryConsume("10.0.0.1");
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(2, store.getAvailableTokens("10.0.0.1"));
+    }
+
+    @Test
+    void tryConsume_Concurrently_ShouldNotExceedCapacity() throws Exception {
+        RateLimitStore store = crearStore("publico", 10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                resultados.add(executor.submit(() -> store.tryConsume("10.0.0.1")));
+            }
+            int permitidos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                permitidos += resultado.get() ? 1 : 0;
+            }
+            assertEquals(10, permitidos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void limpiarInactivos_ShouldDeleteExpiredWindowsOnly() {
+        RateLimitStore store = crearStore("login", 5);
+        store.tryConsume("viejo");
+        reloj.avanzar(Duration.ofSeconds(40));
+        store.tryConsume("reciente");
+        reloj.avanzar(Duration.ofSeconds(30));
+
+        assertEquals(1, store.limpiarInactivos());
+        assertEquals(1, store.getCantidadBuckets());
+        assertEquals(1, store.getEviccionesPorInactividad());
+    }
+
+    private RateLimitStore crearStore(String tipo, long capacidad) {
+        return new JdbcRateLimitStore(jdbcTemplate, transactionManager, tipo, capacidad, Duration.ofMinutes(1), reloj);
+    }
+
+    private static final class RelojManual extends Clock {
+        private volatile Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.alerta.AlertaService;
+import com.techlab.picadito.calificacion.CalificacionesAgregadas;
+import com.techlab.picadito.categoria.CategoriaService;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.dto.BusquedaPartidoDTO;
+import com.techlab.picadito.dto.PageResponseDTO;
+import com.techlab.picadito.dto.PartidoResponseDTO;
+import com.techlab.picadito.exception.ValidationException;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.partido.CuposLedger;
+import com.techlab.picadito.partido.PartidoMapper;
+import com.techlab.picadito.partido.PartidoPageAssembler;
+import com.techlab.picadito.partido.PartidoSearchIndex;
+import com.techlab.picadito.partido.PartidoService;
+import com.techlab.picadito.sede.SedeGeoIndex;
+import com.techlab.picadito.service.EstadisticasAgregadas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 la búsqueda de partidos cercanos: filtro por radio, solo disponibles,
+ * orden por distancia de la sede (también junto con el filtro por categorías) y límite de sedes. También que la búsqueda por texto da lo mismo pasando
+ * los IDs del índice en un IN que en un parámetro array cuando el índice resuelve demasiados.
+ */
+@DataJpaTest
+@Import({PartidoService.class, PartidoPageAssembler.class, PartidoMapper.class, CuposLedger.class, PartidoSearchIndex.class,
+        SedeGeoIndex.class, VersionesRecursos.class})
+class PartidoBusquedaCercaniaTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PartidoService partidoService;
+
+    @Autowired
+    private SedeGeoIndex sedeGeoIndex;
+
+    @Autowired
+    private PartidoSearchIndex partidoSearchIndex;
+
+    @MockBean
+    private CategoriaService categoriaService;
+
+    @MockBean
+    private AlertaService alertaService;
+
+    @MockBean
+    private CalificacionesAgregadas calificacionesAgregadas;
+
+    @MockBean
+    private EstadisticasAgregadas estadisticasAgregadas;
+
+    private Categoria futbol5;
+    private Categoria futbol11;
+
+    @BeforeEach
+    void setUp() {
+        Sede palermo = crearSede("Palermo", "-34.5875,-58.4300");
+        Sede centro = crearSede("Centro", "-34.6090,-58.3840");
+        Sede laPlata = crearSede("La Plata", "-34.9205,-57.9536");
+        futbol5 = crearCategoria("Fútbol 5");
+        futbol11 = crearCategoria("Fútbol 11");
+
+        crearPartido("Palermo temprano", palermo, EstadoPartido.DISPONIBLE, 1, futbol5, futbol11);
+        crearPartido("Centro tarde", centro, EstadoPartido.DISPONIBLE, 3, futbol11);
+        crearPartido("Centro completo", centro, EstadoPartido.COMPLETO, 2);
+        crearPartido("La Plata", laPlata, EstadoPartido.DISPONIBLE, 1, futbol5);
+        entityManager.flush();
+        entityManager.clear();
+
+        sedeGeoIndex.reconstruir();
+    }
+
+    @Test
+    void buscarPartidos_NearMe_ShouldReturnAvailableMatchesOrderedByDistance() {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setLatitud(-34.6037);
+        busqueda.setLongitud(-58.3816);
+        busqueda.setRadioKm(10.0);
+
+        PageResponseDTO<PartidoResponseDTO> resultado =
+                partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20, Sort.by("fechaHora")));
+
+        List<String> titulos = resultado.getContent().stream().map(PartidoResponseDTO::getTitulo).toList();
+        assertEquals(List.of("Centro tarde", "Palermo temprano"), titulos);
+        assertEquals(2, resultado.getTotalElements());
+        assertTrue(resultado.getContent().get(0).getDistanciaKm() < resultado.getContent().get(1).getDistanciaKm());
+    }
+
+    @Test
+    void buscarPartidos_NearMe_WithCategorias_ShouldKeepDistanceOrderWithoutDuplicates() {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setLatitud(-34.6037);
+        busqueda.setLongitud(-58.3816);
+        busqueda.setRadioKm(10.0);
+        // Palermo temprano tiene las dos categorías: con un join aparecería dos veces
+        busqueda.setCategoriaIds(List.of(futbol5.getId(), futbol11.getId()));
+
+        PageResponseDTO<PartidoResponseDTO> resultado = partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20));
+
+        assertEquals(List.of("Centro tarde", "Palermo temprano"), titulos(resultado));
+        assertEquals(2, resultado.getTotalElements());
+
+        busqueda.setCategoriaIds(List.of(futbol5.getId()));
+        assertEquals(List.of("Palermo temprano"), titulos(partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20))));
+    }
+
+    @Test
+    void buscarPartidos_NearMe_WithMoreSedesThanTheCap_ShouldUseTheClosest() {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setLatitud(-34.6037);
+        busqueda.setLongitud(-58.3816);
+        busqueda.setRadioKm(10.0);
+        Object maximo = ReflectionTestUtils.getField(partidoService, "maxSedesCercania");
+        PageResponseDTO<PartidoResponseDTO> resultado;
+        try {
+            ReflectionTestUtils.setField(partidoService, "maxSedesCercania", 1);
+            resultado = partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20));
+        } finally {
+            ReflectionTestUtils.setField(partidoService, "maxSedesCercania", maximo);
+        }
+
+        assertEquals(List.of("Centro tarde"), titulos(resultado));
+    }
+
+    @Test
+    void buscarPartidos_NearMe_WithoutSedesInRadius_ShouldReturnEmptyPage() {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setLatitud(-31.4201);
+        busqueda.setLongitud(-64.1888);
+
+        PageResponseDTO<PartidoResponseDTO> resultado = partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20));
+
+        assertTrue(resultado.getContent().isEmpty());
+    }
+
+    @Test
+    void buscarPartidos_NearMe_WithOnlyLatitud_ShouldThrowValidationException() {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setLatitud(-34.6037);
+
+        assertThrows(ValidationException.class, () -> partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void buscarPartidos_WithMoreIndexedIdsThanTheCap_ShouldKeepTheIndexSemantics() {
+        crearPartido("Fútbol en el centro", null, EstadoPartido.DISPONIBLE, 1);
+        crearPartido("Centro: futbol mixto", null, EstadoPartido.DISPONIBLE, 2);
+        entityManager.flush();
+        partidoSearchIndex.reconstruir();
+        // Con LIKE '%futbol centro%' no coincidiría ninguno: el índice ignora acentos y combina las palabras
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setTitulo("futbol centro");
+
+        List<String> conIn = titulos(partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20, Sort.by("titulo"))));
+        Object maximo = ReflectionTestUtils.getField(partidoService, "maxIdsPorTexto");
+        List<String> conArray;
+        try {
+            // El contexto se reutiliza entre clases de test: se restaura el límite al terminar
+            ReflectionTestUtils.setField(partidoService, "maxIdsPorTexto", 1);
+            conArray = titulos(partidoService.buscarPartidos(busqueda, PageRequest.of(0, 20, Sort.by("titulo"))));
+        } finally {
+            ReflectionTestUtils.setField(partidoService, "maxIdsPorTexto", maximo);
+        }
+
+        assertEquals(List.of("Centro: futbol mixto", "Fútbol en el centro"), conIn);
+        assertEquals(conIn, conArray);
+    }
+
+    private List<String> titulos(PageResponseDTO<PartidoResponseDTO> resultado) {
+        return resultado.getContent().stream().map(PartidoResponseDTO::getTitulo).toList();
+    }
+
+    private Sede crearSede(String nombre, String coordenadas) {
+        Sede sede = new Sede();
+        sede.setNombre(nombre);
+        sede.setCoordenadas(coordenadas);
+        return entityManager.persist(sede);
+    }
+
+    private Categoria crearCategoria(String nombre) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        return entityManager.persist(categoria);
+    }
+
+    private void crearPartido(String titulo, Sede sede, EstadoPartido estado, int diasHastaPartido, Categoria... categorias) {
+        Partido partido = new Partido();
+        partido.setTitulo(titulo);
+        partido.setFechaHora(LocalDateTime.now().plusDays(diasHastaPartido));
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(10);
+        partido.setEstado(estado);
+        partido.setSede(sede);
+        partido.setCategorias(new HashSet<>(Set.of(categorias)));
+        entityManager.persist(partido);
+    }
+}
@@ -0,0 +1,125 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.partido.PartidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 las actualizaciones condicionales del contador de participantes.
+ */
+@DataJpaTest
+class PartidoCantidadParticipantesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    private Long partidoId;
+
+    @BeforeEach
+    void setUp() {
+        Partido partido = new Partido();
+        partido.setTitulo("Partido");
+        partido.setFechaHora(LocalDateTime.now().plusDays(1));
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(10);
+        partido.setEstado(EstadoPartido.DISPONIBLE);
+        partidoId = entityManager.persistAndFlush(partido).getId();
+        entityManager.clear();
+    }
+
+    @Test
+    void incrementar_WithinCapacity_ShouldUpdateCounter() {
+        assertEquals(1, partidoRepository.incrementarCantidadParticipantes(partidoId, 3));
+
+        Partido partido = recargar();
+        assertEquals(3, partido.getCantidadParticipantes());
+        assertEquals(EstadoPartido.DISPONIBLE, partido.getEstado());
+    }
+
+    @Test
+    void incrementar_ReachingCapacity_ShouldMarkCompleto() {
+        assertEquals(1, partidoRepository.incrementarCantidadParticipantes(partidoId, 10));
+
+        Partido partido = recargar();
+        assertEquals(10, partido.getCantidadParticipantes());
+        assertEquals(EstadoPartido.COMPLETO, partido.getEstado());
+    }
+
+    @Test
+    void incrementar_ExceedingCapacity_ShouldNotUpdate() {
+        partidoRepository.incrementarCantidadParticipantes(partidoId, 8);
+
+        assertEquals(0, partidoRepository.incrementarCantidadParticipantes(partidoId, 3));
+        assertEquals(8, recargar().getCantidadParticipantes());
+    }
+
+    @Test
+    void decrementar_FromCompleto_ShouldMarkDisponible() {
+        partidoRepository.incrementarCantidadParticipantes(partidoId, 10);
+
+        assertEquals(1, partidoRepository.decrementarCantidadParticipantes(partidoId, 1));
+
+        Partido partido = recargar();
+        assertEquals(9, partido.getCantidadParticipantes());
+        assertEquals(EstadoPartido.DISPONIBLE, partido.getEstado());
+    }
+
+    @Test
+    void guardarCopiaDesactualizada_ShouldFailInsteadOfOverwritingCounter() {
+        Partido partido = recargar();
+        partidoRepository.incrementarCantidadParticipantes(partidoId, 4);
+        partido.setTitulo("Nuevo título");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> partidoRepository.saveAndFlush(partido));
+    }
+
+    @Test
+    void incrementar_WithPartidoLoaded_ShouldNotLeaveStaleCopyInContext() {
+        Partido partido = recargar();
+        Long version = partido.getVersion();
+
+        partidoRepository.incrementarCantidadParticipantes(partidoId, 4);
+
+        // Sin el clear, find devolvería la misma instancia con el contador y la versión anteriores
+        Partido actual = partidoRepository.findById(partidoId).orElseThrow();
+        assertNotSame(partido, actual);
+        assertEquals(4, actual.getCantidadParticipantes());
+        assertEquals(version + 1, actual.getVersion());
+    }
+
+    @Test
+    void reconciliar_ShouldFixDriftedCounters() {
+        Partido partido = recargar();
+        for (int i = 0; i < 2; i++) {
+            Participante participante = new Participante();
+            participante.setNombre("Jugador " + i);
+            participante.setPartido(partido);
+            entityManager.persist(participante);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, partidoRepository.reconciliarCantidadParticipantes());
+        assertEquals(2, recargar().getCantidadParticipantes());
+        assertEquals(0, partidoRepository.reconciliarCantidadParticipantes());
+    }
+
+    private Partido recargar() {
+        entityManager.clear();
+        return entityManager.find(Partido.class, partidoId);
+    }
+}
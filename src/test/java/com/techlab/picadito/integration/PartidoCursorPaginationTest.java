@@ -0,0 +1,160 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.alerta.AlertaService;
+import com.techlab.picadito.calificacion.CalificacionesAgregadas;
+import com.techlab.picadito.categoria.CategoriaService;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.dto.CursorPageResponseDTO;
+import com.techlab.picadito.dto.PartidoResponseDTO;
+import com.techlab.picadito.exception.ValidationException;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.partido.CuposLedger;
+import com.techlab.picadito.partido.PartidoMapper;
+import com.techlab.picadito.partido.PartidoPageAssembler;
+import com.techlab.picadito.partido.PartidoSearchIndex;
+import com.techlab.picadito.partido.PartidoService;
+import com.techlab.picadito.sede.SedeGeoIndex;
+import com.techlab.picadito.service.EstadisticasAgregadas;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recorre los partidos con la paginación por cursor y verifica el orden, el desempate
+ * por id y que cada página se resuelva sin count(*).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PartidoService.class, PartidoPageAssembler.class, PartidoMapper.class, CuposLedger.class, PartidoSearchIndex.class,
+        SedeGeoIndex.class, VersionesRecursos.class})
+class PartidoCursorPaginationTest {
+
+    // 1 select de la ventana y 3 consultas agrupadas del ensamblador (sin sedes no las consulta)
+    private static final long SENTENCIAS_POR_PAGINA = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PartidoService partidoService;
+
+    @MockBean
+    private CategoriaService categoriaService;
+
+    @MockBean
+    private AlertaService alertaService;
+
+    @MockBean
+    private CalificacionesAgregadas calificacionesAgregadas;
+
+    @MockBean
+    private EstadisticasAgregadas estadisticasAgregadas;
+
+    private final List<Long> idsEnOrden = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 23; i++) {
+            Partido partido = new Partido();
+            partido.setTitulo("Partido " + i);
+            // De a tres partidos comparten la misma fecha para forzar el desempate por id
+            partido.setFechaHora(base.plusHours(i / 3));
+            partido.setCreadorNombre("Creador");
+            partido.setMaxJugadores(10);
+            partido.setEstado(i % 4 == 0 ? EstadoPartido.COMPLETO : EstadoPartido.DISPONIBLE);
+            idsEnOrden.add(entityManager.persist(partido).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void obtenerTodosLosPartidosPorCursor_ShouldWalkAllRowsInOrder() {
+        List<Long> recorridos = recorrer(Sort.Direction.ASC, false);
+
+        assertEquals(idsEnOrden, recorridos);
+    }
+
+    @Test
+    void obtenerTodosLosPartidosPorCursor_Descending_ShouldWalkAllRowsInReverseOrder() {
+        List<Long> recorridos = recorrer(Sort.Direction.DESC, false);
+
+        assertEquals(idsEnOrden.reversed(), recorridos);
+    }
+
+    @Test
+    void obtenerPartidosDisponiblesPorCursor_ShouldOnlyReturnDisponibles() {
+        List<Long> esperados = new ArrayList<>();
+        for (int i = 0; i < idsEnOrden.size(); i++) {
+            if (i % 4 != 0) {
+                esperados.add(idsEnOrden.get(i));
+            }
+        }
+
+        assertEquals(esperados, recorrer(Sort.Direction.ASC, true));
+    }
+
+    @Test
+    void obtenerTodosLosPartidosPorCursor_ShouldNotRunCountQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        CursorPageResponseDTO<PartidoResponseDTO> primera = partidoService.obtenerTodosLosPartidosPorCursor(null, 5, Sort.Direction.ASC);
+        entityManager.clear();
+        statistics.clear();
+
+        CursorPageResponseDTO<PartidoResponseDTO> segunda =
+                partidoService.obtenerTodosLosPartidosPorCursor(primera.getNextCursor(), 5, Sort.Direction.ASC);
+
+        assertEquals(5, segunda.getContent().size());
+        assertEquals(SENTENCIAS_POR_PAGINA, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void obtenerTodosLosPartidosPorCursor_WithHugeSize_ShouldCapThePageSize() {
+        CursorPageResponseDTO<PartidoResponseDTO> pagina =
+                partidoService.obtenerTodosLosPartidosPorCursor(null, Integer.MAX_VALUE, Sort.Direction.ASC);
+
+        assertEquals(100, pagina.getSize());
+        assertEquals(idsEnOrden.size(), pagina.getContent().size());
+        assertFalse(pagina.isHasNext());
+    }
+
+    @Test
+    void obtenerTodosLosPartidosPorCursor_WithInvalidCursor_ShouldThrowValidationException() {
+        assertThrows(ValidationException.class,
+                () -> partidoService.obtenerTodosLosPartidosPorCursor("no-es-un-cursor", 5, Sort.Direction.ASC));
+    }
+
+    private List<Long> recorrer(Sort.Direction direccion, boolean soloDisponibles) {
+        List<Long> recorridos = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponseDTO<PartidoResponseDTO> pagina = soloDisponibles
+                    ? partidoService.obtenerPartidosDisponiblesPorCursor(cursor, 4, direccion)
+                    : partidoService.obtenerTodosLosPartidosPorCursor(cursor, 4, direccion);
+            assertTrue(pagina.getContent().size() <= 4);
+            pagina.getContent().forEach(partido -> recorridos.add(partido.getId()));
+            assertEquals(pagina.isHasNext(), pagina.getNextCursor() != null);
+            cursor = pagina.getNextCursor();
+            entityManager.clear();
+        } while (cursor != null);
+        return recorridos;
+    }
+}
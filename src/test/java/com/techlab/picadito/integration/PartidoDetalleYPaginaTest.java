@@ -0,0 +1,150 @@
+package com.techlab.picadito.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techlab.picadito.alerta.AlertaService;
+import com.techlab.picadito.calificacion.CalificacionesAgregadas;
+import com.techlab.picadito.categoria.CategoriaService;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.dto.PartidoResponseDTO;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.Equipo;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.partido.CuposLedger;
+import com.techlab.picadito.partido.PartidoMapper;
+import com.techlab.picadito.partido.PartidoPageAssembler;
+import com.techlab.picadito.partido.PartidoSearchIndex;
+import com.techlab.picadito.partido.PartidoService;
+import com.techlab.picadito.sede.SedeGeoIndex;
+import com.techlab.picadito.service.EstadisticasAgregadas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que un partido se devuelve igual en una página (PartidoPageAssembler) que en el
+ * detalle (PartidoService), incluida la versión, que no se serializa.
+ */
+@DataJpaTest
+@Import({PartidoService.class, PartidoPageAssembler.class, PartidoMapper.class, CuposLedger.class, PartidoSearchIndex.class,
+        SedeGeoIndex.class, VersionesRecursos.class})
+class PartidoDetalleYPaginaTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PartidoService partidoService;
+
+    @MockBean
+    private CategoriaService categoriaService;
+
+    @MockBean
+    private AlertaService alertaService;
+
+    @MockBean
+    private CalificacionesAgregadas calificacionesAgregadas;
+
+    @MockBean
+    private EstadisticasAgregadas estadisticasAgregadas;
+
+    @BeforeEach
+    void setUp() {
+        Sede sede = new Sede();
+        sede.setNombre("Sede Centro");
+        sede.setDireccion("Av. Siempreviva 742");
+        entityManager.persist(sede);
+
+        Categoria futbol5 = crearCategoria("Fútbol 5");
+        Categoria futbol11 = crearCategoria("Fútbol 11");
+        Categoria mixto = crearCategoria("Mixto");
+
+        for (int i = 0; i < 3; i++) {
+            Partido partido = new Partido();
+            partido.setTitulo("Partido " + i);
+            partido.setFechaHora(LocalDateTime.now().plusDays(i + 1));
+            partido.setCreadorNombre("Creador");
+            partido.setMaxJugadores(10);
+            partido.setEstado(EstadoPartido.DISPONIBLE);
+            partido.setPrecio(1500.0);
+            partido.setSede(i < 2 ? sede : null);
+            partido.setCategorias(i == 0 ? Set.of(mixto, futbol5, futbol11) : Set.of(futbol11));
+            partido.setCantidadParticipantes(4);
+            partido.setSumaCalificaciones(9L);
+            partido.setCantidadCalificaciones(2);
+            entityManager.persist(partido);
+
+            List<Participante> participantes = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                Participante participante = new Participante();
+                participante.setNombre("Jugador " + i + "-" + j);
+                participante.setPartido(partido);
+                entityManager.persist(participante);
+                participantes.add(participante);
+            }
+
+            Equipo equipoA = new Equipo();
+            equipoA.setNombre("Equipo A");
+            equipoA.setPartido(partido);
+            equipoA.setParticipantes(new ArrayList<>(List.of(participantes.get(3), participantes.get(0))));
+            entityManager.persist(equipoA);
+            Equipo equipoB = new Equipo();
+            equipoB.setNombre("Equipo B");
+            equipoB.setPartido(partido);
+            equipoB.setParticipantes(new ArrayList<>(List.of(participantes.get(2), participantes.get(1))));
+            entityManager.persist(equipoB);
+        }
+        entityManager.flush();
+        // Una actualización para que la versión no sea la inicial
+        Partido primero = entityManager.getEntityManager()
+                .createQuery("SELECT p FROM Partido p WHERE p.titulo = 'Partido 0'", Partido.class)
+                .getSingleResult();
+        primero.setDescripcion("Con descripción");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagedAndSingleDtos_ForSamePartido_ShouldBeIdentical() throws Exception {
+        List<PartidoResponseDTO> pagina = partidoService
+                .obtenerTodosLosPartidos(PageRequest.of(0, 10, Sort.by("fechaHora")))
+                .getContent();
+        assertEquals(3, pagina.size());
+
+        for (PartidoResponseDTO dePagina : pagina) {
+            entityManager.clear();
+            PartidoResponseDTO detalle = partidoService.obtenerPartidoPorId(dePagina.getId());
+
+            assertEquals(objectMapper.writeValueAsString(detalle), objectMapper.writeValueAsString(dePagina));
+            assertNotNull(dePagina.getVersion());
+            assertEquals(detalle.getVersion(), dePagina.getVersion());
+        }
+        assertEquals(3, pagina.get(0).getCategorias().size());
+        assertEquals(2, pagina.get(0).getEquipos().size());
+        assertEquals(4, pagina.get(0).getParticipantes().size());
+    }
+
+    private Categoria crearCategoria(String nombre) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        entityManager.persist(categoria);
+        return categoria;
+    }
+}
@@ -0,0 +1,172 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.dto.PartidoResponseDTO;
+import com.techlab.picadito.model.Calificacion;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.Equipo;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoMapper;
+import com.techlab.picadito.partido.PartidoPageAssembler;
+import com.techlab.picadito.partido.PartidoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica con las estadísticas de Hibernate que armar una página de partidos
+ * usa una cantidad de sentencias que no depende del tamaño de la página.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PartidoPageAssembler.class, PartidoMapper.class})
+class PartidoPageAssemblerStatementCountTest {
+
+    // 1 select + 1 count de la página, y 4 consultas agrupadas del ensamblador
+    private static final long SENTENCIAS_POR_PAGINA = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private PartidoPageAssembler partidoPageAssembler;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Sede sede = new Sede();
+        sede.setNombre("Sede Centro");
+        entityManager.persist(sede);
+
+        Categoria futbol5 = crearCategoria("Fútbol 5");
+        Categoria futbol11 = crearCategoria("Fútbol 11");
+
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Usuario");
+        usuario.setEmail("usuario@test.com");
+        usuario.setPassword("hash");
+        entityManager.persist(usuario);
+
+        for (int i = 0; i < 25; i++) {
+            Partido partido = new Partido();
+            partido.setTitulo("Partido " + i);
+            partido.setFechaHora(LocalDateTime.now().plusDays(i + 1));
+            partido.setCreadorNombre("Creador");
+            partido.setMaxJugadores(10);
+            partido.setEstado(EstadoPartido.DISPONIBLE);
+            partido.setSede(sede);
+            partido.setCategorias(Set.of(futbol5, futbol11));
+            // Contador de los participantes que se persisten más abajo
+            partido.setCantidadParticipantes(4);
+            // Agregados de la calificación que se persiste más abajo
+            partido.setSumaCalificaciones(4L);
+            partido.setCantidadCalificaciones(1);
+            entityManager.persist(partido);
+
+            List<Participante> participantes = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                Participante participante = new Participante();
+                participante.setNombre("Jugador " + i + "-" + j);
+                participante.setPartido(partido);
+                entityManager.persist(participante);
+                participantes.add(participante);
+            }
+
+            Equipo equipo = new Equipo();
+            equipo.setNombre("Equipo A");
+            equipo.setPartido(partido);
+            equipo.setParticipantes(participantes.subList(0, 2));
+            entityManager.persist(equipo);
+
+            Calificacion calificacion = new Calificacion();
+            calificacion.setPuntuacion(4);
+            calificacion.setUsuario(usuario);
+            calificacion.setPartido(partido);
+            entityManager.persist(calificacion);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void ensamblar_ShouldUseConstantStatementsRegardlessOfPageSize() {
+        long sentenciasPaginaChica = contarSentenciasParaPagina(5);
+        entityManager.clear();
+        long sentenciasPaginaGrande = contarSentenciasParaPagina(20);
+
+        assertEquals(SENTENCIAS_POR_PAGINA, sentenciasPaginaChica);
+        assertEquals(SENTENCIAS_POR_PAGINA, sentenciasPaginaGrande);
+    }
+
+    @Test
+    void ensamblar_ShouldStitchAllRelationsInMemory() {
+        Page<Partido> pagina = partidoRepository.findAll(PageRequest.of(0, 20, Sort.by("fechaHora")));
+
+        List<PartidoResponseDTO> dtos = partidoPageAssembler.ensamblar(pagina.getContent());
+
+        assertEquals(20, dtos.size());
+        PartidoResponseDTO primero = dtos.get(0);
+        assertEquals("Partido 0", primero.getTitulo());
+        assertEquals(4, primero.getCantidadParticipantes());
+        assertEquals(4, primero.getParticipantes().size());
+        assertEquals(2, primero.getCategorias().size());
+        assertEquals(2, primero.getCategoriaIds().size());
+        assertNotNull(primero.getSede());
+        assertEquals("Sede Centro", primero.getSede().getNombre());
+        assertEquals(4.0, primero.getPromedioCalificacion());
+        assertEquals(1, primero.getEquipos().size());
+        assertEquals(2, primero.getEquipos().get(0).getParticipantes().size());
+    }
+
+    @Test
+    void ensamblar_WithEmptyList_ShouldNotQuery() {
+        statistics.clear();
+
+        List<PartidoResponseDTO> dtos = partidoPageAssembler.ensamblar(new ArrayList<>());
+
+        assertTrue(dtos.isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private long contarSentenciasParaPagina(int size) {
+        statistics.clear();
+        Page<Partido> pagina = partidoRepository.findAll(PageRequest.of(0, size, Sort.by("fechaHora")));
+        List<PartidoResponseDTO> dtos = partidoPageAssembler.ensamblar(pagina.getContent());
+        assertEquals(size, dtos.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Categoria crearCategoria(String nombre) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        entityManager.persist(categoria);
+        return categoria;
+    }
+}
@@ -0,0 +1,82 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.dto.BusquedaPartidoDTO;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.partido.PartidoSearchIndex;
+import com.techlab.picadito.partido.PartidoSearchIndexListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 que el índice de búsqueda se reconstruye desde la base y sigue
+ * los eventos de persistencia de Partido una vez confirmada la transacción.
+ */
+@DataJpaTest
+@Import({PartidoSearchIndex.class, PartidoSearchIndexListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PartidoSearchIndexListenerTest {
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private PartidoSearchIndex partidoSearchIndex;
+
+    @AfterEach
+    void tearDown() {
+        partidoRepository.deleteAll();
+    }
+
+    @Test
+    void reconstruir_ShouldLoadExistingPartidos() {
+        Partido partido = partidoRepository.save(crearPartido("Picadito en Núñez"));
+
+        partidoSearchIndex.reconstruir();
+
+        assertTrue(partidoSearchIndex.estaListo());
+        assertEquals(Set.of(partido.getId()), partidoSearchIndex.buscar(porTitulo("nunez")));
+    }
+
+    @Test
+    void lifecycleEvents_ShouldKeepIndexUpToDate() {
+        partidoSearchIndex.reconstruir();
+        Partido partido = partidoRepository.save(crearPartido("Fútbol 5 nocturno"));
+        assertEquals(Set.of(partido.getId()), partidoSearchIndex.buscar(porTitulo("futbol")));
+
+        partido.setTitulo("Torneo relámpago");
+        partidoRepository.save(partido);
+        assertTrue(partidoSearchIndex.buscar(porTitulo("futbol")).isEmpty());
+        assertEquals(Set.of(partido.getId()), partidoSearchIndex.buscar(porTitulo("relampago")));
+
+        partidoRepository.deleteById(partido.getId());
+        assertTrue(partidoSearchIndex.buscar(porTitulo("relampago")).isEmpty());
+    }
+
+    private Partido crearPartido(String titulo) {
+        Partido partido = new Partido();
+        partido.setTitulo(titulo);
+        partido.setFechaHora(LocalDateTime.now().plusDays(1));
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(10);
+        partido.setEstado(EstadoPartido.DISPONIBLE);
+        return partido;
+    }
+
+    private BusquedaPartidoDTO porTitulo(String titulo) {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setTitulo(titulo);
+        return busqueda;
+    }
+}
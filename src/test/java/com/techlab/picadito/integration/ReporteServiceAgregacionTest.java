@@ -0,0 +1,199 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.dto.ReporteDTO;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.LineaReserva;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Reserva;
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.reserva.ReservaRepository;
+import com.techlab.picadito.service.ReporteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara los reportes calculados con consultas agrupadas contra el cálculo anterior sobre
+ * entidades (reservas y partidos cargados y totalizados en memoria) con los mismos datos.
+ */
+@DataJpaTest
+@Import(ReporteService.class)
+class ReporteServiceAgregacionTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.now().minusDays(30).withNano(0);
+    private static final LocalDateTime FIN = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @BeforeEach
+    void setUp() {
+        Usuario ana = persistirUsuario("ana");
+        Usuario beto = persistirUsuario("beto");
+        Usuario carla = persistirUsuario("carla");
+
+        Partido caro = persistirPartido(EstadoPartido.DISPONIBLE, 10, 4, 2250.5);
+        Partido barato = persistirPartido(EstadoPartido.COMPLETO, 6, 6, 999.25);
+        Partido sinPrecio = persistirPartido(EstadoPartido.DISPONIBLE, 10, 0, null);
+        Partido finalizado = persistirPartido(EstadoPartido.FINALIZADO, 8, 8, 1500.0);
+        Partido viejo = persistirPartido(EstadoPartido.CANCELADO, 10, 3, 500.0);
+        moverFuera("partidos", viejo.getId());
+
+        persistirReserva(ana, Reserva.EstadoReserva.CONFIRMADO, Map.of(caro, 2, barato, 1));
+        persistirReserva(ana, Reserva.EstadoReserva.PENDIENTE, Map.of(caro, 3));
+        persistirReserva(beto, Reserva.EstadoReserva.FINALIZADO, Map.of(finalizado, 4, sinPrecio, 2));
+        persistirReserva(beto, Reserva.EstadoReserva.CANCELADO, Map.of(barato, 1));
+        // Reserva confirmada sin líneas: el usuario aparece con gasto 0
+        persistirReserva(carla, Reserva.EstadoReserva.CONFIRMADO, Map.of());
+        Reserva vieja = persistirReserva(carla, Reserva.EstadoReserva.CONFIRMADO, Map.of(caro, 5));
+        moverFuera("reservas", vieja.getId());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void generarReporteVentas_ShouldMatchEntityBasedTotals() {
+        assertEquals(ventasSobreEntidades(), reporteService.generarReporteVentas(INICIO, FIN).getDatos());
+    }
+
+    @Test
+    void generarReportePartidos_ShouldMatchEntityBasedTotals() {
+        assertEquals(partidosSobreEntidades(), reporteService.generarReportePartidos(INICIO, FIN).getDatos());
+    }
+
+    @Test
+    void generarReporteUsuarios_ShouldMatchEntityBasedTotals() {
+        assertEquals(usuariosSobreEntidades(), reporteService.generarReporteUsuarios(INICIO, FIN).getDatos());
+    }
+
+    @Test
+    void generarReportes_WithEmptyPeriod_ShouldReturnZeroes() {
+        LocalDateTime inicio = FIN.plusDays(10);
+        LocalDateTime fin = FIN.plusDays(20);
+
+        ReporteDTO ventas = reporteService.generarReporteVentas(inicio, fin);
+        ReporteDTO partidos = reporteService.generarReportePartidos(inicio, fin);
+        ReporteDTO usuarios = reporteService.generarReporteUsuarios(inicio, fin);
+
+        assertEquals(0, ventas.getDatos().get("totalReservas"));
+        assertEquals(0.0, ventas.getDatos().get("ingresosTotales"));
+        assertEquals(0, partidos.getDatos().get("totalPartidos"));
+        assertEquals(0.0, partidos.getDatos().get("promedioParticipantes"));
+        assertEquals(0, usuarios.getDatos().get("usuariosActivos"));
+        assertEquals(0.0, usuarios.getDatos().get("promedioGasto"));
+    }
+
+    // Cálculo anterior sobre entidades, usado como referencia
+
+    private static final Set<Reserva.EstadoReserva> ESTADOS_CON_INGRESOS =
+            Set.of(Reserva.EstadoReserva.CONFIRMADO, Reserva.EstadoReserva.FINALIZADO);
+
+    private Map<String, Object> ventasSobreEntidades() {
+        List<Reserva> reservas = reservaRepository.findByFechaCreacionBetweenOrderByFechaCreacionDesc(INICIO, FIN);
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("totalReservas", reservas.size());
+        long reservasConfirmadas = reservas.stream().filter(r -> ESTADOS_CON_INGRESOS.contains(r.getEstado())).count();
+        datos.put("reservasConfirmadas", reservasConfirmadas);
+        double ingresosTotales = reservas.stream()
+                .filter(r -> ESTADOS_CON_INGRESOS.contains(r.getEstado()))
+                .mapToDouble(Reserva::calcularTotal)
+                .sum();
+        datos.put("ingresosTotales", ingresosTotales);
+        datos.put("promedioPorReserva", reservasConfirmadas > 0 ? ingresosTotales / reservasConfirmadas : 0.0);
+        return datos;
+    }
+
+    private Map<String, Object> partidosSobreEntidades() {
+        List<Partido> partidos = partidoRepository.findByFechaCreacionBetweenOrderByFechaCreacionAsc(INICIO, FIN);
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("totalPartidos", partidos.size());
+        datos.put("partidosPorEstado", partidos.stream().collect(Collectors.groupingBy(Partido::getEstado, Collectors.counting())));
+        datos.put("partidosCompletos", partidos.stream().filter(Partido::estaCompleto).count());
+        datos.put("partidosDisponibles", partidos.stream().filter(p -> p.getEstado() == EstadoPartido.DISPONIBLE).count());
+        datos.put("promedioParticipantes", partidos.stream().mapToInt(Partido::getCantidadParticipantes).average().orElse(0.0));
+        return datos;
+    }
+
+    private Map<String, Object> usuariosSobreEntidades() {
+        List<Reserva> reservas = reservaRepository.findByFechaCreacionBetweenOrderByFechaCreacionDesc(INICIO, FIN);
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("usuariosActivos", reservas.stream().map(r -> r.getUsuario().getId()).collect(Collectors.toSet()).size());
+        datos.put("reservasPorUsuario", reservas.stream()
+                .collect(Collectors.groupingBy(r -> r.getUsuario().getId(), Collectors.counting())));
+        Map<Long, Double> gastosPorUsuario = reservas.stream()
+                .filter(r -> ESTADOS_CON_INGRESOS.contains(r.getEstado()))
+                .collect(Collectors.groupingBy(r -> r.getUsuario().getId(), Collectors.summingDouble(Reserva::calcularTotal)));
+        datos.put("gastosPorUsuario", gastosPorUsuario);
+        datos.put("promedioGasto", gastosPorUsuario.values().stream().mapToDouble(Double::doubleValue).average().orElse(0.0));
+        return datos;
+    }
+
+    private Usuario persistirUsuario(String nombre) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(nombre);
+        usuario.setEmail(nombre + "@picadito.test");
+        usuario.setPassword("secreto");
+        return entityManager.persist(usuario);
+    }
+
+    private Partido persistirPartido(EstadoPartido estado, int maxJugadores, int participantes, Double precio) {
+        Partido partido = new Partido();
+        partido.setTitulo("Partido " + estado);
+        partido.setFechaHora(LocalDateTime.now().plusDays(2));
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(maxJugadores);
+        partido.setCantidadParticipantes(participantes);
+        partido.setEstado(estado);
+        partido.setPrecio(precio);
+        return entityManager.persist(partido);
+    }
+
+    private Reserva persistirReserva(Usuario usuario, Reserva.EstadoReserva estado, Map<Partido, Integer> cantidades) {
+        Reserva reserva = new Reserva();
+        reserva.setUsuario(usuario);
+        reserva.setEstado(estado);
+        cantidades.forEach((partido, cantidad) -> {
+            LineaReserva linea = new LineaReserva();
+            linea.setReserva(reserva);
+            linea.setPartido(partido);
+            linea.setCantidad(cantidad);
+            reserva.getLineasReserva().add(linea);
+        });
+        return entityManager.persist(reserva);
+    }
+
+    /**
+     * La fecha de creación la asigna @PrePersist y no es actualizable desde la entidad
+     */
+    private void moverFuera(String tabla, Long id) {
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE " + tabla + " SET fecha_creacion = ? WHERE id = ?")
+                .setParameter(1, INICIO.minusDays(5))
+                .setParameter(2, id)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,89 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.alerta.AlertaRepository;
+import com.techlab.picadito.config.SecuenciasIds;
+import com.techlab.picadito.model.Alerta;
+import com.techlab.picadito.model.TipoAlerta;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los IDs de secuencia permiten agrupar los INSERT en lotes y que las secuencias se
+ * reinician por encima de los IDs que ya existen en la tabla.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(SecuenciasIds.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecuenciasIdsTest {
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    @Autowired
+    private SecuenciasIds secuenciasIds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        alertaRepository.deleteAll();
+    }
+
+    @Test
+    void saveAll_ShouldInsertInOneBatchWithOneSequenceCall() {
+        List<Alerta> alertas = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Alerta alerta = new Alerta();
+            alerta.setTipo(TipoAlerta.PARTIDO_PROXIMO);
+            alerta.setMensaje("Alerta " + i);
+            alertas.add(alerta);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> alertaRepository.saveAll(alertas));
+
+        assertEquals(30, statistics.getEntityInsertCount());
+        // A lo sumo una llamada a la secuencia (un bloque de 50 alcanza) y un único INSERT en lote
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Sentencias preparadas: " + statistics.getPrepareStatementCount());
+        assertEquals(30, alertas.stream().map(Alerta::getId).distinct().count());
+    }
+
+    @Test
+    void alinear_WhenTableHasHigherIds_ShouldRestartTheSequenceAboveThem() {
+        jdbcTemplate.execute("ALTER SEQUENCE alertas_seq RESTART WITH 1");
+        jdbcTemplate.update("INSERT INTO alertas (id, tipo, mensaje, leida, fecha_creacion) VALUES (?, ?, ?, ?, ?)",
+                5000L, TipoAlerta.PARTIDO_PROXIMO.name(), "Existente", false, LocalDateTime.now());
+
+        ReflectionTestUtils.invokeMethod(secuenciasIds, "alinear");
+
+        Long proximo = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR alertas_seq", Long.class);
+        assertEquals(5001L, proximo);
+    }
+}
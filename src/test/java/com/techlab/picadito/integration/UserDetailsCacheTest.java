@@ -0,0 +1,166 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.model.Usuario;
+import com.techlab.picadito.security.UserDetailsCache;
+import com.techlab.picadito.security.UserDetailsCacheListener;
+import com.techlab.picadito.security.UserDetailsServiceImpl;
+import com.techlab.picadito.usuario.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 que UserDetailsServiceImpl sirve los usuarios desde la cache y que los
+ * cambios del usuario la invalidan después del commit
+ */
+@DataJpaTest
+@Import({UserDetailsServiceImpl.class, UserDetailsCache.class, UserDetailsCacheListener.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserDetailsCacheTest {
+
+    private static final String EMAIL = "ana@picadito.test";
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+    private Long usuarioId;
+    private double hitsIniciales;
+    private double missesIniciales;
+
+    @BeforeEach
+    void setUp() {
+        transaccion = new TransactionTemplate(transactionManager);
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setEmail(EMAIL);
+        usuario.setPassword("hash-original");
+        usuarioId = usuarioRepository.save(usuario).getId();
+        userDetailsCache.invalidarTodo();
+        // Las métricas se acumulan entre tests del mismo contexto
+        hitsIniciales = contarGets("hit");
+        missesIniciales = contarGets("miss");
+    }
+
+    @AfterEach
+    void tearDown() {
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    void loadUserByUsername_RepeatedCalls_ShouldHitCache() {
+        userDetailsService.loadUserByUsername(EMAIL);
+        userDetailsService.loadUserByUsername(EMAIL);
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        assertEquals(1.0, contarGets("miss") - missesIniciales);
+        assertEquals(2.0, contarGets("hit") - hitsIniciales);
+    }
+
+    @Test
+    void loadUserByUsername_AfterErasingCredentials_ShouldStillReturnPassword() {
+        UserDetails primero = userDetailsService.loadUserByUsername(EMAIL);
+        // Lo que hace ProviderManager con el principal después de un login exitoso
+        ((CredentialsContainer) primero).eraseCredentials();
+
+        assertEquals("hash-original", userDetailsService.loadUserByUsername(EMAIL).getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_AfterPasswordOrRoleChange_ShouldReloadUser() {
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        transaccion.executeWithoutResult(status -> {
+            Usuario usuario = usuarioRepository.findById(usuarioId).orElseThrow();
+            usuario.setPassword("hash-nuevo");
+            usuario.setRol(Usuario.RolUsuario.ADMIN);
+        });
+
+        UserDetails recargado = userDetailsService.loadUserByUsername(EMAIL);
+        assertEquals("hash-nuevo", recargado.getPassword());
+        assertTrue(recargado.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+    }
+
+    @Test
+    void loadUserByUsername_AfterDeactivation_ShouldReject() {
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        transaccion.executeWithoutResult(status ->
+                usuarioRepository.findById(usuarioId).orElseThrow().setActivo(false));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(EMAIL));
+    }
+
+    @Test
+    void userChange_ShouldOnlyEvictThatUser() {
+        Usuario otro = new Usuario();
+        otro.setNombre("Beto");
+        otro.setEmail("beto@picadito.test");
+        otro.setPassword("hash-beto");
+        usuarioRepository.save(otro);
+        userDetailsService.loadUserByUsername(EMAIL);
+        userDetailsService.loadUserByUsername("beto@picadito.test");
+
+        transaccion.executeWithoutResult(status ->
+                usuarioRepository.findById(usuarioId).orElseThrow().setPassword("hash-nuevo"));
+
+        assertEquals("hash-nuevo", userDetailsService.loadUserByUsername(EMAIL).getPassword());
+        assertEquals("hash-beto", userDetailsService.loadUserByUsername("beto@picadito.test").getPassword());
+        // Dos cargas iniciales más la recarga de Ana; Beto sigue en la cache
+        assertEquals(3.0, contarGets("miss") - missesIniciales);
+        assertEquals(1.0, contarGets("hit") - hitsIniciales);
+    }
+
+    @Test
+    void rolledBackChange_ShouldKeepCachedUser() {
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        assertThrows(IllegalStateException.class, () -> transaccion.executeWithoutResult(status -> {
+            usuarioRepository.findById(usuarioId).orElseThrow().setPassword("hash-descartado");
+            usuarioRepository.flush();
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals("hash-original", userDetailsService.loadUserByUsername(EMAIL).getPassword());
+        assertEquals(1.0, contarGets("miss") - missesIniciales);
+    }
+
+    @Test
+    void loadUserByUsername_UnknownEmail_ShouldNotBeCached() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nadie@picadito.test"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nadie@picadito.test"));
+
+        assertEquals(2.0, contarGets("miss") - missesIniciales);
+    }
+
+    private double contarGets(String resultado) {
+        return meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", resultado)
+                .functionCounter().count();
+    }
+}
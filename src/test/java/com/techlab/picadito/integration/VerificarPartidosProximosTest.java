@@ -0,0 +1,135 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.alerta.AlertaRepository;
+import com.techlab.picadito.alerta.AlertaService;
+import com.techlab.picadito.calificacion.CalificacionService;
+import com.techlab.picadito.config.ScheduledTasks;
+import com.techlab.picadito.model.Alerta;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.TipoAlerta;
+import com.techlab.picadito.participante.ParticipanteRepository;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.partido.PartidoService;
+import com.techlab.picadito.security.RateLimitingService;
+import com.techlab.picadito.security.TokenBlacklistService;
+import com.techlab.picadito.service.EstadisticasService;
+import com.techlab.picadito.usuario.UsuarioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta la verificación de partidos próximos con su propia transacción (sin la del test) y
+ * verifica que las alertas quedan escritas en la tabla, en un solo lote de INSERT.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ScheduledTasks.class, AlertaService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VerificarPartidosProximosTest {
+
+    private static final int PARTIDOS_PROXIMOS = 12;
+
+    @Autowired
+    private ScheduledTasks scheduledTasks;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private ParticipanteRepository participanteRepository;
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Evita que el scheduler ejecute las tareas por su cuenta mientras corre el test
+    @MockBean
+    private TaskScheduler taskScheduler;
+
+    @MockBean
+    private PartidoService partidoService;
+
+    @MockBean
+    private UsuarioService usuarioService;
+
+    @MockBean
+    private EstadisticasService estadisticasService;
+
+    @MockBean
+    private CalificacionService calificacionService;
+
+    @MockBean
+    private RateLimitingService rateLimitingService;
+
+    @MockBean
+    private TokenBlacklistService tokenBlacklistService;
+
+    @AfterEach
+    void tearDown() {
+        alertaRepository.deleteAll();
+        participanteRepository.deleteAll();
+        partidoRepository.deleteAll();
+    }
+
+    @Test
+    void verificarPartidosProximos_ShouldWriteOneAlertPerPartidoInOneBatch() {
+        Set<Long> proximos = new HashSet<>();
+        for (int i = 0; i < PARTIDOS_PROXIMOS; i++) {
+            proximos.add(crearPartido(LocalDateTime.now().plusHours(36), true).getId());
+        }
+        // Fuera de la ventana de 24-48 horas o sin participantes: no generan alerta
+        crearPartido(LocalDateTime.now().plusDays(5), true);
+        crearPartido(LocalDateTime.now().plusHours(36), false);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        scheduledTasks.verificarPartidosProximos();
+
+        List<Alerta> alertas = alertaRepository.findAll();
+        assertEquals(PARTIDOS_PROXIMOS, alertas.size());
+        assertTrue(alertas.stream().allMatch(a -> a.getTipo() == TipoAlerta.PARTIDO_PROXIMO && a.getUsuario() == null));
+        assertEquals(proximos, alertas.stream().map(a -> a.getPartido().getId()).collect(Collectors.toSet()));
+        assertEquals(PARTIDOS_PROXIMOS, statistics.getEntityInsertCount());
+        // Consulta de partidos con sus participantes, una llamada a la secuencia y un único INSERT en lote
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Sentencias preparadas: " + statistics.getPrepareStatementCount());
+    }
+
+    private Partido crearPartido(LocalDateTime fechaHora, boolean conParticipante) {
+        Partido partido = new Partido();
+        partido.setTitulo("Partido " + fechaHora);
+        partido.setFechaHora(fechaHora);
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(10);
+        partido.setEstado(EstadoPartido.DISPONIBLE);
+        partido = partidoRepository.save(partido);
+        if (conParticipante) {
+            Participante participante = new Participante();
+            participante.setNombre("Jugador");
+            participante.setPartido(partido);
+            participanteRepository.save(participante);
+        }
+        return partido;
+    }
+}
@@ -0,0 +1,136 @@
+package com.techlab.picadito.integration;
+
+import com.techlab.picadito.categoria.CategoriaRepository;
+import com.techlab.picadito.config.VersionesRecursos;
+import com.techlab.picadito.config.VersionesRecursos.Coleccion;
+import com.techlab.picadito.config.VersionesRecursosListener;
+import com.techlab.picadito.model.Categoria;
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Participante;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.participante.ParticipanteRepository;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.sede.SedeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra H2 que los cambios confirmados invalidan los ETags y que un rollback no los toca
+ */
+@DataJpaTest
+@Import({VersionesRecursos.class, VersionesRecursosListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VersionesRecursosListenerTest {
+
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private PartidoRepository partidoRepository;
+
+    @Autowired
+    private ParticipanteRepository participanteRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    @BeforeEach
+    void setUp() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        participanteRepository.deleteAll();
+        partidoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        sedeRepository.deleteAll();
+    }
+
+    @Test
+    void committedChanges_ShouldInvalidateEtags() {
+        Partido partido = partidoRepository.save(crearPartido());
+        String etag = registrar(partido);
+
+        // Inscripción: el contador se actualiza con una sentencia masiva, el participante pasa por el listener
+        transaccion.executeWithoutResult(status -> {
+            partidoRepository.incrementarCantidadParticipantes(partido.getId(), 1);
+            Participante participante = new Participante();
+            participante.setNombre("Jugador");
+            participante.setPartido(partidoRepository.getReferenceById(partido.getId()));
+            participanteRepository.save(participante);
+        });
+        assertNull(versionesRecursos.etagPartido(partido.getId()));
+
+        String nuevo = registrar(partidoRepository.findById(partido.getId()).orElseThrow());
+        assertNotEquals(etag, nuevo);
+
+        long sedes = versionesRecursos.getVersion(Coleccion.SEDES);
+        Sede sede = new Sede();
+        sede.setNombre("Sede Norte");
+        sede.setDireccion("Calle 1");
+        sedeRepository.save(sede);
+        assertEquals(sedes + 1, versionesRecursos.getVersion(Coleccion.SEDES));
+        // Los partidos muestran sus sedes
+        assertNull(versionesRecursos.etagPartido(partido.getId()));
+
+        long categorias = versionesRecursos.getVersion(Coleccion.CATEGORIAS);
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Fútbol 5");
+        categoriaRepository.save(categoria);
+        assertEquals(categorias + 1, versionesRecursos.getVersion(Coleccion.CATEGORIAS));
+    }
+
+    @Test
+    void rolledBackChanges_ShouldKeepEtags() {
+        Partido partido = partidoRepository.save(crearPartido());
+        String etag = registrar(partido);
+        long version = versionesRecursos.getVersion(Coleccion.PARTIDOS);
+
+        assertThrows(IllegalStateException.class, () -> transaccion.executeWithoutResult(status -> {
+            Partido cargado = partidoRepository.findById(partido.getId()).orElseThrow();
+            cargado.setTitulo("Otro título");
+            partidoRepository.flush();
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(etag, versionesRecursos.etagPartido(partido.getId()));
+        assertEquals(version, versionesRecursos.getVersion(Coleccion.PARTIDOS));
+    }
+
+    private String registrar(Partido partido) {
+        return versionesRecursos.registrarPartido(partido.getId(), partido.getVersion(),
+                versionesRecursos.getVersion(Coleccion.PARTIDOS));
+    }
+
+    private Partido crearPartido() {
+        Partido partido = new Partido();
+        partido.setTitulo("Partido");
+        partido.setFechaHora(LocalDateTime.now().plusDays(1));
+        partido.setCreadorNombre("Creador");
+        partido.setMaxJugadores(10);
+        partido.setEstado(EstadoPartido.DISPONIBLE);
+        return partido;
+    }
+}
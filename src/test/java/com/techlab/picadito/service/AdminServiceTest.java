@@ -13,10 +13,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +27,7 @@ class AdminServiceTest {
     private PartidoRepository partidoRepository;
 
     @Mock
-    private com.techlab.picadito.partido.PartidoService partidoService;
+    private com.techlab.picadito.partido.PartidoPageAssembler partidoPageAssembler;
 
     @InjectMocks
     private com.techlab.picadito.admin.AdminService adminService;
@@ -69,11 +70,10 @@ class AdminServiceTest {
     }
 
     @Test
-    @SuppressWarnings("null")
     void obtenerPartidosConCapacidadBaja_WithDefaultCapacity_ShouldReturnFilteredPartidos() {
-        List<Partido> partidos = Arrays.asList(partido1, partido2);
-        when(partidoRepository.findByEstado(EstadoPartido.DISPONIBLE)).thenReturn(partidos);
-        when(partidoService.obtenerPartidoPorId(any(Long.class))).thenReturn(partidoResponseDTO);
+        List<Partido> partidos = Arrays.asList(partido2, partido1);
+        when(partidoRepository.findByEstadoConCapacidadDisponibleHasta(EstadoPartido.DISPONIBLE, 5)).thenReturn(partidos);
+        when(partidoPageAssembler.ensamblar(partidos)).thenReturn(Arrays.asList(partidoResponseDTO, partidoResponseDTO));
 
         PartidosResponseDTO result = adminService.obtenerPartidosConCapacidadBaja(null);
 
@@ -81,14 +81,14 @@ class AdminServiceTest {
         assertNotNull(result.getPartidos());
         assertEquals(2, result.getPartidos().size());
         assertEquals(2, result.getTotal());
-        verify(partidoRepository, times(1)).findByEstado(EstadoPartido.DISPONIBLE);
+        verify(partidoRepository, times(1)).findByEstadoConCapacidadDisponibleHasta(EstadoPartido.DISPONIBLE, 5);
     }
 
     @Test
     void obtenerPartidosConCapacidadBaja_WithCustomCapacity_ShouldReturnFilteredPartidos() {
         List<Partido> partidos = Arrays.asList(partido2);
-        when(partidoRepository.findByEstado(EstadoPartido.DISPONIBLE)).thenReturn(partidos);
-        when(partidoService.obtenerPartidoPorId(2L)).thenReturn(partidoResponseDTO);
+        when(partidoRepository.findByEstadoConCapacidadDisponibleHasta(EstadoPartido.DISPONIBLE, 1)).thenReturn(partidos);
+        when(partidoPageAssembler.ensamblar(partidos)).thenReturn(Arrays.asList(partidoResponseDTO));
 
         PartidosResponseDTO result = adminService.obtenerPartidosConCapacidadBaja(1);
 
@@ -96,25 +96,14 @@ class AdminServiceTest {
         assertNotNull(result.getPartidos());
         assertEquals(1, result.getPartidos().size());
         assertEquals(1, result.getTotal());
-        verify(partidoRepository, times(1)).findByEstado(EstadoPartido.DISPONIBLE);
+        verify(partidoRepository, times(1)).findByEstadoConCapacidadDisponibleHasta(EstadoPartido.DISPONIBLE, 1);
     }
 
     @Test
     void obtenerPartidosConCapacidadBaja_WithNoMatchingPartidos_ShouldReturnEmptyList() {
-        Partido partidoAltaCapacidad = new Partido();
-        partidoAltaCapacidad.setId(3L);
-        partidoAltaCapacidad.setEstado(EstadoPartido.DISPONIBLE);
-        partidoAltaCapacidad.setMaxJugadores(10);
-        // cantidadParticipantes es calculado, agregamos participantes
-        for (int i = 0; i < 2; i++) {
-            com.techlab.picadito.model.Participante p = new com.techlab.picadito.model.Participante();
-            p.setId((long) i);
-            p.setPartido(partidoAltaCapacidad);
-            partidoAltaCapacidad.getParticipantes().add(p);
-        } // 8 cupos disponibles
-
-        when(partidoRepository.findByEstado(EstadoPartido.DISPONIBLE))
-                .thenReturn(Arrays.asList(partidoAltaCapacidad));
+        when(partidoRepository.findByEstadoConCapacidadDisponibleHasta(EstadoPartido.DISPONIBLE, 5))
+                .thenReturn(Collections.emptyList());
+        when(partidoPageAssembler.ensamblar(Collections.emptyList())).thenReturn(Collections.emptyList());
 
         PartidosResponseDTO result = adminService.obtenerPartidosConCapacidadBaja(5);
 
@@ -125,20 +114,19 @@ class AdminServiceTest {
     }
 
     @Test
-    @SuppressWarnings("null")
-    void obtenerPartidosConCapacidadBaja_ShouldOrderByCapacityAscending() {
-        List<Partido> partidos = Arrays.asList(partido1, partido2);
-        when(partidoRepository.findByEstado(EstadoPartido.DISPONIBLE)).thenReturn(partidos);
-        when(partidoService.obtenerPartidoPorId(1L)).thenReturn(partidoResponseDTO);
-        when(partidoService.obtenerPartidoPorId(2L)).thenReturn(partidoResponseDTO);
+    void obtenerPartidosConCapacidadBaja_ShouldKeepRepositoryOrderAndAssembleInBatch() {
+        PartidoResponseDTO dto2 = new PartidoResponseDTO();
+        dto2.setId(2L);
+        List<Partido> partidos = Arrays.asList(partido2, partido1);
+        when(partidoRepository.findByEstadoConCapacidadDisponibleHasta(EstadoPartido.DISPONIBLE, 5)).thenReturn(partidos);
+        when(partidoPageAssembler.ensamblar(partidos)).thenReturn(Arrays.asList(dto2, partidoResponseDTO));
 
         PartidosResponseDTO result = adminService.obtenerPartidosConCapacidadBaja(5);
 
         assertNotNull(result);
-        assertNotNull(result.getPartidos());
         // El partido con menos capacidad disponible debería estar primero
-        verify(partidoService, atLeastOnce()).obtenerPartidoPorId(any(Long.class));
+        assertEquals(2L, result.getPartidos().get(0).getId());
+        assertEquals(1L, result.getPartidos().get(1).getId());
+        verify(partidoPageAssembler, times(1)).ensamblar(anyList());
     }
 }
-
-
@@ -12,6 +12,7 @@ import com.techlab.picadito.alerta.AlertaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -38,6 +39,12 @@ class AlertaServiceTest {
     @Mock
     private com.techlab.picadito.partido.PartidoService partidoService;
 
+    @Mock
+    private com.techlab.picadito.usuario.UsuarioRepository usuarioRepository;
+
+    @Mock
+    private com.techlab.picadito.partido.PartidoRepository partidoRepository;
+
     @InjectMocks
     private com.techlab.picadito.alerta.AlertaService alertaService;
 
@@ -123,12 +130,14 @@ class AlertaServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         } // 4 cupos disponibles (<= 5)
-
-        when(alertaRepository.save(any(Alerta.class))).thenReturn(alerta);
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
+        when(partidoRepository.getReferenceById(1L)).thenReturn(partido);
 
         alertaService.crearAlertaCuposBajos(partido);
 
-        verify(alertaRepository, times(1)).save(any(Alerta.class));
+        verify(alertaRepository, times(1)).saveAll(anyList());
+        // El partido se toma como referencia, sin volver a cargarlo
+        verify(partidoService, never()).obtenerPartidoEntity(any());
     }
 
     @Test
@@ -142,31 +151,52 @@ class AlertaServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         } // 7 cupos disponibles (> 5)
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
 
         alertaService.crearAlertaCuposBajos(partido);
 
-        verify(alertaRepository, never()).save(any(Alerta.class));
+        verify(alertaRepository, never()).saveAll(anyList());
     }
 
     @Test
-    void crearAlertaPartidoProximo_ShouldCreateAlerta() {
-        when(usuarioService.obtenerUsuarioEntity(1L)).thenReturn(usuario);
-        when(partidoService.obtenerPartidoEntity(1L)).thenReturn(partido);
-        when(alertaRepository.save(any(Alerta.class))).thenReturn(alerta);
-
-        alertaService.crearAlertaPartidoProximo(partido, 1L);
-
-        verify(alertaRepository, times(1)).save(any(Alerta.class));
+    @SuppressWarnings("unchecked")
+    void crearAlertasPartidoProximo_ShouldSaveAllAlertsTogetherWithReferences() {
+        Partido otro = new Partido();
+        otro.setId(2L);
+        otro.setTitulo("Otro Partido");
+        when(partidoRepository.getReferenceById(1L)).thenReturn(partido);
+        when(partidoRepository.getReferenceById(2L)).thenReturn(otro);
+
+        alertaService.crearAlertasPartidoProximo(List.of(partido, otro));
+
+        ArgumentCaptor<List<Alerta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(alertaRepository, times(1)).saveAll(captor.capture());
+        assertEquals(List.of(partido, otro), captor.getValue().stream().map(Alerta::getPartido).toList());
+        assertTrue(captor.getValue().stream().allMatch(a -> a.getTipo() == TipoAlerta.PARTIDO_PROXIMO));
+        verify(alertaRepository, never()).save(any(Alerta.class));
+        verify(partidoService, never()).obtenerPartidoEntity(any());
     }
 
     @Test
-    void crearAlertaReservaConfirmada_ShouldCreateAlerta() {
-        when(usuarioService.obtenerUsuarioEntity(1L)).thenReturn(usuario);
-        when(alertaRepository.save(any(Alerta.class))).thenReturn(alerta);
+    void crearAlertasPartidoProximo_WithNoPartidos_ShouldNotSave() {
+        alertaService.crearAlertasPartidoProximo(List.of());
 
-        alertaService.crearAlertaReservaConfirmada(1L, "Partido Test");
+        verify(alertaRepository, never()).saveAll(any());
+    }
 
-        verify(alertaRepository, times(1)).save(any(Alerta.class));
+    @Test
+    @SuppressWarnings("unchecked")
+    void crearAlertasReservaConfirmada_ShouldSaveOneAlertPerPartidoTogether() {
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario);
+
+        alertaService.crearAlertasReservaConfirmada(1L, List.of("Partido Test", "Otro Partido"));
+
+        ArgumentCaptor<List<Alerta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(alertaRepository, times(1)).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(a -> a.getUsuario() == usuario
+                && a.getTipo() == TipoAlerta.RESERVA_CONFIRMADA));
+        verify(usuarioService, never()).obtenerUsuarioEntity(any());
     }
 
     @Test
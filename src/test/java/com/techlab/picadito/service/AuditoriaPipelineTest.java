@@ -0,0 +1,165 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.security.AuditoriaDestino;
+import com.techlab.picadito.security.AuditoriaPipeline;
+import com.techlab.picadito.security.EventoAuditoria;
+import com.techlab.picadito.security.RingBufferAuditoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditoriaPipelineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DestinoEnMemoria destino;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        destino = new DestinoEnMemoria();
+    }
+
+    @Test
+    void ringBuffer_ShouldRejectWhenFullAndReuseSlotsAfterDrain() {
+        RingBufferAuditoria buffer = new RingBufferAuditoria(3);
+
+        assertEquals(4, buffer.getCapacidad());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.publicar(evento(EventoAuditoria.Tipo.LOGIN_FAILED, i)));
+        }
+        assertFalse(buffer.publicar(evento(EventoAuditoria.Tipo.LOGIN_FAILED, 4)));
+
+        List<EventoAuditoria> drenados = new ArrayList<>();
+        assertEquals(2, buffer.drenar(drenados, 2));
+        assertEquals(List.of(0, 1), drenados.stream().map(EventoAuditoria::intentos).toList());
+        assertTrue(buffer.publicar(evento(EventoAuditoria.Tipo.LOGIN_FAILED, 5)));
+        assertEquals(3, buffer.getTamanio());
+
+        drenados.clear();
+        assertEquals(3, buffer.drenar(drenados, 10));
+        assertEquals(List.of(2, 3, 5), drenados.stream().map(EventoAuditoria::intentos).toList());
+        assertEquals(0, buffer.getTamanio());
+    }
+
+    @Test
+    void publicar_WhenBufferIsFull_ShouldDropAndCountByTipo() {
+        AuditoriaPipeline pipeline = new AuditoriaPipeline(List.of(destino), meterRegistry, 4, 10);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pipeline.publicar(evento(EventoAuditoria.Tipo.LOGIN_FAILED, i)));
+        }
+        assertFalse(pipeline.publicar(evento(EventoAuditoria.Tipo.RATE_LIMIT_EXCEEDED, 4)));
+        assertFalse(pipeline.publicar(evento(EventoAuditoria.Tipo.RATE_LIMIT_EXCEEDED, 5)));
+
+        assertEquals(2, pipeline.getDescartados());
+        assertEquals(2.0, meterRegistry.get("audit.events.dropped").tag("tipo", "RATE_LIMIT_EXCEEDED").counter().count());
+        assertEquals(0.0, meterRegistry.get("audit.events.dropped").tag("tipo", "LOGIN_FAILED").counter().count());
+        assertEquals(4.0, meterRegistry.get("audit.queue.size").gauge().value());
+    }
+
+    @Test
+    void procesarPendientes_ShouldDeliverInBatchesKeepingOrder() {
+        AuditoriaPipeline pipeline = new AuditoriaPipeline(List.of(destino), meterRegistry, 64, 4);
+        for (int i = 0; i < 10; i++) {
+            pipeline.publicar(evento(EventoAuditoria.Tipo.LOGIN_SUCCESS, i));
+        }
+
+        assertEquals(10, pipeline.procesarPendientes());
+
+        assertEquals(List.of(4, 4, 2), destino.lotes.stream().map(List::size).toList());
+        assertEquals(0, destino.eventos().get(0).intentos());
+        assertEquals(9, destino.eventos().get(9).intentos());
+        assertEquals(10.0, meterRegistry.get("audit.events.written").counter().count());
+        assertEquals(0, pipeline.getPendientes());
+    }
+
+    @Test
+    void procesarPendientes_WhenDestinoFails_ShouldStillDeliverToOthers() {
+        AuditoriaDestino roto = lote -> {
+            throw new IllegalStateException("base caída");
+        };
+        AuditoriaPipeline pipeline = new AuditoriaPipeline(List.of(roto, destino), meterRegistry, 64, 16);
+        pipeline.publicar(evento(EventoAuditoria.Tipo.ACCOUNT_LOCKED, 1));
+
+        assertEquals(1, pipeline.procesarPendientes());
+
+        assertEquals(1, destino.eventos().size());
+        assertEquals(1.0, meterRegistry.get("audit.events.failed").counter().count());
+        assertEquals(0.0, meterRegistry.get("audit.events.written").counter().count());
+    }
+
+    @Test
+    void getPhase_ShouldStopAfterWebServerGracefulShutdown() {
+        AuditoriaPipeline pipeline = new AuditoriaPipeline(List.of(destino), meterRegistry, 64, 16);
+
+        // Las fases mayores se detienen primero
+        assertTrue(pipeline.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE);
+    }
+
+    @Test
+    void publicar_FromManyThreads_ShouldDeliverOrDropEveryEventExactlyOnce() throws Exception {
+        AuditoriaPipeline pipeline = new AuditoriaPipeline(List.of(destino), meterRegistry, 1024, 128);
+        pipeline.start();
+        int productores = 8;
+        int porProductor = 20_000;
+        ExecutorService hilos = Executors.newFixedThreadPool(productores);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < productores; p++) {
+                int base = p * porProductor;
+                hilos.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < porProductor; i++) {
+                        pipeline.publicar(evento(EventoAuditoria.Tipo.RATE_LIMIT_EXCEEDED, base + i));
+                    }
+                    return null;
+                });
+            }
+            largada.countDown();
+            hilos.shutdown();
+            assertTrue(hilos.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            pipeline.stop();
+        }
+
+        List<EventoAuditoria> entregados = destino.eventos();
+        Set<Integer> distintos = new HashSet<>();
+        entregados.forEach(e -> distintos.add(e.intentos()));
+        assertEquals(entregados.size(), distintos.size());
+        assertEquals(productores * porProductor, entregados.size() + pipeline.getDescartados());
+        assertEquals(0, pipeline.getPendientes());
+        assertFalse(pipeline.isRunning());
+    }
+
+    private static EventoAuditoria evento(EventoAuditoria.Tipo tipo, int secuencia) {
+        return new EventoAuditoria(tipo, System.currentTimeMillis(), "ana@picadito.test", "10.0.0.1",
+                "/api/auth/login", null, null, secuencia, null);
+    }
+
+    private static final class DestinoEnMemoria implements AuditoriaDestino {
+        private final List<List<EventoAuditoria>> lotes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void escribir(List<EventoAuditoria> lote) {
+            // El pipeline reutiliza la lista del lote
+            lotes.add(List.copyOf(lote));
+        }
+
+        private List<EventoAuditoria> eventos() {
+            return lotes.stream().flatMap(List::stream).toList();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.exception.ServicioSaturadoException;
+import com.techlab.picadito.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService clientes;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clientes = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientes.shutdownNow();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("Secreto123!");
+
+        assertTrue(encoder.matches("Secreto123!", hash));
+        assertFalse(encoder.matches("otra", hash));
+        assertEquals(1, meterRegistry.get("password.hash.duration").tag("operacion", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash.duration").tag("operacion", "matches").timer().count());
+        assertEquals(0, encoder.getRechazos());
+    }
+
+    @Test
+    void matches_WhenQueueIsFull_ShouldRejectImmediately() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciado = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new EncoderBloqueado(iniciado, liberar), 1, 1, Duration.ofSeconds(5),
+                meterRegistry);
+
+        // Uno ocupa el único hilo y otro la única posición de la cola
+        Future<Boolean> enCurso = clientes.submit(() -> encoder.matches("a", "a"));
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+        Future<Boolean> enCola = clientes.submit(() -> encoder.matches("b", "b"));
+        esperarCola(1);
+        assertEquals(1.0, meterRegistry.get("password.hash.queue").gauge().value());
+        assertEquals(1.0, meterRegistry.get("password.hash.active").gauge().value());
+
+        long inicio = System.nanoTime();
+        assertThrows(ServicioSaturadoException.class, () -> encoder.matches("c", "c"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() < 500);
+        assertEquals(1, encoder.getRechazos());
+
+        liberar.countDown();
+        assertTrue(enCurso.get(5, TimeUnit.SECONDS));
+        assertTrue(enCola.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_WhenHashDoesNotFinishInTime_ShouldThrowServicioSaturado() {
+        CountDownLatch liberar = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new EncoderBloqueado(new CountDownLatch(1), liberar), 1, 1,
+                Duration.ofMillis(100), meterRegistry);
+
+        assertThrows(ServicioSaturadoException.class, () -> encoder.matches("a", "a"));
+        assertEquals(1, encoder.getRechazos());
+        liberar.countDown();
+    }
+
+    @Test
+    void matches_UnderLoginFlood_ShouldNeverHashMoreThanPoolSizeAndReleaseRejectedCallersFast() throws Exception {
+        EncoderContado contado = new EncoderContado(new BCryptPasswordEncoder(6));
+        String hash = contado.delegado.encode("Secreto123!");
+        encoder = new BoundedPasswordEncoder(contado, 2, 2, Duration.ofSeconds(10), meterRegistry);
+
+        // Ráfaga de 16 "hilos de request" intentando login a la vez, varias veces
+        List<Future<Long>> intentos = new ArrayList<>();
+        AtomicInteger rechazados = new AtomicInteger();
+        for (int i = 0; i < 16; i++) {
+            intentos.add(clientes.submit(() -> {
+                long peorRechazo = 0;
+                for (int j = 0; j < 10; j++) {
+                    long inicio = System.nanoTime();
+                    try {
+                        encoder.matches("Secreto123!", hash);
+                    } catch (ServicioSaturadoException e) {
+                        rechazados.incrementAndGet();
+                        peorRechazo = Math.max(peorRechazo, System.nanoTime() - inicio);
+                    }
+                }
+                return peorRechazo;
+            }));
+        }
+        long peorRechazo = 0;
+        for (Future<Long> intento : intentos) {
+            peorRechazo = Math.max(peorRechazo, intento.get(60, TimeUnit.SECONDS));
+        }
+
+        assertTrue(contado.maximoSimultaneo.get() <= 2);
+        assertTrue(rechazados.get() > 0);
+        assertEquals(rechazados.get(), encoder.getRechazos());
+        // Un rechazo no espera a que se libere un hilo de hash
+        assertTrue(Duration.ofNanos(peorRechazo).toMillis() < 500);
+    }
+
+    private void esperarCola(int tamanio) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.getTamanioCola() < tamanio && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(tamanio, encoder.getTamanioCola());
+    }
+
+    /**
+     * Encoder que retiene el hilo de hash hasta que se lo libera
+     */
+    private record EncoderBloqueado(CountDownLatch iniciado, CountDownLatch liberar) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            iniciado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+
+    /**
+     * Encoder que registra cuántos hashes se calculan a la vez
+     */
+    private static final class EncoderContado implements PasswordEncoder {
+        private final PasswordEncoder delegado;
+        private final AtomicInteger enCurso = new AtomicInteger();
+        private final AtomicInteger maximoSimultaneo = new AtomicInteger();
+
+        private EncoderContado(PasswordEncoder delegado) {
+            this.delegado = delegado;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return delegado.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            maximoSimultaneo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+            try {
+                return delegado.matches(rawPassword, encodedPassword);
+            } finally {
+                enCurso.decrementAndGet();
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Partido;
 import com.techlab.picadito.model.Usuario;
 import com.techlab.picadito.calificacion.CalificacionRepository;
+import com.techlab.picadito.calificacion.CalificacionesAgregadas;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,6 +39,9 @@ class CalificacionServiceTest {
     @Mock
     private com.techlab.picadito.partido.PartidoService partidoService;
 
+    @Mock
+    private CalificacionesAgregadas calificacionesAgregadas;
+
     @InjectMocks
     private com.techlab.picadito.calificacion.CalificacionService calificacionService;
 
@@ -82,6 +86,7 @@ class CalificacionServiceTest {
         assertNotNull(result);
         assertEquals(5, result.getPuntuacion());
         verify(calificacionRepository, times(1)).save(any(Calificacion.class));
+        verify(calificacionesAgregadas).sumar(partido, 5);
     }
 
     @Test
@@ -122,18 +127,18 @@ class CalificacionServiceTest {
 
     @Test
     void obtenerPromedioPorPartido_WithValidId_ShouldReturnAverage() {
-        when(calificacionRepository.calcularPromedioPorPartido(1L)).thenReturn(4.5);
+        when(calificacionesAgregadas.promedioPorPartido(1L)).thenReturn(4.5);
 
         Double result = calificacionService.obtenerPromedioPorPartido(1L);
 
         assertNotNull(result);
         assertEquals(4.5, result);
-        verify(calificacionRepository, times(1)).calcularPromedioPorPartido(1L);
+        verify(calificacionesAgregadas, times(1)).promedioPorPartido(1L);
     }
 
     @Test
     void obtenerPromedioPorPartido_WithNoCalificaciones_ShouldReturnZero() {
-        when(calificacionRepository.calcularPromedioPorPartido(1L)).thenReturn(null);
+        when(calificacionesAgregadas.promedioPorPartido(1L)).thenReturn(null);
 
         Double result = calificacionService.obtenerPromedioPorPartido(1L);
 
@@ -143,7 +148,7 @@ class CalificacionServiceTest {
 
     @Test
     void obtenerPromedioPorCreador_WithValidName_ShouldReturnAverage() {
-        when(calificacionRepository.calcularPromedioPorCreador("Test Creator")).thenReturn(4.0);
+        when(calificacionesAgregadas.promedioPorCreador("Test Creator")).thenReturn(4.0);
 
         Double result = calificacionService.obtenerPromedioPorCreador("Test Creator");
 
@@ -153,7 +158,7 @@ class CalificacionServiceTest {
 
     @Test
     void obtenerPromedioPorSede_WithValidId_ShouldReturnAverage() {
-        when(calificacionRepository.calcularPromedioPorSede(1L)).thenReturn(4.2);
+        when(calificacionesAgregadas.promedioPorSede(1L)).thenReturn(4.2);
 
         Double result = calificacionService.obtenerPromedioPorSede(1L);
 
@@ -183,17 +188,17 @@ class CalificacionServiceTest {
 
     @Test
     void eliminar_WithValidId_ShouldDeleteCalificacion() {
-        when(calificacionRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(calificacionRepository).deleteById(1L);
+        when(calificacionRepository.findById(1L)).thenReturn(Optional.of(calificacion));
 
         calificacionService.eliminar(1L);
 
-        verify(calificacionRepository, times(1)).deleteById(1L);
+        verify(calificacionRepository, times(1)).delete(calificacion);
+        verify(calificacionesAgregadas).restar(partido, 5);
     }
 
     @Test
     void eliminar_WithInvalidId_ShouldThrowException() {
-        when(calificacionRepository.existsById(999L)).thenReturn(false);
+        when(calificacionRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             calificacionService.eliminar(999L);
@@ -0,0 +1,156 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.model.EstadoPartido;
+import com.techlab.picadito.model.Partido;
+import com.techlab.picadito.partido.CuposLedger;
+import com.techlab.picadito.partido.PartidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CuposLedgerTest {
+
+    private static final int MAX_JUGADORES = 10;
+
+    @Mock
+    private PartidoRepository partidoRepository;
+
+    @InjectMocks
+    private CuposLedger cuposLedger;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cuposLedger, "habilitado", true);
+    }
+
+    @Test
+    void reservar_ConcurrentSignUps_ShouldNeverOverbook() throws Exception {
+        when(partidoRepository.findSinRelacionesById(1L)).thenReturn(Optional.of(crearPartido(1L, 2)));
+        int intentos = 5000;
+        AtomicInteger admitidos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < intentos; i++) {
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    if (cuposLedger.reservar(1L, 1)) {
+                        admitidos.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(MAX_JUGADORES - 2, admitidos.get());
+        assertFalse(cuposLedger.reservar(1L, 1));
+        // El partido se lee de la base una sola vez
+        verify(partidoRepository, times(1)).findSinRelacionesById(1L);
+    }
+
+    @Test
+    void reservar_ConcurrentSignUpsAndCancellations_ShouldStayWithinCapacity() throws Exception {
+        when(partidoRepository.findSinRelacionesById(1L)).thenReturn(Optional.of(crearPartido(1L, 0)));
+        AtomicInteger ocupados = new AtomicInteger();
+        AtomicInteger maximoObservado = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                tareas.add(executor.submit(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        if (cuposLedger.reservar(1L, 1)) {
+                            int actuales = ocupados.incrementAndGet();
+                            maximoObservado.accumulateAndGet(actuales, Math::max);
+                            ocupados.decrementAndGet();
+                            cuposLedger.liberar(1L, 1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(maximoObservado.get() <= MAX_JUGADORES);
+        // Todos los cupos fueron devueltos
+        for (int i = 0; i < MAX_JUGADORES; i++) {
+            assertTrue(cuposLedger.reservar(1L, 1));
+        }
+        assertFalse(cuposLedger.reservar(1L, 1));
+    }
+
+    @Test
+    void reservar_WhenBatchExceedsCapacity_ShouldRejectWholeBatch() {
+        when(partidoRepository.findSinRelacionesById(1L)).thenReturn(Optional.of(crearPartido(1L, 7)));
+
+        assertFalse(cuposLedger.reservar(1L, 4));
+        assertTrue(cuposLedger.reservar(1L, 3));
+    }
+
+    @Test
+    void reservar_WhenPartidoNotFound_ShouldDeferToDatabase() {
+        when(partidoRepository.findSinRelacionesById(999L)).thenReturn(Optional.empty());
+
+        assertTrue(cuposLedger.reservar(999L, 1));
+    }
+
+    @Test
+    void reservar_WhenDisabled_ShouldNotQueryRepository() {
+        ReflectionTestUtils.setField(cuposLedger, "habilitado", false);
+
+        assertTrue(cuposLedger.reservar(1L, 100));
+        verify(partidoRepository, never()).findSinRelacionesById(anyLong());
+    }
+
+    @Test
+    void invalidar_ShouldReloadFromDatabase() {
+        when(partidoRepository.findSinRelacionesById(1L))
+                .thenReturn(Optional.of(crearPartido(1L, 10)))
+                .thenReturn(Optional.of(crearPartido(1L, 5)));
+        assertFalse(cuposLedger.reservar(1L, 1));
+
+        cuposLedger.invalidar(1L);
+
+        assertTrue(cuposLedger.reservar(1L, 1));
+    }
+
+    private Partido crearPartido(Long id, int cantidadParticipantes) {
+        Partido partido = new Partido();
+        partido.setId(id);
+        partido.setMaxJugadores(MAX_JUGADORES);
+        partido.setEstado(EstadoPartido.DISPONIBLE);
+        partido.setCantidadParticipantes(cantidadParticipantes);
+        return partido;
+    }
+}
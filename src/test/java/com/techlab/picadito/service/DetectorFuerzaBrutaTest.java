@@ -0,0 +1,147 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.security.DetectorFuerzaBruta;
+import com.techlab.picadito.security.DetectorFuerzaBruta.Deteccion;
+import com.techlab.picadito.security.DetectorFuerzaBruta.TipoAtaque;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectorFuerzaBrutaTest {
+
+    private RelojManual reloj;
+    private DetectorFuerzaBruta detector;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new RelojManual();
+        // Ventana de 15 minutos en tramos de un minuto; umbrales: 10 intentos, 5 IPs por email, 10 emails por IP
+        detector = new DetectorFuerzaBruta(Duration.ofMinutes(15), 15, 10, 5, 10, 1_000, reloj);
+    }
+
+    @Test
+    void registrarFallo_ShouldDetectBruteForceFromOneIpAgainstOneEmail() {
+        for (int i = 0; i < 9; i++) {
+            assertTrue(detector.registrarFallo("ana@picadito.test", "10.0.0.1").isEmpty());
+        }
+
+        List<Deteccion> detecciones = detector.registrarFallo("ana@picadito.test", "10.0.0.1");
+
+        assertEquals(List.of(
+                new Deteccion(TipoAtaque.IP_BRUTE_FORCE, "10.0.0.1", 10),
+                new Deteccion(TipoAtaque.EMAIL_BRUTE_FORCE, "ana@picadito.test", 10)), detecciones);
+        assertEquals(1, detector.getDetecciones(TipoAtaque.IP_BRUTE_FORCE));
+    }
+
+    @Test
+    void registrarFallo_ShouldOnlyCountAttemptsInsideSlidingWindow() {
+        for (int i = 0; i < 6; i++) {
+            detector.registrarFallo("ana@picadito.test", "10.0.0.1");
+        }
+        reloj.avanzar(Duration.ofMinutes(10));
+        for (int i = 0; i < 3; i++) {
+            detector.registrarFallo("ana@picadito.test", "10.0.0.1");
+        }
+        // Los primeros seis salen de la ventana: quedan tres más el nuevo
+        reloj.avanzar(Duration.ofMinutes(6));
+
+        assertTrue(detector.registrarFallo("ana@picadito.test", "10.0.0.1").isEmpty());
+        assertEquals(4, detector.getResumen().fallosPorIp());
+    }
+
+    @Test
+    void registrarFallo_ShouldDetectDistributedAttackAgainstOneEmail() {
+        List<Deteccion> ultimas = List.of();
+        for (int i = 1; i <= 5; i++) {
+            ultimas = detector.registrarFallo("Ana@Picadito.test", "10.0.0." + i);
+        }
+
+        assertEquals(List.of(new Deteccion(TipoAtaque.DISTRIBUTED_BRUTE_FORCE, "Ana@Picadito.test", 5)), ultimas);
+        DetectorFuerzaBruta.Resumen resumen = detector.getResumen();
+        assertEquals(1, resumen.emailsConAtaqueDistribuido());
+        assertEquals(5, resumen.ipsConFallos());
+        assertEquals(1, resumen.emailsConFallos());
+    }
+
+    @Test
+    void registrarFallo_ShouldDetectCredentialStuffingFromOneIp() {
+        List<Deteccion> ultimas = List.of();
+        for (int i = 1; i <= 10; i++) {
+            ultimas = detector.registrarFallo("usuario" + i + "@picadito.test", "10.0.0.1");
+        }
+
+        // Diez fallos desde la IP: también es fuerza bruta por IP
+        assertTrue(ultimas.contains(new Deteccion(TipoAtaque.CREDENTIAL_STUFFING, "10.0.0.1", 10)));
+        assertTrue(ultimas.contains(new Deteccion(TipoAtaque.IP_BRUTE_FORCE, "10.0.0.1", 10)));
+        assertEquals(1, detector.getResumen().ipsConCredentialStuffing());
+    }
+
+    @Test
+    void registrarFallo_ShouldForgetDistinctKeysOutsideWindow() {
+        for (int i = 1; i <= 4; i++) {
+            detector.registrarFallo("ana@picadito.test", "10.0.0." + i);
+        }
+        reloj.avanzar(Duration.ofMinutes(16));
+
+        assertTrue(detector.registrarFallo("ana@picadito.test", "10.0.0.5").isEmpty());
+        assertEquals(0, detector.getResumen().emailsConAtaqueDistribuido());
+    }
+
+    @Test
+    void reiniciar_ShouldClearCountersOfIpAndEmail() {
+        for (int i = 0; i < 9; i++) {
+            detector.registrarFallo("ana@picadito.test", "10.0.0.1");
+        }
+
+        detector.reiniciar("ANA@picadito.test", "10.0.0.1");
+
+        assertTrue(detector.registrarFallo("ana@picadito.test", "10.0.0.1").isEmpty());
+        assertEquals(1, detector.getResumen().fallosPorEmail());
+    }
+
+    @Test
+    void registrarFallo_WithManyKeys_ShouldStayBoundedAndCountEvictions() {
+        DetectorFuerzaBruta chico = new DetectorFuerzaBruta(Duration.ofMinutes(15), 15, 10, 5, 10, 64, reloj);
+
+        for (int i = 0; i < 5_000; i++) {
+            chico.registrarFallo("ana@picadito.test", "ip-" + i);
+        }
+
+        DetectorFuerzaBruta.Resumen resumen = chico.getResumen();
+        assertTrue(resumen.ipsConFallos() <= 64);
+        assertEquals(5_000 - resumen.ipsConFallos(), resumen.evicciones());
+        // Un email atacado desde miles de IPs recuerda solo las necesarias para superar el umbral
+        assertEquals(1, resumen.emailsConAtaqueDistribuido());
+    }
+
+    private static final class RelojManual extends Clock {
+        private Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
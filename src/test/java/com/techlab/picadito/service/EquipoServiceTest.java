@@ -66,10 +66,10 @@ class EquipoServiceTest {
     void generarEquiposAutomaticos_WithValidData_ShouldGenerateTeams() {
         when(partidoService.obtenerPartidoEntity(1L)).thenReturn(partido);
         when(equipoRepository.findByPartidoId(1L)).thenReturn(new ArrayList<>());
-        when(equipoRepository.save(any(Equipo.class))).thenAnswer(invocation -> {
-            Equipo equipo = invocation.getArgument(0);
-            equipo.setId(1L);
-            return equipo;
+        when(equipoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Equipo> equipos = invocation.getArgument(0);
+            equipos.forEach(equipo -> equipo.setId(1L));
+            return equipos;
         });
 
         EquiposResponseDTO result = equipoService.generarEquiposAutomaticos(1L);
@@ -78,7 +78,8 @@ class EquipoServiceTest {
         assertNotNull(result.getEquipos());
         assertEquals(2, result.getEquipos().size());
         assertEquals(2, result.getTotal());
-        verify(equipoRepository, times(2)).save(any(Equipo.class));
+        verify(equipoRepository, times(1)).saveAll(anyList());
+        verify(equipoRepository, never()).save(any(Equipo.class));
     }
 
     @Test
@@ -104,10 +105,10 @@ class EquipoServiceTest {
         when(partidoService.obtenerPartidoEntity(1L)).thenReturn(partido);
         when(equipoRepository.findByPartidoId(1L)).thenReturn(equiposExistentes);
         doNothing().when(equipoRepository).deleteAll(equiposExistentes);
-        when(equipoRepository.save(any(Equipo.class))).thenAnswer(invocation -> {
-            Equipo equipo = invocation.getArgument(0);
-            equipo.setId(1L);
-            return equipo;
+        when(equipoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Equipo> equipos = invocation.getArgument(0);
+            equipos.forEach(equipo -> equipo.setId(1L));
+            return equipos;
         });
 
         EquiposResponseDTO result = equipoService.generarEquiposAutomaticos(1L);
@@ -115,7 +116,8 @@ class EquipoServiceTest {
         assertNotNull(result);
         assertNotNull(result.getEquipos());
         verify(equipoRepository, times(1)).deleteAll(equiposExistentes);
-        verify(equipoRepository, times(2)).save(any(Equipo.class));
+        verify(equipoRepository, times(1)).saveAll(anyList());
+        verify(equipoRepository, never()).save(any(Equipo.class));
     }
 
     @Test
@@ -0,0 +1,167 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.model.Reserva;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EstadisticasAgregadasTest {
+
+    @Mock
+    private EstadisticasAgregadasCarga carga;
+
+    @InjectMocks
+    private EstadisticasAgregadas estadisticasAgregadas;
+
+    @BeforeEach
+    void setUp() {
+        // Base vacía: la primera reconstrucción deja los agregados en cero
+        lenient().when(carga.cargar()).thenAnswer(invocacion -> new EstadisticasAgregadas.Estado());
+        estadisticasAgregadas.reconstruir();
+    }
+
+    @Test
+    void partidoEvents_ShouldUpdateCountersAndOccupancy() {
+        estadisticasAgregadas.partidoCreado(contribucion(10L, 10, 5, 100.0), Set.of(100L, 200L));
+        estadisticasAgregadas.partidoCreado(contribucion(10L, 4, 0, 0.0), Set.of(100L));
+
+        EstadisticasAgregadas.Resumen resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(2, resumen.totalPartidos());
+        assertEquals(Map.of(10L, 2L), resumen.partidosPorSede());
+        assertEquals(Map.of(100L, 2L, 200L, 1L), resumen.partidosPorCategoria());
+        assertEquals(25.0, resumen.tasaOcupacionPromedio(), 1e-9);
+
+        // Cambio de sede y de categorías informados por separado
+        estadisticasAgregadas.partidoActualizado(2L, contribucion(10L, 4, 0, 0.0), contribucion(20L, 4, 0, 0.0));
+        estadisticasAgregadas.partidoCambioDeCategorias(Set.of(100L), Set.of(200L));
+        resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(Map.of(10L, 1L, 20L, 1L), resumen.partidosPorSede());
+        assertEquals(Map.of(100L, 1L, 200L, 2L), resumen.partidosPorCategoria());
+
+        estadisticasAgregadas.partidoEliminado(contribucion(10L, 10, 5, 100.0), Set.of(100L, 200L));
+        resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(1, resumen.totalPartidos());
+        assertEquals(Map.of(20L, 1L), resumen.partidosPorSede());
+        assertEquals(Map.of(200L, 1L), resumen.partidosPorCategoria());
+        assertEquals(0.0, resumen.tasaOcupacionPromedio(), 1e-9);
+        // Sin cambio de precio no se consulta la base
+        verify(carga, never()).unidadesFacturadasPorUsuario(any());
+    }
+
+    @Test
+    void participantesCambiados_ShouldMoveOccupancy() {
+        estadisticasAgregadas.partidoCreado(contribucion(null, 10, 0, 0.0), Set.of());
+        estadisticasAgregadas.partidoCreado(contribucion(null, 10, 0, 0.0), Set.of());
+        when(carga.maxJugadores(2L)).thenReturn(Optional.of(10));
+        when(carga.maxJugadores(99L)).thenReturn(Optional.empty());
+
+        estadisticasAgregadas.participantesCambiados(1L, 10, 3);
+        estadisticasAgregadas.participantesCambiados(1L, 10, -1);
+        // Partido sin cargar: la capacidad se consulta
+        estadisticasAgregadas.participantesCambiados(2L, null, 3);
+        // Partido que ya no existe: se ignora
+        estadisticasAgregadas.participantesCambiados(99L, null, 5);
+
+        assertEquals(25.0, estadisticasAgregadas.resumen(10).tasaOcupacionPromedio(), 1e-9);
+    }
+
+    @Test
+    void reservaEvents_ShouldOnlyCountRevenueForConfirmedOrFinished() {
+        estadisticasAgregadas.reservaCreada(1L, 7L, Reserva.EstadoReserva.PENDIENTE, null);
+        assertEquals(0.0, estadisticasAgregadas.resumen(10).ingresosTotales(), 1e-9);
+        verify(carga, never()).totalReserva(any());
+
+        // Líneas no cargadas (total null): el importe se consulta
+        when(carga.totalReserva(1L)).thenReturn(200.0);
+        estadisticasAgregadas.reservaCambioDeEstado(1L, 7L, Reserva.EstadoReserva.PENDIENTE,
+                Reserva.EstadoReserva.CONFIRMADO, null);
+        EstadisticasAgregadas.Resumen resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(200.0, resumen.ingresosTotales(), 1e-9);
+        assertEquals(Map.of(Reserva.EstadoReserva.CONFIRMADO, 1L), resumen.reservasPorEstado());
+        assertEquals(List.of(new EstadisticasAgregadas.UsuarioActivo(7L, 1L, 200.0)), resumen.usuariosActivos());
+
+        estadisticasAgregadas.reservaCambioDeEstado(1L, 7L, Reserva.EstadoReserva.CONFIRMADO,
+                Reserva.EstadoReserva.CANCELADO, 200.0);
+        resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(0.0, resumen.ingresosTotales(), 1e-9);
+        assertEquals(Map.of(Reserva.EstadoReserva.CANCELADO, 1L), resumen.reservasPorEstado());
+        assertEquals(1, resumen.totalReservas());
+
+        estadisticasAgregadas.reservaEliminada(7L, Reserva.EstadoReserva.CANCELADO, 200.0);
+        resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(0, resumen.totalReservas());
+        assertEquals(0.0, resumen.ingresosTotales(), 1e-9);
+        assertTrue(resumen.usuariosActivos().isEmpty());
+    }
+
+    @Test
+    void partidoActualizado_WithNewPrecio_ShouldRevalueConfirmedUnits() {
+        estadisticasAgregadas.partidoCreado(contribucion(null, 10, 0, 100.0), Set.of());
+        estadisticasAgregadas.reservaCreada(1L, 7L, Reserva.EstadoReserva.CONFIRMADO, 200.0);
+        estadisticasAgregadas.reservaCreada(2L, 8L, Reserva.EstadoReserva.PENDIENTE, 500.0);
+        when(carga.unidadesFacturadasPorUsuario(1L)).thenReturn(Map.of(7L, 2L));
+
+        estadisticasAgregadas.partidoActualizado(1L, contribucion(null, 10, 0, 100.0), contribucion(null, 10, 0, 150.0));
+
+        EstadisticasAgregadas.Resumen resumen = estadisticasAgregadas.resumen(10);
+        assertEquals(300.0, resumen.ingresosTotales(), 1e-9);
+        assertEquals(300.0, resumen.usuariosActivos().get(0).totalGastado(), 1e-9);
+    }
+
+    @Test
+    void resumen_ShouldLimitRankingsAndBreakTiesById() {
+        for (long usuarioId = 12; usuarioId >= 1; usuarioId--) {
+            estadisticasAgregadas.reservaCreada(usuarioId, usuarioId, Reserva.EstadoReserva.PENDIENTE, null);
+        }
+        estadisticasAgregadas.reservaCreada(100L, 5L, Reserva.EstadoReserva.PENDIENTE, null);
+
+        List<EstadisticasAgregadas.UsuarioActivo> usuariosActivos = estadisticasAgregadas.resumen(3).usuariosActivos();
+
+        assertEquals(List.of(5L, 1L, 2L), usuariosActivos.stream().map(EstadisticasAgregadas.UsuarioActivo::usuarioId).toList());
+        assertEquals(2L, usuariosActivos.get(0).cantidadReservas());
+    }
+
+    @Test
+    void reconstruir_ShouldReportDifferencesAgainstDatabase() {
+        when(carga.cargar()).thenAnswer(invocacion -> {
+            EstadisticasAgregadas.Estado estado = new EstadisticasAgregadas.Estado();
+            estado.totalPartidos = 1;
+            estado.sumarPartido(contribucion(10L, 10, 4, 100.0), 1);
+            estado.contarReserva(7L, Reserva.EstadoReserva.CONFIRMADO, 1);
+            estado.sumarIngresos(7L, 200.0);
+            estado.totalUsuarios = 1;
+            return estado;
+        });
+
+        estadisticasAgregadas.partidoCreado(contribucion(10L, 10, 4, 100.0), Set.of());
+        estadisticasAgregadas.reservaCreada(1L, 7L, Reserva.EstadoReserva.CONFIRMADO, 200.0);
+        estadisticasAgregadas.usuariosCambiados(1);
+        assertEquals(List.of(), estadisticasAgregadas.reconstruir());
+
+        // Un cambio que no llegó como evento aparece como diferencia y la reconstrucción lo corrige
+        estadisticasAgregadas.participantesCambiados(1L, 10, 1);
+        List<String> diferencias = estadisticasAgregadas.reconstruir();
+
+        assertFalse(diferencias.isEmpty());
+        assertTrue(diferencias.stream().anyMatch(d -> d.startsWith("sumaOcupacion")));
+        assertEquals(40.0, estadisticasAgregadas.resumen(10).tasaOcupacionPromedio(), 1e-9);
+        assertEquals(List.of(), estadisticasAgregadas.reconstruir());
+    }
+
+    private static EstadisticasAgregadas.ContribucionPartido contribucion(Long sedeId, int maxJugadores,
+                                                                         int cantidadParticipantes, double precio) {
+        return new EstadisticasAgregadas.ContribucionPartido(sedeId, maxJugadores, cantidadParticipantes, precio);
+    }
+}
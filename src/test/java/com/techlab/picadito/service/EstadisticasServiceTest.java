@@ -1,5 +1,6 @@
 package com.techlab.picadito.service;
 
+import com.techlab.picadito.categoria.CategoriaRepository;
 import com.techlab.picadito.dto.EstadisticasDTO;
 import com.techlab.picadito.model.*;
 import com.techlab.picadito.partido.PartidoRepository;
@@ -12,12 +13,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +40,12 @@ class EstadisticasServiceTest {
     @Mock
     private SedeRepository sedeRepository;
 
+    @Mock
+    private CategoriaRepository categoriaRepository;
+
+    @Mock
+    private EstadisticasAgregadas estadisticasAgregadas;
+
     @InjectMocks
     private EstadisticasService estadisticasService;
 
@@ -65,6 +76,7 @@ class EstadisticasServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
         partido.setSede(sede);
         partido.setFechaCreacion(LocalDateTime.now());
 
@@ -77,13 +89,15 @@ class EstadisticasServiceTest {
 
     @Test
     void obtenerEstadisticasGenerales_ShouldReturnEstadisticas() {
-        when(partidoRepository.count()).thenReturn(10L);
-        when(reservaRepository.count()).thenReturn(25L);
-        when(usuarioRepository.count()).thenReturn(5L);
-        when(reservaRepository.findAll()).thenReturn(Arrays.asList(reserva));
-        when(partidoRepository.findAll()).thenReturn(Arrays.asList(partido));
-        when(usuarioRepository.findAll()).thenReturn(Arrays.asList(usuario));
-        when(sedeRepository.findAll()).thenReturn(Arrays.asList(sede));
+        when(estadisticasAgregadas.resumen(10)).thenReturn(new EstadisticasAgregadas.Resumen(
+                10L, 25L, 5L, 1500.0, 50.0,
+                Map.of(Reserva.EstadoReserva.CONFIRMADO, 25L),
+                Map.of(),
+                Map.of(1L, 1L),
+                List.of(new EstadisticasAgregadas.UsuarioActivo(1L, 1L, 1500.0))));
+        when(partidoRepository.findMasPopulares(PageRequest.of(0, 10))).thenReturn(List.of(partido));
+        when(usuarioRepository.findAllById(any())).thenReturn(List.of(usuario));
+        when(sedeRepository.findAllById(any())).thenReturn(List.of(sede));
 
         EstadisticasDTO result = estadisticasService.obtenerEstadisticasGenerales();
 
@@ -91,9 +105,16 @@ class EstadisticasServiceTest {
         assertEquals(10L, result.getTotalPartidos());
         assertEquals(25L, result.getTotalReservas());
         assertEquals(5L, result.getTotalUsuarios());
-        verify(partidoRepository, times(1)).count();
-        verify(reservaRepository, times(1)).count();
-        verify(usuarioRepository, times(1)).count();
+        assertEquals(1500.0, result.getIngresosTotales());
+        assertEquals(50.0, result.getTasaOcupacionPromedio());
+        assertEquals(25L, result.getReservasPorEstado().get("CONFIRMADO"));
+        assertEquals("Partido Test", result.getPartidosPopulares().get(0).getTitulo());
+        assertEquals("Test User", result.getUsuariosActivos().get(0).getNombre());
+        assertEquals("Sede Test", result.getSedesUtilizadas().get(0).getNombre());
+        // Los totales salen de los agregados, sin recorrer las tablas
+        verify(partidoRepository, never()).findAll();
+        verify(reservaRepository, never()).findAll();
+        verify(usuarioRepository, never()).findAll();
     }
 
     @Test
@@ -131,13 +152,8 @@ class EstadisticasServiceTest {
 
     @Test
     void obtenerEstadisticasGenerales_WithNoData_ShouldReturnZeroValues() {
-        when(partidoRepository.count()).thenReturn(0L);
-        when(reservaRepository.count()).thenReturn(0L);
-        when(usuarioRepository.count()).thenReturn(0L);
-        when(reservaRepository.findAll()).thenReturn(new ArrayList<>());
-        when(partidoRepository.findAll()).thenReturn(new ArrayList<>());
-        when(usuarioRepository.findAll()).thenReturn(new ArrayList<>());
-        when(sedeRepository.findAll()).thenReturn(new ArrayList<>());
+        when(estadisticasAgregadas.resumen(10)).thenReturn(new EstadisticasAgregadas.Resumen(
+                0L, 0L, 0L, 0.0, 0.0, Map.of(), Map.of(), Map.of(), List.of()));
 
         EstadisticasDTO result = estadisticasService.obtenerEstadisticasGenerales();
 
@@ -145,6 +161,7 @@ class EstadisticasServiceTest {
         assertEquals(0L, result.getTotalPartidos());
         assertEquals(0L, result.getTotalReservas());
         assertEquals(0L, result.getTotalUsuarios());
+        assertTrue(result.getPartidosPopulares().isEmpty());
     }
 }
 
@@ -0,0 +1,122 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.security.InMemoryRateLimitStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimitStoreTest {
+
+    private RelojManual reloj;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new RelojManual();
+    }
+
+    @Test
+    void tryConsume_ShouldRejectOnceCapacityIsUsed() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(3, Duration.ofMinutes(1), 100, 4, reloj);
+
+        assertTrue(store.tryConsume("10.0.0.1"));
+        assertTrue(store.tryConsume("10.0.0.1"));
+        assertTrue(store.tryConsume("10.0.0.1"));
+        assertFalse(store.tryConsume("10.0.0.1"));
+        assertTrue(store.tryConsume("10.0.0.2"));
+        assertEquals(0, store.getAvailableTokens("10.0.0.1"));
+    }
+
+    @Test
+    void getAvailableTokens_ForUnknownKey_ShouldNotCreateBucket() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(5, Duration.ofMinutes(1), 100, 4, reloj);
+
+        assertEquals(5, store.getAvailableTokens("10.0.0.1"));
+        assertEquals(0, store.getCantidadBuckets());
+    }
+
+    @Test
+    void tryConsume_WithManyKeys_ShouldStayBoundedAndCountEvictions() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(5, Duration.ofMinutes(1), 64, 4, reloj);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.tryConsume("ip-" + i);
+        }
+
+        assertTrue(store.getCantidadBuckets() <= 64);
+        assertEquals(10_000 - store.getCantidadBuckets(), store.getEviccionesPorCapacidad());
+        assertEquals(0, store.getEviccionesPorInactividad());
+    }
+
+    @Test
+    void tryConsume_WhenSegmentIsFull_ShouldEvictLeastRecentlyUsed() {
+        // Un solo segmento de dos buckets para controlar el orden de acceso
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1, Duration.ofMinutes(1), 2, 1, reloj);
+
+        assertTrue(store.tryConsume("a"));
+        assertTrue(store.tryConsume("b"));
+        assertFalse(store.tryConsume("a"));
+        assertTrue(store.tryConsume("c"));
+
+        // "b" era el menos usado: se descartó y vuelve con el bucket lleno; "a" sigue agotado
+        assertEquals(0, store.getAvailableTokens("a"));
+        assertEquals(1, store.getAvailableTokens("b"));
+        assertEquals(1, store.getEviccionesPorCapacidad());
+    }
+
+    @Test
+    void limpiarInactivos_ShouldOnlyDropBucketsIdleForAFullPeriod() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(5, Duration.ofMinutes(1), 100, 4, reloj);
+        store.tryConsume("viejo");
+        reloj.avanzar(Duration.ofSeconds(40));
+        store.tryConsume("reciente");
+        reloj.avanzar(Duration.ofSeconds(30));
+
+        assertEquals(1, store.limpiarInactivos());
+        assertEquals(1, store.getCantidadBuckets());
+        assertEquals(4, store.getAvailableTokens("reciente"));
+        assertEquals(1, store.getEviccionesPorInactividad());
+    }
+
+    @Test
+    void tryConsume_ShouldDropIdleBucketsBeforeEvictingActiveOnes() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1, Duration.ofMinutes(1), 2, 1, reloj);
+        store.tryConsume("a");
+        store.tryConsume("b");
+        reloj.avanzar(Duration.ofMinutes(2));
+
+        store.tryConsume("c");
+
+        assertEquals(0, store.getEviccionesPorCapacidad());
+        assertEquals(2, store.getEviccionesPorInactividad());
+    }
+
+    private static final class RelojManual extends Clock {
+        private Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
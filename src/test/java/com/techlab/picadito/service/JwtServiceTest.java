@@ -0,0 +1,110 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.security.JwtService;
+import com.techlab.picadito.security.TokenBlacklistService;
+import com.techlab.picadito.security.TokenVerificado;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "ClaveDePruebaParaJwtServiceTestDe32BytesOMas";
+
+    private JwtService jwtService;
+    private UserDetails usuario;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = crearJwtService(SECRET, 100);
+        usuario = User.withUsername("ana@picadito.test").password("x").authorities(List.of()).build();
+    }
+
+    @Test
+    void verificarToken_SameToken_ShouldReuseVerifiedClaims() {
+        String token = jwtService.generateToken(usuario);
+
+        TokenVerificado primero = jwtService.verificarToken(token);
+        TokenVerificado segundo = jwtService.verificarToken(token);
+
+        assertSame(primero, segundo);
+        assertEquals("ana@picadito.test", primero.subject());
+        assertTrue(jwtService.validateToken(segundo, usuario));
+    }
+
+    @Test
+    void verificarToken_WithTamperedPayload_ShouldNotHitCache() {
+        String token = jwtService.generateToken(usuario);
+        jwtService.verificarToken(token);
+
+        String[] partes = token.split("\\.");
+        String otroPayload = jwtService.generateToken(
+                User.withUsername("admin@picadito.test").password("x").authorities(List.of()).build()).split("\\.")[1];
+        String alterado = partes[0] + "." + otroPayload + "." + partes[2];
+
+        assertThrows(JwtException.class, () -> jwtService.verificarToken(alterado));
+    }
+
+    @Test
+    void verificarToken_SignedWithOtherKey_ShouldBeRejected() {
+        String ajeno = crearJwtService("OtraClaveDistintaParaFirmarTokensDePrueba99", 100).generateToken(usuario);
+
+        assertThrows(JwtException.class, () -> jwtService.verificarToken(ajeno));
+    }
+
+    @Test
+    void validateToken_AfterRevocation_ShouldFailEvenIfCached() {
+        String token = jwtService.generateToken(usuario);
+        assertTrue(jwtService.validateToken(token, usuario));
+
+        jwtService.revokeToken(token);
+
+        assertFalse(jwtService.validateToken(token, usuario));
+    }
+
+    @Test
+    void revokeToken_ShouldOnlyAffectThatToken() {
+        String revocado = jwtService.generateToken(usuario);
+        String vigente = jwtService.generateToken(usuario);
+        String refresh = jwtService.generateRefreshToken(usuario);
+
+        jwtService.revokeToken(revocado);
+        jwtService.revokeToken(refresh);
+
+        assertNotEquals(jwtService.verificarToken(revocado).jti(), jwtService.verificarToken(vigente).jti());
+        assertFalse(jwtService.validateToken(revocado, usuario));
+        assertTrue(jwtService.validateToken(vigente, usuario));
+        assertFalse(jwtService.validateRefreshToken(refresh));
+    }
+
+    @Test
+    void revokeToken_WithInvalidToken_ShouldBeIgnored() {
+        assertDoesNotThrow(() -> jwtService.revokeToken("no.es.un-token"));
+    }
+
+    @Test
+    void validateRefreshToken_ShouldRequireRefreshType() {
+        assertTrue(jwtService.validateRefreshToken(jwtService.generateRefreshToken(usuario)));
+        assertFalse(jwtService.validateRefreshToken(jwtService.generateToken(usuario)));
+        assertFalse(jwtService.validateRefreshToken("no.es.un-token"));
+    }
+
+    private static JwtService crearJwtService(String secret, long cacheMaxSize) {
+        JwtService service = new JwtService(new TokenBlacklistService(Duration.ofHours(2), Duration.ofMinutes(10), 100, Clock.systemUTC()), cacheMaxSize);
+        ReflectionTestUtils.setField(service, "secretKey", secret);
+        ReflectionTestUtils.setField(service, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(service, "issuer", "picadito-backend");
+        ReflectionTestUtils.setField(service, "audience", "picadito-frontend");
+        return service;
+    }
+}
@@ -0,0 +1,107 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.config.LimiteConexionesDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LimiteConexionesDataSourceTest {
+
+    @Test
+    void getConnection_WhenAllPermitsTaken_ShouldWaitAndThenThrow() throws Exception {
+        DataSource delegado = mock(DataSource.class);
+        when(delegado.getConnection()).thenAnswer(invocacion -> mock(Connection.class));
+        LimiteConexionesDataSource dataSource = new LimiteConexionesDataSource(delegado, 2, Duration.ofMillis(50));
+
+        Connection primera = dataSource.getConnection();
+        dataSource.getConnection();
+        assertEquals(2, dataSource.getEnUso());
+
+        long inicio = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() >= 40);
+
+        primera.close();
+        assertEquals(1, dataSource.getEnUso());
+        assertNotNull(dataSource.getConnection());
+        verify(delegado, times(3)).getConnection();
+    }
+
+    @Test
+    void close_CalledTwice_ShouldReleaseOnePermitAndDelegateBoth() throws Exception {
+        Connection real = mock(Connection.class);
+        DataSource delegado = mock(DataSource.class);
+        when(delegado.getConnection()).thenReturn(real);
+        LimiteConexionesDataSource dataSource = new LimiteConexionesDataSource(delegado, 2, Duration.ofMillis(50));
+
+        Connection conexion = dataSource.getConnection();
+        dataSource.getConnection();
+        conexion.close();
+        conexion.close();
+
+        assertEquals(1, dataSource.getEnUso());
+        verify(real, times(2)).close();
+    }
+
+    @Test
+    void getConnection_WhenDelegateFails_ShouldReleasePermit() throws Exception {
+        DataSource delegado = mock(DataSource.class);
+        when(delegado.getConnection()).thenThrow(new SQLException("base caída"));
+        LimiteConexionesDataSource dataSource = new LimiteConexionesDataSource(delegado, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(0, dataSource.getEnUso());
+    }
+
+    @Test
+    void getConnection_WithManyVirtualThreads_ShouldNeverExceedLimit() throws Exception {
+        AtomicInteger abiertas = new AtomicInteger();
+        AtomicInteger maximoObservado = new AtomicInteger();
+        DataSource delegado = mock(DataSource.class);
+        when(delegado.getConnection()).thenAnswer(invocacion -> {
+            maximoObservado.accumulateAndGet(abiertas.incrementAndGet(), Math::max);
+            Connection conexion = mock(Connection.class);
+            doAnswer(cierre -> abiertas.decrementAndGet()).when(conexion).close();
+            return conexion;
+        });
+        LimiteConexionesDataSource dataSource = new LimiteConexionesDataSource(delegado, 3, Duration.ofSeconds(10));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dataSource.registrarMetricas(meterRegistry);
+
+        List<Future<?>> requests = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                requests.add(hilos.submit(() -> {
+                    try (Connection ignored = dataSource.getConnection()) {
+                        Thread.sleep(1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        }
+
+        assertTrue(maximoObservado.get() <= 3, "Conexiones simultáneas: " + maximoObservado.get());
+        assertEquals(0, dataSource.getEnUso());
+        assertEquals(0, dataSource.getEsperando());
+        assertEquals(0, meterRegistry.get("db.connections.gate.active").gauge().value());
+    }
+}
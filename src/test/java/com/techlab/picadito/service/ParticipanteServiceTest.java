@@ -4,6 +4,7 @@ import com.techlab.picadito.dto.ParticipanteDTO;
 import com.techlab.picadito.dto.ParticipanteResponseDTO;
 import com.techlab.picadito.dto.ParticipantesResponseDTO;
 import com.techlab.picadito.exception.BusinessException;
+import com.techlab.picadito.exception.CuposInsuficientesException;
 import com.techlab.picadito.exception.ResourceNotFoundException;
 import com.techlab.picadito.model.EstadoPartido;
 import com.techlab.picadito.model.Nivel;
@@ -11,21 +12,26 @@ import com.techlab.picadito.model.Partido;
 import com.techlab.picadito.model.Participante;
 import com.techlab.picadito.model.Posicion;
 import com.techlab.picadito.participante.ParticipanteRepository;
+import com.techlab.picadito.partido.CuposLedger;
 import com.techlab.picadito.partido.PartidoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +44,7 @@ class ParticipanteServiceTest {
     private PartidoRepository partidoRepository;
 
     @Mock
-    private com.techlab.picadito.partido.PartidoService partidoService;
+    private CuposLedger cuposLedger;
 
     @InjectMocks
     private com.techlab.picadito.participante.ParticipanteService participanteService;
@@ -49,20 +55,14 @@ class ParticipanteServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(cuposLedger.reservar(anyLong(), anyInt())).thenReturn(true);
+
         partido = new Partido();
         partido.setId(1L);
         partido.setTitulo("Partido Test");
         partido.setEstado(EstadoPartido.DISPONIBLE);
         partido.setMaxJugadores(10);
-        // cantidadParticipantes es calculado, así que agregamos participantes
-        for (int i = 0; i < 5; i++) {
-            Participante p = new Participante();
-            p.setId((long) i);
-            p.setNombre("Participante " + i);
-            p.setPartido(partido);
-            partido.getParticipantes().add(p);
-        }
-        partido.setParticipantes(new ArrayList<>());
+        partido.setCantidadParticipantes(5);
 
         participante = new Participante();
         participante.setId(1L);
@@ -82,54 +82,133 @@ class ParticipanteServiceTest {
     @Test
     @SuppressWarnings("null")
     void inscribirseAPartido_WithValidData_ShouldCreateParticipante() {
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
-        when(participanteRepository.existsByPartidoAndNombre(partido, "Juan Pérez")).thenReturn(false);
-        when(participanteRepository.save(any(Participante.class))).thenReturn(participante);
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
-        doNothing().when(partidoService).actualizarEstadoSegunParticipantes(any(Partido.class));
+        when(participanteRepository.existsByPartidoIdAndNombre(1L, "Juan Pérez")).thenReturn(false);
+        when(partidoRepository.incrementarCantidadParticipantes(1L, 1)).thenReturn(1);
+        when(partidoRepository.getReferenceById(1L)).thenReturn(partido);
+        when(participanteRepository.saveAll(anyList())).thenReturn(List.of(participante));
 
         ParticipanteResponseDTO result = participanteService.inscribirseAPartido(1L, participanteDTO);
 
         assertNotNull(result);
         assertEquals("Juan Pérez", result.getNombre());
-        verify(participanteRepository, times(1)).save(any(Participante.class));
+        verify(participanteRepository, times(1)).saveAll(anyList());
+        // La inscripción no debe cargar el partido con su colección de participantes
+        verify(partidoRepository, never()).findById(any());
     }
 
     @Test
     void inscribirseAPartido_WhenPartidoNotAvailable_ShouldThrowException() {
         partido.setEstado(EstadoPartido.COMPLETO);
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
+        when(partidoRepository.incrementarCantidadParticipantes(1L, 1)).thenReturn(0);
+        when(partidoRepository.findSinRelacionesById(1L)).thenReturn(Optional.of(partido));
 
-        assertThrows(BusinessException.class, () -> {
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
             participanteService.inscribirseAPartido(1L, participanteDTO);
         });
+        assertTrue(exception.getMessage().contains("no está disponible"));
+        verify(participanteRepository, never()).saveAll(anyList());
     }
 
     @Test
     void inscribirseAPartido_WhenPartidoCompleto_ShouldThrowException() {
-        // cantidadParticipantes es calculado, así que agregamos participantes hasta completar
-        for (int i = 0; i < 10; i++) {
-            Participante p = new Participante();
-            p.setId((long) i);
-            p.setNombre("Participante " + i);
-            p.setPartido(partido);
-            partido.getParticipantes().add(p);
-        }
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
+        partido.setCantidadParticipantes(10);
+        when(partidoRepository.incrementarCantidadParticipantes(1L, 1)).thenReturn(0);
+        when(partidoRepository.findSinRelacionesById(1L)).thenReturn(Optional.of(partido));
 
-        assertThrows(BusinessException.class, () -> {
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
             participanteService.inscribirseAPartido(1L, participanteDTO);
         });
+        assertTrue(exception.getMessage().contains("completo"));
+        verify(participanteRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void inscribirseAPartido_WhenPartidoNotFound_ShouldThrowException() {
+        when(partidoRepository.incrementarCantidadParticipantes(999L, 1)).thenReturn(0);
+        when(partidoRepository.findSinRelacionesById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> {
+            participanteService.inscribirseAPartido(999L, participanteDTO);
+        });
     }
 
     @Test
     void inscribirseAPartido_WithDuplicateName_ShouldThrowException() {
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
-        when(participanteRepository.existsByPartidoAndNombre(partido, "Juan Pérez")).thenReturn(true);
+        when(participanteRepository.existsByPartidoIdAndNombre(1L, "Juan Pérez")).thenReturn(true);
 
         assertThrows(BusinessException.class, () -> {
             participanteService.inscribirseAPartido(1L, participanteDTO);
         });
+        verify(partidoRepository, never()).incrementarCantidadParticipantes(any(), anyInt());
+    }
+
+    @Test
+    void inscribirseAPartido_WhenLedgerRejects_ShouldThrowWithoutTouchingDatabase() {
+        when(cuposLedger.reservar(1L, 1)).thenReturn(false);
+
+        assertThrows(CuposInsuficientesException.class, () -> {
+            participanteService.inscribirseAPartido(1L, participanteDTO);
+        });
+        verify(partidoRepository, never()).incrementarCantidadParticipantes(any(), anyInt());
+        verify(participanteRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void inscribirParticipantes_ShouldReserveAllSeatsWithSingleUpdate() {
+        ParticipanteDTO otroDTO = new ParticipanteDTO();
+        otroDTO.setNombre("Pedro Gómez");
+        when(partidoRepository.incrementarCantidadParticipantes(1L, 2)).thenReturn(1);
+        when(partidoRepository.getReferenceById(1L)).thenReturn(partido);
+        when(participanteRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Participante> result = participanteService.inscribirParticipantes(1L, List.of(participanteDTO, otroDTO));
+
+        assertEquals(2, result.size());
+        assertEquals("Pedro Gómez", result.get(1).getNombre());
+        verify(partidoRepository, times(1)).incrementarCantidadParticipantes(1L, 2);
+        verify(participanteRepository, times(1)).saveAll(anyList());
+        verify(participanteRepository, never()).save(any(Participante.class));
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void inscribirParticipantesEnPartidos_ShouldReserveEverySeatBeforeSavingAllParticipants() {
+        Partido otroPartido = new Partido();
+        otroPartido.setId(2L);
+        ParticipanteDTO otroDTO = new ParticipanteDTO();
+        otroDTO.setNombre("Pedro Gómez");
+        Map<Long, List<ParticipanteDTO>> participantesPorPartido = new LinkedHashMap<>();
+        participantesPorPartido.put(1L, List.of(participanteDTO));
+        participantesPorPartido.put(2L, List.of(otroDTO));
+        when(partidoRepository.incrementarCantidadParticipantes(anyLong(), eq(1))).thenReturn(1);
+        when(partidoRepository.getReferenceById(1L)).thenReturn(partido);
+        when(partidoRepository.getReferenceById(2L)).thenReturn(otroPartido);
+        when(participanteRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Participante> result = participanteService.inscribirParticipantesEnPartidos(participantesPorPartido);
+
+        assertEquals(List.of(partido, otroPartido), result.stream().map(Participante::getPartido).toList());
+        // Las actualizaciones del contador hacen flush: ninguna puede quedar entre los INSERT
+        InOrder orden = inOrder(partidoRepository, participanteRepository);
+        orden.verify(partidoRepository).incrementarCantidadParticipantes(1L, 1);
+        orden.verify(partidoRepository).incrementarCantidadParticipantes(2L, 1);
+        orden.verify(participanteRepository).saveAll(anyList());
+    }
+
+    @Test
+    void inscribirParticipantes_WithoutEnoughCapacity_ShouldThrowException() {
+        partido.setCantidadParticipantes(9);
+        ParticipanteDTO otroDTO = new ParticipanteDTO();
+        otroDTO.setNombre("Pedro Gómez");
+        when(partidoRepository.incrementarCantidadParticipantes(1L, 2)).thenReturn(0);
+        when(partidoRepository.findSinRelacionesById(1L)).thenReturn(Optional.of(partido));
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
+            participanteService.inscribirParticipantes(1L, List.of(participanteDTO, otroDTO));
+        });
+        assertTrue(exception.getMessage().contains("capacidad disponible: 1"));
+        verify(participanteRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -159,20 +238,21 @@ class ParticipanteServiceTest {
     @Test
     @SuppressWarnings("null")
     void desinscribirseDePartido_WithValidIds_ShouldRemoveParticipante() {
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
+        when(partidoRepository.existsById(1L)).thenReturn(true);
         when(participanteRepository.findById(1L)).thenReturn(Optional.of(participante));
         doNothing().when(participanteRepository).delete(any(Participante.class));
-        doNothing().when(partidoService).actualizarEstadoSegunParticipantes(any(Partido.class));
+        when(partidoRepository.decrementarCantidadParticipantes(1L, 1)).thenReturn(1);
 
         participanteService.desinscribirseDePartido(1L, 1L);
 
         verify(participanteRepository, times(1)).delete(any(Participante.class));
-        verify(partidoService, times(1)).actualizarEstadoSegunParticipantes(any(Partido.class));
+        verify(partidoRepository, times(1)).decrementarCantidadParticipantes(1L, 1);
+        verify(cuposLedger).liberar(1L, 1);
     }
 
     @Test
     void desinscribirseDePartido_WithInvalidPartidoId_ShouldThrowException() {
-        when(partidoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(partidoRepository.existsById(999L)).thenReturn(false);
 
         assertThrows(ResourceNotFoundException.class, () -> {
             participanteService.desinscribirseDePartido(999L, 1L);
@@ -181,7 +261,7 @@ class ParticipanteServiceTest {
 
     @Test
     void desinscribirseDePartido_WithInvalidParticipanteId_ShouldThrowException() {
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
+        when(partidoRepository.existsById(1L)).thenReturn(true);
         when(participanteRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -195,13 +275,12 @@ class ParticipanteServiceTest {
         otroPartido.setId(2L);
         participante.setPartido(otroPartido);
 
-        when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
+        when(partidoRepository.existsById(1L)).thenReturn(true);
         when(participanteRepository.findById(1L)).thenReturn(Optional.of(participante));
 
         assertThrows(BusinessException.class, () -> {
             participanteService.desinscribirseDePartido(1L, 1L);
         });
+        verify(partidoRepository, never()).decrementarCantidadParticipantes(any(), anyInt());
     }
 }
-
-
@@ -0,0 +1,114 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.dto.BusquedaPartidoDTO;
+import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.partido.PartidoSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartidoSearchIndexTest {
+
+    @Mock
+    private PartidoRepository partidoRepository;
+
+    @InjectMocks
+    private PartidoSearchIndex partidoSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(partidoRepository.findTextosParaBusqueda()).thenReturn(List.of(
+                new Object[]{1L, "Fútbol 5 en Palermo", "Partido amistoso nocturno", "Cancha Palermo Soho", "Martín Gómez"},
+                new Object[]{2L, "Picadito del sábado", null, "Caballito", "Juan Pérez"},
+                new Object[]{3L, "Futbol 11 competitivo", "Nivel avanzado, traer camiseta", "Núñez", "María Núñez"}
+        ));
+        partidoSearchIndex.reconstruir();
+    }
+
+    @Test
+    void buscar_ShouldFoldAccentsAndCase() {
+        assertEquals(Set.of(1L, 3L), partidoSearchIndex.buscar(porTitulo("FUTBOL")));
+        assertEquals(Set.of(3L), partidoSearchIndex.buscar(porUbicacion("nunez")));
+        assertEquals(Set.of(1L), partidoSearchIndex.buscar(porCreador("martin")));
+    }
+
+    @Test
+    void buscar_ShouldMatchWordPrefixes() {
+        assertEquals(Set.of(2L), partidoSearchIndex.buscar(porTitulo("pica")));
+        assertEquals(Set.of(2L), partidoSearchIndex.buscar(porTitulo("sab")));
+    }
+
+    @Test
+    void buscar_WithSeveralWords_ShouldRequireAllOfThem() {
+        assertEquals(Set.of(1L), partidoSearchIndex.buscar(porTitulo("futbol palermo")));
+        assertTrue(partidoSearchIndex.buscar(porTitulo("futbol caballito")).isEmpty());
+    }
+
+    @Test
+    void buscar_WithSeveralCriteria_ShouldIntersectThem() {
+        BusquedaPartidoDTO busqueda = porTitulo("futbol");
+        busqueda.setUbicacion("palermo");
+
+        assertEquals(Set.of(1L), partidoSearchIndex.buscar(busqueda));
+    }
+
+    @Test
+    void buscar_ByTexto_ShouldSearchAllFields() {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setTexto("camiseta");
+        assertEquals(Set.of(3L), partidoSearchIndex.buscar(busqueda));
+
+        busqueda.setTexto("palermo nocturno");
+        assertEquals(Set.of(1L), partidoSearchIndex.buscar(busqueda));
+    }
+
+    @Test
+    void indexar_ShouldReplacePreviousWords() {
+        partidoSearchIndex.indexar(2L, "Torneo relámpago", null, "Caballito", "Juan Pérez");
+
+        assertTrue(partidoSearchIndex.buscar(porTitulo("picadito")).isEmpty());
+        assertEquals(Set.of(2L), partidoSearchIndex.buscar(porTitulo("relampago")));
+    }
+
+    @Test
+    void eliminar_ShouldRemoveFromResults() {
+        partidoSearchIndex.eliminar(1L);
+
+        assertEquals(Set.of(3L), partidoSearchIndex.buscar(porTitulo("futbol")));
+    }
+
+    @Test
+    void puedeResolver_ShouldRequireTextCriteriaAndReadyIndex() {
+        assertTrue(partidoSearchIndex.puedeResolver(porTitulo("futbol")));
+        assertFalse(partidoSearchIndex.puedeResolver(new BusquedaPartidoDTO()));
+        assertFalse(new PartidoSearchIndex().puedeResolver(porTitulo("futbol")));
+    }
+
+    private BusquedaPartidoDTO porTitulo(String titulo) {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setTitulo(titulo);
+        return busqueda;
+    }
+
+    private BusquedaPartidoDTO porUbicacion(String ubicacion) {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setUbicacion(ubicacion);
+        return busqueda;
+    }
+
+    private BusquedaPartidoDTO porCreador(String creadorNombre) {
+        BusquedaPartidoDTO busqueda = new BusquedaPartidoDTO();
+        busqueda.setCreadorNombre(creadorNombre);
+        return busqueda;
+    }
+}
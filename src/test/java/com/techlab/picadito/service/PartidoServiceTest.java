@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -47,11 +48,29 @@ class PartidoServiceTest {
     private com.techlab.picadito.alerta.AlertaService alertaService;
 
     @Mock
-    private com.techlab.picadito.calificacion.CalificacionService calificacionService;
+    private com.techlab.picadito.calificacion.CalificacionesAgregadas calificacionesAgregadas;
+
+    @Mock
+    private EstadisticasAgregadas estadisticasAgregadas;
 
     @Mock
     private com.techlab.picadito.equipo.EquipoService equipoService;
 
+    @Mock
+    private com.techlab.picadito.partido.PartidoPageAssembler partidoPageAssembler;
+
+    @Spy
+    private com.techlab.picadito.partido.PartidoMapper partidoMapper = new com.techlab.picadito.partido.PartidoMapper();
+
+    @Mock
+    private com.techlab.picadito.partido.CuposLedger cuposLedger;
+
+    @Mock
+    private com.techlab.picadito.partido.PartidoSearchIndex partidoSearchIndex;
+
+    @Mock
+    private com.techlab.picadito.sede.SedeGeoIndex sedeGeoIndex;
+
     @InjectMocks
     private com.techlab.picadito.partido.PartidoService partidoService;
 
@@ -85,6 +104,10 @@ class PartidoServiceTest {
         Page<Partido> partidosPage = new PageImpl<>(partidos, pageable, 1);
         // Mock del método findAll de JpaRepository (sin Specification)
         when(partidoRepository.findAll(pageable)).thenReturn(partidosPage);
+        PartidoResponseDTO partidoResponseDTO = new PartidoResponseDTO();
+        partidoResponseDTO.setId(1L);
+        partidoResponseDTO.setTitulo("Partido de Prueba");
+        when(partidoPageAssembler.ensamblar(partidos)).thenReturn(List.of(partidoResponseDTO));
 
         PageResponseDTO<PartidoResponseDTO> result = partidoService.obtenerTodosLosPartidos(pageable);
 
@@ -94,6 +117,7 @@ class PartidoServiceTest {
         assertEquals("Partido de Prueba", result.getContent().get(0).getTitulo());
         assertEquals(1, result.getTotalElements());
         verify(partidoRepository, times(1)).findAll(pageable);
+        verify(partidoPageAssembler, times(1)).ensamblar(partidos);
     }
 
     @Test
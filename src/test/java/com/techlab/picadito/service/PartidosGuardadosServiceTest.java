@@ -65,6 +65,7 @@ class PartidosGuardadosServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
 
         partidosGuardados = new PartidosGuardados();
         partidosGuardados.setId(1L);
@@ -141,6 +142,7 @@ class PartidosGuardadosServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(partidoRepository.findById(1L)).thenReturn(Optional.of(partido));
 
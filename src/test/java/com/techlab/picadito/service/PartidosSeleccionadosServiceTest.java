@@ -67,6 +67,7 @@ class PartidosSeleccionadosServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
 
         partidosSeleccionados = new PartidosSeleccionados();
         partidosSeleccionados.setId(1L);
@@ -147,6 +148,7 @@ class PartidosSeleccionadosServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
         when(partidosSeleccionadosRepository.findByUsuarioId(1L))
                 .thenReturn(Optional.of(partidosSeleccionados));
         when(partidoService.obtenerPartidoEntity(1L)).thenReturn(partido);
@@ -166,6 +168,7 @@ class PartidosSeleccionadosServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
         when(partidosSeleccionadosRepository.findByUsuarioId(1L))
                 .thenReturn(Optional.of(partidosSeleccionados));
         when(partidoService.obtenerPartidoEntity(1L)).thenReturn(partido);
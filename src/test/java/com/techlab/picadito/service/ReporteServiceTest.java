@@ -6,7 +6,11 @@ import com.techlab.picadito.model.Partido;
 import com.techlab.picadito.model.Reserva;
 import com.techlab.picadito.model.Usuario;
 import com.techlab.picadito.partido.PartidoRepository;
+import com.techlab.picadito.partido.PartidosPorEstado;
+import com.techlab.picadito.reserva.GastoPorUsuario;
 import com.techlab.picadito.reserva.ReservaRepository;
+import com.techlab.picadito.reserva.ReservasPorEstado;
+import com.techlab.picadito.reserva.ReservasPorUsuario;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,9 +19,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,6 +61,7 @@ class ReporteServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
         partido.setFechaCreacion(LocalDateTime.now().minusDays(15));
 
         reserva = new Reserva();
@@ -68,14 +76,17 @@ class ReporteServiceTest {
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(30);
         LocalDateTime fechaFin = LocalDateTime.now();
 
-        when(reservaRepository.findAll()).thenReturn(Arrays.asList(reserva));
+        when(reservaRepository.contarPorEstadoEntre(fechaInicio, fechaFin))
+                .thenReturn(List.of(new ReservasPorEstado(Reserva.EstadoReserva.CONFIRMADO, 1L)));
+        when(reservaRepository.sumarIngresosEntre(anyCollection(), eq(fechaInicio), eq(fechaFin))).thenReturn(3000.0);
 
         ReporteDTO result = reporteService.generarReporteVentas(fechaInicio, fechaFin);
 
         assertNotNull(result);
         assertEquals("VENTAS", result.getTipoReporte());
         assertNotNull(result.getDatos());
-        verify(reservaRepository, times(1)).findAll();
+        assertEquals(3000.0, result.getDatos().get("ingresosTotales"));
+        verify(reservaRepository, never()).findByFechaCreacionBetweenOrderByFechaCreacionDesc(any(), any());
     }
 
     @Test
@@ -83,13 +94,15 @@ class ReporteServiceTest {
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(30);
         LocalDateTime fechaFin = LocalDateTime.now();
 
-        when(reservaRepository.findAll()).thenReturn(Arrays.asList());
+        when(reservaRepository.contarPorEstadoEntre(fechaInicio, fechaFin)).thenReturn(List.of());
 
         ReporteDTO result = reporteService.generarReporteVentas(fechaInicio, fechaFin);
 
         assertNotNull(result);
         assertEquals("VENTAS", result.getTipoReporte());
         assertNotNull(result.getDatos());
+        assertEquals(0, result.getDatos().get("totalReservas"));
+        assertEquals(0.0, result.getDatos().get("ingresosTotales"));
     }
 
     @Test
@@ -97,14 +110,17 @@ class ReporteServiceTest {
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(30);
         LocalDateTime fechaFin = LocalDateTime.now();
 
-        when(partidoRepository.findAll()).thenReturn(Arrays.asList(partido));
+        when(partidoRepository.resumirPorEstadoEntre(fechaInicio, fechaFin))
+                .thenReturn(List.of(new PartidosPorEstado(EstadoPartido.DISPONIBLE, 1L, 5L, 0L)));
 
         ReporteDTO result = reporteService.generarReportePartidos(fechaInicio, fechaFin);
 
         assertNotNull(result);
         assertEquals("PARTIDOS", result.getTipoReporte());
         assertNotNull(result.getDatos());
-        verify(partidoRepository, times(1)).findAll();
+        assertEquals(1L, result.getDatos().get("partidosDisponibles"));
+        assertEquals(5.0, result.getDatos().get("promedioParticipantes"));
+        verify(partidoRepository, never()).findByFechaCreacionBetweenOrderByFechaCreacionAsc(any(), any());
     }
 
     @Test
@@ -112,13 +128,14 @@ class ReporteServiceTest {
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(30);
         LocalDateTime fechaFin = LocalDateTime.now();
 
-        when(partidoRepository.findAll()).thenReturn(Arrays.asList());
+        when(partidoRepository.resumirPorEstadoEntre(fechaInicio, fechaFin)).thenReturn(List.of());
 
         ReporteDTO result = reporteService.generarReportePartidos(fechaInicio, fechaFin);
 
         assertNotNull(result);
         assertEquals("PARTIDOS", result.getTipoReporte());
         assertNotNull(result.getDatos());
+        assertEquals(0.0, result.getDatos().get("promedioParticipantes"));
     }
 
     @Test
@@ -126,14 +143,18 @@ class ReporteServiceTest {
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(30);
         LocalDateTime fechaFin = LocalDateTime.now();
 
-        when(reservaRepository.findAll()).thenReturn(Arrays.asList(reserva));
+        when(reservaRepository.contarPorUsuarioEntre(fechaInicio, fechaFin))
+                .thenReturn(List.of(new ReservasPorUsuario(usuario.getId(), 1L)));
+        when(reservaRepository.sumarGastoPorUsuarioEntre(anyCollection(), eq(fechaInicio), eq(fechaFin)))
+                .thenReturn(List.of(new GastoPorUsuario(usuario.getId(), 3000.0)));
 
         ReporteDTO result = reporteService.generarReporteUsuarios(fechaInicio, fechaFin);
 
         assertNotNull(result);
         assertEquals("USUARIOS", result.getTipoReporte());
         assertNotNull(result.getDatos());
-        verify(reservaRepository, times(1)).findAll();
+        assertEquals(1, result.getDatos().get("usuariosActivos"));
+        assertEquals(3000.0, result.getDatos().get("promedioGasto"));
     }
 
     @Test
@@ -141,7 +162,8 @@ class ReporteServiceTest {
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(30);
         LocalDateTime fechaFin = LocalDateTime.now();
 
-        when(reservaRepository.findAll()).thenReturn(Arrays.asList());
+        when(reservaRepository.contarPorUsuarioEntre(fechaInicio, fechaFin)).thenReturn(List.of());
+        when(reservaRepository.sumarGastoPorUsuarioEntre(anyCollection(), eq(fechaInicio), eq(fechaFin))).thenReturn(List.of());
 
         ReporteDTO result = reporteService.generarReporteUsuarios(fechaInicio, fechaFin);
 
@@ -161,12 +183,18 @@ class ReporteServiceTest {
         reserva2.setEstado(Reserva.EstadoReserva.PENDIENTE);
         reserva2.setFechaCreacion(LocalDateTime.now().minusDays(10));
 
-        when(reservaRepository.findAll()).thenReturn(Arrays.asList(reserva, reserva2));
+        when(reservaRepository.contarPorEstadoEntre(fechaInicio, fechaFin)).thenReturn(List.of(
+                new ReservasPorEstado(reserva.getEstado(), 1L),
+                new ReservasPorEstado(reserva2.getEstado(), 1L)));
+        when(reservaRepository.sumarIngresosEntre(anyCollection(), eq(fechaInicio), eq(fechaFin))).thenReturn(3000.0);
 
         ReporteDTO result = reporteService.generarReporteVentas(fechaInicio, fechaFin);
 
         assertNotNull(result);
         assertNotNull(result.getDatos());
+        assertEquals(2, result.getDatos().get("totalReservas"));
+        assertEquals(1L, result.getDatos().get("reservasConfirmadas"));
+        assertEquals(3000.0, result.getDatos().get("promedioPorReserva"));
     }
 }
 
@@ -81,6 +81,7 @@ class ReservaServiceTest {
             p.setPartido(partido);
             partido.getParticipantes().add(p);
         }
+        partido.setCantidadParticipantes(partido.getParticipantes().size());
         partido.setPrecio(100.0);
         partido.setFechaHora(LocalDateTime.now().plusDays(1));
 
@@ -175,6 +176,9 @@ class ReservaServiceTest {
 
         assertNotNull(result);
         verify(reservaRepository, atLeastOnce()).save(any(Reserva.class));
+        // Los participantes y las alertas de todas las líneas se crean con una llamada cada uno
+        verify(participanteService, times(1)).inscribirParticipantesEnPartidos(anyMap());
+        verify(alertaService, times(1)).crearAlertasReservaConfirmada(1L, List.of("Partido Test"));
         verify(partidosSeleccionadosService, times(1)).vaciarPartidosSeleccionados(1L);
     }
 
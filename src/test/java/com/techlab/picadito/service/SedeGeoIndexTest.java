@@ -0,0 +1,132 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.model.Sede;
+import com.techlab.picadito.sede.SedeGeoIndex;
+import com.techlab.picadito.sede.SedeRepository;
+import com.techlab.picadito.util.GeoUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SedeGeoIndexTest {
+
+    // Obelisco, Buenos Aires
+    private static final double LATITUD_CENTRO = -34.6037;
+    private static final double LONGITUD_CENTRO = -58.3816;
+
+    @Mock
+    private SedeRepository sedeRepository;
+
+    @InjectMocks
+    private SedeGeoIndex sedeGeoIndex;
+
+    @Test
+    void buscarCercanas_ShouldReturnSedesWithinRadiusOrderedByDistance() {
+        when(sedeRepository.findByCoordenadasIsNotNull()).thenReturn(List.of(
+                crearSede(1L, "-34.5875, -58.4300"),   // Palermo, ~4,8 km
+                crearSede(2L, "-34.6090,-58.3840"),    // ~0,6 km
+                crearSede(3L, "-34.9205 -57.9536"),    // La Plata, ~52 km
+                crearSede(4L, "sin coordenadas")
+        ));
+        sedeGeoIndex.reconstruir();
+
+        Map<Long, Double> cercanas = sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 10);
+
+        assertEquals(List.of(2L, 1L), new ArrayList<>(cercanas.keySet()));
+        assertEquals(0.6, cercanas.get(2L), 0.1);
+        assertEquals(List.of(2L, 1L, 3L),
+                new ArrayList<>(sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 60).keySet()));
+    }
+
+    @Test
+    void buscarCercanas_WithLimite_ShouldKeepTheClosest() {
+        when(sedeRepository.findByCoordenadasIsNotNull()).thenReturn(List.of(
+                crearSede(1L, "-34.5875,-58.4300"),
+                crearSede(2L, "-34.6090,-58.3840"),
+                crearSede(3L, "-34.9205,-57.9536")
+        ));
+        sedeGeoIndex.reconstruir();
+
+        assertEquals(List.of(2L, 1L),
+                new ArrayList<>(sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 60, 2).keySet()));
+        assertEquals(List.of(2L, 1L, 3L),
+                new ArrayList<>(sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 60, 10).keySet()));
+    }
+
+    @Test
+    void reconstruir_ShouldFillLatitudLongitudFromCoordenadas() {
+        Sede sede = crearSede(1L, "-34.6090,-58.3840");
+        when(sedeRepository.findByCoordenadasIsNotNull()).thenReturn(List.of(sede));
+
+        sedeGeoIndex.reconstruir();
+
+        assertEquals(-34.6090, sede.getLatitud());
+        assertEquals(-58.3840, sede.getLongitud());
+    }
+
+    @Test
+    void actualizarYEliminar_ShouldChangeResults() {
+        when(sedeRepository.findByCoordenadasIsNotNull()).thenReturn(new ArrayList<>());
+        sedeGeoIndex.reconstruir();
+
+        sedeGeoIndex.actualizar(1L, -34.6090, -58.3840);
+        assertTrue(sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 1).containsKey(1L));
+
+        sedeGeoIndex.actualizar(1L, -34.9205, -57.9536);
+        assertTrue(sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 1).isEmpty());
+
+        sedeGeoIndex.eliminar(1L);
+        assertTrue(sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 100).isEmpty());
+    }
+
+    @Test
+    void buscarCercanas_ShouldMatchBruteForceOnRandomSedes() {
+        Random random = new Random(42);
+        List<Sede> sedes = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            double latitud = LATITUD_CENTRO + (random.nextDouble() - 0.5);
+            double longitud = LONGITUD_CENTRO + (random.nextDouble() - 0.5);
+            sedes.add(crearSede(id, latitud + "," + longitud));
+        }
+        when(sedeRepository.findByCoordenadasIsNotNull()).thenReturn(sedes);
+        sedeGeoIndex.reconstruir();
+
+        Map<Long, Double> cercanas = sedeGeoIndex.buscarCercanas(LATITUD_CENTRO, LONGITUD_CENTRO, 8);
+
+        long esperadas = sedes.stream()
+                .filter(sede -> GeoUtil.distanciaKm(LATITUD_CENTRO, LONGITUD_CENTRO, sede.getLatitud(), sede.getLongitud()) <= 8)
+                .count();
+        assertEquals(esperadas, cercanas.size());
+        List<Double> distancias = new ArrayList<>(cercanas.values());
+        for (int i = 1; i < distancias.size(); i++) {
+            assertTrue(distancias.get(i - 1) <= distancias.get(i));
+        }
+    }
+
+    @Test
+    void parsearCoordenadas_ShouldRejectInvalidValues() {
+        assertArrayEquals(new double[]{-34.5, -58.25}, GeoUtil.parsearCoordenadas(" -34.5 , -58.25 "));
+        assertNull(GeoUtil.parsearCoordenadas("95,10"));
+        assertNull(GeoUtil.parsearCoordenadas("10,190"));
+        assertNull(GeoUtil.parsearCoordenadas("Av. Siempre Viva 742"));
+        assertNull(GeoUtil.parsearCoordenadas(null));
+    }
+
+    private Sede crearSede(Long id, String coordenadas) {
+        Sede sede = new Sede();
+        sede.setId(id);
+        sede.setCoordenadas(coordenadas);
+        return sede;
+    }
+}
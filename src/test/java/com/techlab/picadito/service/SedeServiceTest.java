@@ -35,6 +35,9 @@ class SedeServiceTest {
     @Mock
     private PartidoRepository partidoRepository;
 
+    @Mock
+    private com.techlab.picadito.calificacion.CalificacionesAgregadas calificacionesAgregadas;
+
     @InjectMocks
     private com.techlab.picadito.sede.SedeService sedeService;
 
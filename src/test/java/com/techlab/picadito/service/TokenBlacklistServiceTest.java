@@ -0,0 +1,118 @@
+package com.techlab.picadito.service;
+
+import com.techlab.picadito.security.TokenBlacklistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBlacklistServiceTest {
+
+    private RelojManual reloj;
+    private TokenBlacklistService blacklist;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new RelojManual();
+        blacklist = new TokenBlacklistService(Duration.ofHours(2), Duration.ofMinutes(10), 1000, reloj);
+    }
+
+    @Test
+    void revokeToken_ShouldMarkOnlyThatJti() {
+        blacklist.revokeToken("jti-1", reloj.instant().plus(Duration.ofHours(1)));
+
+        assertTrue(blacklist.isTokenRevoked("jti-1"));
+        assertFalse(blacklist.isTokenRevoked("jti-2"));
+        assertFalse(blacklist.isTokenRevoked(null));
+        assertEquals(1, blacklist.getRevokedTokenCount());
+    }
+
+    @Test
+    void revokeToken_AlreadyExpired_ShouldNotBeStored() {
+        blacklist.revokeToken("jti-1", reloj.instant().minusSeconds(1));
+
+        assertEquals(0, blacklist.getRevokedTokenCount());
+    }
+
+    @Test
+    void cleanup_ShouldDropWholeBucketsOnceTheirTokensExpired() {
+        blacklist.revokeToken("corto", reloj.instant().plus(Duration.ofMinutes(15)));
+        blacklist.revokeToken("largo", reloj.instant().plus(Duration.ofMinutes(90)));
+
+        reloj.avanzar(Duration.ofMinutes(10));
+        assertEquals(0, blacklist.cleanup());
+
+        reloj.avanzar(Duration.ofMinutes(20));
+        assertEquals(1, blacklist.cleanup());
+        assertFalse(blacklist.isTokenRevoked("corto"));
+        assertTrue(blacklist.isTokenRevoked("largo"));
+
+        // El bucket de "largo" termina después de su expiración
+        reloj.avanzar(Duration.ofMinutes(60));
+        assertEquals(0, blacklist.cleanup());
+        reloj.avanzar(Duration.ofMinutes(10));
+        assertEquals(1, blacklist.cleanup());
+        assertEquals(0, blacklist.getRevokedTokenCount());
+    }
+
+    @Test
+    void revokeToken_BeyondWheelHorizon_ShouldBeKeptUntilItExpires() {
+        blacklist.revokeToken("muy-largo", reloj.instant().plus(Duration.ofHours(5)));
+
+        for (int i = 0; i < 29; i++) {
+            reloj.avanzar(Duration.ofMinutes(10));
+            blacklist.cleanup();
+            assertTrue(blacklist.isTokenRevoked("muy-largo"), "revocado hasta su expiración");
+        }
+        reloj.avanzar(Duration.ofMinutes(20));
+
+        assertEquals(1, blacklist.cleanup());
+        assertFalse(blacklist.isTokenRevoked("muy-largo"));
+    }
+
+    @Test
+    void revokeToken_BeyondBloomCapacity_ShouldKeepAllRevoked() {
+        TokenBlacklistService chica = new TokenBlacklistService(Duration.ofHours(2), Duration.ofMinutes(10), 8, reloj);
+        for (int i = 0; i < 500; i++) {
+            chica.revokeToken("jti-" + i, reloj.instant().plus(Duration.ofMinutes(30 + i % 60)));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(chica.isTokenRevoked("jti-" + i));
+        }
+        int ajenosRevocados = 0;
+        for (int i = 0; i < 10_000; i++) {
+            ajenosRevocados += chica.isTokenRevoked("otro-" + i) ? 1 : 0;
+        }
+        assertEquals(0, ajenosRevocados);
+    }
+
+    private static final class RelojManual extends Clock {
+        private Instant ahora = Instant.parse("2025-01-01T00:03:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}